@@ -653,7 +653,7 @@ TEXT
 // Encoding Type Keywords
 
 ENCODING_VALUE
-    : DICTIONARY | DIFF | GORILLA | PLAIN | REGULAR | RLE | TS_2DIFF | ZIGZAG | FREQ
+    : DICTIONARY | DIFF | GORILLA | PLAIN | REGULAR | RLE | TS_2DIFF | ZIGZAG | FREQ | CHIMP
     ;
 
 DICTIONARY
@@ -692,11 +692,15 @@ FREQ
     : F R E Q
     ;
 
+CHIMP
+    : C H I M P
+    ;
+
 
 // Compressor Type Keywords
 
 COMPRESSOR_VALUE
-    : GZIP | LZ4 | SNAPPY | UNCOMPRESSED
+    : GZIP | LZ4 | SNAPPY | UNCOMPRESSED | ZSTD
     ;
 
 GZIP
@@ -715,6 +719,10 @@ UNCOMPRESSED
     : U N C O M P R E S S E D
     ;
 
+ZSTD
+    : Z S T D
+    ;
+
 
 // Privileges Keywords
 
@@ -94,6 +94,7 @@ public class IoTDBDatabaseMetadata implements DatabaseMetaData {
       "CONFIGURATION",
       "COMPRESSOR",
       "CHILD",
+      "CHIMP",
       "COUNT",
       "COMPRESSION",
       "CLEAR",
@@ -215,7 +216,8 @@ public class IoTDBDatabaseMetadata implements DatabaseMetaData {
       "VERSION",
       "WHERE",
       "WITH",
-      "WATERMARK_EMBEDDING"
+      "WATERMARK_EMBEDDING",
+      "ZSTD"
     };
     String[] sql92Keywords = {
       "ABSOLUTE", "EXEC", "OVERLAPS", "ACTION", "EXECUTE", "PAD", "ADA", "EXISTS", "PARTIAL", "ADD",
@@ -50,9 +50,12 @@ public enum ThreadName {
   TIME_COST_STATISTIC("TIME_COST_STATISTIC"),
   QUERY_SERVICE("Query"),
   SUB_RAW_QUERY_SERVICE("Sub_RawQuery"),
+  METADATA_PREFETCH("Metadata-Prefetch"),
   INSERTION_SERVICE("MultithreadingInsertionPool"),
   WINDOW_EVALUATION_SERVICE("WindowEvaluationTaskPoolManager"),
   TTL_CHECK_SERVICE("TTL-CHECK"),
+  STORAGE_TIER_MIGRATION_SERVICE("Storage-Tier-Migration"),
+  ID_TABLE_LOG_FLUSH("IDTable-Log-Flush"),
   TIMED_FlUSH_SEQ_MEMTABLE("Timed-Flush-Seq-Memtable"),
   TIMED_FlUSH_UNSEQ_MEMTABLE("Timed-Flush-Unseq-Memtable"),
   SETTLE_SERVICE("Settle"),
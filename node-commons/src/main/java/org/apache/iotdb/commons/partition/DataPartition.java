@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -69,6 +70,22 @@ public class DataPartition {
     // TODO: (xingtanzjr) the timePartitionIdList is ignored
     return dataPartitionMap.get(storageGroup).get(seriesPartitionSlot).values().stream()
         .flatMap(Collection::stream)
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Get the TimePartitionSlots of the device which are stored in the given region, ordered by their
+   * start time.
+   */
+  public List<TimePartitionSlot> getTimePartitionSlots(
+      String deviceName, RegionReplicaSet regionReplicaSet) {
+    String storageGroup = getStorageGroupByDevice(deviceName);
+    SeriesPartitionSlot seriesPartitionSlot = calculateDeviceGroupId(deviceName);
+    return dataPartitionMap.get(storageGroup).get(seriesPartitionSlot).entrySet().stream()
+        .filter(entry -> entry.getValue().contains(regionReplicaSet))
+        .map(Map.Entry::getKey)
+        .sorted(Comparator.comparingLong(TimePartitionSlot::getStartTime))
         .collect(Collectors.toList());
   }
 
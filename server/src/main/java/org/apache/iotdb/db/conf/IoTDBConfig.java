@@ -45,8 +45,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -163,6 +166,13 @@ public class IoTDBConfig {
   /** Duration a wal flush operation will wait before calling fsync. Unit: millisecond */
   private long fsyncWalDelayInMs = 10;
 
+  /**
+   * Whether writer threads serialize their wal entries in parallel and the fsync batch window
+   * adapts to the observed fsync latency and write rate. When enabled, fsyncWalDelayInMs is the
+   * upper bound of the window.
+   */
+  private boolean enableWalGroupCommit = false;
+
   /** Max number of wal nodes, each node corresponds to one wal directory */
   private int maxWalNodesNum = 0;
 
@@ -259,6 +269,43 @@ public class IoTDBConfig {
   /** Strategy of multiple directories. */
   private String multiDirStrategyClassName = null;
 
+  /**
+   * Names of the storage tiers. The first one names the tier of dataDirs, the others name the tiers
+   * of storageTierDataDirs in order.
+   */
+  private String[] storageTierNames = {};
+
+  /**
+   * Data directories of the colder storage tiers, from hot to cold. Sealed TsFiles are migrated
+   * here from dataDirs by the tier migration policies. Empty means tiered storage is disabled.
+   */
+  private String[][] storageTierDataDirs = {};
+
+  /**
+   * A sealed TsFile whose newest data is older than the i-th value is migrated into the i-th tier
+   * of storageTierDataDirs. Non-positive values disable the age policy of the tier.
+   */
+  private long[] storageTierFileAgeInMs = {};
+
+  /**
+   * When the TsFiles of a data region in the tier above the i-th tier of storageTierDataDirs occupy
+   * more than the i-th value, the oldest ones are migrated down until they fit. Non-positive values
+   * disable the size policy of the tier.
+   */
+  private long[] storageTierSizeThresholdInByte = {};
+
+  /** Storage group specific overrides of storageTierFileAgeInMs. */
+  private Map<String, long[]> storageTierFileAgeInMsOfStorageGroup = Collections.emptyMap();
+
+  /** Storage group specific overrides of storageTierSizeThresholdInByte. */
+  private Map<String, long[]> storageTierSizeThresholdInByteOfStorageGroup = Collections.emptyMap();
+
+  /** The max bytes per second copied by tier migration, in MB. 0 means no limit. */
+  private int storageTierMigrationThroughputMbPerSec = 64;
+
+  /** How often the tier migration policies are evaluated, in ms. */
+  private long storageTierMigrationCheckIntervalInMs = 600_000L;
+
   /** Consensus directory. */
   private String consensusDir = DEFAULT_BASE_DIR + File.separator + "consensus";
 
@@ -282,6 +329,18 @@ public class IoTDBConfig {
   /** Blocking queue size for read task in raw data query. */
   private int rawQueryBlockingQueueCapacity = 5;
 
+  /**
+   * The max number of time splits a series scan on one data region is divided into, each of which
+   * runs in its own fragment instance. When <= 0, use CPU core number.
+   */
+  private int maxSeriesScanParallelism = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * When some memory reservations of the query memory pool are waiting and no memory has been freed
+   * for this long, the query reserving the most memory is aborted.
+   */
+  private long queryMemoryBlockedTimeoutInMs = 30_000L;
+
   /** How many threads can concurrently evaluate windows. When <= 0, use CPU core number. */
   private int concurrentWindowEvaluationThread = Runtime.getRuntime().availableProcessors();
 
@@ -345,6 +404,12 @@ public class IoTDBConfig {
   /** When average series point number reaches this, flush the memtable to disk */
   private int avgSeriesPointNumberThreshold = 10000;
 
+  /**
+   * Whether writers to different devices of one data region can insert into the working memtable in
+   * parallel. Inserts of the same device are still serialized by a striped device lock.
+   */
+  private boolean enableConcurrentMemtableWrite = false;
+
   /** Enable inner space compaction for sequence files */
   private boolean enableSeqSpaceCompaction = true;
 
@@ -434,6 +499,18 @@ public class IoTDBConfig {
   /** whether to cache meta data(ChunkMetaData and TsFileMetaData) or not. */
   private boolean metaDataCacheEnable = true;
 
+  /**
+   * Whether to load the TimeseriesMetadata of all the series of a query into the cache before the
+   * series readers ask for them, reading the metadata of each file with few sequential reads.
+   */
+  private boolean enableMetadataPrefetch = false;
+
+  /** How many threads can prefetch metadata concurrently. When <= 0, use CPU core number. */
+  private int metadataPrefetchThreadCount = 2;
+
+  /** Metadata ranges of one file closer than this are read in one read when prefetching. */
+  private long metadataPrefetchMaxGapInByte = 64 * 1024L;
+
   /** Memory allocated for bloomFilter cache in read process */
   private long allocateMemoryForBloomFilterCache = allocateMemoryForRead / 1001;
 
@@ -443,6 +520,12 @@ public class IoTDBConfig {
   /** Memory allocated for chunk cache in read process */
   private long allocateMemoryForChunkCache = allocateMemoryForRead * 100 / 1001;
 
+  /**
+   * Direct memory used as the second tier of the chunk cache, holding chunks evicted from the
+   * on-heap ChunkCache. 0 disables the off-heap tier.
+   */
+  private long chunkOffHeapCacheSizeInByte = 0;
+
   /** Whether to enable Last cache */
   private boolean lastCacheEnable = true;
 
@@ -587,6 +670,18 @@ public class IoTDBConfig {
   /** The limit of compaction merge can reach per second */
   private int compactionWriteThroughputMbPerSec = 16;
 
+  /**
+   * Half life of the read amplification statistics of time partitions, which decide the priority of
+   * compaction tasks. Unit: millisecond.
+   */
+  private long compactionReadAmplificationHalfLifeInMs = 600_000L;
+
+  /**
+   * When the recent flush or wal fsync latency exceeds this multiple of its long-term average, the
+   * compaction write throughput is lowered proportionally. Set to 0 to disable it.
+   */
+  private double compactionWritePressureThreshold = 1.5;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
@@ -875,6 +970,12 @@ public class IoTDBConfig {
   /** Thread keep alive time in ms of data block manager. */
   private int dataBlockManagerKeepAliveTimeInMs = 1000;
 
+  /** Whether to encode the columns of data blocks compactly before shuffling them. */
+  private boolean enableDataBlockColumnEncoding = true;
+
+  /** Whether to compress data blocks with LZ4 before shuffling them. */
+  private boolean enableDataBlockCompression = false;
+
   public float getUdfMemoryBudgetInMB() {
     return udfMemoryBudgetInMB;
   }
@@ -996,6 +1097,11 @@ public class IoTDBConfig {
       for (int i = 0; i < dataDirs.length; i++) {
         dataDirs[i] = addHomeDir(dataDirs[i]);
       }
+      for (String[] tierDataDirs : storageTierDataDirs) {
+        for (int i = 0; i < tierDataDirs.length; i++) {
+          tierDataDirs[i] = addHomeDir(tierDataDirs[i]);
+        }
+      }
     }
   }
 
@@ -1064,6 +1170,88 @@ public class IoTDBConfig {
     this.dataDirs = dataDirs;
   }
 
+  /** @return dataDirs followed by the data directories of all the colder storage tiers */
+  public String[] getAllDataDirs() {
+    List<String> allDataDirs = new ArrayList<>(Arrays.asList(dataDirs));
+    for (String[] tierDataDirs : storageTierDataDirs) {
+      allDataDirs.addAll(Arrays.asList(tierDataDirs));
+    }
+    return allDataDirs.toArray(new String[0]);
+  }
+
+  public String[] getStorageTierNames() {
+    return storageTierNames;
+  }
+
+  void setStorageTierNames(String[] storageTierNames) {
+    this.storageTierNames = storageTierNames;
+  }
+
+  /** @return the name of the given tier, 0 stands for the tier of dataDirs */
+  public String getStorageTierName(int tier) {
+    return tier < storageTierNames.length ? storageTierNames[tier] : "tier" + tier;
+  }
+
+  public String[][] getStorageTierDataDirs() {
+    return storageTierDataDirs;
+  }
+
+  public void setStorageTierDataDirs(String[][] storageTierDataDirs) {
+    this.storageTierDataDirs = storageTierDataDirs;
+  }
+
+  public long[] getStorageTierFileAgeInMs() {
+    return storageTierFileAgeInMs;
+  }
+
+  public void setStorageTierFileAgeInMs(long[] storageTierFileAgeInMs) {
+    this.storageTierFileAgeInMs = storageTierFileAgeInMs;
+  }
+
+  public long[] getStorageTierSizeThresholdInByte() {
+    return storageTierSizeThresholdInByte;
+  }
+
+  public void setStorageTierSizeThresholdInByte(long[] storageTierSizeThresholdInByte) {
+    this.storageTierSizeThresholdInByte = storageTierSizeThresholdInByte;
+  }
+
+  public Map<String, long[]> getStorageTierFileAgeInMsOfStorageGroup() {
+    return storageTierFileAgeInMsOfStorageGroup;
+  }
+
+  public void setStorageTierFileAgeInMsOfStorageGroup(
+      Map<String, long[]> storageTierFileAgeInMsOfStorageGroup) {
+    this.storageTierFileAgeInMsOfStorageGroup = storageTierFileAgeInMsOfStorageGroup;
+  }
+
+  public Map<String, long[]> getStorageTierSizeThresholdInByteOfStorageGroup() {
+    return storageTierSizeThresholdInByteOfStorageGroup;
+  }
+
+  public void setStorageTierSizeThresholdInByteOfStorageGroup(
+      Map<String, long[]> storageTierSizeThresholdInByteOfStorageGroup) {
+    this.storageTierSizeThresholdInByteOfStorageGroup =
+        storageTierSizeThresholdInByteOfStorageGroup;
+  }
+
+  public int getStorageTierMigrationThroughputMbPerSec() {
+    return storageTierMigrationThroughputMbPerSec;
+  }
+
+  public void setStorageTierMigrationThroughputMbPerSec(
+      int storageTierMigrationThroughputMbPerSec) {
+    this.storageTierMigrationThroughputMbPerSec = storageTierMigrationThroughputMbPerSec;
+  }
+
+  public long getStorageTierMigrationCheckIntervalInMs() {
+    return storageTierMigrationCheckIntervalInMs;
+  }
+
+  public void setStorageTierMigrationCheckIntervalInMs(long storageTierMigrationCheckIntervalInMs) {
+    this.storageTierMigrationCheckIntervalInMs = storageTierMigrationCheckIntervalInMs;
+  }
+
   public String getRpcAddress() {
     return rpcAddress;
   }
@@ -1240,6 +1428,22 @@ public class IoTDBConfig {
     this.concurrentSubRawQueryThread = concurrentSubRawQueryThread;
   }
 
+  public int getMaxSeriesScanParallelism() {
+    return maxSeriesScanParallelism;
+  }
+
+  public void setMaxSeriesScanParallelism(int maxSeriesScanParallelism) {
+    this.maxSeriesScanParallelism = maxSeriesScanParallelism;
+  }
+
+  public long getQueryMemoryBlockedTimeoutInMs() {
+    return queryMemoryBlockedTimeoutInMs;
+  }
+
+  public void setQueryMemoryBlockedTimeoutInMs(long queryMemoryBlockedTimeoutInMs) {
+    this.queryMemoryBlockedTimeoutInMs = queryMemoryBlockedTimeoutInMs;
+  }
+
   public int getRawQueryBlockingQueueCapacity() {
     return rawQueryBlockingQueueCapacity;
   }
@@ -1418,6 +1622,14 @@ public class IoTDBConfig {
     this.fsyncWalDelayInMs = fsyncWalDelayInMs;
   }
 
+  public boolean isEnableWalGroupCommit() {
+    return enableWalGroupCommit;
+  }
+
+  public void setEnableWalGroupCommit(boolean enableWalGroupCommit) {
+    this.enableWalGroupCommit = enableWalGroupCommit;
+  }
+
   public int getMaxWalNodesNum() {
     return maxWalNodesNum;
   }
@@ -1684,6 +1896,23 @@ public class IoTDBConfig {
     this.compactionWriteThroughputMbPerSec = compactionWriteThroughputMbPerSec;
   }
 
+  public long getCompactionReadAmplificationHalfLifeInMs() {
+    return compactionReadAmplificationHalfLifeInMs;
+  }
+
+  public void setCompactionReadAmplificationHalfLifeInMs(
+      long compactionReadAmplificationHalfLifeInMs) {
+    this.compactionReadAmplificationHalfLifeInMs = compactionReadAmplificationHalfLifeInMs;
+  }
+
+  public double getCompactionWritePressureThreshold() {
+    return compactionWritePressureThreshold;
+  }
+
+  public void setCompactionWritePressureThreshold(double compactionWritePressureThreshold) {
+    this.compactionWritePressureThreshold = compactionWritePressureThreshold;
+  }
+
   public boolean isEnableMemControl() {
     return enableMemControl;
   }
@@ -1756,6 +1985,14 @@ public class IoTDBConfig {
     this.avgSeriesPointNumberThreshold = avgSeriesPointNumberThreshold;
   }
 
+  public boolean isEnableConcurrentMemtableWrite() {
+    return enableConcurrentMemtableWrite;
+  }
+
+  public void setEnableConcurrentMemtableWrite(boolean enableConcurrentMemtableWrite) {
+    this.enableConcurrentMemtableWrite = enableConcurrentMemtableWrite;
+  }
+
   public long getCrossCompactionFileSelectionTimeBudget() {
     return crossCompactionFileSelectionTimeBudget;
   }
@@ -1780,6 +2017,30 @@ public class IoTDBConfig {
     this.metaDataCacheEnable = metaDataCacheEnable;
   }
 
+  public boolean isEnableMetadataPrefetch() {
+    return enableMetadataPrefetch;
+  }
+
+  public void setEnableMetadataPrefetch(boolean enableMetadataPrefetch) {
+    this.enableMetadataPrefetch = enableMetadataPrefetch;
+  }
+
+  public int getMetadataPrefetchThreadCount() {
+    return metadataPrefetchThreadCount;
+  }
+
+  public void setMetadataPrefetchThreadCount(int metadataPrefetchThreadCount) {
+    this.metadataPrefetchThreadCount = metadataPrefetchThreadCount;
+  }
+
+  public long getMetadataPrefetchMaxGapInByte() {
+    return metadataPrefetchMaxGapInByte;
+  }
+
+  public void setMetadataPrefetchMaxGapInByte(long metadataPrefetchMaxGapInByte) {
+    this.metadataPrefetchMaxGapInByte = metadataPrefetchMaxGapInByte;
+  }
+
   public long getAllocateMemoryForBloomFilterCache() {
     return allocateMemoryForBloomFilterCache;
   }
@@ -1805,6 +2066,14 @@ public class IoTDBConfig {
     this.allocateMemoryForChunkCache = allocateMemoryForChunkCache;
   }
 
+  public long getChunkOffHeapCacheSizeInByte() {
+    return chunkOffHeapCacheSizeInByte;
+  }
+
+  public void setChunkOffHeapCacheSizeInByte(long chunkOffHeapCacheSizeInByte) {
+    this.chunkOffHeapCacheSizeInByte = chunkOffHeapCacheSizeInByte;
+  }
+
   public boolean isLastCacheEnabled() {
     return lastCacheEnable;
   }
@@ -2769,6 +3038,22 @@ public class IoTDBConfig {
     this.dataBlockManagerKeepAliveTimeInMs = dataBlockManagerKeepAliveTimeInMs;
   }
 
+  public boolean isEnableDataBlockColumnEncoding() {
+    return enableDataBlockColumnEncoding;
+  }
+
+  public void setEnableDataBlockColumnEncoding(boolean enableDataBlockColumnEncoding) {
+    this.enableDataBlockColumnEncoding = enableDataBlockColumnEncoding;
+  }
+
+  public boolean isEnableDataBlockCompression() {
+    return enableDataBlockCompression;
+  }
+
+  public void setEnableDataBlockCompression(boolean enableDataBlockCompression) {
+    this.enableDataBlockCompression = enableDataBlockCompression;
+  }
+
   public boolean isMppMode() {
     return mppMode;
   }
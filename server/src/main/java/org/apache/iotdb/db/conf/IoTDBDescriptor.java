@@ -57,7 +57,9 @@ import java.net.URL;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 public class IoTDBDescriptor {
@@ -218,6 +220,26 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "meta_data_cache_enable", Boolean.toString(conf.isMetaDataCacheEnable()))));
 
+      conf.setEnableMetadataPrefetch(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_metadata_prefetch", Boolean.toString(conf.isEnableMetadataPrefetch()))));
+
+      conf.setMetadataPrefetchThreadCount(
+          Integer.parseInt(
+              properties.getProperty(
+                  "metadata_prefetch_thread_count",
+                  Integer.toString(conf.getMetadataPrefetchThreadCount()))));
+      if (conf.getMetadataPrefetchThreadCount() <= 0) {
+        conf.setMetadataPrefetchThreadCount(Runtime.getRuntime().availableProcessors());
+      }
+
+      conf.setMetadataPrefetchMaxGapInByte(
+          Long.parseLong(
+              properties.getProperty(
+                  "metadata_prefetch_max_gap_in_byte",
+                  Long.toString(conf.getMetadataPrefetchMaxGapInByte()))));
+
       conf.setEnableLastCache(
           Boolean.parseBoolean(
               properties.getProperty(
@@ -248,6 +270,8 @@ public class IoTDBDescriptor {
 
       conf.setDataDirs(properties.getProperty("data_dirs", conf.getDataDirs()[0]).split(","));
 
+      loadStorageTierProps(properties);
+
       conf.setSyncDir(properties.getProperty("sync_dir", conf.getSyncDir()));
 
       conf.setConsensusDir(properties.getProperty("consensus_dir", conf.getConsensusDir()));
@@ -315,6 +339,12 @@ public class IoTDBDescriptor {
                   "avg_series_point_number_threshold",
                   Integer.toString(conf.getAvgSeriesPointNumberThreshold()))));
 
+      conf.setEnableConcurrentMemtableWrite(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_concurrent_memtable_write",
+                  Boolean.toString(conf.isEnableConcurrentMemtableWrite()))));
+
       conf.setCheckPeriodWhenInsertBlocked(
           Integer.parseInt(
               properties.getProperty(
@@ -480,6 +510,22 @@ public class IoTDBDescriptor {
         conf.setConcurrentSubRawQueryThread(Runtime.getRuntime().availableProcessors());
       }
 
+      conf.setMaxSeriesScanParallelism(
+          Integer.parseInt(
+              properties.getProperty(
+                  "max_series_scan_parallelism",
+                  Integer.toString(conf.getMaxSeriesScanParallelism()))));
+
+      if (conf.getMaxSeriesScanParallelism() <= 0) {
+        conf.setMaxSeriesScanParallelism(Runtime.getRuntime().availableProcessors());
+      }
+
+      conf.setQueryMemoryBlockedTimeoutInMs(
+          Long.parseLong(
+              properties.getProperty(
+                  "query_memory_blocked_timeout_in_ms",
+                  Long.toString(conf.getQueryMemoryBlockedTimeoutInMs()))));
+
       conf.setRawQueryBlockingQueueCapacity(
           Integer.parseInt(
               properties.getProperty(
@@ -580,6 +626,16 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "compaction_write_throughput_mb_per_sec",
                   Integer.toString(conf.getCompactionWriteThroughputMbPerSec()))));
+      conf.setCompactionReadAmplificationHalfLifeInMs(
+          Long.parseLong(
+              properties.getProperty(
+                  "compaction_read_amplification_half_life_in_ms",
+                  Long.toString(conf.getCompactionReadAmplificationHalfLifeInMs()))));
+      conf.setCompactionWritePressureThreshold(
+          Double.parseDouble(
+              properties.getProperty(
+                  "compaction_write_pressure_threshold",
+                  Double.toString(conf.getCompactionWritePressureThreshold()))));
 
       conf.setEnablePartialInsert(
           Boolean.parseBoolean(
@@ -957,6 +1013,11 @@ public class IoTDBDescriptor {
       conf.setFsyncWalDelayInMs(fsyncWalDelayInMs);
     }
 
+    conf.setEnableWalGroupCommit(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_wal_group_commit", Boolean.toString(conf.isEnableWalGroupCommit()))));
+
     int maxWalNodesNum =
         Integer.parseInt(
             properties.getProperty(
@@ -1155,6 +1216,21 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "compressor",
                 TSFileDescriptor.getInstance().getConfig().getCompressor().toString()));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setZstdLevel(
+            Integer.parseInt(
+                properties.getProperty(
+                    "zstd_level",
+                    Integer.toString(TSFileDescriptor.getInstance().getConfig().getZstdLevel()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setEnableMmapRead(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "enable_mmap_read",
+                    Boolean.toString(
+                        TSFileDescriptor.getInstance().getConfig().isEnableMmapRead()))));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setMaxDegreeOfIndexNode(
@@ -1163,6 +1239,34 @@ public class IoTDBDescriptor {
                     "max_degree_of_index_node",
                     Integer.toString(
                         TSFileDescriptor.getInstance().getConfig().getMaxDegreeOfIndexNode()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setEnableValueIndex(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "enable_value_index",
+                    Boolean.toString(
+                        TSFileDescriptor.getInstance().getConfig().isEnableValueIndex()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setValueIndexDistinctValueThreshold(
+            Integer.parseInt(
+                properties.getProperty(
+                    "value_index_distinct_value_threshold",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance()
+                            .getConfig()
+                            .getValueIndexDistinctValueThreshold()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setValueIndexMaxDistinctValueNum(
+            Integer.parseInt(
+                properties.getProperty(
+                    "value_index_max_distinct_value_num",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance()
+                            .getConfig()
+                            .getValueIndexMaxDistinctValueNum()))));
   }
 
   // Mqtt related
@@ -1257,6 +1361,81 @@ public class IoTDBDescriptor {
     }
   }
 
+  private void loadStorageTierProps(Properties properties) {
+    String tierNames = properties.getProperty("storage_tier_names", "").trim();
+    if (!tierNames.isEmpty()) {
+      conf.setStorageTierNames(tierNames.split(","));
+    }
+
+    String tierDataDirs = properties.getProperty("storage_tier_data_dirs", "").trim();
+    if (!tierDataDirs.isEmpty()) {
+      String[] tiers = tierDataDirs.split(";");
+      String[][] storageTierDataDirs = new String[tiers.length][];
+      for (int i = 0; i < tiers.length; i++) {
+        storageTierDataDirs[i] = tiers[i].trim().split(",");
+      }
+      conf.setStorageTierDataDirs(storageTierDataDirs);
+    }
+
+    String fileAge = properties.getProperty("storage_tier_file_age_in_ms", "").trim();
+    if (!fileAge.isEmpty()) {
+      conf.setStorageTierFileAgeInMs(parseStorageTierValues(fileAge));
+    }
+    String sizeThreshold = properties.getProperty("storage_tier_size_threshold_in_byte", "").trim();
+    if (!sizeThreshold.isEmpty()) {
+      conf.setStorageTierSizeThresholdInByte(parseStorageTierValues(sizeThreshold));
+    }
+    conf.setStorageTierFileAgeInMsOfStorageGroup(
+        parseStorageTierValuesOfStorageGroup(
+            properties.getProperty("storage_tier_file_age_in_ms_of_storage_group", "")));
+    conf.setStorageTierSizeThresholdInByteOfStorageGroup(
+        parseStorageTierValuesOfStorageGroup(
+            properties.getProperty("storage_tier_size_threshold_in_byte_of_storage_group", "")));
+
+    conf.setStorageTierMigrationThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "storage_tier_migration_throughput_mb_per_sec",
+                Integer.toString(conf.getStorageTierMigrationThroughputMbPerSec()))));
+    long migrationCheckInterval =
+        Long.parseLong(
+            properties.getProperty(
+                "storage_tier_migration_check_interval_in_ms",
+                Long.toString(conf.getStorageTierMigrationCheckIntervalInMs())));
+    if (migrationCheckInterval > 0) {
+      conf.setStorageTierMigrationCheckIntervalInMs(migrationCheckInterval);
+    }
+  }
+
+  /** parse a comma separated list of policy values, one for each colder storage tier */
+  private long[] parseStorageTierValues(String values) {
+    String[] split = values.split(",");
+    long[] result = new long[split.length];
+    for (int i = 0; i < split.length; i++) {
+      result[i] = Long.parseLong(split[i].trim());
+    }
+    return result;
+  }
+
+  /** parse storage group specific policy values like "root.sg1:1000,2000;root.sg2:3000" */
+  private Map<String, long[]> parseStorageTierValuesOfStorageGroup(String values) {
+    Map<String, long[]> result = new HashMap<>();
+    for (String storageGroupValues : values.trim().split(";")) {
+      if (storageGroupValues.trim().isEmpty()) {
+        continue;
+      }
+      int separatorIndex = storageGroupValues.lastIndexOf(':');
+      if (separatorIndex < 0) {
+        logger.warn("Ignore illegal storage tier policy {}", storageGroupValues);
+        continue;
+      }
+      result.put(
+          storageGroupValues.substring(0, separatorIndex).trim(),
+          parseStorageTierValues(storageGroupValues.substring(separatorIndex + 1)));
+    }
+    return result;
+  }
+
   public void loadHotModifiedProps(Properties properties) throws QueryProcessException {
     try {
       // update data dirs
@@ -1415,6 +1594,12 @@ public class IoTDBDescriptor {
       return;
     }
 
+    conf.setChunkOffHeapCacheSizeInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "chunk_off_heap_cache_size_in_byte",
+                Long.toString(conf.getChunkOffHeapCacheSizeInByte()))));
+
     String queryMemoryAllocateProportion =
         properties.getProperty("chunk_timeseriesmeta_free_memory_proportion");
     if (queryMemoryAllocateProportion != null) {
@@ -1571,6 +1756,16 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "data_block_manager_keep_alive_time_in_ms",
                 Integer.toString(conf.getDataBlockManagerKeepAliveTimeInMs()))));
+    conf.setEnableDataBlockColumnEncoding(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_data_block_column_encoding",
+                Boolean.toString(conf.isEnableDataBlockColumnEncoding()))));
+    conf.setEnableDataBlockCompression(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_data_block_compression",
+                Boolean.toString(conf.isEnableDataBlockCompression()))));
   }
 
   /** Get default encode algorithm by data type */
@@ -19,8 +19,10 @@
 package org.apache.iotdb.db.conf.directories;
 
 import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.strategy.DirectoryStrategy;
+import org.apache.iotdb.db.conf.directories.strategy.DirectoryStrategyType;
 import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
 import org.apache.iotdb.db.exception.LoadConfigurationException;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
@@ -43,6 +45,16 @@ public class DirectoryManager {
   private DirectoryStrategy sequenceStrategy;
   private DirectoryStrategy unsequenceStrategy;
 
+  /**
+   * Folders of the colder storage tiers, the i-th element belongs to tier i + 1. New files are
+   * never allocated here, they only receive the TsFiles migrated from the upper tiers.
+   */
+  private final List<List<String>> tierSequenceFileFolders = new ArrayList<>();
+
+  private final List<List<String>> tierUnsequenceFileFolders = new ArrayList<>();
+  private final List<FolderManager> tierSequenceFolderManagers = new ArrayList<>();
+  private final List<FolderManager> tierUnsequenceFolderManagers = new ArrayList<>();
+
   private DirectoryManager() {
     sequenceFileFolders =
         new ArrayList<>(Arrays.asList(IoTDBDescriptor.getInstance().getConfig().getDataDirs()));
@@ -73,6 +85,46 @@ public class DirectoryManager {
     } catch (Exception e) {
       logger.error("Can't find strategy {} for mult-directories.", strategyName, e);
     }
+
+    initStorageTiers();
+  }
+
+  private void initStorageTiers() {
+    for (String[] tierDataDirs :
+        IoTDBDescriptor.getInstance().getConfig().getStorageTierDataDirs()) {
+      List<String> sequenceFolders = new ArrayList<>();
+      List<String> unsequenceFolders = new ArrayList<>();
+      for (String dataDir : tierDataDirs) {
+        sequenceFolders.add(dataDir + File.separator + IoTDBConstant.SEQUENCE_FLODER_NAME);
+        unsequenceFolders.add(dataDir + File.separator + IoTDBConstant.UNSEQUENCE_FLODER_NAME);
+      }
+      mkDataDirs(sequenceFolders);
+      mkDataDirs(unsequenceFolders);
+      tierSequenceFileFolders.add(sequenceFolders);
+      tierUnsequenceFileFolders.add(unsequenceFolders);
+      try {
+        tierSequenceFolderManagers.add(
+            new FolderManager(
+                sequenceFolders, DirectoryStrategyType.MAX_DISK_USABLE_SPACE_FIRST_STRATEGY));
+        tierUnsequenceFolderManagers.add(
+            new FolderManager(
+                unsequenceFolders, DirectoryStrategyType.MAX_DISK_USABLE_SPACE_FIRST_STRATEGY));
+      } catch (DiskSpaceInsufficientException e) {
+        logger.error("All disks of storage tier {} are full.", tierSequenceFileFolders.size(), e);
+        tierSequenceFolderManagers.add(null);
+        tierUnsequenceFolderManagers.add(null);
+      }
+    }
+  }
+
+  /** reload the folders of the colder storage tiers after storage_tier_data_dirs is changed */
+  @TestOnly
+  public void resetStorageTiers() {
+    tierSequenceFileFolders.clear();
+    tierUnsequenceFileFolders.clear();
+    tierSequenceFolderManagers.clear();
+    tierUnsequenceFolderManagers.clear();
+    initStorageTiers();
   }
 
   public void updateFileFolders() throws LoadConfigurationException {
@@ -148,8 +200,11 @@ public class DirectoryManager {
     return sequenceFileFolders.get(index);
   }
 
+  /** @return the sequence folders of all the storage tiers, from hot to cold */
   public List<String> getAllSequenceFileFolders() {
-    return new ArrayList<>(sequenceFileFolders);
+    List<String> folders = new ArrayList<>(sequenceFileFolders);
+    tierSequenceFileFolders.forEach(folders::addAll);
+    return folders;
   }
 
   private static class DirectoriesHolder {
@@ -182,7 +237,67 @@ public class DirectoryManager {
     return unsequenceFileFolders.indexOf(folder);
   }
 
+  /** @return the unsequence folders of all the storage tiers, from hot to cold */
   public List<String> getAllUnSequenceFileFolders() {
-    return new ArrayList<>(unsequenceFileFolders);
+    List<String> folders = new ArrayList<>(unsequenceFileFolders);
+    tierUnsequenceFileFolders.forEach(folders::addAll);
+    return folders;
+  }
+
+  /** @return the number of storage tiers, including the tier of data_dirs */
+  public int getStorageTierNum() {
+    return tierSequenceFileFolders.size() + 1;
+  }
+
+  /**
+   * get the folder in the given colder storage tier to hold a migrated TsFile.
+   *
+   * @param tier the storage tier, must be greater than 0
+   */
+  public String getNextFolderForStorageTier(int tier, boolean sequence)
+      throws DiskSpaceInsufficientException {
+    FolderManager folderManager =
+        sequence
+            ? tierSequenceFolderManagers.get(tier - 1)
+            : tierUnsequenceFolderManagers.get(tier - 1);
+    if (folderManager == null) {
+      List<String> folders =
+          sequence
+              ? tierSequenceFileFolders.get(tier - 1)
+              : tierUnsequenceFileFolders.get(tier - 1);
+      throw new DiskSpaceInsufficientException(folders);
+    }
+    return folderManager.getNextFolder();
+  }
+
+  /**
+   * get the storage tier a TsFile lives in, which is decided by the sequence or unsequence folder
+   * containing it, i.e., {folder}/{storage group}/{data region}/{time partition}/{TsFile}.
+   *
+   * @return the storage tier, 0 if the TsFile is in data_dirs
+   */
+  public int getStorageTierOfFile(File tsFile) {
+    File storageGroupFolder =
+        tsFile.getAbsoluteFile().getParentFile().getParentFile().getParentFile();
+    if (storageGroupFolder == null || storageGroupFolder.getParentFile() == null) {
+      return 0;
+    }
+    String folderPath = storageGroupFolder.getParentFile().getPath();
+    for (int i = 0; i < tierSequenceFileFolders.size(); i++) {
+      if (containsFolder(tierSequenceFileFolders.get(i), folderPath)
+          || containsFolder(tierUnsequenceFileFolders.get(i), folderPath)) {
+        return i + 1;
+      }
+    }
+    return 0;
+  }
+
+  private boolean containsFolder(List<String> folders, String folderPath) {
+    for (String folder : folders) {
+      if (new File(folder).getAbsolutePath().equals(folderPath)) {
+        return true;
+      }
+    }
+    return false;
   }
 }
@@ -29,6 +29,7 @@ import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.ServerConfigConsistent;
+import org.apache.iotdb.db.conf.directories.DirectoryManager;
 import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
 import org.apache.iotdb.db.engine.flush.CloseFileListener;
 import org.apache.iotdb.db.engine.flush.FlushListener;
@@ -129,6 +130,7 @@ public class StorageEngine implements IService {
   private AtomicBoolean isAllSgReady = new AtomicBoolean(false);
 
   private ScheduledExecutorService ttlCheckThread;
+  private ScheduledExecutorService tierMigrationThread;
   private ScheduledExecutorService seqMemtableTimedFlushCheckThread;
   private ScheduledExecutorService unseqMemtableTimedFlushCheckThread;
 
@@ -304,6 +306,18 @@ public class StorageEngine implements IService {
         this::checkTTL, TTL_CHECK_INTERVAL, TTL_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
     logger.info("start ttl check thread successfully.");
 
+    if (DirectoryManager.getInstance().getStorageTierNum() > 1) {
+      tierMigrationThread =
+          IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+              ThreadName.STORAGE_TIER_MIGRATION_SERVICE.getName());
+      tierMigrationThread.scheduleWithFixedDelay(
+          this::migrateColdFiles,
+          config.getStorageTierMigrationCheckIntervalInMs(),
+          config.getStorageTierMigrationCheckIntervalInMs(),
+          TimeUnit.MILLISECONDS);
+      logger.info("start storage tier migration thread successfully.");
+    }
+
     startTimedService();
   }
 
@@ -319,6 +333,16 @@ public class StorageEngine implements IService {
     }
   }
 
+  private void migrateColdFiles() {
+    try {
+      for (StorageGroupManager processor : processorMap.values()) {
+        processor.migrateColdFiles();
+      }
+    } catch (Exception e) {
+      logger.error("An error occurred when migrating files between storage tiers", e);
+    }
+  }
+
   private void startTimedService() {
     // timed flush sequence memtable
     if (config.isEnableTimedFlushSeqMemtable()) {
@@ -373,6 +397,7 @@ public class StorageEngine implements IService {
     }
     syncCloseAllProcessor();
     ThreadUtils.stopThreadPool(ttlCheckThread, ThreadName.TTL_CHECK_SERVICE);
+    ThreadUtils.stopThreadPool(tierMigrationThread, ThreadName.STORAGE_TIER_MIGRATION_SERVICE);
     ThreadUtils.stopThreadPool(
         seqMemtableTimedFlushCheckThread, ThreadName.TIMED_FlUSH_SEQ_MEMTABLE);
     ThreadUtils.stopThreadPool(
@@ -392,6 +417,7 @@ public class StorageEngine implements IService {
       throw new ShutdownException(e);
     }
     shutdownTimedService(ttlCheckThread, "TTlCheckThread");
+    shutdownTimedService(tierMigrationThread, "TierMigrationThread");
     shutdownTimedService(seqMemtableTimedFlushCheckThread, "SeqMemtableTimedFlushCheckThread");
     shutdownTimedService(unseqMemtableTimedFlushCheckThread, "UnseqMemtableTimedFlushCheckThread");
     recoveryThreadPool.shutdownNow();
@@ -921,7 +947,7 @@ public class StorageEngine implements IService {
       File dataDir =
           file.getParentFile().getParentFile().getParentFile().getParentFile().getParentFile();
       if (dataDir.exists()) {
-        String[] dataDirs = IoTDBDescriptor.getInstance().getConfig().getDataDirs();
+        String[] dataDirs = IoTDBDescriptor.getInstance().getConfig().getAllDataDirs();
         for (String dir : dataDirs) {
           try {
             if (Files.isSameFile(Paths.get(dir), dataDir.toPath())) {
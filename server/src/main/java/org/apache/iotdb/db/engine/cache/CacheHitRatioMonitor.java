@@ -80,6 +80,46 @@ public class CacheHitRatioMonitor implements CacheHitRatioMonitorMXBean, IServic
     return ChunkCache.getInstance().getAverageSize();
   }
 
+  @Override
+  public long getChunkCacheEvictionWeight() {
+    return ChunkCache.getInstance().getEvictionWeight();
+  }
+
+  @Override
+  public double getChunkOffHeapHitRatio() {
+    return ChunkCache.getInstance().calculateOffHeapHitRatio();
+  }
+
+  @Override
+  public long getChunkOffHeapHitBytes() {
+    return ChunkCache.getInstance().getOffHeapHitBytes();
+  }
+
+  @Override
+  public long getChunkOffHeapEvictionCount() {
+    return ChunkCache.getInstance().getOffHeapEvictionCount();
+  }
+
+  @Override
+  public long getChunkOffHeapEvictionBytes() {
+    return ChunkCache.getInstance().getOffHeapEvictionBytes();
+  }
+
+  @Override
+  public long getChunkOffHeapBypassCount() {
+    return ChunkCache.getInstance().getOffHeapBypassCount();
+  }
+
+  @Override
+  public long getChunkOffHeapUsedMemory() {
+    return ChunkCache.getInstance().getOffHeapUsedMemory();
+  }
+
+  @Override
+  public long getChunkOffHeapMaxMemory() {
+    return ChunkCache.getInstance().getOffHeapMaxMemory();
+  }
+
   @Override
   public double getTimeSeriesMetadataHitRatio() {
     return TimeSeriesMetadataCache.getInstance().calculateTimeSeriesMetadataHitRatio();
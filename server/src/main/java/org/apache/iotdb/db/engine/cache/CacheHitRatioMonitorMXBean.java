@@ -30,6 +30,22 @@ public interface CacheHitRatioMonitorMXBean {
 
   long getChunkCacheAverageSize();
 
+  long getChunkCacheEvictionWeight();
+
+  double getChunkOffHeapHitRatio();
+
+  long getChunkOffHeapHitBytes();
+
+  long getChunkOffHeapEvictionCount();
+
+  long getChunkOffHeapEvictionBytes();
+
+  long getChunkOffHeapBypassCount();
+
+  long getChunkOffHeapUsedMemory();
+
+  long getChunkOffHeapMaxMemory();
+
   double getTimeSeriesMetadataHitRatio();
 
   long getTimeSeriesMetadataCacheEvictionCount();
@@ -35,6 +35,7 @@ import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.Weigher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,7 +45,9 @@ import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class is used to cache <code>Chunk</code> of <code>ChunkMetaData</code> in IoTDB. The
- * caching strategy is LRU.
+ * caching strategy is LRU. If chunk_off_heap_cache_size_in_byte is positive, chunks evicted from
+ * the on-heap cache for lack of room are kept in a {@link ChunkOffHeapCache} and are loaded from
+ * there before falling back to the TsFile.
  */
 public class ChunkCache {
 
@@ -54,15 +57,26 @@ public class ChunkCache {
   private static final long MEMORY_THRESHOLD_IN_CHUNK_CACHE =
       config.getAllocateMemoryForChunkCache();
   private static final boolean CACHE_ENABLE = config.isMetaDataCacheEnable();
+  private static final long MEMORY_THRESHOLD_IN_OFF_HEAP_CHUNK_CACHE =
+      config.getChunkOffHeapCacheSizeInByte();
 
   private final LoadingCache<ChunkMetadata, Chunk> lruCache;
 
+  /** null if the off-heap tier is disabled */
+  private final ChunkOffHeapCache offHeapCache;
+
   private final AtomicLong entryAverageSize = new AtomicLong(0);
 
   private ChunkCache() {
     if (CACHE_ENABLE) {
       logger.info("ChunkCache size = " + MEMORY_THRESHOLD_IN_CHUNK_CACHE);
     }
+    if (CACHE_ENABLE && MEMORY_THRESHOLD_IN_OFF_HEAP_CHUNK_CACHE > 0) {
+      logger.info("Off-heap ChunkCache size = " + MEMORY_THRESHOLD_IN_OFF_HEAP_CHUNK_CACHE);
+      offHeapCache = new ChunkOffHeapCache(MEMORY_THRESHOLD_IN_OFF_HEAP_CHUNK_CACHE);
+    } else {
+      offHeapCache = null;
+    }
     lruCache =
         Caffeine.newBuilder()
             .maximumWeight(MEMORY_THRESHOLD_IN_CHUNK_CACHE)
@@ -72,9 +86,21 @@ public class ChunkCache {
                         (int)
                             (RamUsageEstimator.NUM_BYTES_OBJECT_REF
                                 + RamUsageEstimator.sizeOf(chunk)))
+            .removalListener(
+                (ChunkMetadata chunkMetadata, Chunk chunk, RemovalCause cause) -> {
+                  if (offHeapCache != null && cause == RemovalCause.SIZE && chunk != null) {
+                    offHeapCache.put(chunkMetadata, chunk);
+                  }
+                })
             .recordStats()
             .build(
                 chunkMetadata -> {
+                  if (offHeapCache != null) {
+                    Chunk chunk = offHeapCache.get(chunkMetadata);
+                    if (chunk != null) {
+                      return chunk;
+                    }
+                  }
                   try {
                     TsFileSequenceReader reader =
                         FileReaderManager.getInstance()
@@ -97,6 +123,17 @@ public class ChunkCache {
               l -> (long) (l.stats().hitRate() * 100),
               Tag.NAME.toString(),
               "chunk");
+      if (offHeapCache != null) {
+        MetricsService.getInstance()
+            .getMetricManager()
+            .getOrCreateAutoGauge(
+                Metric.CACHE_HIT.toString(),
+                MetricLevel.IMPORTANT,
+                offHeapCache,
+                c -> (long) (c.getHitRatio() * 100),
+                Tag.NAME.toString(),
+                "chunk_off_heap");
+      }
     }
   }
 
@@ -114,11 +151,14 @@ public class ChunkCache {
           FileReaderManager.getInstance()
               .get(chunkMetaData.getFilePath(), chunkMetaData.isClosed());
       Chunk chunk = reader.readMemChunk(chunkMetaData);
-      return new Chunk(
-          chunk.getHeader(),
-          chunk.getData().duplicate(),
-          chunkMetaData.getDeleteIntervalList(),
-          chunkMetaData.getStatistics());
+      Chunk result =
+          new Chunk(
+              chunk.getHeader(),
+              chunk.getData().duplicate(),
+              chunkMetaData.getDeleteIntervalList(),
+              chunkMetaData.getStatistics());
+      result.setValueIndex(chunk.getValueIndex());
+      return result;
     }
 
     Chunk chunk = lruCache.get(chunkMetaData);
@@ -127,11 +167,14 @@ public class ChunkCache {
       DEBUG_LOGGER.info("get chunk from cache whose meta data is: " + chunkMetaData);
     }
 
-    return new Chunk(
-        chunk.getHeader(),
-        chunk.getData().duplicate(),
-        chunkMetaData.getDeleteIntervalList(),
-        chunkMetaData.getStatistics());
+    Chunk result =
+        new Chunk(
+            chunk.getHeader(),
+            chunk.getData().duplicate(),
+            chunkMetaData.getDeleteIntervalList(),
+            chunkMetaData.getStatistics());
+    result.setValueIndex(chunk.getValueIndex());
+    return result;
   }
 
   public double calculateChunkHitRatio() {
@@ -146,6 +189,39 @@ public class ChunkCache {
     return MEMORY_THRESHOLD_IN_CHUNK_CACHE;
   }
 
+  /** @return total weight of the chunks evicted from the on-heap cache */
+  public long getEvictionWeight() {
+    return lruCache.stats().evictionWeight();
+  }
+
+  public double calculateOffHeapHitRatio() {
+    return offHeapCache == null ? 0 : offHeapCache.getHitRatio();
+  }
+
+  public long getOffHeapHitBytes() {
+    return offHeapCache == null ? 0 : offHeapCache.getHitBytes();
+  }
+
+  public long getOffHeapEvictionCount() {
+    return offHeapCache == null ? 0 : offHeapCache.getEvictionCount();
+  }
+
+  public long getOffHeapEvictionBytes() {
+    return offHeapCache == null ? 0 : offHeapCache.getEvictionBytes();
+  }
+
+  public long getOffHeapBypassCount() {
+    return offHeapCache == null ? 0 : offHeapCache.getBypassCount();
+  }
+
+  public long getOffHeapUsedMemory() {
+    return offHeapCache == null ? 0 : offHeapCache.getUsedMemory();
+  }
+
+  public long getOffHeapMaxMemory() {
+    return offHeapCache == null ? 0 : offHeapCache.getMaxMemory();
+  }
+
   public double getAverageLoadPenalty() {
     return lruCache.stats().averageLoadPenalty();
   }
@@ -158,10 +234,16 @@ public class ChunkCache {
   public void clear() {
     lruCache.invalidateAll();
     lruCache.cleanUp();
+    if (offHeapCache != null) {
+      offHeapCache.clear();
+    }
   }
 
   public void remove(ChunkMetadata chunkMetaData) {
     lruCache.invalidate(chunkMetaData);
+    if (offHeapCache != null) {
+      offHeapCache.remove(chunkMetaData);
+    }
   }
 
   @TestOnly
@@ -0,0 +1,362 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkValueIndex;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The second tier of {@link ChunkCache}. It keeps the serialized data of chunks evicted from the
+ * on-heap cache in direct memory, so that they do not add to GC pressure.
+ *
+ * <p>Direct memory is allocated in slabs of {@link #DEFAULT_SLAB_SIZE} bytes. A slab is carved into
+ * blocks of one power-of-two size class the first time that class needs room, and is never handed
+ * to another class afterwards. Each size class evicts with a segmented LRU: a new entry enters the
+ * probation segment and is promoted to the protected segment on its second hit, so a single large
+ * scan can only flush the probation segment. Chunks larger than one slab are not admitted.
+ */
+public class ChunkOffHeapCache {
+
+  static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+  static final int MIN_BLOCK_SIZE = 4 * 1024;
+  /** percentage of the blocks of a size class that may stay in the protected segment */
+  private static final int PROTECTED_PERCENTAGE = 80;
+
+  private final long capacity;
+  private final int slabSize;
+  private final SizeClass[] sizeClasses;
+  /** the size class each cached chunk is stored in */
+  private final Map<Key, SizeClass> index = new HashMap<>();
+
+  private long allocatedMemory = 0;
+
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long hitBytes = 0;
+  private long evictionCount = 0;
+  private long evictionBytes = 0;
+  private long bypassCount = 0;
+
+  public ChunkOffHeapCache(long capacity) {
+    this(capacity, DEFAULT_SLAB_SIZE);
+  }
+
+  ChunkOffHeapCache(long capacity, int slabSize) {
+    if (Integer.bitCount(slabSize) != 1 || slabSize < MIN_BLOCK_SIZE) {
+      throw new IllegalArgumentException("slab size must be a power of two >= " + MIN_BLOCK_SIZE);
+    }
+    this.capacity = capacity;
+    this.slabSize = slabSize;
+    int classNum =
+        Integer.numberOfTrailingZeros(slabSize) - Integer.numberOfTrailingZeros(MIN_BLOCK_SIZE) + 1;
+    this.sizeClasses = new SizeClass[classNum];
+    for (int i = 0; i < classNum; i++) {
+      sizeClasses[i] = new SizeClass(MIN_BLOCK_SIZE << i);
+    }
+  }
+
+  /**
+   * @return a chunk whose data is an on-heap copy of the cached bytes, or null if the chunk is not
+   *     cached
+   */
+  public synchronized Chunk get(ChunkMetadata chunkMetadata) {
+    Key key = new Key(chunkMetadata);
+    SizeClass sizeClass = index.get(key);
+    if (sizeClass == null) {
+      missCount++;
+      return null;
+    }
+    Entry entry = sizeClass.lookup(key);
+    sizeClass.onHit(entry);
+    hitCount++;
+    hitBytes += entry.length;
+
+    ByteBuffer source = entry.block.duplicate();
+    source.position(0).limit(entry.length);
+    ByteBuffer data = ByteBuffer.allocate(entry.length);
+    data.put(source);
+    data.flip();
+    Chunk chunk =
+        new Chunk(
+            entry.header,
+            data,
+            chunkMetadata.getDeleteIntervalList(),
+            chunkMetadata.getStatistics());
+    chunk.setValueIndex(entry.valueIndex);
+    return chunk;
+  }
+
+  /** Copy the data of the chunk into direct memory. Chunks that do not fit a slab are skipped. */
+  public synchronized void put(ChunkMetadata chunkMetadata, Chunk chunk) {
+    ByteBuffer source = chunk.getData().duplicate();
+    source.position(0);
+    int length = source.remaining();
+    int classIndex = sizeClassIndex(length);
+    if (classIndex < 0) {
+      bypassCount++;
+      return;
+    }
+    Key key = new Key(chunkMetadata);
+    if (index.containsKey(key)) {
+      return;
+    }
+    SizeClass sizeClass = sizeClasses[classIndex];
+    ByteBuffer block = allocateBlock(sizeClass);
+    if (block == null) {
+      bypassCount++;
+      return;
+    }
+    block.clear();
+    block.put(source);
+    sizeClass.probation.put(
+        key, new Entry(key, chunk.getHeader(), chunk.getValueIndex(), block, length));
+    index.put(key, sizeClass);
+  }
+
+  public synchronized void remove(ChunkMetadata chunkMetadata) {
+    Key key = new Key(chunkMetadata);
+    SizeClass sizeClass = index.remove(key);
+    if (sizeClass == null) {
+      return;
+    }
+    Entry entry = sizeClass.probation.remove(key);
+    if (entry == null) {
+      entry = sizeClass.protectedSegment.remove(key);
+    }
+    sizeClass.freeBlocks.push(entry.block);
+  }
+
+  /** Drop all entries. Allocated slabs are kept and reused. */
+  public synchronized void clear() {
+    for (SizeClass sizeClass : sizeClasses) {
+      sizeClass.releaseAll();
+    }
+    index.clear();
+  }
+
+  private ByteBuffer allocateBlock(SizeClass sizeClass) {
+    if (!sizeClass.freeBlocks.isEmpty()) {
+      return sizeClass.freeBlocks.pop();
+    }
+    if (allocatedMemory + slabSize <= capacity) {
+      ByteBuffer slab = ByteBuffer.allocateDirect(slabSize);
+      allocatedMemory += slabSize;
+      for (int offset = 0; offset < slabSize; offset += sizeClass.blockSize) {
+        slab.limit(offset + sizeClass.blockSize).position(offset);
+        sizeClass.freeBlocks.push(slab.slice());
+      }
+      sizeClass.blockNum += slabSize / sizeClass.blockSize;
+      return sizeClass.freeBlocks.pop();
+    }
+    Entry victim = sizeClass.evict();
+    if (victim == null) {
+      return null;
+    }
+    index.remove(victim.key);
+    evictionCount++;
+    evictionBytes += victim.length;
+    return victim.block;
+  }
+
+  /** @return index of the smallest size class that holds length bytes, -1 if none does */
+  private int sizeClassIndex(int length) {
+    if (length > slabSize) {
+      return -1;
+    }
+    if (length <= MIN_BLOCK_SIZE) {
+      return 0;
+    }
+    int blockSize = Integer.highestOneBit(length - 1) << 1;
+    return Integer.numberOfTrailingZeros(blockSize) - Integer.numberOfTrailingZeros(MIN_BLOCK_SIZE);
+  }
+
+  public synchronized double getHitRatio() {
+    long requestCount = hitCount + missCount;
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  public synchronized long getHitBytes() {
+    return hitBytes;
+  }
+
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  public synchronized long getEvictionBytes() {
+    return evictionBytes;
+  }
+
+  /** @return number of chunks that were not admitted because of their size or lack of room */
+  public synchronized long getBypassCount() {
+    return bypassCount;
+  }
+
+  /** @return bytes of the blocks currently holding chunks */
+  public synchronized long getUsedMemory() {
+    long used = 0;
+    for (SizeClass sizeClass : sizeClasses) {
+      used += (long) sizeClass.blockSize * (sizeClass.blockNum - sizeClass.freeBlocks.size());
+    }
+    return used;
+  }
+
+  /** @return bytes of direct memory allocated for slabs */
+  public synchronized long getAllocatedMemory() {
+    return allocatedMemory;
+  }
+
+  public long getMaxMemory() {
+    return capacity;
+  }
+
+  @TestOnly
+  synchronized boolean isProtected(ChunkMetadata chunkMetadata) {
+    Key key = new Key(chunkMetadata);
+    SizeClass sizeClass = index.get(key);
+    return sizeClass != null && sizeClass.protectedSegment.containsKey(key);
+  }
+
+  private static class SizeClass {
+
+    private final int blockSize;
+    private int blockNum = 0;
+    private final Deque<ByteBuffer> freeBlocks = new ArrayDeque<>();
+    // both segments are kept in insertion order, the eldest entry is the least recently used one
+    private final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<Key, Entry> protectedSegment = new LinkedHashMap<>();
+
+    private SizeClass(int blockSize) {
+      this.blockSize = blockSize;
+    }
+
+    private Entry lookup(Key key) {
+      Entry entry = probation.get(key);
+      return entry != null ? entry : protectedSegment.get(key);
+    }
+
+    private void onHit(Entry entry) {
+      Key key = entry.key;
+      if (probation.remove(key) != null) {
+        protectedSegment.put(key, entry);
+        // demote the least recently used protected entries back to probation
+        long protectedLimit = Math.max(1L, (long) blockNum * PROTECTED_PERCENTAGE / 100);
+        Iterator<Map.Entry<Key, Entry>> iterator = protectedSegment.entrySet().iterator();
+        while (protectedSegment.size() > protectedLimit && iterator.hasNext()) {
+          Map.Entry<Key, Entry> eldest = iterator.next();
+          iterator.remove();
+          probation.put(eldest.getKey(), eldest.getValue());
+        }
+      } else {
+        protectedSegment.remove(key);
+        protectedSegment.put(key, entry);
+      }
+    }
+
+    private Entry evict() {
+      LinkedHashMap<Key, Entry> segment = probation.isEmpty() ? protectedSegment : probation;
+      Iterator<Entry> iterator = segment.values().iterator();
+      if (!iterator.hasNext()) {
+        return null;
+      }
+      Entry eldest = iterator.next();
+      iterator.remove();
+      return eldest;
+    }
+
+    private void releaseAll() {
+      for (Entry entry : probation.values()) {
+        freeBlocks.push(entry.block);
+      }
+      for (Entry entry : protectedSegment.values()) {
+        freeBlocks.push(entry.block);
+      }
+      probation.clear();
+      protectedSegment.clear();
+    }
+  }
+
+  private static class Entry {
+
+    private final Key key;
+    private final ChunkHeader header;
+    private final ChunkValueIndex valueIndex;
+    private final ByteBuffer block;
+    private final int length;
+
+    private Entry(
+        Key key, ChunkHeader header, ChunkValueIndex valueIndex, ByteBuffer block, int length) {
+      this.key = key;
+      this.header = header;
+      this.valueIndex = valueIndex;
+      this.block = block;
+      this.length = length;
+    }
+  }
+
+  /** chunks are identified by their file and the offset of their header in it */
+  private static class Key {
+
+    private final String filePath;
+    private final long offset;
+
+    private Key(ChunkMetadata chunkMetadata) {
+      this.filePath = chunkMetadata.getFilePath();
+      this.offset = chunkMetadata.getOffsetOfChunkHeader();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return offset == key.offset && Objects.equals(filePath, key.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, offset);
+    }
+  }
+}
@@ -32,6 +32,7 @@ import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.CoalescedReadStatistics;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.FilePathUtils;
@@ -47,6 +48,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -229,6 +232,61 @@ public class TimeSeriesMetadataCache {
     }
   }
 
+  /**
+   * Load the TimeseriesMetadata of the given series of one TsFile into the cache ahead of the
+   * series readers. Series already cached or filtered by the bloom filter are skipped, and the rest
+   * are read together by {@link TsFileSequenceReader#readTimeseriesMetadata(Map, long,
+   * CoalescedReadStatistics)}.
+   *
+   * @param deviceMeasurements device -> measurements
+   * @return statistics of the reads, or null if nothing was read
+   */
+  public CoalescedReadStatistics prefetch(
+      String filePath, Map<String, Set<String>> deviceMeasurements) throws IOException {
+    if (!CACHE_ENABLE) {
+      return null;
+    }
+    BloomFilter bloomFilter =
+        BloomFilterCache.getInstance()
+            .get(new BloomFilterCache.BloomFilterCacheKey(filePath), false);
+    Map<String, Set<String>> toRead = new HashMap<>();
+    for (Map.Entry<String, Set<String>> entry : deviceMeasurements.entrySet()) {
+      String device = entry.getKey();
+      for (String measurement : entry.getValue()) {
+        if (lruCache.getIfPresent(new TimeSeriesMetadataCacheKey(filePath, device, measurement))
+            != null) {
+          continue;
+        }
+        if (bloomFilter != null) {
+          bloomFilterRequestCount.incrementAndGet();
+          if (!bloomFilter.contains(new Path(device, measurement).getFullPath())) {
+            bloomFilterPreventCount.incrementAndGet();
+            continue;
+          }
+        }
+        toRead.computeIfAbsent(device, k -> new HashSet<>()).add(measurement);
+      }
+    }
+    if (toRead.isEmpty()) {
+      return null;
+    }
+
+    TsFileSequenceReader reader = FileReaderManager.getInstance().get(filePath, true);
+    CoalescedReadStatistics statistics = new CoalescedReadStatistics();
+    Map<String, List<TimeseriesMetadata>> result =
+        reader.readTimeseriesMetadata(toRead, config.getMetadataPrefetchMaxGapInByte(), statistics);
+    for (Map.Entry<String, List<TimeseriesMetadata>> entry : result.entrySet()) {
+      for (TimeseriesMetadata metadata : entry.getValue()) {
+        if (metadata.getStatistics().getCount() != 0) {
+          lruCache.put(
+              new TimeSeriesMetadataCacheKey(filePath, entry.getKey(), metadata.getMeasurementId()),
+              metadata);
+        }
+      }
+    }
+    return statistics;
+  }
+
   public double calculateTimeSeriesMetadataHitRatio() {
     return lruCache.stats().hitRate();
   }
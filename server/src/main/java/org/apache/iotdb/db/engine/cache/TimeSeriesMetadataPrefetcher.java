@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.metadata.path.AlignedPath;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.tsfile.read.common.CoalescedReadStatistics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Loads the TimeseriesMetadata of the series of a query into {@link TimeSeriesMetadataCache} on a
+ * separate thread pool, so that the series readers find them in the cache. The metadata of one
+ * TsFile are read together, merging the reads of close index nodes and TimeseriesMetadata.
+ */
+public class TimeSeriesMetadataPrefetcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(TimeSeriesMetadataPrefetcher.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final String METRIC_NAME = "timeSeriesMeta_prefetch";
+
+  private final ExecutorService pool;
+
+  private TimeSeriesMetadataPrefetcher() {
+    pool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            config.getMetadataPrefetchThreadCount(), ThreadName.METADATA_PREFETCH.getName());
+  }
+
+  public static TimeSeriesMetadataPrefetcher getInstance() {
+    return TimeSeriesMetadataPrefetcherHolder.INSTANCE;
+  }
+
+  /**
+   * Submit the prefetching of the metadata of the given series in the closed files of the data
+   * source, one task per file. Unclosed files are skipped since their metadata are in memory.
+   */
+  public void prefetch(List<PartialPath> paths, QueryDataSource dataSource) {
+    Map<String, Set<String>> deviceMeasurements = new HashMap<>();
+    for (PartialPath path : paths) {
+      Set<String> measurements =
+          deviceMeasurements.computeIfAbsent(path.getDevice(), k -> new HashSet<>());
+      if (path instanceof AlignedPath) {
+        // the time column of an aligned device
+        measurements.add("");
+        measurements.addAll(((AlignedPath) path).getMeasurementList());
+      } else {
+        measurements.add(path.getMeasurement());
+      }
+    }
+    submit(dataSource.getSeqResources(), deviceMeasurements);
+    submit(dataSource.getUnseqResources(), deviceMeasurements);
+  }
+
+  private void submit(List<TsFileResource> resources, Map<String, Set<String>> deviceMeasurements) {
+    for (TsFileResource resource : resources) {
+      if (!resource.isClosed()) {
+        continue;
+      }
+      pool.submit(() -> prefetch(resource, deviceMeasurements));
+    }
+  }
+
+  private void prefetch(TsFileResource resource, Map<String, Set<String>> deviceMeasurements) {
+    if (resource.isDeleted()) {
+      return;
+    }
+    // only the devices in the file
+    Map<String, Set<String>> devicesInFile = new HashMap<>();
+    for (Map.Entry<String, Set<String>> entry : deviceMeasurements.entrySet()) {
+      if (resource.mayContainsDevice(entry.getKey())) {
+        devicesInFile.put(entry.getKey(), entry.getValue());
+      }
+    }
+    if (devicesInFile.isEmpty()) {
+      return;
+    }
+    try {
+      CoalescedReadStatistics statistics =
+          TimeSeriesMetadataCache.getInstance().prefetch(resource.getTsFilePath(), devicesInFile);
+      if (statistics != null) {
+        recordMetrics(statistics);
+      }
+    } catch (IOException e) {
+      // the readers will load the metadata themselves
+      logger.debug("Failed to prefetch metadata of {}", resource.getTsFilePath(), e);
+    }
+  }
+
+  private void recordMetrics(CoalescedReadStatistics statistics) {
+    if (!MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      return;
+    }
+    MetricsService.getInstance()
+        .getMetricManager()
+        .count(
+            statistics.getLogicalReadCount(),
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            METRIC_NAME,
+            Tag.TYPE.toString(),
+            "requested");
+    MetricsService.getInstance()
+        .getMetricManager()
+        .count(
+            statistics.getCoalescedReadCount(),
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            METRIC_NAME,
+            Tag.TYPE.toString(),
+            "coalesced");
+    MetricsService.getInstance()
+        .getMetricManager()
+        .count(
+            statistics.getReadBytes(),
+            Metric.DATA_READ.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            METRIC_NAME);
+  }
+
+  /** singleton pattern. */
+  private static class TimeSeriesMetadataPrefetcherHolder {
+
+    private static final TimeSeriesMetadataPrefetcher INSTANCE = new TimeSeriesMetadataPrefetcher();
+  }
+}
@@ -168,4 +168,66 @@ public class CompactionMetricsManager {
         break;
     }
   }
+
+  /**
+   * Record the read amplification of a time partition and its score, which decides the priority of
+   * its compaction tasks. The read amplification is recorded in hundredths.
+   */
+  public static void recordPartitionReadAmplification(
+      String storageGroupName, String dataRegionId, long timePartition) {
+    if (!MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      return;
+    }
+    String partition = storageGroupName + "-" + dataRegionId + "-" + timePartition;
+    CompactionReadAmplificationTracker tracker = CompactionReadAmplificationTracker.getInstance();
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateGauge(
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "compaction_read_amplification",
+            Tag.TYPE.toString(),
+            partition)
+        .set(
+            (long)
+                (tracker.getReadAmplification(storageGroupName, dataRegionId, timePartition)
+                    * 100));
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateGauge(
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "compaction_read_amplification_score",
+            Tag.TYPE.toString(),
+            partition)
+        .set((long) tracker.getScore(storageGroupName, dataRegionId, timePartition));
+  }
+
+  /**
+   * Record the write pressure of flush and wal, and the fraction of the configured compaction
+   * throughput in use. Both are recorded in hundredths.
+   */
+  public static void recordWriteThrottle(double writePressure, double throttleFactor) {
+    if (!MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      return;
+    }
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateGauge(
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "compaction_write_pressure")
+        .set((long) (writePressure * 100));
+    MetricsService.getInstance()
+        .getMetricManager()
+        .getOrCreateGauge(
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "compaction_write_throttle")
+        .set((long) (throttleFactor * 100));
+  }
 }
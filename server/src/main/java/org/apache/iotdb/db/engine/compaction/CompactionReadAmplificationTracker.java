@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class tracks the read amplification of each time partition, i.e. how many seq and unseq
+ * files a query has to touch in the partition. The statistics decay exponentially with the half
+ * life compaction_read_amplification_half_life_in_ms, so they reflect the recent queries only.
+ *
+ * <p>The score of a partition is the decayed number of file reads beyond the first file per query,
+ * which is the number of file reads that compacting the partition into one file could save. Tasks
+ * of partitions with higher scores are executed first.
+ */
+public class CompactionReadAmplificationTracker {
+  private final Map<String, PartitionReadStatistics> partitionStatisticsMap =
+      new ConcurrentHashMap<>();
+
+  public static CompactionReadAmplificationTracker getInstance() {
+    return CompactionReadAmplificationTrackerHolder.INSTANCE;
+  }
+
+  private CompactionReadAmplificationTracker() {}
+
+  /** Record the files of a query on one data region. */
+  public void recordQuery(
+      String storageGroupName,
+      String dataRegionId,
+      List<TsFileResource> seqResources,
+      List<TsFileResource> unseqResources) {
+    if (seqResources.isEmpty() && unseqResources.isEmpty()) {
+      return;
+    }
+    Map<Long, Integer> fileNumOfEachPartition = new HashMap<>();
+    for (TsFileResource resource : seqResources) {
+      fileNumOfEachPartition.merge(resource.getTimePartition(), 1, Integer::sum);
+    }
+    for (TsFileResource resource : unseqResources) {
+      fileNumOfEachPartition.merge(resource.getTimePartition(), 1, Integer::sum);
+    }
+    long currentTime = System.currentTimeMillis();
+    for (Map.Entry<Long, Integer> entry : fileNumOfEachPartition.entrySet()) {
+      partitionStatisticsMap
+          .computeIfAbsent(
+              getPartitionKey(storageGroupName, dataRegionId, entry.getKey()),
+              k -> new PartitionReadStatistics())
+          .record(currentTime, entry.getValue());
+    }
+  }
+
+  /** The score of a time partition, 0 if no query has touched it. */
+  public double getScore(String storageGroupName, String dataRegionId, long timePartition) {
+    PartitionReadStatistics statistics =
+        partitionStatisticsMap.get(getPartitionKey(storageGroupName, dataRegionId, timePartition));
+    return statistics == null ? 0 : statistics.getScore(System.currentTimeMillis());
+  }
+
+  /** Average number of files touched by a query in a time partition, 0 if it is never queried. */
+  public double getReadAmplification(
+      String storageGroupName, String dataRegionId, long timePartition) {
+    PartitionReadStatistics statistics =
+        partitionStatisticsMap.get(getPartitionKey(storageGroupName, dataRegionId, timePartition));
+    return statistics == null ? 0 : statistics.getReadAmplification();
+  }
+
+  /** Remove the statistics of a data region, e.g. when it is deleted. */
+  public void removeDataRegion(String storageGroupName, String dataRegionId) {
+    String prefix = storageGroupName + "-" + dataRegionId + "-";
+    partitionStatisticsMap.keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  public void clear() {
+    partitionStatisticsMap.clear();
+  }
+
+  private static String getPartitionKey(
+      String storageGroupName, String dataRegionId, long timePartition) {
+    return storageGroupName + "-" + dataRegionId + "-" + timePartition;
+  }
+
+  private static class PartitionReadStatistics {
+    private double queryNum = 0;
+    private double fileReadNum = 0;
+    private long lastUpdateTime = 0;
+
+    private synchronized void record(long currentTime, int fileNum) {
+      decay(currentTime);
+      queryNum += 1;
+      fileReadNum += fileNum;
+    }
+
+    private synchronized double getScore(long currentTime) {
+      decay(currentTime);
+      return fileReadNum - queryNum;
+    }
+
+    private synchronized double getReadAmplification() {
+      return queryNum == 0 ? 0 : fileReadNum / queryNum;
+    }
+
+    private void decay(long currentTime) {
+      long halfLife =
+          IoTDBDescriptor.getInstance().getConfig().getCompactionReadAmplificationHalfLifeInMs();
+      if (lastUpdateTime > 0 && currentTime > lastUpdateTime && halfLife > 0) {
+        double factor = Math.pow(0.5, (double) (currentTime - lastUpdateTime) / halfLife);
+        queryNum *= factor;
+        fileReadNum *= factor;
+      }
+      lastUpdateTime = Math.max(lastUpdateTime, currentTime);
+    }
+  }
+
+  private static class CompactionReadAmplificationTrackerHolder {
+    private static final CompactionReadAmplificationTracker INSTANCE =
+        new CompactionReadAmplificationTracker();
+
+    private CompactionReadAmplificationTrackerHolder() {}
+  }
+}
@@ -40,10 +40,12 @@ import java.util.List;
  * CompactionScheduler schedules and submits the compaction task periodically, and it counts the
  * total number of running compaction task. There are three compaction strategy: BALANCE,
  * INNER_CROSS, CROSS_INNER. Difference strategies will lead to different compaction preferences.
- * For different types of compaction task(e.g. InnerSpaceCompaction), CompactionScheduler will call
- * the corresponding {@link ICompactionSelector selector} according to the compaction machanism of
- * the task(e.g. LevelCompaction, SizeTiredCompaction), and the selection and submission process is
- * carried out in the {@link ICompactionSelector#selectInnerSpaceTask(List)} () and {@link
+ * Within the same strategy, tasks of the time partitions with higher read amplification recorded by
+ * {@link CompactionReadAmplificationTracker} are executed first. For different types of compaction
+ * task(e.g. InnerSpaceCompaction), CompactionScheduler will call the corresponding {@link
+ * ICompactionSelector selector} according to the compaction machanism of the task(e.g.
+ * LevelCompaction, SizeTiredCompaction), and the selection and submission process is carried out in
+ * the {@link ICompactionSelector#selectInnerSpaceTask(List)} () and {@link
  * ICompactionSelector#selectCrossSpaceTask(List, List)}} in selector.
  */
 public class CompactionScheduler {
@@ -55,6 +57,8 @@ public class CompactionScheduler {
     if (!tsFileManager.isAllowCompaction()) {
       return;
     }
+    CompactionMetricsManager.recordPartitionReadAmplification(
+        tsFileManager.getStorageGroupName(), tsFileManager.getDataRegion(), timePartition);
     try {
       tryToSubmitCrossSpaceCompactionTask(
           tsFileManager.getStorageGroupName(),
@@ -47,6 +47,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 /** CompactionMergeTaskPoolManager provides a ThreadPool tPro queue and run all compaction tasks. */
 public class CompactionTaskManager implements IService {
@@ -79,6 +80,12 @@ public class CompactionTaskManager implements IService {
 
   private final RateLimiter mergeWriteRateLimiter = RateLimiter.create(Double.MAX_VALUE);
 
+  // Memory reserved by all running compaction tasks for the compacted data they buffer, it is
+  // bounded by concurrent_compaction_thread * cross_compaction_memory_budget.
+  private final Object compactionMemoryLock = new Object();
+  private long reservedCompactionMemory = 0;
+  private static final long MEMORY_RESERVATION_RECHECK_INTERVAL_MS = 100;
+
   public static CompactionTaskManager getInstance() {
     return INSTANCE;
   }
@@ -274,6 +281,12 @@ public class CompactionTaskManager implements IService {
     // if throughout = 0, disable rate limiting
     if (throughout == 0) {
       throughout = Double.MAX_VALUE;
+    } else {
+      // lower the throughput when compaction slows down flush or wal
+      double throttleFactor = CompactionWritePressureController.getInstance().getThrottleFactor();
+      throughout *= throttleFactor;
+      CompactionMetricsManager.recordWriteThrottle(
+          CompactionWritePressureController.getInstance().getWritePressure(), throttleFactor);
     }
     if (mergeWriteRateLimiter.getRate() != throughout) {
       mergeWriteRateLimiter.setRate(throughout);
@@ -290,6 +303,40 @@ public class CompactionTaskManager implements IService {
     }
   }
 
+  /**
+   * Reserve memory for the data buffered by a compaction task, waiting until the total reserved
+   * memory fits in the budget. A reservation for which canOverdraw returns true is granted at once,
+   * so that the task others are waiting for is never blocked by them.
+   */
+  public void reserveCompactionMemory(long bytes, BooleanSupplier canOverdraw)
+      throws InterruptedException {
+    synchronized (compactionMemoryLock) {
+      while (reservedCompactionMemory + bytes > getCompactionMemoryBudget()
+          && !canOverdraw.getAsBoolean()) {
+        compactionMemoryLock.wait(MEMORY_RESERVATION_RECHECK_INTERVAL_MS);
+      }
+      reservedCompactionMemory += bytes;
+    }
+  }
+
+  public void releaseCompactionMemory(long bytes) {
+    synchronized (compactionMemoryLock) {
+      reservedCompactionMemory -= bytes;
+      compactionMemoryLock.notifyAll();
+    }
+  }
+
+  public long getReservedCompactionMemory() {
+    synchronized (compactionMemoryLock) {
+      return reservedCompactionMemory;
+    }
+  }
+
+  private long getCompactionMemoryBudget() {
+    return IoTDBDescriptor.getInstance().getConfig().getCrossCompactionMemoryBudget()
+        * Math.max(1, IoTDBDescriptor.getInstance().getConfig().getConcurrentCompactionThread());
+  }
+
   public synchronized void removeRunningTaskFuture(AbstractCompactionTask task) {
     String storageGroupName = task.getFullStorageGroupName();
     if (storageGroupTasks.containsKey(storageGroupName)) {
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+/**
+ * This class decides how much of compaction_write_throughput_mb_per_sec compaction may use, so that
+ * compaction backs off when it slows down the write path.
+ *
+ * <p>It keeps a fast and a slow moving average of the flush latency per MB of memtable and of the
+ * wal fsync latency. The pressure of each signal is the ratio of its fast average to its slow
+ * average, and when the larger pressure exceeds compaction_write_pressure_threshold, the compaction
+ * throughput is scaled down by threshold / pressure, but never below {@link #MIN_THROTTLE_FACTOR}.
+ */
+public class CompactionWritePressureController {
+  /** weight of the newest sample in the fast moving averages */
+  private static final double FAST_ALPHA = 0.3;
+  /** weight of the newest sample in the slow moving averages, which serve as the baseline */
+  private static final double SLOW_ALPHA = 0.01;
+  /** lowest fraction of the configured throughput compaction keeps */
+  private static final double MIN_THROTTLE_FACTOR = 0.1;
+  /** the throttle factor changes in steps of this size to avoid resetting the rate too often */
+  private static final double THROTTLE_FACTOR_STEP = 0.05;
+
+  private final LatencyStatistics flushLatency = new LatencyStatistics();
+  private final LatencyStatistics walFsyncLatency = new LatencyStatistics();
+
+  public static CompactionWritePressureController getInstance() {
+    return CompactionWritePressureControllerHolder.INSTANCE;
+  }
+
+  private CompactionWritePressureController() {}
+
+  /** Called when a memtable of memTableSize bytes has been flushed in flushTimeInMs. */
+  public void recordFlush(long flushTimeInMs, long memTableSize) {
+    if (memTableSize <= 0) {
+      return;
+    }
+    flushLatency.record((double) flushTimeInMs * 1024 * 1024 / memTableSize);
+  }
+
+  /** Called after each fsync of a wal node. */
+  public void recordWalFsync(long latencyInNs) {
+    walFsyncLatency.record(latencyInNs);
+  }
+
+  /** The ratio of the recent latency to the long-term latency of the slower write path. */
+  public double getWritePressure() {
+    return Math.max(flushLatency.getPressure(), walFsyncLatency.getPressure());
+  }
+
+  /** The fraction of compaction_write_throughput_mb_per_sec compaction may use now. */
+  public double getThrottleFactor() {
+    double threshold =
+        IoTDBDescriptor.getInstance().getConfig().getCompactionWritePressureThreshold();
+    double pressure = getWritePressure();
+    if (threshold <= 0 || pressure <= threshold) {
+      return 1;
+    }
+    double factor = Math.max(MIN_THROTTLE_FACTOR, threshold / pressure);
+    return Math.floor(factor / THROTTLE_FACTOR_STEP) * THROTTLE_FACTOR_STEP;
+  }
+
+  private static class LatencyStatistics {
+    private double fastAverage = 0;
+    private double slowAverage = 0;
+
+    private synchronized void record(double latency) {
+      if (slowAverage == 0) {
+        fastAverage = latency;
+        slowAverage = latency;
+        return;
+      }
+      fastAverage = FAST_ALPHA * latency + (1 - FAST_ALPHA) * fastAverage;
+      slowAverage = SLOW_ALPHA * latency + (1 - SLOW_ALPHA) * slowAverage;
+    }
+
+    private synchronized double getPressure() {
+      return slowAverage == 0 ? 1 : fastAverage / slowAverage;
+    }
+  }
+
+  private static class CompactionWritePressureControllerHolder {
+    private static final CompactionWritePressureController INSTANCE =
+        new CompactionWritePressureController();
+
+    private CompactionWritePressureControllerHolder() {}
+  }
+}
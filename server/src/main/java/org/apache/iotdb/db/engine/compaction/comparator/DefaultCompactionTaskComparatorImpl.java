@@ -38,13 +38,17 @@ public class DefaultCompactionTaskComparatorImpl implements ICompactionTaskCompa
         || ((o2 instanceof InnerSpaceCompactionTask)
             && (o1 instanceof CrossSpaceCompactionTask)))) {
       if (config.getCompactionPriority() == CompactionPriority.BALANCE) {
-        return 0;
+        return compareReadAmplification(o1, o2);
       } else if (config.getCompactionPriority() == CompactionPriority.INNER_CROSS) {
         return o1 instanceof InnerSpaceCompactionTask ? -1 : 1;
       } else {
         return o1 instanceof CrossSpaceCompactionTask ? -1 : 1;
       }
     }
+    int readAmplificationResult = compareReadAmplification(o1, o2);
+    if (readAmplificationResult != 0) {
+      return readAmplificationResult;
+    }
     if (o1 instanceof InnerSpaceCompactionTask) {
       return compareInnerSpaceCompactionTask(
           (InnerSpaceCompactionTask) o1, (InnerSpaceCompactionTask) o2);
@@ -54,6 +58,21 @@ public class DefaultCompactionTaskComparatorImpl implements ICompactionTaskCompa
     }
   }
 
+  /**
+   * We prefer the task whose time partition saves more file reads of queries. The scores are
+   * compared by their order of magnitude, so that the other rules still decide between partitions
+   * with similar read amplification.
+   */
+  public int compareReadAmplification(AbstractCompactionTask o1, AbstractCompactionTask o2) {
+    return Integer.compare(
+        getReadAmplificationLevel(o2.getReadAmplificationScore()),
+        getReadAmplificationLevel(o1.getReadAmplificationScore()));
+  }
+
+  private static int getReadAmplificationLevel(double score) {
+    return score < 1 ? 0 : 1 + (int) (Math.log(score) / Math.log(2));
+  }
+
   public int compareInnerSpaceCompactionTask(
       InnerSpaceCompactionTask o1, InnerSpaceCompactionTask o2) {
     if (o1.isSequence() ^ o2.isSequence()) {
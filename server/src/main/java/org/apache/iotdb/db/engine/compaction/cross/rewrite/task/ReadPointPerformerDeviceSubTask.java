@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.cross.rewrite.task;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.engine.compaction.performer.impl.ReadPointCompactionPerformer;
+import org.apache.iotdb.db.engine.compaction.writer.CrossSpaceCompactionWriter;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.metadata.PathNotExistException;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.reader.IBatchReader;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * This class is used to compact a whole device into a {@link
+ * CrossSpaceCompactionWriter.DeviceBuffer}, so that the devices with few measurements can be
+ * compacted in parallel in cross space compaction. The query data source must not be shared with
+ * other devices, because its order indexes of unseq files are filled for this device.
+ */
+public class ReadPointPerformerDeviceSubTask implements Callable<Void> {
+  private static final Logger logger =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  private final String device;
+  private final boolean isAligned;
+  private final Set<String> measurementList;
+  private final QueryContext queryContext;
+  private final QueryDataSource queryDataSource;
+  private final CrossSpaceCompactionWriter.DeviceBuffer deviceBuffer;
+
+  public ReadPointPerformerDeviceSubTask(
+      String device,
+      boolean isAligned,
+      Set<String> measurementList,
+      QueryContext queryContext,
+      QueryDataSource queryDataSource,
+      CrossSpaceCompactionWriter.DeviceBuffer deviceBuffer) {
+    this.device = device;
+    this.isAligned = isAligned;
+    this.measurementList = measurementList;
+    this.queryContext = queryContext;
+    this.queryDataSource = queryDataSource;
+    this.deviceBuffer = deviceBuffer;
+  }
+
+  @Override
+  public Void call() throws Exception {
+    if (isAligned) {
+      List<IMeasurementSchema> measurementSchemas =
+          ReadPointCompactionPerformer.getAlignedMeasurementSchemas(device, measurementList);
+      if (measurementSchemas.isEmpty()) {
+        return null;
+      }
+      List<String> existedMeasurements = new ArrayList<>();
+      for (IMeasurementSchema measurementSchema : measurementSchemas) {
+        existedMeasurements.add(measurementSchema.getMeasurementId());
+      }
+      writeWithReader(
+          measurementSchemas,
+          ReadPointCompactionPerformer.constructReader(
+              device,
+              existedMeasurements,
+              measurementSchemas,
+              measurementList,
+              queryContext,
+              queryDataSource,
+              true));
+      return null;
+    }
+
+    for (String measurement : measurementList) {
+      List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
+      try {
+        measurementSchemas.add(ReadPointCompactionPerformer.getSeriesSchema(device, measurement));
+      } catch (PathNotExistException e) {
+        logger.info("A deleted path is skipped: {}", e.getMessage());
+        continue;
+      }
+      writeWithReader(
+          measurementSchemas,
+          ReadPointCompactionPerformer.constructReader(
+              device,
+              Collections.singletonList(measurement),
+              measurementSchemas,
+              measurementList,
+              queryContext,
+              queryDataSource,
+              false));
+    }
+    return null;
+  }
+
+  private void writeWithReader(List<IMeasurementSchema> measurementSchemas, IBatchReader reader)
+      throws IOException, InterruptedException {
+    if (!reader.hasNextBatch()) {
+      return;
+    }
+    deviceBuffer.startMeasurement(measurementSchemas);
+    while (reader.hasNextBatch()) {
+      BatchData batchData = reader.nextBatch();
+      while (batchData.hasCurrent()) {
+        deviceBuffer.write(batchData.currentTime(), batchData.currentValue());
+        batchData.next();
+      }
+    }
+    deviceBuffer.endMeasurement();
+  }
+}
@@ -26,13 +26,24 @@ import org.apache.iotdb.db.engine.compaction.constant.ProcessChunkType;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.exception.write.PageException;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
@@ -41,10 +52,18 @@ import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 import com.google.common.util.concurrent.RateLimiter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.List;
 
-/** This class is used to compact one series during inner space compaction. */
+/**
+ * This class is used to compact one series during inner space compaction.
+ *
+ * <p>Chunks which are large enough are flushed or merged as they are. When a chunk has to be
+ * written into the ChunkWriter, e.g. it follows a small chunk or it is modified, its pages are
+ * still copied without decoding as long as they are large enough, not modified and encoded and
+ * compressed the same way as the ChunkWriter. Only the other pages are decoded into points.
+ */
 public class SingleSeriesCompactionExecutor {
   private String device;
   private LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList;
@@ -152,9 +171,15 @@ public class SingleSeriesCompactionExecutor {
   private void processLargeChunk(Chunk chunk, ChunkMetadata chunkMetadata) throws IOException {
     if (pointCountInChunkWriter != 0L) {
       // if there are points remaining in ChunkWriter
-      // deserialize current chunk and write to ChunkWriter, then flush the ChunkWriter
+      // write current chunk to ChunkWriter, then flush the ChunkWriter
       writeChunkIntoChunkWriter(chunk);
       flushChunkWriterIfLargeEnough();
+    } else if (cachedChunk != null && !canMergeWithCachedChunk(chunk)) {
+      // the pages of the two chunks can't be put into one chunk, flush them separately
+      flushChunkToFileWriter(cachedChunk, cachedChunkMetadata, true);
+      cachedChunk = null;
+      cachedChunkMetadata = null;
+      flushChunkToFileWriter(chunk, chunkMetadata, false);
     } else if (cachedChunk != null) {
       // if there is a cached chunk, merge it with current chunk, then flush it
       mergeWithCachedChunk(chunk, chunkMetadata);
@@ -170,9 +195,14 @@ public class SingleSeriesCompactionExecutor {
     // the chunk is not too large either too small
     if (pointCountInChunkWriter != 0L) {
       // if there are points remaining in ChunkWriter
-      // deserialize current chunk and write to ChunkWriter
+      // write current chunk to ChunkWriter
       writeChunkIntoChunkWriter(chunk);
       flushChunkWriterIfLargeEnough();
+    } else if (cachedChunk != null && !canMergeWithCachedChunk(chunk)) {
+      // the pages of the two chunks can't be put into one chunk, cache current chunk instead
+      flushChunkToFileWriter(cachedChunk, cachedChunkMetadata, true);
+      cachedChunk = chunk;
+      cachedChunkMetadata = chunkMetadata;
     } else if (cachedChunk != null) {
       // if there is a cached chunk, merge it with current chunk
       mergeWithCachedChunk(chunk, chunkMetadata);
@@ -197,23 +227,125 @@ public class SingleSeriesCompactionExecutor {
     flushChunkWriterIfLargeEnough();
   }
 
-  /** Deserialize a chunk into points and write it to the chunkWriter */
+  /**
+   * Write a chunk to the chunkWriter page by page. A page is copied as it is if possible, otherwise
+   * it's deserialized into points.
+   */
   private void writeChunkIntoChunkWriter(Chunk chunk) throws IOException {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    if (chunk.isFromOldFile()
+        || chunkHeader.getEncodingType() != schema.getEncodingType()
+        || chunkHeader.getCompressionType() != schema.getCompressor()) {
+      deserializeChunkIntoChunkWriter(chunk);
+      return;
+    }
+    ByteBuffer chunkData = chunk.getData().duplicate();
+    boolean onlyOnePage =
+        ((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER;
+    while (chunkData.remaining() > 0) {
+      PageHeader pageHeader =
+          onlyOnePage
+              ? PageHeader.deserializeFrom(chunkData, chunk.getChunkStatistic())
+              : PageHeader.deserializeFrom(chunkData, chunkHeader.getDataType());
+      ByteBuffer pageData = chunkData.slice();
+      pageData.limit(pageHeader.getCompressedSize());
+      chunkData.position(chunkData.position() + pageHeader.getCompressedSize());
+
+      TimeRange pageTimeRange = new TimeRange(pageHeader.getStartTime(), pageHeader.getEndTime());
+      boolean modified = false;
+      boolean deleted = false;
+      if (chunk.getDeleteIntervalList() != null) {
+        for (TimeRange deleteInterval : chunk.getDeleteIntervalList()) {
+          deleted |= deleteInterval.contains(pageTimeRange);
+          modified |= deleteInterval.overlaps(pageTimeRange);
+        }
+      }
+      if (deleted) {
+        continue;
+      }
+      if (!modified
+          && (pageHeader.getNumOfValues() >= chunkPointNumLowerBound
+              || pageHeader.getSerializedPageSize() >= chunkSizeLowerBound)) {
+        copyPageIntoChunkWriter(pageHeader, pageData);
+      } else {
+        deserializePageIntoChunkWriter(
+            chunkHeader, pageHeader, pageData, chunk.getDeleteIntervalList());
+      }
+    }
+  }
+
+  /** Append the compressed page to the chunkWriter, after the page being written in it. */
+  private void copyPageIntoChunkWriter(PageHeader pageHeader, ByteBuffer pageData)
+      throws IOException {
+    chunkWriter.sealCurrentPage();
+    try {
+      chunkWriter.writePageHeaderAndDataIntoBuff(pageData, pageHeader);
+    } catch (PageException e) {
+      throw new IOException(e);
+    }
+    minStartTimestamp = Math.min(minStartTimestamp, pageHeader.getStartTime());
+    maxEndTimestamp = Math.max(maxEndTimestamp, pageHeader.getEndTime());
+    pointCountInChunkWriter += pageHeader.getNumOfValues();
+  }
+
+  /** Deserialize a page into points and write them to the chunkWriter */
+  private void deserializePageIntoChunkWriter(
+      ChunkHeader chunkHeader,
+      PageHeader pageHeader,
+      ByteBuffer pageData,
+      List<TimeRange> deleteIntervalList)
+      throws IOException {
+    byte[] compressedPageData = new byte[pageHeader.getCompressedSize()];
+    pageData.duplicate().get(compressedPageData);
+    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+    IUnCompressor.getUnCompressor(chunkHeader.getCompressionType())
+        .uncompress(compressedPageData, 0, compressedPageData.length, uncompressedPageData, 0);
+    PageReader pageReader =
+        new PageReader(
+            pageHeader,
+            ByteBuffer.wrap(uncompressedPageData),
+            chunkHeader.getDataType(),
+            Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType()),
+            Decoder.getDecoderByType(
+                TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+                TSDataType.INT64),
+            null);
+    pageReader.setDeleteIntervalList(deleteIntervalList);
+    writePointsIntoChunkWriter(pageReader.getAllSatisfiedPageData().getBatchDataIterator());
+  }
+
+  /** Deserialize a chunk into points and write it to the chunkWriter */
+  private void deserializeChunkIntoChunkWriter(Chunk chunk) throws IOException {
     IChunkReader chunkReader = new ChunkReader(chunk, null);
     while (chunkReader.hasNextSatisfiedPage()) {
-      IPointReader batchIterator = chunkReader.nextPageData().getBatchDataIterator();
-      while (batchIterator.hasNextTimeValuePair()) {
-        TimeValuePair timeValuePair = batchIterator.nextTimeValuePair();
-        writeTimeAndValueToChunkWriter(timeValuePair);
-        if (timeValuePair.getTimestamp() > maxEndTimestamp) {
-          maxEndTimestamp = timeValuePair.getTimestamp();
-        }
-        if (timeValuePair.getTimestamp() < minStartTimestamp) {
-          minStartTimestamp = timeValuePair.getTimestamp();
-        }
+      writePointsIntoChunkWriter(chunkReader.nextPageData().getBatchDataIterator());
+    }
+  }
+
+  private void writePointsIntoChunkWriter(IPointReader batchIterator) throws IOException {
+    while (batchIterator.hasNextTimeValuePair()) {
+      TimeValuePair timeValuePair = batchIterator.nextTimeValuePair();
+      writeTimeAndValueToChunkWriter(timeValuePair);
+      if (timeValuePair.getTimestamp() > maxEndTimestamp) {
+        maxEndTimestamp = timeValuePair.getTimestamp();
+      }
+      if (timeValuePair.getTimestamp() < minStartTimestamp) {
+        minStartTimestamp = timeValuePair.getTimestamp();
       }
+      pointCountInChunkWriter++;
     }
-    pointCountInChunkWriter += chunk.getChunkStatistic().getCount();
+  }
+
+  /**
+   * The pages of two chunks can be put into one chunk only if they are encoded and compressed the
+   * same way.
+   */
+  private boolean canMergeWithCachedChunk(Chunk chunk) {
+    ChunkHeader cachedChunkHeader = cachedChunk.getHeader();
+    return !chunk.isFromOldFile()
+        && !cachedChunk.isFromOldFile()
+        && cachedChunkHeader.getEncodingType() == chunk.getHeader().getEncodingType()
+        && cachedChunkHeader.getCompressionType() == chunk.getHeader().getCompressionType();
   }
 
   private void writeCachedChunkIntoChunkWriter() throws IOException {
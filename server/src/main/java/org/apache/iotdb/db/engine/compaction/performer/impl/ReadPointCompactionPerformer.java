@@ -21,6 +21,7 @@ package org.apache.iotdb.db.engine.compaction.performer.impl;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
+import org.apache.iotdb.db.engine.compaction.cross.rewrite.task.ReadPointPerformerDeviceSubTask;
 import org.apache.iotdb.db.engine.compaction.cross.rewrite.task.ReadPointPerformerSubTask;
 import org.apache.iotdb.db.engine.compaction.inner.utils.MultiTsFileDeviceIterator;
 import org.apache.iotdb.db.engine.compaction.performer.ICrossCompactionPerformer;
@@ -55,19 +56,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.stream.Collectors;
 
 public class ReadPointCompactionPerformer
     implements ICrossCompactionPerformer, IUnseqCompactionPerformer {
-  private Logger LOGGER = LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
   private List<TsFileResource> seqFiles = Collections.emptyList();
   private List<TsFileResource> unseqFiles = Collections.emptyList();
   private static final int subTaskNum =
@@ -107,19 +113,31 @@ public class ReadPointCompactionPerformer
       // Do not close device iterator, because tsfile reader is managed by FileReaderManager.
       MultiTsFileDeviceIterator deviceIterator =
           new MultiTsFileDeviceIterator(seqFiles, unseqFiles);
-      while (deviceIterator.hasNextDevice()) {
-        checkThreadInterrupted();
-        Pair<String, Boolean> deviceInfo = deviceIterator.nextDevice();
-        String device = deviceInfo.left;
-        boolean isAligned = deviceInfo.right;
-        QueryUtils.fillOrderIndexes(queryDataSource, device, true);
+      if (compactionWriter instanceof CrossSpaceCompactionWriter && subTaskNum > 1) {
+        compactDevicesInParallel(
+            deviceIterator,
+            (CrossSpaceCompactionWriter) compactionWriter,
+            queryContext,
+            queryDataSource);
+      } else {
+        while (deviceIterator.hasNextDevice()) {
+          checkThreadInterrupted();
+          Pair<String, Boolean> deviceInfo = deviceIterator.nextDevice();
+          String device = deviceInfo.left;
+          boolean isAligned = deviceInfo.right;
+          QueryUtils.fillOrderIndexes(queryDataSource, device, true);
 
-        if (isAligned) {
-          compactAlignedSeries(
-              device, deviceIterator, compactionWriter, queryContext, queryDataSource);
-        } else {
-          compactNonAlignedSeries(
-              device, deviceIterator, compactionWriter, queryContext, queryDataSource);
+          if (isAligned) {
+            compactAlignedSeries(
+                device, deviceIterator, compactionWriter, queryContext, queryDataSource);
+          } else {
+            compactNonAlignedSeries(
+                device,
+                deviceIterator.iterateNotAlignedSeries(device, false).getAllMeasurements(),
+                compactionWriter,
+                queryContext,
+                queryDataSource);
+          }
         }
       }
 
@@ -136,29 +154,142 @@ public class ReadPointCompactionPerformer
     this.targetFiles = targetFiles;
   }
 
-  private void compactAlignedSeries(
-      String device,
+  /**
+   * Compact the devices of cross space compaction in parallel. A device having no fewer
+   * measurements than sub tasks is compacted by measurement-level sub tasks as before, while the
+   * others are each compacted by a sub task into a device buffer and flushed to the target files in
+   * the order of devices. At most subTaskNum devices are buffered at the same time, and the memory
+   * of buffered chunks is reserved from the budget shared by all compaction tasks.
+   */
+  private void compactDevicesInParallel(
       MultiTsFileDeviceIterator deviceIterator,
-      AbstractCompactionWriter compactionWriter,
+      CrossSpaceCompactionWriter compactionWriter,
       QueryContext queryContext,
       QueryDataSource queryDataSource)
-      throws IOException, MetadataException {
-    MultiTsFileDeviceIterator.AlignedMeasurementIterator alignedMeasurementIterator =
-        deviceIterator.iterateAlignedSeries(device);
-    Set<String> allMeasurements = alignedMeasurementIterator.getAllMeasurements();
+      throws IOException, MetadataException, InterruptedException {
+    Deque<Pair<CrossSpaceCompactionWriter.DeviceBuffer, Future<Void>>> bufferedDevices =
+        new ArrayDeque<>();
+    try {
+      while (deviceIterator.hasNextDevice()) {
+        checkThreadInterrupted();
+        Pair<String, Boolean> deviceInfo = deviceIterator.nextDevice();
+        String device = deviceInfo.left;
+        boolean isAligned = deviceInfo.right;
+        Set<String> allMeasurements =
+            isAligned
+                ? deviceIterator.iterateAlignedSeries(device).getAllMeasurements()
+                : deviceIterator.iterateNotAlignedSeries(device, false).getAllMeasurements();
+
+        if (!isAligned && allMeasurements.size() >= subTaskNum) {
+          flushBufferedDevices(bufferedDevices, compactionWriter, 0);
+          QueryUtils.fillOrderIndexes(queryDataSource, device, true);
+          compactNonAlignedSeries(
+              device, allMeasurements, compactionWriter, queryContext, queryDataSource);
+          continue;
+        }
+
+        // the order indexes of unseq files differ between devices, so each device has its own
+        // data source
+        QueryDataSource deviceDataSource = new QueryDataSource(seqFiles, unseqFiles);
+        QueryUtils.fillOrderIndexes(deviceDataSource, device, true);
+        CrossSpaceCompactionWriter.DeviceBuffer deviceBuffer =
+            compactionWriter.createDeviceBuffer(device, isAligned);
+        bufferedDevices.add(
+            new Pair<>(
+                deviceBuffer,
+                submitDeviceSubTask(
+                    new ReadPointPerformerDeviceSubTask(
+                        device,
+                        isAligned,
+                        allMeasurements,
+                        queryContext,
+                        deviceDataSource,
+                        deviceBuffer),
+                    deviceBuffer)));
+        flushBufferedDevices(bufferedDevices, compactionWriter, subTaskNum);
+      }
+      flushBufferedDevices(bufferedDevices, compactionWriter, 0);
+    } finally {
+      for (Pair<CrossSpaceCompactionWriter.DeviceBuffer, Future<Void>> bufferedDevice :
+          bufferedDevices) {
+        bufferedDevice.right.cancel(true);
+        bufferedDevice.left.close();
+      }
+    }
+  }
+
+  /** Flush the earliest buffered devices until no more than maxBufferedNum devices are left. */
+  private void flushBufferedDevices(
+      Deque<Pair<CrossSpaceCompactionWriter.DeviceBuffer, Future<Void>>> bufferedDevices,
+      CrossSpaceCompactionWriter compactionWriter,
+      int maxBufferedNum)
+      throws IOException, InterruptedException {
+    while (bufferedDevices.size() > maxBufferedNum) {
+      Pair<CrossSpaceCompactionWriter.DeviceBuffer, Future<Void>> bufferedDevice =
+          bufferedDevices.peek();
+      // the other devices wait for this one to release memory, so it must not wait for them
+      bufferedDevice.left.allowMemoryOverdraw();
+      try {
+        bufferedDevice.right.get();
+      } catch (InterruptedException | ExecutionException e) {
+        LOGGER.error("SubCompactionTask meet errors ", e);
+        Thread.currentThread().interrupt();
+        throw new InterruptedException();
+      }
+      bufferedDevices.poll();
+      compactionWriter.flushDeviceBuffer(bufferedDevice.left);
+    }
+  }
+
+  private static Future<Void> submitDeviceSubTask(
+      Callable<Void> subTask, CrossSpaceCompactionWriter.DeviceBuffer deviceBuffer) {
+    Future<Void> future = CompactionTaskManager.getInstance().submitSubTask(subTask);
+    if (future == null) {
+      // the sub task pool is not started, run the sub task in the current thread, which cannot
+      // wait for the buffered devices to be flushed
+      deviceBuffer.allowMemoryOverdraw();
+      FutureTask<Void> futureTask = new FutureTask<>(subTask);
+      futureTask.run();
+      future = futureTask;
+    }
+    return future;
+  }
+
+  public static IMeasurementSchema getSeriesSchema(String device, String measurement)
+      throws MetadataException {
+    if (IoTDBDescriptor.getInstance().getConfig().isEnableIDTable()) {
+      return IDTableManager.getInstance().getSeriesSchema(device, measurement);
+    } else {
+      return IoTDB.schemaProcessor.getSeriesSchema(new PartialPath(device, measurement));
+    }
+  }
+
+  /** Get the schemas of the measurements of an aligned device, deleted ones are skipped. */
+  public static List<IMeasurementSchema> getAlignedMeasurementSchemas(
+      String device, Set<String> allMeasurements) throws MetadataException {
     List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
     for (String measurement : allMeasurements) {
       try {
-        if (IoTDBDescriptor.getInstance().getConfig().isEnableIDTable()) {
-          measurementSchemas.add(IDTableManager.getInstance().getSeriesSchema(device, measurement));
-        } else {
-          measurementSchemas.add(
-              IoTDB.schemaProcessor.getSeriesSchema(new PartialPath(device, measurement)));
-        }
+        measurementSchemas.add(getSeriesSchema(device, measurement));
       } catch (PathNotExistException e) {
         LOGGER.info("A deleted path is skipped: {}", e.getMessage());
       }
     }
+    return measurementSchemas;
+  }
+
+  private void compactAlignedSeries(
+      String device,
+      MultiTsFileDeviceIterator deviceIterator,
+      AbstractCompactionWriter compactionWriter,
+      QueryContext queryContext,
+      QueryDataSource queryDataSource)
+      throws IOException, MetadataException {
+    MultiTsFileDeviceIterator.AlignedMeasurementIterator alignedMeasurementIterator =
+        deviceIterator.iterateAlignedSeries(device);
+    Set<String> allMeasurements = alignedMeasurementIterator.getAllMeasurements();
+    List<IMeasurementSchema> measurementSchemas =
+        getAlignedMeasurementSchemas(device, allMeasurements);
     if (measurementSchemas.isEmpty()) {
       return;
     }
@@ -188,15 +319,11 @@ public class ReadPointCompactionPerformer
 
   private void compactNonAlignedSeries(
       String device,
-      MultiTsFileDeviceIterator deviceIterator,
+      Set<String> allMeasurements,
       AbstractCompactionWriter compactionWriter,
       QueryContext queryContext,
       QueryDataSource queryDataSource)
       throws MetadataException, IOException, InterruptedException {
-    boolean hasStartChunkGroup = false;
-    MultiTsFileDeviceIterator.MeasurementIterator measurementIterator =
-        deviceIterator.iterateNotAlignedSeries(device, false);
-    Set<String> allMeasurements = measurementIterator.getAllMeasurements();
     int subTaskNums = Math.min(allMeasurements.size(), subTaskNum);
 
     // assign all measurements to different sub tasks
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.engine.compaction.task;
 
 import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.engine.compaction.CompactionReadAmplificationTracker;
 import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
 import org.apache.iotdb.db.engine.compaction.performer.ICompactionPerformer;
 import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
@@ -47,6 +48,9 @@ public abstract class AbstractCompactionTask implements Callable<Void> {
   protected volatile boolean ran = false;
   protected volatile boolean finished = false;
   protected ICompactionPerformer performer;
+  // read amplification score of the time partition when the task is created, the priority of a
+  // task must not change while it is in the queue
+  protected final double readAmplificationScore;
 
   public AbstractCompactionTask(
       String fullStorageGroupName,
@@ -57,6 +61,14 @@ public abstract class AbstractCompactionTask implements Callable<Void> {
     this.timePartition = timePartition;
     this.tsFileManager = tsFileManager;
     this.currentTaskNum = currentTaskNum;
+    this.readAmplificationScore =
+        tsFileManager == null
+            ? 0
+            : CompactionReadAmplificationTracker.getInstance()
+                .getScore(
+                    tsFileManager.getStorageGroupName(),
+                    tsFileManager.getDataRegion(),
+                    timePartition);
   }
 
   public abstract void setSourceFilesToCompactionCandidate();
@@ -93,6 +105,10 @@ public abstract class AbstractCompactionTask implements Callable<Void> {
     return timePartition;
   }
 
+  public double getReadAmplificationScore() {
+    return readAmplificationScore;
+  }
+
   public abstract boolean equalsOtherTask(AbstractCompactionTask otherTask);
 
   /**
@@ -80,8 +80,14 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
   public abstract void close() throws IOException;
 
   protected void writeDataPoint(Long timestamp, Object value, int subTaskId) {
+    writeDataPoint(chunkWriters[subTaskId], isAlign, timestamp, value);
+    measurementPointCountArray[subTaskId] += 1;
+  }
+
+  protected static void writeDataPoint(
+      IChunkWriter iChunkWriter, boolean isAlign, long timestamp, Object value) {
     if (!isAlign) {
-      ChunkWriterImpl chunkWriter = (ChunkWriterImpl) this.chunkWriters[subTaskId];
+      ChunkWriterImpl chunkWriter = (ChunkWriterImpl) iChunkWriter;
       switch (chunkWriter.getDataType()) {
         case TEXT:
           chunkWriter.write(timestamp, (Binary) value);
@@ -105,7 +111,7 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
           throw new UnsupportedOperationException("Unknown data type " + chunkWriter.getDataType());
       }
     } else {
-      AlignedChunkWriterImpl chunkWriter = (AlignedChunkWriterImpl) this.chunkWriters[subTaskId];
+      AlignedChunkWriterImpl chunkWriter = (AlignedChunkWriterImpl) iChunkWriter;
       for (TsPrimitiveType val : (TsPrimitiveType[]) value) {
         if (val == null) {
           chunkWriter.write(timestamp, null, true);
@@ -137,7 +143,6 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
       }
       chunkWriter.write(timestamp);
     }
-    measurementPointCountArray[subTaskId] += 1;
   }
 
   protected void flushChunkToFileWriter(TsFileIOWriter targetWriter, int subTaskId)
@@ -163,11 +168,14 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
   }
 
   protected boolean checkChunkSize(int subTaskId) {
-    if (chunkWriters[subTaskId] instanceof AlignedChunkWriterImpl) {
-      return ((AlignedChunkWriterImpl) chunkWriters[subTaskId])
-          .checkIsChunkSizeOverThreshold(targetChunkSize);
+    return checkChunkSize(chunkWriters[subTaskId]);
+  }
+
+  protected boolean checkChunkSize(IChunkWriter chunkWriter) {
+    if (chunkWriter instanceof AlignedChunkWriterImpl) {
+      return ((AlignedChunkWriterImpl) chunkWriter).checkIsChunkSizeOverThreshold(targetChunkSize);
     } else {
-      return chunkWriters[subTaskId].estimateMaxSeriesMemSize() > targetChunkSize;
+      return chunkWriter.estimateMaxSeriesMemSize() > targetChunkSize;
     }
   }
 
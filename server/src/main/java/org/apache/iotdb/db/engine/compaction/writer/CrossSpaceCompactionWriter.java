@@ -18,9 +18,17 @@
  */
 package org.apache.iotdb.db.engine.compaction.writer;
 
+import org.apache.iotdb.db.engine.compaction.CompactionMetricsManager;
+import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
+import org.apache.iotdb.db.engine.compaction.constant.CompactionType;
+import org.apache.iotdb.db.engine.compaction.constant.ProcessChunkType;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.write.chunk.AlignedChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import java.io.IOException;
@@ -69,7 +77,7 @@ public class CrossSpaceCompactionWriter extends AbstractCompactionWriter {
     this.deviceId = deviceId;
     this.isAlign = isAlign;
     this.seqFileIndexArray = new int[subTaskNum];
-    checkIsDeviceExistAndGetDeviceEndTime();
+    getDeviceEndTime(deviceId, currentDeviceEndTime);
     for (int i = 0; i < fileWriterList.size(); i++) {
       chunkGroupHeaderSize = fileWriterList.get(i).startChunkGroup(deviceId);
     }
@@ -152,12 +160,53 @@ public class CrossSpaceCompactionWriter extends AbstractCompactionWriter {
     }
   }
 
-  private void checkIsDeviceExistAndGetDeviceEndTime() throws IOException {
+  /**
+   * Create a buffer which compacts one device without touching the target files, so that several
+   * devices can be compacted in parallel. The buffers must be flushed by {@link
+   * #flushDeviceBuffer(DeviceBuffer)} one by one in the order of devices.
+   */
+  public DeviceBuffer createDeviceBuffer(String deviceId, boolean isAlign) throws IOException {
+    return new DeviceBuffer(deviceId, isAlign);
+  }
+
+  /**
+   * Write the chunks buffered by the device buffer into the target files and release the memory
+   * they held. It must not be called when a chunk group is started by {@link
+   * #startChunkGroup(String, boolean)} and not ended.
+   */
+  public void flushDeviceBuffer(DeviceBuffer deviceBuffer) throws IOException {
+    try {
+      for (int i = 0; i < fileWriterList.size(); i++) {
+        List<IChunkWriter> chunkWriters = deviceBuffer.chunkWritersOfEachFile.get(i);
+        if (chunkWriters.isEmpty()) {
+          continue;
+        }
+        TsFileIOWriter targetFileWriter = fileWriterList.get(i);
+        targetFileWriter.startChunkGroup(deviceBuffer.deviceId);
+        for (IChunkWriter chunkWriter : chunkWriters) {
+          long chunkSize = chunkWriter.estimateMaxSeriesMemSize();
+          writeRateLimit(chunkSize);
+          chunkWriter.writeToFileWriter(targetFileWriter);
+          CompactionMetricsManager.recordWriteInfo(
+              CompactionType.CROSS_COMPACTION,
+              ProcessChunkType.DESERIALIZE_CHUNK,
+              deviceBuffer.isAlign,
+              chunkSize);
+        }
+        targetFileWriter.endChunkGroup();
+        isEmptyFile[i] = false;
+      }
+    } finally {
+      deviceBuffer.close();
+    }
+  }
+
+  private void getDeviceEndTime(String deviceId, long[] deviceEndTime) throws IOException {
     int fileIndex = 0;
     while (fileIndex < seqTsFileResources.size()) {
       if (seqTsFileResources.get(fileIndex).getTimeIndexType() == 1) {
         // the timeIndexType of resource is deviceTimeIndex
-        currentDeviceEndTime[fileIndex] = seqTsFileResources.get(fileIndex).getEndTime(deviceId);
+        deviceEndTime[fileIndex] = seqTsFileResources.get(fileIndex).getEndTime(deviceId);
       } else {
         long endTime = Long.MIN_VALUE;
         Map<String, TimeseriesMetadata> deviceMetadataMap =
@@ -171,10 +220,115 @@ public class CrossSpaceCompactionWriter extends AbstractCompactionWriter {
             endTime = tmpEndTime;
           }
         }
-        currentDeviceEndTime[fileIndex] = endTime;
+        deviceEndTime[fileIndex] = endTime;
       }
 
       fileIndex++;
     }
   }
+
+  /**
+   * Chunks of one device in each target file, which are compacted by a sub task and kept in memory
+   * until it is the turn of the device to be written. The memory of sealed chunks is reserved from
+   * {@link CompactionTaskManager} so that the buffered devices of all compaction tasks share one
+   * budget. A DeviceBuffer is written by only one thread.
+   */
+  public class DeviceBuffer {
+    private final String deviceId;
+    private final boolean isAlign;
+
+    // device end time in each source seq file
+    private final long[] deviceEndTime;
+
+    // sealed chunks of the device in each target file
+    private final List<List<IChunkWriter>> chunkWritersOfEachFile = new ArrayList<>();
+
+    private List<IMeasurementSchema> measurementSchemaList;
+    private IChunkWriter chunkWriter;
+    private int pointCount;
+    private int fileIndex;
+
+    private long reservedMemory = 0;
+    private volatile boolean closed = false;
+    // the device is the next one to be flushed, so its reservations must not wait for others
+    private volatile boolean canOverdrawMemory = false;
+
+    private DeviceBuffer(String deviceId, boolean isAlign) throws IOException {
+      this.deviceId = deviceId;
+      this.isAlign = isAlign;
+      this.deviceEndTime = new long[seqTsFileResources.size()];
+      getDeviceEndTime(deviceId, deviceEndTime);
+      for (int i = 0; i < fileWriterList.size(); i++) {
+        chunkWritersOfEachFile.add(new ArrayList<>());
+      }
+    }
+
+    public void startMeasurement(List<IMeasurementSchema> measurementSchemaList) {
+      this.measurementSchemaList = measurementSchemaList;
+      this.fileIndex = 0;
+      openChunkWriter();
+    }
+
+    public void write(long timestamp, Object value) throws IOException, InterruptedException {
+      // if timestamp is later than the current source seq tsfile, then seal the chunk of it
+      while (timestamp > deviceEndTime[fileIndex] && fileIndex != deviceEndTime.length - 1) {
+        sealChunkWriter();
+        fileIndex++;
+      }
+      writeDataPoint(chunkWriter, isAlign, timestamp, value);
+      pointCount++;
+      if (pointCount % 10 == 0 && checkChunkSize(chunkWriter)) {
+        sealChunkWriter();
+      }
+    }
+
+    public void endMeasurement() throws IOException, InterruptedException {
+      sealChunkWriter();
+      chunkWriter = null;
+    }
+
+    /** Allow the reservations of this device to exceed the memory budget. */
+    public void allowMemoryOverdraw() {
+      canOverdrawMemory = true;
+    }
+
+    /** Release the memory of the buffered chunks, any later reservation fails. */
+    public synchronized void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      chunkWritersOfEachFile.clear();
+      CompactionTaskManager.getInstance().releaseCompactionMemory(reservedMemory);
+      reservedMemory = 0;
+    }
+
+    private void openChunkWriter() {
+      pointCount = 0;
+      if (isAlign) {
+        chunkWriter = new AlignedChunkWriterImpl(measurementSchemaList);
+      } else {
+        chunkWriter = new ChunkWriterImpl(measurementSchemaList.get(0), true);
+      }
+    }
+
+    private void sealChunkWriter() throws IOException, InterruptedException {
+      if (pointCount == 0) {
+        return;
+      }
+      long chunkSize = chunkWriter.estimateMaxSeriesMemSize();
+      CompactionTaskManager.getInstance()
+          .reserveCompactionMemory(chunkSize, () -> canOverdrawMemory || closed);
+      synchronized (this) {
+        if (closed) {
+          CompactionTaskManager.getInstance().releaseCompactionMemory(chunkSize);
+          throw new IOException(
+              String.format("[Compaction] buffer of device %s has been closed", deviceId));
+        }
+        reservedMemory += chunkSize;
+        chunkWritersOfEachFile.get(fileIndex).add(chunkWriter);
+      }
+      openChunkWriter();
+    }
+  }
 }
@@ -55,7 +55,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class AbstractMemTable implements IMemTable {
   private static final Logger logger = LoggerFactory.getLogger(AbstractMemTable.class);
@@ -73,27 +75,27 @@ public abstract class AbstractMemTable implements IMemTable {
    */
   protected boolean disableMemControl = true;
 
-  private boolean shouldFlush = false;
+  private volatile boolean shouldFlush = false;
   private volatile FlushStatus flushStatus = FlushStatus.WORKING;
   private final int avgSeriesPointNumThreshold =
       IoTDBDescriptor.getInstance().getConfig().getAvgSeriesPointNumberThreshold();
   /** memory size of data points, including TEXT values */
-  private long memSize = 0;
+  private final AtomicLong memSize = new AtomicLong();
   /**
    * memory usage of all TVLists memory usage regardless of whether these TVLists are full,
    * including TEXT values
    */
-  private long tvListRamCost = 0;
+  private final AtomicLong tvListRamCost = new AtomicLong();
 
-  private int seriesNumber = 0;
+  private final AtomicInteger seriesNumber = new AtomicInteger();
 
-  private long totalPointsNum = 0;
+  private final AtomicLong totalPointsNum = new AtomicLong();
 
-  private long totalPointsNumThreshold = 0;
+  private final AtomicLong totalPointsNumThreshold = new AtomicLong();
 
-  private long maxPlanIndex = Long.MIN_VALUE;
+  private final AtomicLong maxPlanIndex = new AtomicLong(Long.MIN_VALUE);
 
-  private long minPlanIndex = Long.MAX_VALUE;
+  private final AtomicLong minPlanIndex = new AtomicLong(Long.MAX_VALUE);
 
   private final int memTableId = memTableIdCounter.getAndIncrement();
 
@@ -101,8 +103,15 @@ public abstract class AbstractMemTable implements IMemTable {
 
   private static final String METRIC_POINT_IN = "pointsIn";
 
+  /**
+   * When concurrent memtable write is enabled, writers of different devices share this memtable, so
+   * the device map is concurrent and all the statistics are updated atomically.
+   */
   public AbstractMemTable() {
-    this.memTableMap = new HashMap<>();
+    this.memTableMap =
+        IoTDBDescriptor.getInstance().getConfig().isEnableConcurrentMemtableWrite()
+            ? new ConcurrentHashMap<>()
+            : new HashMap<>();
   }
 
   public AbstractMemTable(Map<IDeviceID, IWritableMemChunkGroup> memTableMap) {
@@ -127,8 +136,8 @@ public abstract class AbstractMemTable implements IMemTable {
         memTableMap.computeIfAbsent(deviceId, k -> new WritableMemChunkGroup());
     for (IMeasurementSchema schema : schemaList) {
       if (!memChunkGroup.contains(schema.getMeasurementId())) {
-        seriesNumber++;
-        totalPointsNumThreshold += avgSeriesPointNumThreshold;
+        seriesNumber.incrementAndGet();
+        totalPointsNumThreshold.addAndGet(avgSeriesPointNumThreshold);
       }
     }
     return memChunkGroup;
@@ -140,14 +149,15 @@ public abstract class AbstractMemTable implements IMemTable {
         memTableMap.computeIfAbsent(
             deviceId,
             k -> {
-              seriesNumber += schemaList.size();
-              totalPointsNumThreshold += ((long) avgSeriesPointNumThreshold) * schemaList.size();
+              seriesNumber.addAndGet(schemaList.size());
+              totalPointsNumThreshold.addAndGet(
+                  ((long) avgSeriesPointNumThreshold) * schemaList.size());
               return new AlignedWritableMemChunkGroup(schemaList);
             });
     for (IMeasurementSchema schema : schemaList) {
       if (!memChunkGroup.contains(schema.getMeasurementId())) {
-        seriesNumber++;
-        totalPointsNumThreshold += avgSeriesPointNumThreshold;
+        seriesNumber.incrementAndGet();
+        totalPointsNumThreshold.addAndGet(avgSeriesPointNumThreshold);
       }
     }
     return memChunkGroup;
@@ -175,13 +185,13 @@ public abstract class AbstractMemTable implements IMemTable {
       schemaList.add(schema);
       dataTypes.add(schema.getType());
     }
-    memSize += MemUtils.getRecordsSize(dataTypes, values, disableMemControl);
+    memSize.addAndGet(MemUtils.getRecordsSize(dataTypes, values, disableMemControl));
     write(insertRowPlan.getDeviceID(), schemaList, insertRowPlan.getTime(), values);
 
     int pointsInserted =
         insertRowPlan.getMeasurements().length - insertRowPlan.getFailedMeasurementNumber();
 
-    totalPointsNum += pointsInserted;
+    totalPointsNum.addAndGet(pointsInserted);
 
     if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
       MetricsService.getInstance()
@@ -219,12 +229,12 @@ public abstract class AbstractMemTable implements IMemTable {
       schemaList.add(schema);
       dataTypes.add(schema.getType());
     }
-    memSize += MemUtils.getRecordsSize(dataTypes, values, disableMemControl);
+    memSize.addAndGet(MemUtils.getRecordsSize(dataTypes, values, disableMemControl));
     write(insertRowNode.getDeviceID(), schemaList, insertRowNode.getTime(), values);
 
     int pointsInserted = insertRowNode.getMeasurements().length;
 
-    totalPointsNum += pointsInserted;
+    totalPointsNum.addAndGet(pointsInserted);
 
     if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
       MetricsService.getInstance()
@@ -260,8 +270,8 @@ public abstract class AbstractMemTable implements IMemTable {
     if (schemaList.isEmpty()) {
       return;
     }
-    memSize +=
-        MemUtils.getAlignedRecordsSize(dataTypes, insertRowPlan.getValues(), disableMemControl);
+    memSize.addAndGet(
+        MemUtils.getAlignedRecordsSize(dataTypes, insertRowPlan.getValues(), disableMemControl));
     writeAlignedRow(
         insertRowPlan.getDeviceID(),
         schemaList,
@@ -269,7 +279,7 @@ public abstract class AbstractMemTable implements IMemTable {
         insertRowPlan.getValues());
     int pointsInserted =
         insertRowPlan.getMeasurements().length - insertRowPlan.getFailedMeasurementNumber();
-    totalPointsNum += pointsInserted;
+    totalPointsNum.addAndGet(pointsInserted);
 
     if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
       MetricsService.getInstance()
@@ -307,15 +317,15 @@ public abstract class AbstractMemTable implements IMemTable {
     if (schemaList.isEmpty()) {
       return;
     }
-    memSize +=
-        MemUtils.getAlignedRecordsSize(dataTypes, insertRowNode.getValues(), disableMemControl);
+    memSize.addAndGet(
+        MemUtils.getAlignedRecordsSize(dataTypes, insertRowNode.getValues(), disableMemControl));
     writeAlignedRow(
         insertRowNode.getDeviceID(),
         schemaList,
         insertRowNode.getTime(),
         insertRowNode.getValues());
     int pointsInserted = insertRowNode.getMeasurements().length;
-    totalPointsNum += pointsInserted;
+    totalPointsNum.addAndGet(pointsInserted);
 
     if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
       MetricsService.getInstance()
@@ -335,11 +345,11 @@ public abstract class AbstractMemTable implements IMemTable {
     updatePlanIndexes(insertTabletPlan.getIndex());
     try {
       write(insertTabletPlan, start, end);
-      memSize += MemUtils.getTabletSize(insertTabletPlan, start, end, disableMemControl);
+      memSize.addAndGet(MemUtils.getTabletSize(insertTabletPlan, start, end, disableMemControl));
       int pointsInserted =
           (insertTabletPlan.getDataTypes().length - insertTabletPlan.getFailedMeasurementNumber())
               * (end - start);
-      totalPointsNum += pointsInserted;
+      totalPointsNum.addAndGet(pointsInserted);
       if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
         MetricsService.getInstance()
             .getMetricManager()
@@ -361,11 +371,12 @@ public abstract class AbstractMemTable implements IMemTable {
     updatePlanIndexes(insertTabletPlan.getIndex());
     try {
       writeAlignedTablet(insertTabletPlan, start, end);
-      memSize += MemUtils.getAlignedTabletSize(insertTabletPlan, start, end, disableMemControl);
+      memSize.addAndGet(
+          MemUtils.getAlignedTabletSize(insertTabletPlan, start, end, disableMemControl));
       int pointsInserted =
           (insertTabletPlan.getDataTypes().length - insertTabletPlan.getFailedMeasurementNumber())
               * (end - start);
-      totalPointsNum += pointsInserted;
+      totalPointsNum.addAndGet(pointsInserted);
       if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
         MetricsService.getInstance()
             .getMetricManager()
@@ -389,9 +400,9 @@ public abstract class AbstractMemTable implements IMemTable {
     updatePlanIndexes(0);
     try {
       write(insertTabletNode, start, end);
-      memSize += MemUtils.getTabletSize(insertTabletNode, start, end, disableMemControl);
+      memSize.addAndGet(MemUtils.getTabletSize(insertTabletNode, start, end, disableMemControl));
       int pointsInserted = insertTabletNode.getDataTypes().length * (end - start);
-      totalPointsNum += pointsInserted;
+      totalPointsNum.addAndGet(pointsInserted);
       if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
         MetricsService.getInstance()
             .getMetricManager()
@@ -415,9 +426,10 @@ public abstract class AbstractMemTable implements IMemTable {
     updatePlanIndexes(0);
     try {
       writeAlignedTablet(insertTabletNode, start, end);
-      memSize += MemUtils.getAlignedTabletSize(insertTabletNode, start, end, disableMemControl);
+      memSize.addAndGet(
+          MemUtils.getAlignedTabletSize(insertTabletNode, start, end, disableMemControl));
       int pointsInserted = insertTabletNode.getDataTypes().length * (end - start);
-      totalPointsNum += pointsInserted;
+      totalPointsNum.addAndGet(pointsInserted);
       if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
         MetricsService.getInstance()
             .getMetricManager()
@@ -583,12 +595,12 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public int getSeriesNumber() {
-    return seriesNumber;
+    return seriesNumber.get();
   }
 
   @Override
   public long getTotalPointsNum() {
-    return totalPointsNum;
+    return totalPointsNum.get();
   }
 
   @Override
@@ -602,27 +614,28 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public long memSize() {
-    return memSize;
+    return memSize.get();
   }
 
   @Override
   public boolean reachTotalPointNumThreshold() {
-    if (totalPointsNum == 0) {
+    long pointsNum = totalPointsNum.get();
+    if (pointsNum == 0) {
       return false;
     }
-    return totalPointsNum >= totalPointsNumThreshold;
+    return pointsNum >= totalPointsNumThreshold.get();
   }
 
   @Override
   public void clear() {
     memTableMap.clear();
-    memSize = 0;
-    seriesNumber = 0;
-    totalPointsNum = 0;
-    totalPointsNumThreshold = 0;
-    tvListRamCost = 0;
-    maxPlanIndex = 0;
-    minPlanIndex = 0;
+    memSize.set(0);
+    seriesNumber.set(0);
+    totalPointsNum.set(0);
+    totalPointsNumThreshold.set(0);
+    tvListRamCost.set(0);
+    maxPlanIndex.set(0);
+    minPlanIndex.set(0);
   }
 
   @Override
@@ -645,32 +658,33 @@ public abstract class AbstractMemTable implements IMemTable {
     if (memChunkGroup == null) {
       return;
     }
-    totalPointsNum -= memChunkGroup.delete(originalPath, devicePath, startTimestamp, endTimestamp);
+    totalPointsNum.addAndGet(
+        -memChunkGroup.delete(originalPath, devicePath, startTimestamp, endTimestamp));
   }
 
   @Override
   public void addTVListRamCost(long cost) {
-    this.tvListRamCost += cost;
+    this.tvListRamCost.addAndGet(cost);
   }
 
   @Override
   public void releaseTVListRamCost(long cost) {
-    this.tvListRamCost -= cost;
+    this.tvListRamCost.addAndGet(-cost);
   }
 
   @Override
   public long getTVListsRamCost() {
-    return tvListRamCost;
+    return tvListRamCost.get();
   }
 
   @Override
   public void addTextDataSize(long textDataSize) {
-    this.memSize += textDataSize;
+    this.memSize.addAndGet(textDataSize);
   }
 
   @Override
   public void releaseTextDataSize(long textDataSize) {
-    this.memSize -= textDataSize;
+    this.memSize.addAndGet(-textDataSize);
   }
 
   @Override
@@ -692,17 +706,17 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public long getMaxPlanIndex() {
-    return maxPlanIndex;
+    return maxPlanIndex.get();
   }
 
   @Override
   public long getMinPlanIndex() {
-    return minPlanIndex;
+    return minPlanIndex.get();
   }
 
   void updatePlanIndexes(long index) {
-    maxPlanIndex = Math.max(index, maxPlanIndex);
-    minPlanIndex = Math.min(index, minPlanIndex);
+    maxPlanIndex.accumulateAndGet(index, Math::max);
+    minPlanIndex.accumulateAndGet(index, Math::min);
   }
 
   @Override
@@ -751,13 +765,13 @@ public abstract class AbstractMemTable implements IMemTable {
     if (isSignalMemTable()) {
       return;
     }
-    buffer.putInt(seriesNumber);
-    buffer.putLong(memSize);
-    buffer.putLong(tvListRamCost);
-    buffer.putLong(totalPointsNum);
-    buffer.putLong(totalPointsNumThreshold);
-    buffer.putLong(maxPlanIndex);
-    buffer.putLong(minPlanIndex);
+    buffer.putInt(seriesNumber.get());
+    buffer.putLong(memSize.get());
+    buffer.putLong(tvListRamCost.get());
+    buffer.putLong(totalPointsNum.get());
+    buffer.putLong(totalPointsNumThreshold.get());
+    buffer.putLong(maxPlanIndex.get());
+    buffer.putLong(minPlanIndex.get());
 
     buffer.putInt(memTableMap.size());
     for (Map.Entry<IDeviceID, IWritableMemChunkGroup> entry : memTableMap.entrySet()) {
@@ -770,13 +784,13 @@ public abstract class AbstractMemTable implements IMemTable {
   }
 
   public void deserialize(DataInputStream stream) throws IOException {
-    seriesNumber = stream.readInt();
-    memSize = stream.readLong();
-    tvListRamCost = stream.readLong();
-    totalPointsNum = stream.readLong();
-    totalPointsNumThreshold = stream.readLong();
-    maxPlanIndex = stream.readLong();
-    minPlanIndex = stream.readLong();
+    seriesNumber.set(stream.readInt());
+    memSize.set(stream.readLong());
+    tvListRamCost.set(stream.readLong());
+    totalPointsNum.set(stream.readLong());
+    totalPointsNumThreshold.set(stream.readLong());
+    maxPlanIndex.set(stream.readLong());
+    minPlanIndex.set(stream.readLong());
 
     int memTableMapSize = stream.readInt();
     for (int i = 0; i < memTableMapSize; ++i) {
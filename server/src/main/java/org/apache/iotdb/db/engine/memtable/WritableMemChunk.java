@@ -212,9 +212,9 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   private void sortTVList() {
-    // check reference count
+    // check reference count, queries keep reading the old list while the new one is sorted
     if ((list.getReferenceCount() > 0 && !list.isSorted())) {
-      list = list.clone();
+      list = list.copyOnWriteClone();
     }
 
     if (!list.isSorted()) {
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.DirectoryManager;
 import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.engine.compaction.CompactionReadAmplificationTracker;
 import org.apache.iotdb.db.engine.compaction.CompactionRecoverManager;
 import org.apache.iotdb.db.engine.compaction.CompactionScheduler;
 import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
@@ -38,6 +39,8 @@ import org.apache.iotdb.db.engine.flush.TsFileFlushPolicy;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.tier.TierMigrationPolicy;
+import org.apache.iotdb.db.engine.tier.TsFileTierMigrationTask;
 import org.apache.iotdb.db.engine.trigger.executor.TriggerEngine;
 import org.apache.iotdb.db.engine.trigger.executor.TriggerEvent;
 import org.apache.iotdb.db.engine.upgrade.UpgradeCheckStatus;
@@ -175,6 +178,13 @@ public class DataRegion {
    * partitionLatestFlushedTimeForEachDevice)
    */
   private final ReadWriteLock insertLock = new ReentrantReadWriteLock();
+  /**
+   * In concurrent memtable write, inserts only hold the read lock of the insert lock, and the
+   * inserts of the same device exclude each other with the {@link DeviceLock}.
+   */
+  private final boolean enableConcurrentWrite = config.isEnableConcurrentMemtableWrite();
+  /** sync this object when creating tsfile processors in concurrent memtable write */
+  private final Object tsFileProcessorCreationLock = new Object();
   /** closeStorageGroupCondition is used to wait for all currently closing TsFiles to be done. */
   private final Object closeStorageGroupCondition = new Object();
   /**
@@ -607,6 +617,8 @@ public class DataRegion {
             // such
             // resources
             continueFailedRenames(partitionFolder, TEMP_SUFFIX);
+            // files being migrated between storage tiers when the system crashed
+            removeFailedMigrations(partitionFolder);
 
             Collections.addAll(
                 tsFiles,
@@ -621,6 +633,7 @@ public class DataRegion {
       }
     }
 
+    tsFiles = removeDuplicatedMigrations(tsFiles);
     tsFiles.sort(this::compareFileName);
     if (!tsFiles.isEmpty()) {
       checkTsFileTime(tsFiles.get(tsFiles.size() - 1));
@@ -657,6 +670,42 @@ public class DataRegion {
     }
   }
 
+  private void removeFailedMigrations(File partitionFolder) {
+    File[] files =
+        fsFactory.listFilesBySuffix(
+            partitionFolder.getAbsolutePath(), TsFileTierMigrationTask.MIGRATING_SUFFIX);
+    if (files != null) {
+      for (File file : files) {
+        if (!file.delete()) {
+          logger.warn("Failed to remove the unfinished migration file {}", file);
+        }
+      }
+    }
+  }
+
+  /**
+   * If the system crashed after a TsFile was migrated to a colder storage tier but before the
+   * source was removed, there are two TsFiles with the same name. The one in the colder tier is
+   * complete, so the other one is removed.
+   *
+   * @param tsFiles the TsFiles from all the storage tiers, from hot to cold
+   */
+  private List<File> removeDuplicatedMigrations(List<File> tsFiles) {
+    if (DirectoryManager.getInstance().getStorageTierNum() <= 1) {
+      return tsFiles;
+    }
+    Map<String, File> tsFileMap = new HashMap<>();
+    for (File tsFile : tsFiles) {
+      File duplicatedFile = tsFileMap.put(tsFile.getName(), tsFile);
+      if (duplicatedFile != null) {
+        logger.info(
+            "{} has been migrated to {}, remove it", duplicatedFile.getAbsolutePath(), tsFile);
+        new TsFileResource(duplicatedFile).remove();
+      }
+    }
+    return new ArrayList<>(tsFileMap.values());
+  }
+
   /** check if the tsfile's time is smaller than system current time */
   private void checkTsFileTime(File tsFile) throws DataRegionException {
     String[] items = tsFile.getName().replace(TSFILE_SUFFIX, "").split(FILE_NAME_SEPARATOR);
@@ -791,7 +840,7 @@ public class DataRegion {
     if (!isAlive(insertRowPlan.getTime())) {
       throw new OutOfTTLException(insertRowPlan.getTime(), (System.currentTimeMillis() - dataTTL));
     }
-    writeLock("InsertRow");
+    lockForInsert("InsertRow");
     try {
       // init map
       long timePartitionId = StorageEngine.getTimePartition(insertRowPlan.getTime());
@@ -818,7 +867,7 @@ public class DataRegion {
       // fire trigger after insertion
       TriggerEngine.fire(TriggerEvent.AFTER_INSERT, insertRowPlan);
     } finally {
-      writeUnlock();
+      unlockForInsert();
     }
   }
 
@@ -834,7 +883,7 @@ public class DataRegion {
     if (!isAlive(insertRowNode.getTime())) {
       throw new OutOfTTLException(insertRowNode.getTime(), (System.currentTimeMillis() - dataTTL));
     }
-    writeLock("InsertRow");
+    lockForInsert("InsertRow");
     try {
       // init map
       long timePartitionId = StorageEngine.getTimePartition(insertRowNode.getTime());
@@ -861,7 +910,7 @@ public class DataRegion {
       // fire trigger after insertion
       // TriggerEngine.fire(TriggerEvent.AFTER_INSERT, insertRowNode);
     } finally {
-      writeUnlock();
+      unlockForInsert();
     }
   }
 
@@ -874,7 +923,7 @@ public class DataRegion {
   public void insertTablet(InsertTabletPlan insertTabletPlan)
       throws BatchProcessException, TriggerExecutionException {
 
-    writeLock("insertTablet");
+    lockForInsert("insertTablet");
     try {
       TSStatus[] results = new TSStatus[insertTabletPlan.getRowCount()];
       Arrays.fill(results, RpcUtils.SUCCESS_STATUS);
@@ -980,7 +1029,7 @@ public class DataRegion {
       // fire trigger after insertion
       TriggerEngine.fire(TriggerEvent.AFTER_INSERT, insertTabletPlan, firePosition);
     } finally {
-      writeUnlock();
+      unlockForInsert();
     }
   }
 
@@ -993,7 +1042,7 @@ public class DataRegion {
   public void insertTablet(InsertTabletNode insertTabletNode)
       throws BatchProcessException, TriggerExecutionException {
 
-    writeLock("insertTablet");
+    lockForInsert("insertTablet");
     try {
       TSStatus[] results = new TSStatus[insertTabletNode.getRowCount()];
       Arrays.fill(results, RpcUtils.SUCCESS_STATUS);
@@ -1076,7 +1125,7 @@ public class DataRegion {
       //      TODO: trigger // fire trigger after insertion
       //      TriggerEngine.fire(TriggerEvent.AFTER_INSERT, insertTabletPlan, firePosition);
     } finally {
-      writeUnlock();
+      unlockForInsert();
     }
   }
 
@@ -1121,6 +1170,10 @@ public class DataRegion {
       return false;
     }
 
+    String device = insertTabletPlan.getDevicePath().getFullPath();
+    if (enableConcurrentWrite) {
+      DeviceLock.writeLock(device);
+    }
     try {
       tsFileProcessor.insertTablet(insertTabletPlan, start, end, results);
     } catch (WriteProcessRejectException e) {
@@ -1129,6 +1182,10 @@ public class DataRegion {
     } catch (WriteProcessException e) {
       logger.error("insert to TsFileProcessor error ", e);
       return false;
+    } finally {
+      if (enableConcurrentWrite) {
+        DeviceLock.writeUnlock(device);
+      }
     }
 
     lastFlushTimeManager.ensureLastTimePartition(timePartitionId);
@@ -1141,9 +1198,7 @@ public class DataRegion {
     }
 
     // check memtable size and may async try to flush the work memtable
-    if (tsFileProcessor.shouldFlush()) {
-      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
-    }
+    flushIfNecessary(tsFileProcessor, sequence);
     return true;
   }
 
@@ -1183,6 +1238,10 @@ public class DataRegion {
       return false;
     }
 
+    String device = insertTabletNode.getDevicePath().getFullPath();
+    if (enableConcurrentWrite) {
+      DeviceLock.writeLock(device);
+    }
     try {
       tsFileProcessor.insertTablet(insertTabletNode, start, end, results);
     } catch (WriteProcessRejectException e) {
@@ -1191,6 +1250,10 @@ public class DataRegion {
     } catch (WriteProcessException e) {
       logger.error("insert to TsFileProcessor error ", e);
       return false;
+    } finally {
+      if (enableConcurrentWrite) {
+        DeviceLock.writeUnlock(device);
+      }
     }
 
     lastFlushTimeManager.ensureLastTimePartition(timePartitionId);
@@ -1203,9 +1266,7 @@ public class DataRegion {
     }
 
     // check memtable size and may async try to flush the work memtable
-    if (tsFileProcessor.shouldFlush()) {
-      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
-    }
+    flushIfNecessary(tsFileProcessor, sequence);
     return true;
   }
 
@@ -1242,7 +1303,17 @@ public class DataRegion {
       return;
     }
 
-    tsFileProcessor.insert(insertRowPlan);
+    String device = insertRowPlan.getDevicePath().getFullPath();
+    if (enableConcurrentWrite) {
+      DeviceLock.writeLock(device);
+    }
+    try {
+      tsFileProcessor.insert(insertRowPlan);
+    } finally {
+      if (enableConcurrentWrite) {
+        DeviceLock.writeUnlock(device);
+      }
+    }
 
     // try to update the latest time of the device of this tsRecord
     lastFlushTimeManager.updateLastTime(
@@ -1254,9 +1325,7 @@ public class DataRegion {
     tryToUpdateInsertLastCache(insertRowPlan, globalLatestFlushTime);
 
     // check memtable size and may asyncTryToFlush the work memtable
-    if (tsFileProcessor.shouldFlush()) {
-      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
-    }
+    flushIfNecessary(tsFileProcessor, sequence);
   }
 
   private void insertToTsFileProcessor(
@@ -1267,7 +1336,17 @@ public class DataRegion {
       return;
     }
 
-    tsFileProcessor.insert(insertRowNode);
+    String device = insertRowNode.getDevicePath().getFullPath();
+    if (enableConcurrentWrite) {
+      DeviceLock.writeLock(device);
+    }
+    try {
+      tsFileProcessor.insert(insertRowNode);
+    } finally {
+      if (enableConcurrentWrite) {
+        DeviceLock.writeUnlock(device);
+      }
+    }
 
     // try to update the latest time of the device of this tsRecord
     lastFlushTimeManager.updateLastTime(
@@ -1279,7 +1358,18 @@ public class DataRegion {
     // tryToUpdateInsertLastCache(insertRowNode, globalLatestFlushTime);
 
     // check memtable size and may asyncTryToFlush the work memtable
-    if (tsFileProcessor.shouldFlush()) {
+    flushIfNecessary(tsFileProcessor, sequence);
+  }
+
+  /**
+   * apply the flush policy if the working memtable of the tsfile processor is full. In concurrent
+   * memtable write, other inserts may still be writing into the memtable, so the flush task is
+   * submitted in another thread, which waits for the write lock of the insert lock.
+   */
+  private void flushIfNecessary(TsFileProcessor tsFileProcessor, boolean sequence) {
+    if (enableConcurrentWrite) {
+      tsFileProcessor.asyncSubmitAFlushTaskIfShouldFlush();
+    } else if (tsFileProcessor.shouldFlush()) {
       fileFlushPolicy.apply(this, tsFileProcessor, sequence);
     }
   }
@@ -1352,12 +1442,15 @@ public class DataRegion {
   private TsFileProcessor getOrCreateTsFileProcessor(long timeRangeId, boolean sequence) {
     TsFileProcessor tsFileProcessor = null;
     try {
-      if (sequence) {
-        tsFileProcessor =
-            getOrCreateTsFileProcessorIntern(timeRangeId, workSequenceTsFileProcessors, true);
-      } else {
-        tsFileProcessor =
-            getOrCreateTsFileProcessorIntern(timeRangeId, workUnsequenceTsFileProcessors, false);
+      // inserts only share the read lock of the insert lock in concurrent memtable write
+      synchronized (tsFileProcessorCreationLock) {
+        if (sequence) {
+          tsFileProcessor =
+              getOrCreateTsFileProcessorIntern(timeRangeId, workSequenceTsFileProcessors, true);
+        } else {
+          tsFileProcessor =
+              getOrCreateTsFileProcessorIntern(timeRangeId, workUnsequenceTsFileProcessors, false);
+        }
       }
     } catch (DiskSpaceInsufficientException e) {
       logger.error(
@@ -1586,6 +1679,8 @@ public class DataRegion {
         logicalStorageGroupName + "-" + dataRegionId);
     writeLock("syncDeleteDataFiles");
     try {
+      CompactionReadAmplificationTracker.getInstance()
+          .removeDataRegion(logicalStorageGroupName, dataRegionId);
 
       syncCloseAllWorkingTsFileProcessors();
       // normally, mergingModification is just need to be closed by after a merge task is finished.
@@ -1641,6 +1736,30 @@ public class DataRegion {
     }
   }
 
+  /** Move the sealed TsFiles that the storage tier policies regard as cold to colder tiers. */
+  public void migrateColdFiles() {
+    DirectoryManager directoryManager = DirectoryManager.getInstance();
+    if (directoryManager.getStorageTierNum() <= 1) {
+      return;
+    }
+    TierMigrationPolicy policy = new TierMigrationPolicy(logicalStorageGroupName);
+    long currentTime = System.currentTimeMillis();
+    for (boolean sequence : new boolean[] {true, false}) {
+      Map<TsFileResource, Integer> migrations =
+          policy.select(
+              tsFileManager.getTsFileList(sequence),
+              resource -> directoryManager.getStorageTierOfFile(resource.getTsFile()),
+              currentTime);
+      for (Map.Entry<TsFileResource, Integer> migration : migrations.entrySet()) {
+        if (Thread.currentThread().isInterrupted()) {
+          return;
+        }
+        new TsFileTierMigrationTask(this, migration.getKey(), sequence, migration.getValue())
+            .migrate();
+      }
+    }
+  }
+
   private void checkFileTTL(TsFileResource resource, long ttlLowerBound, boolean isSeq) {
     if (!resource.isClosed() || !resource.isDeleted() && resource.stillLives(ttlLowerBound)) {
       return;
@@ -1821,6 +1940,8 @@ public class DataRegion {
               timeFilter,
               false);
       QueryDataSource dataSource = new QueryDataSource(seqResources, unseqResources);
+      CompactionReadAmplificationTracker.getInstance()
+          .recordQuery(logicalStorageGroupName, dataRegionId, seqResources, unseqResources);
       // used files should be added before mergeLock is unlocked, or they may be deleted by
       // running merge
       // is null only in tests
@@ -1860,6 +1981,8 @@ public class DataRegion {
               timeFilter,
               false);
       QueryDataSource dataSource = new QueryDataSource(seqResources, unseqResources);
+      CompactionReadAmplificationTracker.getInstance()
+          .recordQuery(logicalStorageGroupName, dataRegionId, seqResources, unseqResources);
       dataSource.setDataTTL(dataTTL);
       return dataSource;
     } catch (MetadataException e) {
@@ -1893,6 +2016,27 @@ public class DataRegion {
     insertLock.writeLock().unlock();
   }
 
+  /**
+   * lock the insert lock for an insertion. In concurrent memtable write, inserts share the read
+   * lock, so that the operations switching the working memtables still exclude them.
+   */
+  private void lockForInsert(String holder) {
+    if (enableConcurrentWrite) {
+      insertLock.readLock().lock();
+    } else {
+      writeLock(holder);
+    }
+  }
+
+  /** unlock the insert lock after an insertion */
+  private void unlockForInsert() {
+    if (enableConcurrentWrite) {
+      insertLock.readLock().unlock();
+    } else {
+      writeUnlock();
+    }
+  }
+
   /**
    * @param tsFileResources includes sealed and unsealed tsfile resources
    * @return fill unsealed tsfile resources with memory data and ChunkMetadataList of data in disk
@@ -3189,7 +3333,7 @@ public class DataRegion {
    */
   public void insert(InsertRowsOfOneDevicePlan insertRowsOfOneDevicePlan)
       throws WriteProcessException, TriggerExecutionException {
-    writeLock("InsertRowsOfOneDevice");
+    lockForInsert("InsertRowsOfOneDevice");
     try {
       boolean isSequence = false;
       InsertRowPlan[] rowPlans = insertRowsOfOneDevicePlan.getRowPlans();
@@ -3230,7 +3374,7 @@ public class DataRegion {
         TriggerEngine.fire(TriggerEvent.AFTER_INSERT, plan);
       }
     } finally {
-      writeUnlock();
+      unlockForInsert();
     }
   }
 
@@ -3241,7 +3385,7 @@ public class DataRegion {
    */
   public void insert(InsertRowsOfOneDeviceNode insertRowsOfOneDeviceNode)
       throws WriteProcessException, TriggerExecutionException, BatchProcessException {
-    writeLock("InsertRowsOfOneDevice");
+    lockForInsert("InsertRowsOfOneDevice");
     try {
       boolean isSequence = false;
       for (int i = 0; i < insertRowsOfOneDeviceNode.getInsertRowNodeList().size(); i++) {
@@ -3296,7 +3440,7 @@ public class DataRegion {
         // TriggerEngine.fire(TriggerEvent.AFTER_INSERT, plan);
       }
     } finally {
-      writeUnlock();
+      unlockForInsert();
     }
     if (!insertRowsOfOneDeviceNode.getResults().isEmpty()) {
       throw new BatchProcessException(insertRowsOfOneDeviceNode.getFailingStatus());
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Striped lock on devices, used when concurrent memtable write is enabled. Writers hold the write
+ * lock of a device from checking the memory cost until the data is in the working memtable, so that
+ * writers to different devices of one data region can insert in parallel. Queries hold the read
+ * lock of a device while getting its chunks from the working memtable. Notice that this class is a
+ * static class and all its methods are static
+ */
+public class DeviceLock {
+
+  /**
+   * number of reentrant read write lock. Notice that this number should be a prime number for
+   * uniform hash
+   */
+  private static final int NUM_OF_LOCKS = 1021;
+
+  /** locks array */
+  private static final ReentrantReadWriteLock[] locks;
+
+  // initialize locks
+  static {
+    locks = new ReentrantReadWriteLock[NUM_OF_LOCKS];
+    for (int i = 0; i < NUM_OF_LOCKS; i++) {
+      locks[i] = new ReentrantReadWriteLock();
+    }
+  }
+
+  private DeviceLock() {}
+
+  /**
+   * read lock of the device
+   *
+   * @param device full path of the device
+   */
+  public static void readLock(String device) {
+    findLock(device).readLock().lock();
+  }
+
+  /**
+   * read unlock of the device
+   *
+   * @param device full path of the device
+   */
+  public static void readUnlock(String device) {
+    findLock(device).readLock().unlock();
+  }
+
+  /**
+   * write lock of the device
+   *
+   * @param device full path of the device
+   */
+  public static void writeLock(String device) {
+    findLock(device).writeLock().lock();
+  }
+
+  /**
+   * write unlock of the device
+   *
+   * @param device full path of the device
+   */
+  public static void writeUnlock(String device) {
+    findLock(device).writeLock().unlock();
+  }
+
+  /**
+   * find lock at slot[hash % NUM_OF_LOCKS]
+   *
+   * @param device full path of the device
+   * @return lock at slot[hash % NUM_OF_LOCKS]
+   */
+  private static ReentrantReadWriteLock findLock(String device) {
+    return locks[Math.floorMod(device.hashCode(), NUM_OF_LOCKS)];
+  }
+}
@@ -84,6 +84,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -102,6 +103,9 @@ public class TsFileProcessor {
   /** whether it's enable mem control */
   private final boolean enableMemControl = config.isEnableMemControl();
 
+  /** whether writers of different devices can insert into the working memtable in parallel */
+  private final boolean enableConcurrentWrite = config.isEnableConcurrentMemtableWrite();
+
   /** storage group info for mem control */
   private StorageGroupInfo storageGroupInfo;
   /** tsfile processor info for mem control */
@@ -135,7 +139,13 @@ public class TsFileProcessor {
   private volatile boolean shouldClose;
 
   /** working memtable */
-  private IMemTable workMemTable;
+  private volatile IMemTable workMemTable;
+
+  /** sync this object when creating the working memtable */
+  private final Object workMemTableCreationLock = new Object();
+
+  /** the working memtable whose flush task has been submitted in concurrent memtable write */
+  private final AtomicReference<IMemTable> flushSubmittedMemTable = new AtomicReference<>();
 
   /** last flush time to flush the working memtable */
   private long lastWorkMemtableFlushTime;
@@ -251,16 +261,11 @@ public class TsFileProcessor {
       workMemTable.insert(insertRowPlan);
     }
 
-    // update start time of this memtable
-    tsFileResource.updateStartTime(
-        insertRowPlan.getDeviceID().toStringID(), insertRowPlan.getTime());
-    // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
-    // for unsequence tsfile, we have to update the endTime for each insertion.
-    if (!sequence) {
-      tsFileResource.updateEndTime(
-          insertRowPlan.getDeviceID().toStringID(), insertRowPlan.getTime());
-    }
-    tsFileResource.updatePlanIndexes(insertRowPlan.getIndex());
+    updateResource(
+        insertRowPlan.getDeviceID().toStringID(),
+        insertRowPlan.getTime(),
+        insertRowPlan.getTime(),
+        insertRowPlan.getIndex());
   }
 
   /**
@@ -305,16 +310,12 @@ public class TsFileProcessor {
       workMemTable.insert(insertRowNode);
     }
 
-    // update start time of this memtable
-    tsFileResource.updateStartTime(
-        insertRowNode.getDeviceID().toStringID(), insertRowNode.getTime());
-    // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
-    // for unsequence tsfile, we have to update the endTime for each insertion.
-    if (!sequence) {
-      tsFileResource.updateEndTime(
-          insertRowNode.getDeviceID().toStringID(), insertRowNode.getTime());
-    }
-    // tsFileResource.updatePlanIndexes(insertRowNode.getIndex());
+    // TODO: PlanIndex, Long.MIN_VALUE leaves the plan indexes unchanged
+    updateResource(
+        insertRowNode.getDeviceID().toStringID(),
+        insertRowNode.getTime(),
+        insertRowNode.getTime(),
+        Long.MIN_VALUE);
   }
 
   /**
@@ -383,21 +384,49 @@ public class TsFileProcessor {
     for (int i = start; i < end; i++) {
       results[i] = RpcUtils.SUCCESS_STATUS;
     }
-    tsFileResource.updateStartTime(
-        insertTabletPlan.getDeviceID().toStringID(), insertTabletPlan.getTimes()[start]);
+    updateResource(
+        insertTabletPlan.getDeviceID().toStringID(),
+        insertTabletPlan.getTimes()[start],
+        insertTabletPlan.getTimes()[end - 1],
+        insertTabletPlan.getIndex());
+  }
+
+  private void createNewWorkingMemTable() throws WriteProcessException {
+    // writers of different devices may get here at the same time in concurrent memtable write
+    synchronized (workMemTableCreationLock) {
+      if (workMemTable != null) {
+        return;
+      }
+      IMemTable memTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
+      walNode.onMemTableCreated(memTable, tsFileResource.getTsFilePath());
+      workMemTable = memTable;
+    }
+  }
+
+  /**
+   * update the start time, end time and plan indexes of the resource after an insertion. The time
+   * index of the resource isn't thread-safe, so writers of different devices update it one at a
+   * time in concurrent memtable write.
+   */
+  private void updateResource(String deviceId, long startTime, long endTime, long planIndex) {
+    if (enableConcurrentWrite) {
+      synchronized (tsFileResource) {
+        updateResourceIntern(deviceId, startTime, endTime, planIndex);
+      }
+    } else {
+      updateResourceIntern(deviceId, startTime, endTime, planIndex);
+    }
+  }
 
+  private void updateResourceIntern(String deviceId, long startTime, long endTime, long planIndex) {
+    // update start time of this memtable
+    tsFileResource.updateStartTime(deviceId, startTime);
     // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
     // for unsequence tsfile, we have to update the endTime for each insertion.
     if (!sequence) {
-      tsFileResource.updateEndTime(
-          insertTabletPlan.getDeviceID().toStringID(), insertTabletPlan.getTimes()[end - 1]);
+      tsFileResource.updateEndTime(deviceId, endTime);
     }
-    tsFileResource.updatePlanIndexes(insertTabletPlan.getIndex());
-  }
-
-  private void createNewWorkingMemTable() throws WriteProcessException {
-    workMemTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
-    walNode.onMemTableCreated(workMemTable, tsFileResource.getTsFilePath());
+    tsFileResource.updatePlanIndexes(planIndex);
   }
 
   /**
@@ -466,18 +495,12 @@ public class TsFileProcessor {
     for (int i = start; i < end; i++) {
       results[i] = RpcUtils.SUCCESS_STATUS;
     }
-    tsFileResource.updateStartTime(
-        insertTabletNode.getDeviceID().toStringID(), insertTabletNode.getTimes()[start]);
-
-    // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
-    // for unsequence tsfile, we have to update the endTime for each insertion.
-    if (!sequence) {
-      tsFileResource.updateEndTime(
-          insertTabletNode.getDeviceID().toStringID(), insertTabletNode.getTimes()[end - 1]);
-    }
     // TODO: PlanIndex
-    tsFileResource.updatePlanIndexes(0);
-    //    tsFileResource.updatePlanIndexes(insertTabletPlan.getIndex());
+    updateResource(
+        insertTabletNode.getDeviceID().toStringID(),
+        insertTabletNode.getTimes()[start],
+        insertTabletNode.getTimes()[end - 1],
+        0);
   }
 
   @SuppressWarnings("squid:S3776") // high Cognitive Complexity
@@ -1497,7 +1520,7 @@ public class TsFileProcessor {
         }
         if (workMemTable != null) {
           ReadOnlyMemChunk memChunk =
-              workMemTable.query(seriesPath, context.getQueryTimeLowerBound(), null);
+              queryWorkMemTable(seriesPath, context.getQueryTimeLowerBound());
           if (memChunk != null) {
             readOnlyMemChunks.add(memChunk);
           }
@@ -1535,6 +1558,24 @@ public class TsFileProcessor {
     }
   }
 
+  /**
+   * get the chunk of the path in the working memtable. In concurrent memtable write, writers of the
+   * device may be inserting into it, so hold the read lock of the device.
+   */
+  private ReadOnlyMemChunk queryWorkMemTable(PartialPath seriesPath, long timeLowerBound)
+      throws IOException, QueryProcessException {
+    if (!enableConcurrentWrite) {
+      return workMemTable.query(seriesPath, timeLowerBound, null);
+    }
+    String device = seriesPath.getDevice();
+    DeviceLock.readLock(device);
+    try {
+      return workMemTable.query(seriesPath, timeLowerBound, null);
+    } finally {
+      DeviceLock.readUnlock(device);
+    }
+  }
+
   public long getTimeRangeId() {
     return timeRangeId;
   }
@@ -1602,9 +1643,26 @@ public class TsFileProcessor {
   }
 
   public void submitAFlushTask() {
+    // a later insertion can submit the flush task again if this one doesn't flush the memtable
+    flushSubmittedMemTable.set(null);
     this.storageGroupInfo.getDataRegion().submitAFlushTaskWhenShouldFlush(this);
   }
 
+  /**
+   * Used by inserts in concurrent memtable write, which can't switch the working memtable while
+   * other inserts may be writing into it. The first insert finding the working memtable full
+   * submits a flush task, which takes the write lock of the data region in another thread.
+   */
+  public void asyncSubmitAFlushTaskIfShouldFlush() {
+    IMemTable memTable = workMemTable;
+    if (memTable == null || flushSubmittedMemTable.get() == memTable || !shouldFlush()) {
+      return;
+    }
+    if (flushSubmittedMemTable.getAndSet(memTable) != memTable) {
+      SystemInfo.getInstance().submitAFlushTask(this);
+    }
+  }
+
   public boolean alreadyMarkedClosing() {
     return shouldClose;
   }
@@ -116,6 +116,15 @@ public class StorageGroupManager {
     }
   }
 
+  /** push migrating cold files to colder storage tiers down to all sg */
+  public void migrateColdFiles() {
+    for (DataRegion dataRegion : this.dataRegion) {
+      if (dataRegion != null) {
+        dataRegion.migrateColdFiles();
+      }
+    }
+  }
+
   /** push check sequence memtable flush interval down to all sg */
   public void timedFlushSeqMemTable() {
     for (DataRegion dataRegion : this.dataRegion) {
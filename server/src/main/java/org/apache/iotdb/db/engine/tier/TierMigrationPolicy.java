@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.tier;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.conf.directories.DirectoryManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * TierMigrationPolicy decides which TsFiles of a data region should be moved to a colder storage
+ * tier. Tier 0 is data_dirs, where all the new TsFiles are written, and tier i (i > 0) is the i-th
+ * tier of storage_tier_data_dirs. A TsFile only moves downwards, by two policies of the target
+ * tier:
+ *
+ * <p>1. age: the newest data of the TsFile is older than the file age of the tier.
+ *
+ * <p>2. size: the TsFiles in the tier above occupy more than the size threshold of the tier, in
+ * which case the oldest ones move down until the rest fit.
+ */
+public class TierMigrationPolicy {
+
+  private final long[] fileAgeInMs;
+  private final long[] sizeThresholdInByte;
+  private final int tierNum;
+
+  public TierMigrationPolicy(String storageGroupName) {
+    this(
+        getPolicyValues(
+            IoTDBDescriptor.getInstance().getConfig().getStorageTierFileAgeInMsOfStorageGroup(),
+            IoTDBDescriptor.getInstance().getConfig().getStorageTierFileAgeInMs(),
+            storageGroupName),
+        getPolicyValues(
+            IoTDBDescriptor.getInstance()
+                .getConfig()
+                .getStorageTierSizeThresholdInByteOfStorageGroup(),
+            IoTDBDescriptor.getInstance().getConfig().getStorageTierSizeThresholdInByte(),
+            storageGroupName),
+        DirectoryManager.getInstance().getStorageTierNum());
+  }
+
+  /**
+   * @param fileAgeInMs the file age of each colder tier, non-positive values disable the policy
+   * @param sizeThresholdInByte the size threshold of each colder tier, non-positive values disable
+   *     the policy
+   * @param tierNum the number of tiers, including tier 0
+   */
+  TierMigrationPolicy(long[] fileAgeInMs, long[] sizeThresholdInByte, int tierNum) {
+    this.fileAgeInMs = fileAgeInMs;
+    this.sizeThresholdInByte = sizeThresholdInByte;
+    this.tierNum = tierNum;
+  }
+
+  private static long[] getPolicyValues(
+      Map<String, long[]> storageGroupValues, long[] defaultValues, String storageGroupName) {
+    return storageGroupValues.getOrDefault(storageGroupName, defaultValues);
+  }
+
+  /**
+   * Select the TsFiles to migrate from the TsFiles of a data region.
+   *
+   * @param tsFileResources all the TsFiles of a data region in one space
+   * @param tierOfFile gets the current tier of a TsFile
+   * @param currentTime the current time in ms
+   * @return the TsFiles to migrate and their target tiers, from old to new
+   */
+  public Map<TsFileResource, Integer> select(
+      List<TsFileResource> tsFileResources,
+      ToIntFunction<TsFileResource> tierOfFile,
+      long currentTime) {
+    List<TsFileResource> sortedFiles = new ArrayList<>(tsFileResources);
+    sortedFiles.sort(Comparator.comparingLong(TsFileResource::getFileEndTime));
+    Map<TsFileResource, Integer> currentTiers = new LinkedHashMap<>();
+    for (TsFileResource tsFileResource : sortedFiles) {
+      currentTiers.put(tsFileResource, tierOfFile.applyAsInt(tsFileResource));
+    }
+    Map<TsFileResource, Integer> targetTiers = new LinkedHashMap<>(currentTiers);
+
+    // age policy, move each file to the coldest tier it is old enough for
+    for (TsFileResource tsFileResource : sortedFiles) {
+      if (!isMigratable(tsFileResource)) {
+        continue;
+      }
+      for (int tier = tierNum - 1; tier > targetTiers.get(tsFileResource); tier--) {
+        long fileAge = getPolicyValue(fileAgeInMs, tier);
+        if (fileAge > 0 && tsFileResource.getFileEndTime() < currentTime - fileAge) {
+          targetTiers.put(tsFileResource, tier);
+          break;
+        }
+      }
+    }
+
+    // size policy, from hot to cold so that the files moved into a tier may overflow further
+    for (int tier = 1; tier < tierNum; tier++) {
+      long sizeThreshold = getPolicyValue(sizeThresholdInByte, tier);
+      if (sizeThreshold <= 0) {
+        continue;
+      }
+      long upperTierSize = 0;
+      for (Map.Entry<TsFileResource, Integer> entry : targetTiers.entrySet()) {
+        if (entry.getValue() == tier - 1) {
+          upperTierSize += entry.getKey().getTsFileSize();
+        }
+      }
+      for (TsFileResource tsFileResource : sortedFiles) {
+        if (upperTierSize <= sizeThreshold) {
+          break;
+        }
+        if (targetTiers.get(tsFileResource) == tier - 1 && isMigratable(tsFileResource)) {
+          targetTiers.put(tsFileResource, tier);
+          upperTierSize -= tsFileResource.getTsFileSize();
+        }
+      }
+    }
+
+    Map<TsFileResource, Integer> migrations = new LinkedHashMap<>();
+    for (Map.Entry<TsFileResource, Integer> entry : targetTiers.entrySet()) {
+      if (entry.getValue() > currentTiers.get(entry.getKey())) {
+        migrations.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return migrations;
+  }
+
+  private long getPolicyValue(long[] values, int tier) {
+    return tier - 1 < values.length ? values[tier - 1] : -1;
+  }
+
+  /** only the sealed files that are neither compacted nor deleted can be migrated */
+  private boolean isMigratable(TsFileResource tsFileResource) {
+    return tsFileResource.getStatus() == TsFileResourceStatus.CLOSED;
+  }
+}
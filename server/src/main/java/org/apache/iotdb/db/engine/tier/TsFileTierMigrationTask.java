@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.tier;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.conf.directories.DirectoryManager;
+import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.storagegroup.DataRegion;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.rescon.TsFileResourceManager;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+
+import static org.apache.iotdb.db.engine.storagegroup.TsFileResource.RESOURCE_SUFFIX;
+
+/**
+ * TsFileTierMigrationTask moves a sealed TsFile, together with its .resource and .mods files, into
+ * a colder storage tier. The TsFile is hard linked into the target tier when both tiers are on the
+ * same file system, otherwise it is copied under the bandwidth limit of
+ * storage_tier_migration_throughput_mb_per_sec. The steps are:
+ *
+ * <p>1. Mark the TsFile as compacting, so that compaction will not select it.
+ *
+ * <p>2. Link or copy the TsFile into the target tier with the suffix ".migrating".
+ *
+ * <p>3. Holding the write lock of the data region, which blocks deletions, link or copy the
+ * .resource and .mods files, rename all the files to their formal names with the TsFile last, and
+ * replace the TsFileResource in TsFileManager.
+ *
+ * <p>4. Wait for the queries on the source TsFile and remove it.
+ *
+ * <p>Files with the suffix ".migrating" are removed during recovery, and if the system crashes
+ * between step 3 and 4, the recovery keeps the copy in the colder tier.
+ */
+public class TsFileTierMigrationTask {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TsFileTierMigrationTask.class);
+
+  public static final String MIGRATING_SUFFIX = ".migrating";
+
+  private static final long COPY_BATCH_SIZE = 4 * 1024 * 1024L;
+
+  private static final RateLimiter MIGRATION_RATE_LIMITER =
+      RateLimiter.create(getMigrationThroughput());
+
+  private final DataRegion dataRegion;
+  private final TsFileResource sourceResource;
+  private final boolean sequence;
+  private final int targetTier;
+
+  public TsFileTierMigrationTask(
+      DataRegion dataRegion, TsFileResource sourceResource, boolean sequence, int targetTier) {
+    this.dataRegion = dataRegion;
+    this.sourceResource = sourceResource;
+    this.sequence = sequence;
+    this.targetTier = targetTier;
+  }
+
+  private static double getMigrationThroughput() {
+    double throughput =
+        IoTDBDescriptor.getInstance().getConfig().getStorageTierMigrationThroughputMbPerSec()
+            * 1024.0
+            * 1024.0;
+    // if throughput = 0, disable rate limiting
+    return throughput == 0 ? Double.MAX_VALUE : throughput;
+  }
+
+  /** @return true if the TsFile has been moved into the target tier */
+  public boolean migrate() {
+    sourceResource.readLock();
+    try {
+      if (!markSourceAsMigrating()) {
+        return false;
+      }
+      File targetFile;
+      try {
+        targetFile = getTargetFile();
+      } catch (DiskSpaceInsufficientException e) {
+        LOGGER.error(
+            "{} [TierMigration] No space left in tier {}",
+            dataRegion.getLogicalStorageGroupName(),
+            IoTDBDescriptor.getInstance().getConfig().getStorageTierName(targetTier),
+            e);
+        resetSourceStatus();
+        return false;
+      }
+
+      long startTime = System.currentTimeMillis();
+      try {
+        transfer(sourceResource.getTsFile(), getMigratingFile(targetFile));
+        if (!replaceSource(targetFile)) {
+          removeMigratingFiles(targetFile);
+          resetSourceStatus();
+          return false;
+        }
+      } catch (IOException e) {
+        LOGGER.error(
+            "{} [TierMigration] Failed to migrate {} into {}",
+            dataRegion.getLogicalStorageGroupName(),
+            sourceResource.getTsFile(),
+            targetFile,
+            e);
+        removeMigratingFiles(targetFile);
+        resetSourceStatus();
+        return false;
+      }
+      LOGGER.info(
+          "{} [TierMigration] Migrated {} into tier {} as {}, size: {} bytes, time cost: {} ms",
+          dataRegion.getLogicalStorageGroupName(),
+          sourceResource.getTsFile(),
+          IoTDBDescriptor.getInstance().getConfig().getStorageTierName(targetTier),
+          targetFile,
+          targetFile.length(),
+          System.currentTimeMillis() - startTime);
+    } finally {
+      sourceResource.readUnlock();
+    }
+    removeSource();
+    return true;
+  }
+
+  private boolean markSourceAsMigrating() {
+    if (sourceResource.getStatus() != TsFileResourceStatus.CLOSED
+        || !sourceResource.getTsFile().exists()) {
+      return false;
+    }
+    try {
+      sourceResource.setStatus(TsFileResourceStatus.COMPACTION_CANDIDATE);
+      sourceResource.setStatus(TsFileResourceStatus.COMPACTING);
+      return true;
+    } catch (RuntimeException e) {
+      // selected by a compaction task concurrently
+      return false;
+    }
+  }
+
+  private void resetSourceStatus() {
+    sourceResource.setStatus(TsFileResourceStatus.CLOSED);
+    removeCompactionModFile(sourceResource);
+  }
+
+  private File getTargetFile() throws DiskSpaceInsufficientException {
+    File sourceFile = sourceResource.getTsFile();
+    File timePartitionFolder = sourceFile.getParentFile();
+    File dataRegionFolder = timePartitionFolder.getParentFile();
+    File storageGroupFolder = dataRegionFolder.getParentFile();
+    File targetFolder =
+        new File(
+            DirectoryManager.getInstance().getNextFolderForStorageTier(targetTier, sequence)
+                + File.separator
+                + storageGroupFolder.getName()
+                + File.separator
+                + dataRegionFolder.getName()
+                + File.separator
+                + timePartitionFolder.getName());
+    if (!targetFolder.exists() && !targetFolder.mkdirs()) {
+      LOGGER.warn("Failed to create folder {}", targetFolder);
+    }
+    return new File(targetFolder, sourceFile.getName());
+  }
+
+  /**
+   * move the TsFile into the target tier atomically with respect to queries and deletions.
+   *
+   * @return false if the source TsFile has been removed concurrently, e.g., by TTL
+   */
+  private boolean replaceSource(File targetFile) throws IOException {
+    TsFileManager tsFileManager = dataRegion.getTsFileManager();
+    File sourceFile = sourceResource.getTsFile();
+    File targetResourceFile = new File(targetFile.getPath() + RESOURCE_SUFFIX);
+    File targetModFile = new File(targetFile.getPath() + ModificationFile.FILE_SUFFIX);
+    // deletions hold the write lock, so the .mods file will not change in the meantime
+    dataRegion.writeLock("tierMigration");
+    try {
+      if (sourceResource.isDeleted() || !tsFileManager.contains(sourceResource, sequence)) {
+        return false;
+      }
+      transfer(
+          new File(sourceFile.getPath() + RESOURCE_SUFFIX), getMigratingFile(targetResourceFile));
+      File sourceModFile = new File(sourceFile.getPath() + ModificationFile.FILE_SUFFIX);
+      if (sourceModFile.exists()) {
+        transfer(sourceModFile, getMigratingFile(targetModFile));
+        moveMigratingFile(targetModFile);
+      }
+      moveMigratingFile(targetResourceFile);
+      moveMigratingFile(targetFile);
+
+      TsFileResource targetResource = new TsFileResource(targetFile);
+      targetResource.deserialize();
+      targetResource.setStatus(TsFileResourceStatus.CLOSED);
+      tsFileManager.replace(
+          sequence ? Collections.singletonList(sourceResource) : Collections.emptyList(),
+          sequence ? Collections.emptyList() : Collections.singletonList(sourceResource),
+          Collections.singletonList(targetResource),
+          sourceResource.getTimePartition(),
+          sequence);
+      // the time index of the migrated file is degraded like those of other sealed files
+      TsFileResourceManager.getInstance().registerSealedTsFileResource(targetResource);
+      // prevent TTL and other tasks from handling the source file
+      sourceResource.setStatus(TsFileResourceStatus.DELETED);
+      return true;
+    } finally {
+      dataRegion.writeUnlock();
+    }
+  }
+
+  /** remove the source TsFile after all the queries on it have finished */
+  private void removeSource() {
+    sourceResource.writeLock();
+    try {
+      FileReaderManager.getInstance().closeFileAndRemoveReader(sourceResource.getTsFilePath());
+      removeCompactionModFile(sourceResource);
+      if (!sourceResource.remove()) {
+        LOGGER.warn(
+            "{} [TierMigration] Failed to remove migrated TsFile {}",
+            dataRegion.getLogicalStorageGroupName(),
+            sourceResource.getTsFile());
+      }
+    } catch (IOException e) {
+      LOGGER.warn(
+          "{} [TierMigration] Failed to close migrated TsFile {}",
+          dataRegion.getLogicalStorageGroupName(),
+          sourceResource.getTsFile(),
+          e);
+    } finally {
+      sourceResource.writeUnlock();
+    }
+  }
+
+  /** deletions on a compacting file also go to its .compaction.mods file, which is useless here */
+  private void removeCompactionModFile(TsFileResource tsFileResource) {
+    ModificationFile compactionModFile = ModificationFile.getCompactionMods(tsFileResource);
+    try {
+      if (compactionModFile.exists()) {
+        compactionModFile.remove();
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Failed to remove {}", compactionModFile.getFilePath(), e);
+    }
+  }
+
+  private static File getMigratingFile(File file) {
+    return new File(file.getPath() + MIGRATING_SUFFIX);
+  }
+
+  private static void moveMigratingFile(File file) throws IOException {
+    Files.move(getMigratingFile(file).toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private static void removeMigratingFiles(File targetFile) {
+    for (File file :
+        new File[] {
+          targetFile,
+          new File(targetFile.getPath() + RESOURCE_SUFFIX),
+          new File(targetFile.getPath() + ModificationFile.FILE_SUFFIX)
+        }) {
+      try {
+        Files.deleteIfExists(getMigratingFile(file).toPath());
+      } catch (IOException e) {
+        LOGGER.warn("Failed to remove {}", getMigratingFile(file), e);
+      }
+    }
+  }
+
+  /** hard link the source file to the target file, or copy it if they are on different disks */
+  private static void transfer(File source, File target) throws IOException {
+    Files.deleteIfExists(target.toPath());
+    try {
+      Files.createLink(target.toPath(), source.toPath());
+      return;
+    } catch (IOException | UnsupportedOperationException e) {
+      // fall back to copying
+    }
+    try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+        FileChannel out =
+            FileChannel.open(
+                target.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      long size = in.size();
+      long position = 0;
+      while (position < size) {
+        long count = Math.min(COPY_BATCH_SIZE, size - position);
+        CompactionTaskManager.mergeRateLimiterAcquire(MIGRATION_RATE_LIMITER, count);
+        long transferred = in.transferTo(position, count, out);
+        if (transferred <= 0) {
+          throw new IOException(
+              String.format("Unexpected end of %s at %d, expected %d", source, position, size));
+        }
+        position += transferred;
+      }
+      out.force(true);
+    }
+  }
+}
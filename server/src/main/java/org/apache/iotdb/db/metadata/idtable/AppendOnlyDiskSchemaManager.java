@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.metadata.idtable;
 
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.metadata.idtable.entry.DiskSchemaEntry;
@@ -32,6 +34,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -39,8 +42,16 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
-/** store id table schema in append only file */
+/**
+ * store id table schema in append only file. Schema entries are buffered in memory and appended to
+ * the file in batches, by a background thread or by the writer that fills the buffer, so that
+ * creating timeseries concurrently does not issue a write per entry.
+ */
 public class AppendOnlyDiskSchemaManager implements IDiskSchemaManager {
 
   private static final String FILE_NAME = "SeriesKeyMapping.meta";
@@ -48,14 +59,46 @@ public class AppendOnlyDiskSchemaManager implements IDiskSchemaManager {
   // file version to distinguish different id table file
   private static final String FILE_VERSION = "AppendOnly_V1";
 
+  // the buffered entries are written by the writer once they exceed this size
+  private static final int FLUSH_THRESHOLD_IN_BYTE = 64 * 1024;
+
+  private static final long FLUSH_INTERVAL_IN_MS = 100L;
+
   File dataFile;
 
   FileOutputStream outputStream;
 
   long loc;
 
+  /** serialized entries not written to the file yet, guarded by this */
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+  /** keeps the batches in order when they are written by different threads */
+  private final Object flushLock = new Object();
+
+  /**
+   * set when a batch failed to be written, guarded by this. loc is no longer the end of the file
+   * then, so no more entries are accepted.
+   */
+  private boolean failed = false;
+
   private static final Logger logger = LoggerFactory.getLogger(AppendOnlyDiskSchemaManager.class);
 
+  private static final Set<AppendOnlyDiskSchemaManager> openManagers =
+      ConcurrentHashMap.newKeySet();
+
+  private static final ScheduledExecutorService flushExecutor =
+      IoTDBThreadPoolFactory.newScheduledThreadPoolWithDaemon(
+          1, ThreadName.ID_TABLE_LOG_FLUSH.getName());
+
+  static {
+    flushExecutor.scheduleWithFixedDelay(
+        AppendOnlyDiskSchemaManager::flushAll,
+        FLUSH_INTERVAL_IN_MS,
+        FLUSH_INTERVAL_IN_MS,
+        TimeUnit.MILLISECONDS);
+  }
+
   public AppendOnlyDiskSchemaManager(File dir) {
     try {
       initFile(dir);
@@ -68,6 +111,39 @@ public class AppendOnlyDiskSchemaManager implements IDiskSchemaManager {
       logger.error(e.getMessage());
       throw new IllegalArgumentException("can't initialize disk schema manager at " + dataFile);
     }
+    openManagers.add(this);
+  }
+
+  private static void flushAll() {
+    for (AppendOnlyDiskSchemaManager manager : openManagers) {
+      manager.flush();
+    }
+  }
+
+  /** append the buffered entries to the file */
+  private void flush() {
+    synchronized (flushLock) {
+      byte[] entries;
+      synchronized (this) {
+        if (buffer.size() == 0) {
+          return;
+        }
+        entries = buffer.toByteArray();
+        buffer.reset();
+      }
+      try {
+        outputStream.write(entries);
+      } catch (IOException e) {
+        logger.error(
+            "failed to write {} bytes of schema entries to {}, no more entries will be accepted",
+            entries.length,
+            dataFile,
+            e);
+        synchronized (this) {
+          failed = true;
+        }
+      }
+    }
   }
 
   private void initFile(File dir) throws IOException {
@@ -124,17 +200,34 @@ public class AppendOnlyDiskSchemaManager implements IDiskSchemaManager {
 
   @Override
   public long serialize(DiskSchemaEntry schemaEntry) {
-    long beforeLoc = loc;
-    try {
-      loc += schemaEntry.serialize(outputStream);
-    } catch (IOException e) {
-      logger.error("failed to serialize schema entry: " + schemaEntry);
-      throw new IllegalArgumentException("can't serialize disk entry of " + schemaEntry);
+    long beforeLoc;
+    boolean needFlush;
+    synchronized (this) {
+      checkNotFailed(schemaEntry);
+      beforeLoc = loc;
+      try {
+        loc += schemaEntry.serialize(buffer);
+      } catch (IOException e) {
+        logger.error("failed to serialize schema entry: " + schemaEntry);
+        throw new IllegalArgumentException("can't serialize disk entry of " + schemaEntry);
+      }
+      needFlush = buffer.size() >= FLUSH_THRESHOLD_IN_BYTE;
     }
 
+    if (needFlush) {
+      flush();
+      checkNotFailed(schemaEntry);
+    }
     return beforeLoc;
   }
 
+  private synchronized void checkNotFailed(DiskSchemaEntry schemaEntry) {
+    if (failed) {
+      throw new IllegalArgumentException(
+          "can't serialize disk entry of " + schemaEntry + ", writing " + dataFile + " failed");
+    }
+  }
+
   @Override
   public void recover(IDTable idTable) {
     long loc = 0;
@@ -167,6 +260,7 @@ public class AppendOnlyDiskSchemaManager implements IDiskSchemaManager {
 
   @TestOnly
   public Collection<DiskSchemaEntry> getAllSchemaEntry() throws IOException {
+    flush();
     List<DiskSchemaEntry> res = new ArrayList<>();
 
     try (FileInputStream inputStream = new FileInputStream(dataFile)) {
@@ -192,6 +286,8 @@ public class AppendOnlyDiskSchemaManager implements IDiskSchemaManager {
 
   @Override
   public void close() throws IOException {
+    openManagers.remove(this);
+    flush();
     try {
       outputStream.close();
     } catch (IOException e) {
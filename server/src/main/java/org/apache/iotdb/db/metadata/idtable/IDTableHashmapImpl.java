@@ -47,9 +47,9 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** id table belongs to a storage group and mapping timeseries path to it's schema */
 public class IDTableHashmapImpl implements IDTable {
@@ -60,8 +60,10 @@ public class IDTableHashmapImpl implements IDTable {
   private static final Logger logger = LoggerFactory.getLogger(IDTableHashmapImpl.class);
 
   /**
-   * 256 hashmap for avoiding rehash performance issue and lock competition device ID ->
-   * (measurement name -> schema entry)
+   * 256 concurrent hashmap for avoiding rehash performance issue device ID -> (measurement name ->
+   * schema entry). Lookups and last cache accesses are lock free, and schema changes of a device
+   * are serialized by the monitor of its device entry, so that inserts of different devices never
+   * block each other.
    */
   private Map<IDeviceID, DeviceEntry>[] idTables;
 
@@ -73,7 +75,7 @@ public class IDTableHashmapImpl implements IDTable {
   public IDTableHashmapImpl(File storageGroupDir) {
     idTables = new Map[NUM_OF_SLOTS];
     for (int i = 0; i < NUM_OF_SLOTS; i++) {
-      idTables[i] = new HashMap<>();
+      idTables[i] = new ConcurrentHashMap<>();
     }
     if (config.isEnableIDTableLogFile()) {
       IDiskSchemaManager = new AppendOnlyDiskSchemaManager(storageGroupDir);
@@ -87,23 +89,24 @@ public class IDTableHashmapImpl implements IDTable {
    * @param plan create aligned timeseries plan
    * @throws MetadataException if the device is not aligned, throw it
    */
-  public synchronized void createAlignedTimeseries(CreateAlignedTimeSeriesPlan plan)
-      throws MetadataException {
+  public void createAlignedTimeseries(CreateAlignedTimeSeriesPlan plan) throws MetadataException {
     DeviceEntry deviceEntry = getDeviceEntryWithAlignedCheck(plan.getPrefixPath().toString(), true);
 
-    for (int i = 0; i < plan.getMeasurements().size(); i++) {
-      PartialPath fullPath =
-          new PartialPath(plan.getPrefixPath().toString(), plan.getMeasurements().get(i));
-      SchemaEntry schemaEntry =
-          new SchemaEntry(
-              plan.getDataTypes().get(i),
-              plan.getEncodings().get(i),
-              plan.getCompressors().get(i),
-              deviceEntry.getDeviceID(),
-              fullPath,
-              true,
-              IDiskSchemaManager);
-      deviceEntry.putSchemaEntry(plan.getMeasurements().get(i), schemaEntry);
+    synchronized (deviceEntry) {
+      for (int i = 0; i < plan.getMeasurements().size(); i++) {
+        PartialPath fullPath =
+            new PartialPath(plan.getPrefixPath().toString(), plan.getMeasurements().get(i));
+        SchemaEntry schemaEntry =
+            new SchemaEntry(
+                plan.getDataTypes().get(i),
+                plan.getEncodings().get(i),
+                plan.getCompressors().get(i),
+                deviceEntry.getDeviceID(),
+                fullPath,
+                true,
+                IDiskSchemaManager);
+        deviceEntry.putSchemaEntry(plan.getMeasurements().get(i), schemaEntry);
+      }
     }
   }
 
@@ -113,18 +116,20 @@ public class IDTableHashmapImpl implements IDTable {
    * @param plan create timeseries plan
    * @throws MetadataException if the device is aligned, throw it
    */
-  public synchronized void createTimeseries(CreateTimeSeriesPlan plan) throws MetadataException {
+  public void createTimeseries(CreateTimeSeriesPlan plan) throws MetadataException {
     DeviceEntry deviceEntry = getDeviceEntryWithAlignedCheck(plan.getPath().getDevice(), false);
-    SchemaEntry schemaEntry =
-        new SchemaEntry(
-            plan.getDataType(),
-            plan.getEncoding(),
-            plan.getCompressor(),
-            deviceEntry.getDeviceID(),
-            plan.getPath(),
-            false,
-            IDiskSchemaManager);
-    deviceEntry.putSchemaEntry(plan.getPath().getMeasurement(), schemaEntry);
+    synchronized (deviceEntry) {
+      SchemaEntry schemaEntry =
+          new SchemaEntry(
+              plan.getDataType(),
+              plan.getEncoding(),
+              plan.getCompressor(),
+              deviceEntry.getDeviceID(),
+              plan.getPath(),
+              false,
+              IDiskSchemaManager);
+      deviceEntry.putSchemaEntry(plan.getPath().getMeasurement(), schemaEntry);
+    }
   }
 
   /**
@@ -134,7 +139,7 @@ public class IDTableHashmapImpl implements IDTable {
    * @return reusable device id
    * @throws MetadataException if insert plan's aligned value is inconsistent with device
    */
-  public synchronized IDeviceID getSeriesSchemas(InsertPlan plan) throws MetadataException {
+  public IDeviceID getSeriesSchemas(InsertPlan plan) throws MetadataException {
     PartialPath devicePath = plan.getDevicePath();
     String[] measurementList = plan.getMeasurements();
     IMeasurementMNode[] measurementMNodes = plan.getMeasurementMNodes();
@@ -200,12 +205,14 @@ public class IDTableHashmapImpl implements IDTable {
    * @param measurementMNode the timeseries measurement mnode
    * @throws MetadataException if the timeseries is not exits
    */
-  public synchronized void registerTrigger(PartialPath fullPath, IMeasurementMNode measurementMNode)
+  public void registerTrigger(PartialPath fullPath, IMeasurementMNode measurementMNode)
       throws MetadataException {
     boolean isAligned = measurementMNode.getParent().isAligned();
     DeviceEntry deviceEntry = getDeviceEntryWithAlignedCheck(fullPath.getDevice(), isAligned);
 
-    deviceEntry.getSchemaEntry(fullPath.getMeasurement()).setUsingTrigger();
+    synchronized (deviceEntry) {
+      deviceEntry.getSchemaEntry(fullPath.getMeasurement()).setUsingTrigger();
+    }
   }
 
   /**
@@ -215,12 +222,14 @@ public class IDTableHashmapImpl implements IDTable {
    * @param measurementMNode the timeseries measurement mnode
    * @throws MetadataException if the timeseries is not exits
    */
-  public synchronized void deregisterTrigger(
-      PartialPath fullPath, IMeasurementMNode measurementMNode) throws MetadataException {
+  public void deregisterTrigger(PartialPath fullPath, IMeasurementMNode measurementMNode)
+      throws MetadataException {
     boolean isAligned = measurementMNode.getParent().isAligned();
     DeviceEntry deviceEntry = getDeviceEntryWithAlignedCheck(fullPath.getDevice(), isAligned);
 
-    deviceEntry.getSchemaEntry(fullPath.getMeasurement()).setUnUsingTrigger();
+    synchronized (deviceEntry) {
+      deviceEntry.getSchemaEntry(fullPath.getMeasurement()).setUnUsingTrigger();
+    }
   }
 
   /**
@@ -229,8 +238,7 @@ public class IDTableHashmapImpl implements IDTable {
    * @param timeseriesID timeseries ID of the timeseries
    * @throws MetadataException if the timeseries is not exits
    */
-  public synchronized TimeValuePair getLastCache(TimeseriesID timeseriesID)
-      throws MetadataException {
+  public TimeValuePair getLastCache(TimeseriesID timeseriesID) throws MetadataException {
     return getSchemaEntry(timeseriesID).getCachedLast();
   }
 
@@ -243,7 +251,7 @@ public class IDTableHashmapImpl implements IDTable {
    * @param latestFlushedTime last flushed time
    * @throws MetadataException if the timeseries is not exits
    */
-  public synchronized void updateLastCache(
+  public void updateLastCache(
       TimeseriesID timeseriesID,
       TimeValuePair pair,
       boolean highPriorityUpdate,
@@ -334,41 +342,13 @@ public class IDTableHashmapImpl implements IDTable {
 
     // if not exist, we create it
     if (schemaEntry == null) {
-      // we have to copy plan's mnode for using id table's last cache
-      IMeasurementMNode[] insertPlanMNodeBackup =
-          new IMeasurementMNode[plan.getMeasurementMNodes().length];
-      System.arraycopy(
-          plan.getMeasurementMNodes(), 0, insertPlanMNodeBackup, 0, insertPlanMNodeBackup.length);
-      try {
-        IoTDB.schemaProcessor.getSeriesSchemasAndReadLockDevice(plan);
-      } catch (IOException e) {
-        throw new MetadataException(e);
-      }
-
-      // if the timeseries is in template, SchemaProcessor will not create timeseries. so we have to
-      // put it
-      // in id table here
-      for (IMeasurementMNode measurementMNode : plan.getMeasurementMNodes()) {
-        if (measurementMNode != null && !deviceEntry.contains(measurementMNode.getName())) {
-          IMeasurementSchema schema = measurementMNode.getSchema();
-          SchemaEntry curEntry =
-              new SchemaEntry(
-                  schema.getType(),
-                  schema.getEncodingType(),
-                  schema.getCompressor(),
-                  deviceEntry.getDeviceID(),
-                  seriesKey,
-                  deviceEntry.isAligned(),
-                  IDiskSchemaManager);
-          deviceEntry.putSchemaEntry(measurementMNode.getName(), curEntry);
+      synchronized (deviceEntry) {
+        // it may have been created by a concurrent insert of the same device
+        schemaEntry = deviceEntry.getSchemaEntry(measurementName);
+        if (schemaEntry == null) {
+          schemaEntry = createMeasurement(deviceEntry, plan, seriesKey, measurementName);
         }
       }
-
-      // copy back measurement mnode list
-      System.arraycopy(
-          insertPlanMNodeBackup, 0, plan.getMeasurementMNodes(), 0, insertPlanMNodeBackup.length);
-
-      schemaEntry = deviceEntry.getSchemaEntry(measurementName);
     }
 
     // timeseries is using trigger, we should get trigger from SchemaProcessor
@@ -381,6 +361,52 @@ public class IDTableHashmapImpl implements IDTable {
     return new InsertMeasurementMNode(measurementName, schemaEntry);
   }
 
+  /**
+   * create the schema entries of the measurements in the insert plan by SchemaProcessor, must be
+   * called with the monitor of the device entry held
+   *
+   * @return schema entry of the measurement
+   */
+  private SchemaEntry createMeasurement(
+      DeviceEntry deviceEntry, InsertPlan plan, PartialPath seriesKey, String measurementName)
+      throws MetadataException {
+    // we have to copy plan's mnode for using id table's last cache
+    IMeasurementMNode[] insertPlanMNodeBackup =
+        new IMeasurementMNode[plan.getMeasurementMNodes().length];
+    System.arraycopy(
+        plan.getMeasurementMNodes(), 0, insertPlanMNodeBackup, 0, insertPlanMNodeBackup.length);
+    try {
+      IoTDB.schemaProcessor.getSeriesSchemasAndReadLockDevice(plan);
+    } catch (IOException e) {
+      throw new MetadataException(e);
+    }
+
+    // if the timeseries is in template, SchemaProcessor will not create timeseries. so we have to
+    // put it
+    // in id table here
+    for (IMeasurementMNode measurementMNode : plan.getMeasurementMNodes()) {
+      if (measurementMNode != null && !deviceEntry.contains(measurementMNode.getName())) {
+        IMeasurementSchema schema = measurementMNode.getSchema();
+        SchemaEntry curEntry =
+            new SchemaEntry(
+                schema.getType(),
+                schema.getEncodingType(),
+                schema.getCompressor(),
+                deviceEntry.getDeviceID(),
+                seriesKey,
+                deviceEntry.isAligned(),
+                IDiskSchemaManager);
+        deviceEntry.putSchemaEntry(measurementMNode.getName(), curEntry);
+      }
+    }
+
+    // copy back measurement mnode list
+    System.arraycopy(
+        insertPlanMNodeBackup, 0, plan.getMeasurementMNodes(), 0, insertPlanMNodeBackup.length);
+
+    return deviceEntry.getSchemaEntry(measurementName);
+  }
+
   /**
    * get device id from device path and check is aligned,
    *
@@ -394,13 +420,14 @@ public class IDTableHashmapImpl implements IDTable {
     int slot = calculateSlot(deviceID);
 
     DeviceEntry deviceEntry = idTables[slot].get(deviceID);
-    // new device
+    // new device, the lock free get above avoids locking the bin of an existing device
     if (deviceEntry == null) {
-      deviceEntry = new DeviceEntry(deviceID);
-      deviceEntry.setAligned(isAligned);
-      idTables[slot].put(deviceID, deviceEntry);
-
-      return deviceEntry;
+      DeviceEntry newDeviceEntry = new DeviceEntry(deviceID);
+      newDeviceEntry.setAligned(isAligned);
+      deviceEntry = idTables[slot].putIfAbsent(deviceID, newDeviceEntry);
+      if (deviceEntry == null) {
+        return newDeviceEntry;
+      }
     }
 
     // check aligned
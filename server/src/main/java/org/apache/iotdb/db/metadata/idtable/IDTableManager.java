@@ -32,7 +32,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** This class manages one id table for each logical storage group */
 public class IDTableManager {
@@ -40,8 +41,8 @@ public class IDTableManager {
   /** logger */
   Logger logger = LoggerFactory.getLogger(IDTableManager.class);
 
-  /** storage group path -> id table */
-  HashMap<String, IDTable> idTableMap;
+  /** storage group path -> id table, created under the monitor of this and read without lock */
+  Map<String, IDTable> idTableMap;
 
   /** system dir */
   private final String systemDir =
@@ -68,7 +69,7 @@ public class IDTableManager {
   }
 
   private IDTableManager() {
-    idTableMap = new HashMap<>();
+    idTableMap = new ConcurrentHashMap<>();
   }
   // endregion
 
@@ -114,7 +115,7 @@ public class IDTableManager {
    * @param measurementName measurement name of the time series
    * @return schema entry of the time series
    */
-  public synchronized IMeasurementSchema getSeriesSchema(String deviceName, String measurementName)
+  public IMeasurementSchema getSeriesSchema(String deviceName, String measurementName)
       throws MetadataException {
     for (IDTable idTable : idTableMap.values()) {
       IMeasurementSchema measurementSchema = idTable.getSeriesSchema(deviceName, measurementName);
@@ -21,21 +21,21 @@ package org.apache.iotdb.db.metadata.idtable.entry;
 
 import org.apache.iotdb.commons.utils.TestOnly;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** device entry in id table */
 public class DeviceEntry {
   /** for device ID reuse in memtable */
   IDeviceID deviceID;
 
-  /** measurement schema map */
+  /** measurement schema map, read without lock by concurrent inserts */
   Map<String, SchemaEntry> measurementMap;
 
   boolean isAligned;
 
-  // for managing last time
+  // for managing last time, concurrent inserts of the device may update it
   // time partition -> last time
   Map<Long, Long> lastTimeMapOfEachPartition;
 
@@ -47,9 +47,9 @@ public class DeviceEntry {
 
   public DeviceEntry(IDeviceID deviceID) {
     this.deviceID = deviceID;
-    measurementMap = new HashMap<>();
-    lastTimeMapOfEachPartition = new HashMap<>();
-    flushTimeMapOfEachPartition = new HashMap<>();
+    measurementMap = new ConcurrentHashMap<>();
+    lastTimeMapOfEachPartition = new ConcurrentHashMap<>();
+    flushTimeMapOfEachPartition = new ConcurrentHashMap<>();
   }
 
   /**
@@ -30,9 +30,9 @@ import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
-import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static org.apache.iotdb.db.utils.EncodingInferenceUtils.getDefaultEncoding;
 
@@ -47,11 +47,16 @@ public class SchemaEntry implements ILastCacheContainer {
   /*  1 byte of compressor  */
   /*   1 byte of encoding   */
   /*    1 byte of type      */
-  private long schema;
+  private volatile long schema;
 
-  private long lastTime;
+  /**
+   * last cache, the time and value are replaced together so that the lock free readers never see a
+   * torn pair
+   */
+  private volatile TimeValuePair cachedLast;
 
-  private TsPrimitiveType lastValue;
+  private static final AtomicReferenceFieldUpdater<SchemaEntry, TimeValuePair> CACHED_LAST_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(SchemaEntry.class, TimeValuePair.class, "cachedLast");
 
   /** This static field will not occupy memory */
   private static IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
@@ -64,8 +69,6 @@ public class SchemaEntry implements ILastCacheContainer {
     schema |= dataType.serialize();
     schema |= (((long) encoding.serialize()) << 8);
     schema |= (((long) compressionType.serialize()) << 16);
-
-    lastTime = Long.MIN_VALUE;
   }
 
   // used in recover
@@ -75,8 +78,6 @@ public class SchemaEntry implements ILastCacheContainer {
     schema |= (((long) encoding.serialize()) << 8);
     schema |= (((long) compressionType.serialize()) << 16);
 
-    lastTime = Long.MIN_VALUE;
-
     schema |= (diskPos << 25);
   }
 
@@ -92,8 +93,6 @@ public class SchemaEntry implements ILastCacheContainer {
     schema |= (((long) encoding.serialize()) << 8);
     schema |= (((long) compressionType.serialize()) << 16);
 
-    lastTime = Long.MIN_VALUE;
-
     // write log file
     if (config.isEnableIDTableLogFile()) {
       DiskSchemaEntry diskSchemaEntry =
@@ -150,17 +149,20 @@ public class SchemaEntry implements ILastCacheContainer {
   }
 
   public long getLastTime() {
-    return lastTime;
+    TimeValuePair last = cachedLast;
+    return last == null ? Long.MIN_VALUE : last.getTimestamp();
   }
 
   public Object getLastValue() {
-    return lastValue;
+    TimeValuePair last = cachedLast;
+    return last == null ? null : last.getValue();
   }
 
   // region last cache
   @Override
   public TimeValuePair getCachedLast() {
-    return lastValue == null ? null : new TimeValuePair(lastTime, lastValue);
+    TimeValuePair last = cachedLast;
+    return last == null ? null : new TimeValuePair(last.getTimestamp(), last.getValue());
   }
 
   @Override
@@ -170,28 +172,37 @@ public class SchemaEntry implements ILastCacheContainer {
       return;
     }
 
-    if (lastValue == null) {
-      // If no cached last, (1) a last query (2) an unseq insertion or (3) a seq insertion will
-      // update cache.
-      if (!highPriorityUpdate || latestFlushedTime <= timeValuePair.getTimestamp()) {
-        lastTime = timeValuePair.getTimestamp();
-        lastValue = timeValuePair.getValue();
+    TimeValuePair newLast = null;
+    while (true) {
+      TimeValuePair last = cachedLast;
+      if (last == null) {
+        // If no cached last, (1) a last query (2) an unseq insertion or (3) a seq insertion will
+        // update cache.
+        if (highPriorityUpdate && latestFlushedTime > timeValuePair.getTimestamp()) {
+          return;
+        }
+      } else if (timeValuePair.getTimestamp() < last.getTimestamp()
+          || (timeValuePair.getTimestamp() == last.getTimestamp() && !highPriorityUpdate)) {
+        return;
+      }
+      if (newLast == null) {
+        newLast = new TimeValuePair(timeValuePair.getTimestamp(), timeValuePair.getValue());
+      }
+      // retry if a concurrent update has won
+      if (CACHED_LAST_UPDATER.compareAndSet(this, last, newLast)) {
+        return;
       }
-    } else if (timeValuePair.getTimestamp() > lastTime
-        || (timeValuePair.getTimestamp() == lastTime && highPriorityUpdate)) {
-      lastTime = timeValuePair.getTimestamp();
-      lastValue = timeValuePair.getValue();
     }
   }
 
   @Override
   public void resetLastCache() {
-    lastValue = null;
+    cachedLast = null;
   }
 
   @Override
   public boolean isEmpty() {
-    return lastValue == null;
+    return cachedLast == null;
   }
 
   @Override
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+
+/**
+ * The state of one aggregation function, updated by whole columns instead of point by point.
+ *
+ * <p>The state can be output as an intermediate result, whose columns are given by {@link
+ * #getIntermediateType()}, so that the aggregation can be split across fragment instances and the
+ * intermediate results merged later by {@link #addIntermediate(Column[], int)}. A null intermediate
+ * result means no data was aggregated.
+ */
+public interface Accumulator {
+
+  /**
+   * Aggregate all the rows of the value column. Null values are skipped.
+   *
+   * @param timeColumn timestamps of the rows
+   * @param valueColumn values of the rows
+   */
+  void addInput(TimeColumn timeColumn, Column valueColumn);
+
+  /**
+   * Merge an intermediate result.
+   *
+   * @param partialResult columns of the intermediate result, in the order of {@link
+   *     #getIntermediateType()}
+   * @param position the row of the intermediate result in the columns
+   */
+  void addIntermediate(Column[] partialResult, int position);
+
+  /** Aggregate the data summarized by the statistics of a file, chunk or page. */
+  void addStatistics(Statistics statistics);
+
+  /**
+   * Write the intermediate result, one column builder for each of {@link #getIntermediateType()}
+   */
+  void outputIntermediate(ColumnBuilder[] columnBuilders);
+
+  /** Write the final result */
+  void outputFinal(ColumnBuilder columnBuilder);
+
+  void reset();
+
+  /**
+   * @return true if the result can not be changed by more data, e.g., the first value in ascending
+   *     order
+   */
+  boolean hasFinalResult();
+
+  TSDataType[] getIntermediateType();
+
+  TSDataType getFinalType();
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+/**
+ * The step of an aggregation split across fragment instances. The PARTIAL steps run near the data
+ * and output intermediate results, which are merged by INTERMEDIATE steps and finished by the FINAL
+ * step after the exchange. An aggregation done in one place is SINGLE.
+ */
+public enum AggregationStep {
+  // input raw data, output final result
+  SINGLE(true, false),
+  // input raw data, output intermediate result
+  PARTIAL(true, true),
+  // input intermediate result, output intermediate result
+  INTERMEDIATE(false, true),
+  // input intermediate result, output final result
+  FINAL(false, false);
+
+  private final boolean inputRaw;
+  private final boolean outputPartial;
+
+  AggregationStep(boolean inputRaw, boolean outputPartial) {
+    this.inputRaw = inputRaw;
+    this.outputPartial = outputPartial;
+  }
+
+  public boolean isInputRaw() {
+    return inputRaw;
+  }
+
+  public boolean isOutputPartial() {
+    return outputPartial;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An {@link Accumulator} at some {@link AggregationStep}, together with where its input columns
+ * are.
+ *
+ * <p>Each element of inputLocationList is one input of the accumulator: a single raw value column
+ * if the step inputs raw data, or the columns of an intermediate result otherwise. There are
+ * several inputs when results of different series are merged, e.g., by GROUP BY LEVEL.
+ */
+public class Aggregator {
+
+  private final Accumulator accumulator;
+  private final AggregationStep step;
+  private final List<InputLocation[]> inputLocationList;
+
+  /** An aggregator whose only input is the first value column of the first TsBlock */
+  public Aggregator(Accumulator accumulator, AggregationStep step) {
+    this(
+        accumulator,
+        step,
+        Collections.singletonList(
+            step.isInputRaw()
+                ? new InputLocation[] {new InputLocation(0, 0)}
+                : defaultIntermediateLocations(accumulator)));
+  }
+
+  public Aggregator(
+      Accumulator accumulator, AggregationStep step, List<InputLocation[]> inputLocationList) {
+    this.accumulator = accumulator;
+    this.step = step;
+    this.inputLocationList = inputLocationList;
+  }
+
+  private static InputLocation[] defaultIntermediateLocations(Accumulator accumulator) {
+    InputLocation[] locations = new InputLocation[accumulator.getIntermediateType().length];
+    for (int i = 0; i < locations.length; i++) {
+      locations[i] = new InputLocation(0, i);
+    }
+    return locations;
+  }
+
+  /** Aggregate all the rows of a raw TsBlock, only used when the step inputs raw data */
+  public void processTsBlock(TsBlock tsBlock) {
+    checkArgument(step.isInputRaw(), "Step %s does not input raw data", step);
+    TimeColumn timeColumn = tsBlock.getTimeColumn();
+    for (InputLocation[] locations : inputLocationList) {
+      accumulator.addInput(timeColumn, tsBlock.getColumn(locations[0].getValueColumnIndex()));
+    }
+  }
+
+  /**
+   * Aggregate one row of each input TsBlock.
+   *
+   * @param tsBlocks the input TsBlocks
+   * @param positions the row of each input TsBlock
+   */
+  public void processRow(TsBlock[] tsBlocks, int[] positions) {
+    for (InputLocation[] locations : inputLocationList) {
+      int tsBlockIndex = locations[0].getTsBlockIndex();
+      TsBlock tsBlock = tsBlocks[tsBlockIndex];
+      int position = positions[tsBlockIndex];
+      if (step.isInputRaw()) {
+        accumulator.addInput(
+            (TimeColumn) tsBlock.getTimeColumn().getRegion(position, 1),
+            tsBlock.getColumn(locations[0].getValueColumnIndex()).getRegion(position, 1));
+      } else {
+        Column[] partialResult = new Column[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+          partialResult[i] = tsBlock.getColumn(locations[i].getValueColumnIndex());
+        }
+        accumulator.addIntermediate(partialResult, position);
+      }
+    }
+  }
+
+  public void processStatistics(Statistics statistics) {
+    checkArgument(step.isInputRaw(), "Step %s does not input raw data", step);
+    accumulator.addStatistics(statistics);
+  }
+
+  /** @param columnBuilders one column builder for each of {@link #getOutputType()} */
+  public void outputResult(ColumnBuilder[] columnBuilders) {
+    if (step.isOutputPartial()) {
+      accumulator.outputIntermediate(columnBuilders);
+    } else {
+      accumulator.outputFinal(columnBuilders[0]);
+    }
+  }
+
+  public TSDataType[] getOutputType() {
+    if (step.isOutputPartial()) {
+      return accumulator.getIntermediateType();
+    } else {
+      return new TSDataType[] {accumulator.getFinalType()};
+    }
+  }
+
+  public void reset() {
+    accumulator.reset();
+  }
+
+  public boolean hasFinalResult() {
+    return accumulator.hasFinalResult();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+
+/** The intermediate result of AVG is the count and the sum, which can be merged. */
+public class AvgAccumulator implements Accumulator {
+
+  private final CountAccumulator countAccumulator = new CountAccumulator();
+  private final SumAccumulator sumAccumulator;
+
+  public AvgAccumulator(TSDataType seriesDataType) {
+    SumAccumulator.checkNumericType(seriesDataType, "AVG");
+    this.sumAccumulator = new SumAccumulator(seriesDataType);
+  }
+
+  @Override
+  public void addInput(TimeColumn timeColumn, Column valueColumn) {
+    countAccumulator.addInput(timeColumn, valueColumn);
+    sumAccumulator.addInput(timeColumn, valueColumn);
+  }
+
+  @Override
+  public void addIntermediate(Column[] partialResult, int position) {
+    if (partialResult[0].isNull(position) || partialResult[0].getLong(position) == 0) {
+      return;
+    }
+    countAccumulator.addCount(partialResult[0].getLong(position));
+    sumAccumulator.addSum(partialResult[1].getDouble(position));
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    countAccumulator.addStatistics(statistics);
+    sumAccumulator.addStatistics(statistics);
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    if (countAccumulator.getCount() == 0) {
+      columnBuilders[0].appendNull();
+      columnBuilders[1].appendNull();
+    } else {
+      columnBuilders[0].writeLong(countAccumulator.getCount());
+      columnBuilders[1].writeDouble(sumAccumulator.getSum());
+    }
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    if (countAccumulator.getCount() == 0) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(sumAccumulator.getSum() / countAccumulator.getCount());
+    }
+  }
+
+  @Override
+  public void reset() {
+    countAccumulator.reset();
+    sumAccumulator.reset();
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {TSDataType.INT64, TSDataType.DOUBLE};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return TSDataType.DOUBLE;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+
+public class CountAccumulator implements Accumulator {
+
+  private long countValue = 0;
+
+  @Override
+  public void addInput(TimeColumn timeColumn, Column valueColumn) {
+    int positionCount = valueColumn.getPositionCount();
+    if (!valueColumn.mayHaveNull()) {
+      countValue += positionCount;
+      return;
+    }
+    for (int i = 0; i < positionCount; i++) {
+      if (!valueColumn.isNull(i)) {
+        countValue++;
+      }
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column[] partialResult, int position) {
+    if (!partialResult[0].isNull(position)) {
+      countValue += partialResult[0].getLong(position);
+    }
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    countValue += statistics.getCount();
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    columnBuilders[0].writeLong(countValue);
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    columnBuilder.writeLong(countValue);
+  }
+
+  @Override
+  public void reset() {
+    countValue = 0;
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {TSDataType.INT64};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return TSDataType.INT64;
+  }
+
+  long getCount() {
+    return countValue;
+  }
+
+  void addCount(long count) {
+    countValue += count;
+  }
+}
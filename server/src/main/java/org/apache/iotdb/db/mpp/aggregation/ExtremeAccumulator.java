@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+
+/** EXTREME is the value with the largest absolute value, the positive one wins if equal. */
+public class ExtremeAccumulator extends ValueComparisonAccumulator {
+
+  public ExtremeAccumulator(TSDataType seriesDataType) {
+    super(seriesDataType, "EXTREME");
+  }
+
+  @Override
+  protected boolean isBetter(long candidate, long current) {
+    long candidateAbs = Math.abs(candidate);
+    long currentAbs = Math.abs(current);
+    return candidateAbs > currentAbs || (candidateAbs == currentAbs && candidate > current);
+  }
+
+  @Override
+  protected boolean isBetter(double candidate, double current) {
+    double candidateAbs = Math.abs(candidate);
+    double currentAbs = Math.abs(current);
+    return candidateAbs > currentAbs || (candidateAbs == currentAbs && candidate > current);
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    if (statistics.getCount() > 0) {
+      updateByStatisticsValue(statistics.getMaxValue());
+      updateByStatisticsValue(statistics.getMinValue());
+    }
+  }
+}
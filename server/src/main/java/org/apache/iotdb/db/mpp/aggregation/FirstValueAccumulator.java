@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+/** The intermediate result of FIRST_VALUE is the value and its timestamp. */
+public class FirstValueAccumulator implements Accumulator {
+
+  private final TSDataType seriesDataType;
+  private final boolean ascending;
+  private TsPrimitiveType value;
+  private long time;
+  private boolean hasValue = false;
+
+  public FirstValueAccumulator(TSDataType seriesDataType, boolean ascending) {
+    this.seriesDataType = seriesDataType;
+    this.ascending = ascending;
+  }
+
+  @Override
+  public void addInput(TimeColumn timeColumn, Column valueColumn) {
+    if (hasFinalResult()) {
+      return;
+    }
+    // rows are in the scan order, so only the first non-null row from the earliest end is needed
+    int positionCount = valueColumn.getPositionCount();
+    boolean forward = ascending;
+    for (int k = 0; k < positionCount; k++) {
+      int i = forward ? k : positionCount - 1 - k;
+      if (!valueColumn.mayHaveNull() || !valueColumn.isNull(i)) {
+        update(timeColumn.getLong(i), valueColumn.getTsPrimitiveType(i));
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column[] partialResult, int position) {
+    if (!partialResult[0].isNull(position)) {
+      update(partialResult[1].getLong(position), partialResult[0].getTsPrimitiveType(position));
+    }
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    if (statistics.getCount() > 0) {
+      update(
+          statistics.getStartTime(),
+          TsPrimitiveType.getByType(seriesDataType, statistics.getFirstValue()));
+    }
+  }
+
+  private void update(long candidateTime, TsPrimitiveType candidateValue) {
+    if (!hasValue || candidateTime < time) {
+      time = candidateTime;
+      value = candidateValue;
+      hasValue = true;
+    }
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    if (hasValue) {
+      columnBuilders[0].writeTsPrimitiveType(value);
+      columnBuilders[1].writeLong(time);
+    } else {
+      columnBuilders[0].appendNull();
+      columnBuilders[1].appendNull();
+    }
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    if (hasValue) {
+      columnBuilder.writeTsPrimitiveType(value);
+    } else {
+      columnBuilder.appendNull();
+    }
+  }
+
+  @Override
+  public void reset() {
+    value = null;
+    time = 0;
+    hasValue = false;
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return ascending && hasValue;
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {seriesDataType, TSDataType.INT64};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return seriesDataType;
+  }
+}
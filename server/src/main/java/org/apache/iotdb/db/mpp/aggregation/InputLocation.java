@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+/** The location of an input column of an {@link Aggregator} among the input TsBlocks */
+public class InputLocation {
+
+  // which input TsBlock
+  private final int tsBlockIndex;
+  // which value column of the TsBlock
+  private final int valueColumnIndex;
+
+  public InputLocation(int tsBlockIndex, int valueColumnIndex) {
+    this.tsBlockIndex = tsBlockIndex;
+    this.valueColumnIndex = valueColumnIndex;
+  }
+
+  public int getTsBlockIndex() {
+    return tsBlockIndex;
+  }
+
+  public int getValueColumnIndex() {
+    return valueColumnIndex;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+
+public class MinTimeAccumulator implements Accumulator {
+
+  private final boolean ascending;
+  private long time;
+  private boolean hasValue = false;
+
+  public MinTimeAccumulator(boolean ascending) {
+    this.ascending = ascending;
+  }
+
+  @Override
+  public void addInput(TimeColumn timeColumn, Column valueColumn) {
+    int positionCount = valueColumn.getPositionCount();
+    if (positionCount == 0) {
+      return;
+    }
+    if (!valueColumn.mayHaveNull()) {
+      // the time column is ordered, so only the two ends need to be compared
+      update(timeColumn.getLong(0));
+      update(timeColumn.getLong(positionCount - 1));
+      return;
+    }
+    for (int i = 0; i < positionCount; i++) {
+      if (!valueColumn.isNull(i)) {
+        update(timeColumn.getLong(i));
+      }
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column[] partialResult, int position) {
+    if (!partialResult[0].isNull(position)) {
+      update(partialResult[0].getLong(position));
+    }
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    if (statistics.getCount() > 0) {
+      update(statistics.getStartTime());
+    }
+  }
+
+  private void update(long candidate) {
+    if (!hasValue || candidate < time) {
+      time = candidate;
+      hasValue = true;
+    }
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    outputFinal(columnBuilders[0]);
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    if (hasValue) {
+      columnBuilder.writeLong(time);
+    } else {
+      columnBuilder.appendNull();
+    }
+  }
+
+  @Override
+  public void reset() {
+    time = 0;
+    hasValue = false;
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return ascending && hasValue;
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {TSDataType.INT64};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return TSDataType.INT64;
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+
+public class SumAccumulator implements Accumulator {
+
+  private final TSDataType seriesDataType;
+  private double sumValue = 0;
+  private boolean initResult = false;
+
+  public SumAccumulator(TSDataType seriesDataType) {
+    checkNumericType(seriesDataType, "SUM");
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public void addInput(TimeColumn timeColumn, Column valueColumn) {
+    int positionCount = valueColumn.getPositionCount();
+    double sum = 0;
+    int count = 0;
+    switch (seriesDataType) {
+      case INT32:
+        if (!valueColumn.mayHaveNull()) {
+          for (int i = 0; i < positionCount; i++) {
+            sum += valueColumn.getInt(i);
+          }
+          count = positionCount;
+        } else {
+          for (int i = 0; i < positionCount; i++) {
+            if (!valueColumn.isNull(i)) {
+              sum += valueColumn.getInt(i);
+              count++;
+            }
+          }
+        }
+        break;
+      case INT64:
+        if (!valueColumn.mayHaveNull()) {
+          for (int i = 0; i < positionCount; i++) {
+            sum += valueColumn.getLong(i);
+          }
+          count = positionCount;
+        } else {
+          for (int i = 0; i < positionCount; i++) {
+            if (!valueColumn.isNull(i)) {
+              sum += valueColumn.getLong(i);
+              count++;
+            }
+          }
+        }
+        break;
+      case FLOAT:
+        if (!valueColumn.mayHaveNull()) {
+          for (int i = 0; i < positionCount; i++) {
+            sum += valueColumn.getFloat(i);
+          }
+          count = positionCount;
+        } else {
+          for (int i = 0; i < positionCount; i++) {
+            if (!valueColumn.isNull(i)) {
+              sum += valueColumn.getFloat(i);
+              count++;
+            }
+          }
+        }
+        break;
+      case DOUBLE:
+      default:
+        if (!valueColumn.mayHaveNull()) {
+          for (int i = 0; i < positionCount; i++) {
+            sum += valueColumn.getDouble(i);
+          }
+          count = positionCount;
+        } else {
+          for (int i = 0; i < positionCount; i++) {
+            if (!valueColumn.isNull(i)) {
+              sum += valueColumn.getDouble(i);
+              count++;
+            }
+          }
+        }
+        break;
+    }
+    if (count > 0) {
+      addSum(sum);
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column[] partialResult, int position) {
+    if (!partialResult[0].isNull(position)) {
+      addSum(partialResult[0].getDouble(position));
+    }
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    if (statistics.getCount() == 0) {
+      return;
+    }
+    if (seriesDataType == TSDataType.INT32) {
+      addSum(statistics.getSumLongValue());
+    } else {
+      addSum(statistics.getSumDoubleValue());
+    }
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    outputFinal(columnBuilders[0]);
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    if (initResult) {
+      columnBuilder.writeDouble(sumValue);
+    } else {
+      columnBuilder.appendNull();
+    }
+  }
+
+  @Override
+  public void reset() {
+    sumValue = 0;
+    initResult = false;
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {TSDataType.DOUBLE};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return TSDataType.DOUBLE;
+  }
+
+  double getSum() {
+    return sumValue;
+  }
+
+  void addSum(double sum) {
+    sumValue += sum;
+    initResult = true;
+  }
+
+  static void checkNumericType(TSDataType dataType, String aggregation) {
+    switch (dataType) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return;
+      default:
+        throw new UnsupportedOperationException(
+            String.format("Unsupported data type in aggregation %s : %s", aggregation, dataType));
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+
+/**
+ * Base of the accumulators keeping the best value of a numeric series, e.g., MAX_VALUE. Integral
+ * values are kept as long and floating values as double to avoid boxing in the per-row loop.
+ */
+abstract class ValueComparisonAccumulator implements Accumulator {
+
+  protected final TSDataType seriesDataType;
+  private long longValue;
+  private double doubleValue;
+  private boolean initResult = false;
+
+  ValueComparisonAccumulator(TSDataType seriesDataType, String aggregation) {
+    SumAccumulator.checkNumericType(seriesDataType, aggregation);
+    this.seriesDataType = seriesDataType;
+  }
+
+  /** @return true if the candidate should replace the current value */
+  protected abstract boolean isBetter(long candidate, long current);
+
+  protected abstract boolean isBetter(double candidate, double current);
+
+  @Override
+  public void addInput(TimeColumn timeColumn, Column valueColumn) {
+    int positionCount = valueColumn.getPositionCount();
+    boolean mayHaveNull = valueColumn.mayHaveNull();
+    switch (seriesDataType) {
+      case INT32:
+        for (int i = 0; i < positionCount; i++) {
+          if (!mayHaveNull || !valueColumn.isNull(i)) {
+            updateLong(valueColumn.getInt(i));
+          }
+        }
+        break;
+      case INT64:
+        for (int i = 0; i < positionCount; i++) {
+          if (!mayHaveNull || !valueColumn.isNull(i)) {
+            updateLong(valueColumn.getLong(i));
+          }
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < positionCount; i++) {
+          if (!mayHaveNull || !valueColumn.isNull(i)) {
+            updateDouble(valueColumn.getFloat(i));
+          }
+        }
+        break;
+      case DOUBLE:
+      default:
+        for (int i = 0; i < positionCount; i++) {
+          if (!mayHaveNull || !valueColumn.isNull(i)) {
+            updateDouble(valueColumn.getDouble(i));
+          }
+        }
+        break;
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column[] partialResult, int position) {
+    if (partialResult[0].isNull(position)) {
+      return;
+    }
+    switch (seriesDataType) {
+      case INT32:
+        updateLong(partialResult[0].getInt(position));
+        break;
+      case INT64:
+        updateLong(partialResult[0].getLong(position));
+        break;
+      case FLOAT:
+        updateDouble(partialResult[0].getFloat(position));
+        break;
+      case DOUBLE:
+      default:
+        updateDouble(partialResult[0].getDouble(position));
+        break;
+    }
+  }
+
+  /**
+   * Update the current value by a value of statistics, which is an Integer, Long, Float or Double
+   */
+  protected void updateByStatisticsValue(Object value) {
+    if (seriesDataType == TSDataType.INT32 || seriesDataType == TSDataType.INT64) {
+      updateLong(((Number) value).longValue());
+    } else {
+      updateDouble(((Number) value).doubleValue());
+    }
+  }
+
+  private void updateLong(long value) {
+    if (!initResult || isBetter(value, longValue)) {
+      longValue = value;
+      initResult = true;
+    }
+  }
+
+  private void updateDouble(double value) {
+    if (!initResult || isBetter(value, doubleValue)) {
+      doubleValue = value;
+      initResult = true;
+    }
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    outputFinal(columnBuilders[0]);
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    if (!initResult) {
+      columnBuilder.appendNull();
+      return;
+    }
+    switch (seriesDataType) {
+      case INT32:
+        columnBuilder.writeInt((int) longValue);
+        break;
+      case INT64:
+        columnBuilder.writeLong(longValue);
+        break;
+      case FLOAT:
+        columnBuilder.writeFloat((float) doubleValue);
+        break;
+      case DOUBLE:
+      default:
+        columnBuilder.writeDouble(doubleValue);
+        break;
+    }
+  }
+
+  @Override
+  public void reset() {
+    longValue = 0;
+    doubleValue = 0;
+    initResult = false;
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {seriesDataType};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return seriesDataType;
+  }
+}
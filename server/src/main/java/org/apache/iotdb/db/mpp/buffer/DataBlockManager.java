@@ -20,10 +20,13 @@
 package org.apache.iotdb.db.mpp.buffer;
 
 import org.apache.iotdb.commons.cluster.Endpoint;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.execution.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.memory.LocalMemoryManager;
 import org.apache.iotdb.mpp.rpc.thrift.DataBlockService;
 import org.apache.iotdb.mpp.rpc.thrift.TAcknowledgeDataBlockEvent;
+import org.apache.iotdb.mpp.rpc.thrift.TDynamicFilterEvent;
 import org.apache.iotdb.mpp.rpc.thrift.TEndOfDataBlockEvent;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockRequest;
@@ -39,6 +42,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
@@ -50,17 +54,21 @@ public class DataBlockManager implements IDataBlockManager {
   private static final Logger logger = LoggerFactory.getLogger(DataBlockManager.class);
 
   public interface SourceHandleListener {
-    void onFinished(SourceHandle sourceHandle);
+    void onFinished(ISourceHandle sourceHandle);
 
-    void onClosed(SourceHandle sourceHandle);
+    void onClosed(ISourceHandle sourceHandle);
   }
 
   public interface SinkHandleListener {
-    void onFinish(SinkHandle sinkHandle);
+    void onFinish(ISinkHandle sinkHandle);
 
-    void onClosed(SinkHandle sinkHandle);
+    void onClosed(ISinkHandle sinkHandle);
 
-    void onAborted(SinkHandle sinkHandle);
+    void onAborted(ISinkHandle sinkHandle);
+
+    /** Called when the downstream fragment instance publishes a dynamic filter. */
+    void onDynamicFilterUpdated(
+        ISinkHandle sinkHandle, long lowerBound, long upperBound, boolean finished);
   }
 
   /** Handle thrift communications. */
@@ -73,14 +81,14 @@ public class DataBlockManager implements IDataBlockManager {
           req.getStartSequenceId(),
           req.getEndSequenceId(),
           req.getSourceFragmentInstanceId());
-      if (!sinkHandles.containsKey(req.getSourceFragmentInstanceId())) {
+      if (!(sinkHandles.get(req.getSourceFragmentInstanceId()) instanceof SinkHandle)) {
         throw new TException(
             "Source fragment instance not found. Fragment instance ID: "
                 + req.getSourceFragmentInstanceId()
                 + ".");
       }
       TGetDataBlockResponse resp = new TGetDataBlockResponse();
-      SinkHandle sinkHandle = sinkHandles.get(req.getSourceFragmentInstanceId());
+      SinkHandle sinkHandle = (SinkHandle) sinkHandles.get(req.getSourceFragmentInstanceId());
       for (int i = req.getStartSequenceId(); i < req.getEndSequenceId(); i++) {
         try {
           ByteBuffer serializedTsBlock = sinkHandle.getSerializedTsBlock(i);
@@ -99,14 +107,13 @@ public class DataBlockManager implements IDataBlockManager {
           e.getStartSequenceId(),
           e.getEndSequenceId(),
           e.getSourceFragmentInstanceId());
-      if (!sinkHandles.containsKey(e.getSourceFragmentInstanceId())) {
+      if (!(sinkHandles.get(e.getSourceFragmentInstanceId()) instanceof SinkHandle)) {
         throw new TException(
             "Source fragment instance not found. Fragment instance ID: "
                 + e.getSourceFragmentInstanceId()
                 + ".");
       }
-      sinkHandles
-          .get(e.getSourceFragmentInstanceId())
+      ((SinkHandle) sinkHandles.get(e.getSourceFragmentInstanceId()))
           .acknowledgeTsBlock(e.getStartSequenceId(), e.getEndSequenceId());
     }
 
@@ -118,9 +125,8 @@ public class DataBlockManager implements IDataBlockManager {
           e.getTargetFragmentInstanceId(),
           e.getSourceFragmentInstanceId());
       if (!sourceHandles.containsKey(e.getTargetFragmentInstanceId())
-          || !sourceHandles
-              .get(e.getTargetFragmentInstanceId())
-              .containsKey(e.getTargetPlanNodeId())
+          || !(sourceHandles.get(e.getTargetFragmentInstanceId()).get(e.getTargetPlanNodeId())
+              instanceof SourceHandle)
           || sourceHandles
               .get(e.getTargetFragmentInstanceId())
               .get(e.getTargetPlanNodeId())
@@ -132,7 +138,8 @@ public class DataBlockManager implements IDataBlockManager {
       }
 
       SourceHandle sourceHandle =
-          sourceHandles.get(e.getTargetFragmentInstanceId()).get(e.getTargetPlanNodeId());
+          (SourceHandle)
+              sourceHandles.get(e.getTargetFragmentInstanceId()).get(e.getTargetPlanNodeId());
       sourceHandle.updatePendingDataBlockInfo(e.getStartSequenceId(), e.getBlockSizes());
     }
 
@@ -144,9 +151,8 @@ public class DataBlockManager implements IDataBlockManager {
           e.getTargetFragmentInstanceId(),
           e.getSourceFragmentInstanceId());
       if (!sourceHandles.containsKey(e.getTargetFragmentInstanceId())
-          || !sourceHandles
-              .get(e.getTargetFragmentInstanceId())
-              .containsKey(e.getTargetPlanNodeId())
+          || !(sourceHandles.get(e.getTargetFragmentInstanceId()).get(e.getTargetPlanNodeId())
+              instanceof SourceHandle)
           || sourceHandles
               .get(e.getTargetFragmentInstanceId())
               .get(e.getTargetPlanNodeId())
@@ -157,17 +163,38 @@ public class DataBlockManager implements IDataBlockManager {
                 + ".");
       }
       SourceHandle sourceHandle =
-          sourceHandles
-              .getOrDefault(e.getTargetFragmentInstanceId(), Collections.emptyMap())
-              .get(e.getTargetPlanNodeId());
+          (SourceHandle)
+              sourceHandles
+                  .getOrDefault(e.getTargetFragmentInstanceId(), Collections.emptyMap())
+                  .get(e.getTargetPlanNodeId());
       sourceHandle.setNoMoreTsBlocks(e.getLastSequenceId());
     }
+
+    @Override
+    public void onDynamicFilterEvent(TDynamicFilterEvent e) throws TException {
+      logger.debug(
+          "Dynamic filter event received, time range [{}, {}] and finished {} for {}.",
+          e.getLowerBound(),
+          e.getUpperBound(),
+          e.isFinished(),
+          e.getSourceFragmentInstanceId());
+      if (!(sinkHandles.get(e.getSourceFragmentInstanceId()) instanceof SinkHandle)) {
+        // The source fragment instance may have finished before the event arrives, in which case
+        // the dynamic filter is of no use.
+        logger.debug(
+            "Source fragment instance of the dynamic filter not found. Fragment instance ID: {}.",
+            e.getSourceFragmentInstanceId());
+        return;
+      }
+      ((SinkHandle) sinkHandles.get(e.getSourceFragmentInstanceId()))
+          .updateDynamicFilter(e.getLowerBound(), e.getUpperBound(), e.isFinished());
+    }
   }
 
   /** Listen to the state changes of a source handle. */
   class SourceHandleListenerImpl implements SourceHandleListener {
     @Override
-    public void onFinished(SourceHandle sourceHandle) {
+    public void onFinished(ISourceHandle sourceHandle) {
       logger.info("Release resources of finished source handle {}", sourceHandle);
       if (!sourceHandles.containsKey(sourceHandle.getLocalFragmentInstanceId())
           || !sourceHandles
@@ -175,6 +202,7 @@ public class DataBlockManager implements IDataBlockManager {
               .containsKey(sourceHandle.getLocalPlanNodeId())) {
         logger.info(
             "Resources of finished source handle {} has already been released", sourceHandle);
+        return;
       }
       sourceHandles
           .get(sourceHandle.getLocalFragmentInstanceId())
@@ -185,7 +213,7 @@ public class DataBlockManager implements IDataBlockManager {
     }
 
     @Override
-    public void onClosed(SourceHandle sourceHandle) {
+    public void onClosed(ISourceHandle sourceHandle) {
       onFinished(sourceHandle);
     }
   }
@@ -200,7 +228,7 @@ public class DataBlockManager implements IDataBlockManager {
     }
 
     @Override
-    public void onFinish(SinkHandle sinkHandle) {
+    public void onFinish(ISinkHandle sinkHandle) {
       logger.info("Release resources of finished sink handle {}", sourceHandles);
       if (!sinkHandles.containsKey(sinkHandle.getLocalFragmentInstanceId())) {
         logger.info("Resources of finished sink handle {} has already been released", sinkHandle);
@@ -210,26 +238,38 @@ public class DataBlockManager implements IDataBlockManager {
     }
 
     @Override
-    public void onClosed(SinkHandle sinkHandle) {
+    public void onClosed(ISinkHandle sinkHandle) {
       context.flushing();
     }
 
     @Override
-    public void onAborted(SinkHandle sinkHandle) {
+    public void onAborted(ISinkHandle sinkHandle) {
       logger.info("Release resources of aborted sink handle {}", sourceHandles);
       if (!sinkHandles.containsKey(sinkHandle.getLocalFragmentInstanceId())) {
         logger.info("Resources of aborted sink handle {} has already been released", sinkHandle);
       }
       sinkHandles.remove(sinkHandle.getLocalFragmentInstanceId());
     }
+
+    @Override
+    public void onDynamicFilterUpdated(
+        ISinkHandle sinkHandle, long lowerBound, long upperBound, boolean finished) {
+      context.getDynamicFilter().update(lowerBound, upperBound, finished);
+      logger.debug(
+          "Dynamic filter of {} is updated to {}", context.getId(), context.getDynamicFilter());
+    }
   }
 
   private final LocalMemoryManager localMemoryManager;
   private final Supplier<TsBlockSerde> tsBlockSerdeFactory;
   private final ExecutorService executorService;
   private final DataBlockServiceClientFactory clientFactory;
-  private final Map<TFragmentInstanceId, Map<String, SourceHandle>> sourceHandles;
-  private final Map<TFragmentInstanceId, SinkHandle> sinkHandles;
+  private final Map<TFragmentInstanceId, Map<String, ISourceHandle>> sourceHandles;
+  private final Map<TFragmentInstanceId, ISinkHandle> sinkHandles;
+  // Queues of local exchanges whose sink handle or source handle is not created yet, indexed by
+  // the fragment instance ID and plan node ID of the source handle.
+  private final Map<TFragmentInstanceId, Map<String, SharedTsBlockQueue>>
+      pendingSharedTsBlockQueues;
 
   private DataBlockServiceImpl dataBlockService;
 
@@ -244,6 +284,7 @@ public class DataBlockManager implements IDataBlockManager {
     this.clientFactory = Validate.notNull(clientFactory);
     sourceHandles = new ConcurrentHashMap<>();
     sinkHandles = new ConcurrentHashMap<>();
+    pendingSharedTsBlockQueues = new HashMap<>();
   }
 
   public DataBlockServiceImpl getOrCreateDataBlockServiceImpl() {
@@ -264,6 +305,23 @@ public class DataBlockManager implements IDataBlockManager {
       throw new IllegalStateException("Sink handle for " + localFragmentInstanceId + " exists.");
     }
 
+    if (isLocal(endpoint)) {
+      logger.info(
+          "Create local sink handle to plan node {} of {} for {}",
+          remotePlanNodeId,
+          remoteFragmentInstanceId,
+          localFragmentInstanceId);
+      ISinkHandle localSinkHandle =
+          new LocalSinkHandle(
+              remoteFragmentInstanceId,
+              remotePlanNodeId,
+              localFragmentInstanceId,
+              getOrCreateSharedTsBlockQueue(remoteFragmentInstanceId, remotePlanNodeId),
+              new SinkHandleListenerImpl(instanceContext));
+      sinkHandles.put(localFragmentInstanceId, localSinkHandle);
+      return localSinkHandle;
+    }
+
     logger.info(
         "Create sink handle to plan node {} of {} for {}",
         remotePlanNodeId,
@@ -301,6 +359,25 @@ public class DataBlockManager implements IDataBlockManager {
               + " exists.");
     }
 
+    if (isLocal(endpoint)) {
+      logger.info(
+          "Create local source handle from {} for plan node {} of {}",
+          remoteFragmentInstanceId,
+          localPlanNodeId,
+          localFragmentInstanceId);
+      ISourceHandle localSourceHandle =
+          new LocalSourceHandle(
+              remoteFragmentInstanceId,
+              localFragmentInstanceId,
+              localPlanNodeId,
+              getOrCreateSharedTsBlockQueue(localFragmentInstanceId, localPlanNodeId),
+              new SourceHandleListenerImpl());
+      sourceHandles
+          .computeIfAbsent(localFragmentInstanceId, key -> new ConcurrentHashMap<>())
+          .put(localPlanNodeId, localSourceHandle);
+      return localSourceHandle;
+    }
+
     logger.info(
         "Create source handle from {} for plan node {} of {}",
         remoteFragmentInstanceId,
@@ -324,6 +401,41 @@ public class DataBlockManager implements IDataBlockManager {
     return sourceHandle;
   }
 
+  /**
+   * Data blocks exchanged between fragment instances on this data node are passed by reference
+   * instead of through thrift.
+   */
+  private static boolean isLocal(Endpoint endpoint) {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    return endpoint.getPort() == config.getDataBlockManagerPort()
+        && (endpoint.getIp().equals(config.getInternalIp())
+            || endpoint.getIp().equals(config.getRpcAddress()));
+  }
+
+  /**
+   * Get the queue of a local exchange created by its sink handle or source handle, whichever is
+   * created first. The queue is created if neither of them has been created.
+   *
+   * @param fragmentInstanceId ID of the fragment instance who receives data blocks from the queue.
+   * @param planNodeId ID of the plan node who receives data blocks from the queue.
+   */
+  private synchronized SharedTsBlockQueue getOrCreateSharedTsBlockQueue(
+      TFragmentInstanceId fragmentInstanceId, String planNodeId) {
+    Map<String, SharedTsBlockQueue> queues = pendingSharedTsBlockQueues.get(fragmentInstanceId);
+    SharedTsBlockQueue queue = queues == null ? null : queues.remove(planNodeId);
+    if (queue != null) {
+      if (queues.isEmpty()) {
+        pendingSharedTsBlockQueues.remove(fragmentInstanceId);
+      }
+      return queue;
+    }
+    queue = new SharedTsBlockQueue(fragmentInstanceId, localMemoryManager, executorService);
+    pendingSharedTsBlockQueues
+        .computeIfAbsent(fragmentInstanceId, key -> new HashMap<>())
+        .put(planNodeId, queue);
+    return queue;
+  }
+
   /**
    * Release all the related resources, including data blocks that are not yet fetched by downstream
    * fragment instances.
@@ -339,12 +451,19 @@ public class DataBlockManager implements IDataBlockManager {
       sinkHandles.remove(fragmentInstanceId);
     }
     if (sourceHandles.containsKey(fragmentInstanceId)) {
-      Map<String, SourceHandle> planNodeIdToSourceHandle = sourceHandles.get(fragmentInstanceId);
-      for (Entry<String, SourceHandle> entry : planNodeIdToSourceHandle.entrySet()) {
+      Map<String, ISourceHandle> planNodeIdToSourceHandle = sourceHandles.get(fragmentInstanceId);
+      for (Entry<String, ISourceHandle> entry : planNodeIdToSourceHandle.entrySet()) {
         logger.info("Close source handle {}", sourceHandles);
         entry.getValue().close();
       }
       sourceHandles.remove(fragmentInstanceId);
     }
+    synchronized (this) {
+      Map<String, SharedTsBlockQueue> queues =
+          pendingSharedTsBlockQueues.remove(fragmentInstanceId);
+      if (queues != null) {
+        queues.values().forEach(SharedTsBlockQueue::destroy);
+      }
+    }
   }
 }
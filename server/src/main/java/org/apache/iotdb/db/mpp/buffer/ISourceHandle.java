@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.mpp.buffer;
 
+import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 
 import com.google.common.util.concurrent.ListenableFuture;
@@ -27,6 +28,12 @@ import java.io.IOException;
 
 public interface ISourceHandle extends Closeable {
 
+  /** Get the ID of the fragment instance who receives tsblocks from the handle. */
+  TFragmentInstanceId getLocalFragmentInstanceId();
+
+  /** Get the ID of the plan node who receives tsblocks from the handle. */
+  String getLocalPlanNodeId();
+
   /** Get the total amount of memory used by buffered tsblocks. */
   long getBufferRetainedSizeInBytes();
 
@@ -45,6 +52,13 @@ public interface ISourceHandle extends Closeable {
    */
   ListenableFuture<Void> isBlocked();
 
+  /**
+   * Tell the upstream fragment instance that only the rows whose time is in [lowerBound,
+   * upperBound] are needed, or that no more rows are needed if finished is true. The upstream
+   * fragment instance may still send the rows which are not needed.
+   */
+  void publishDynamicFilter(long lowerBound, long upperBound, boolean finished);
+
   /** If this handle is closed. */
   boolean isClosed();
 
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.buffer;
+
+import org.apache.iotdb.db.mpp.buffer.DataBlockManager.SourceHandleListener;
+import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.commons.lang3.Validate;
+
+import java.util.StringJoiner;
+
+import static com.google.common.util.concurrent.Futures.nonCancellationPropagating;
+
+/**
+ * A source handle who receives tsblocks from an upstream fragment instance on the same data node
+ * through a {@link SharedTsBlockQueue}.
+ */
+public class LocalSourceHandle implements ISourceHandle {
+
+  private final TFragmentInstanceId remoteFragmentInstanceId;
+  private final TFragmentInstanceId localFragmentInstanceId;
+  private final String localPlanNodeId;
+  private final SharedTsBlockQueue queue;
+  private final SourceHandleListener sourceHandleListener;
+
+  private boolean closed;
+  private boolean finished;
+
+  public LocalSourceHandle(
+      TFragmentInstanceId remoteFragmentInstanceId,
+      TFragmentInstanceId localFragmentInstanceId,
+      String localPlanNodeId,
+      SharedTsBlockQueue queue,
+      SourceHandleListener sourceHandleListener) {
+    this.remoteFragmentInstanceId = Validate.notNull(remoteFragmentInstanceId);
+    this.localFragmentInstanceId = Validate.notNull(localFragmentInstanceId);
+    this.localPlanNodeId = Validate.notNull(localPlanNodeId);
+    this.queue = Validate.notNull(queue);
+    this.sourceHandleListener = Validate.notNull(sourceHandleListener);
+  }
+
+  @Override
+  public TsBlock receive() {
+    if (closed) {
+      throw new IllegalStateException("Source handle is closed.");
+    }
+    TsBlock tsBlock = queue.remove();
+    checkAndInvokeOnFinished();
+    return tsBlock;
+  }
+
+  private void checkAndInvokeOnFinished() {
+    if (!isFinished()) {
+      return;
+    }
+    synchronized (this) {
+      if (finished) {
+        return;
+      }
+      finished = true;
+    }
+    sourceHandleListener.onFinished(this);
+    LocalSinkHandle sinkHandle = queue.getSinkHandle();
+    if (sinkHandle != null) {
+      sinkHandle.checkAndInvokeOnFinished();
+    }
+  }
+
+  @Override
+  public boolean isFinished() {
+    return queue.hasNoMoreTsBlocks() && queue.isEmpty();
+  }
+
+  @Override
+  public ListenableFuture<Void> isBlocked() {
+    if (closed) {
+      throw new IllegalStateException("Source handle is closed.");
+    }
+    return nonCancellationPropagating(queue.isBlocked());
+  }
+
+  @Override
+  public void publishDynamicFilter(long lowerBound, long upperBound, boolean finished) {
+    if (closed) {
+      return;
+    }
+    queue.updateDynamicFilter(lowerBound, upperBound, finished);
+  }
+
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    if (!isFinished()) {
+      // Stop the upstream fragment instance, the rest of its output will be dropped anyway.
+      queue.updateDynamicFilter(Long.MIN_VALUE, Long.MAX_VALUE, true);
+    }
+    queue.destroy();
+    sourceHandleListener.onClosed(this);
+    LocalSinkHandle sinkHandle = queue.getSinkHandle();
+    if (sinkHandle != null) {
+      sinkHandle.checkAndInvokeOnFinished();
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public long getBufferRetainedSizeInBytes() {
+    return queue.getBufferRetainedSizeInBytes();
+  }
+
+  @Override
+  public TFragmentInstanceId getLocalFragmentInstanceId() {
+    return localFragmentInstanceId;
+  }
+
+  @Override
+  public String getLocalPlanNodeId() {
+    return localPlanNodeId;
+  }
+
+  TFragmentInstanceId getRemoteFragmentInstanceId() {
+    return remoteFragmentInstanceId;
+  }
+
+  SharedTsBlockQueue getSharedTsBlockQueue() {
+    return queue;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", LocalSourceHandle.class.getSimpleName() + "[", "]")
+        .add("remoteFragmentInstanceId=" + remoteFragmentInstanceId)
+        .add("localFragmentInstanceId=" + localFragmentInstanceId)
+        .add("localPlanNodeId='" + localPlanNodeId + "'")
+        .toString();
+  }
+}
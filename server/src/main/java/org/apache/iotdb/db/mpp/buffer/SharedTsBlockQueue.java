@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.buffer;
+
+import org.apache.iotdb.db.mpp.execution.DynamicFilter;
+import org.apache.iotdb.db.mpp.memory.LocalMemoryManager;
+import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.apache.commons.lang3.Validate;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+
+/**
+ * A queue of tsblocks shared by a {@link LocalSinkHandle} and a {@link LocalSourceHandle} whose
+ * fragment instances run on the same data node. Tsblocks are passed by reference, so they are
+ * neither serialized nor deserialized. The memory of the buffered tsblocks is reserved from the
+ * query pool when they are added and freed when they are removed, which blocks the sink side when
+ * the downstream fragment instance falls behind.
+ */
+public class SharedTsBlockQueue {
+
+  private final TFragmentInstanceId localFragmentInstanceId;
+  private final LocalMemoryManager localMemoryManager;
+  private final ExecutorService executorService;
+
+  private final Queue<TsBlock> queue = new LinkedList<>();
+  // memory reservations of the tsblocks in the queue, in the same order
+  private final Queue<ListenableFuture<Void>> memoryReservations = new LinkedList<>();
+
+  // completed when there are tsblocks in the queue or no more tsblocks will be added
+  private SettableFuture<Void> blocked = SettableFuture.create();
+  private long bufferRetainedSizeInBytes;
+  private boolean noMoreTsBlocks;
+  private boolean destroyed;
+
+  private LocalSinkHandle sinkHandle;
+
+  // the dynamic filter published by the source handle before the sink handle is created
+  private DynamicFilter pendingDynamicFilter;
+
+  /**
+   * @param localFragmentInstanceId ID of a fragment instance on either side of the queue. The
+   *     memory of buffered tsblocks is accounted to its query.
+   */
+  public SharedTsBlockQueue(
+      TFragmentInstanceId localFragmentInstanceId,
+      LocalMemoryManager localMemoryManager,
+      ExecutorService executorService) {
+    this.localFragmentInstanceId = Validate.notNull(localFragmentInstanceId);
+    this.localMemoryManager = Validate.notNull(localMemoryManager);
+    this.executorService = Validate.notNull(executorService);
+  }
+
+  synchronized void setSinkHandle(LocalSinkHandle sinkHandle) {
+    this.sinkHandle = sinkHandle;
+    if (pendingDynamicFilter != null) {
+      sinkHandle.updateDynamicFilter(
+          pendingDynamicFilter.getLowerBound(),
+          pendingDynamicFilter.getUpperBound(),
+          pendingDynamicFilter.isFinished());
+      pendingDynamicFilter = null;
+    }
+  }
+
+  /** Pass the dynamic filter published by the source handle to the sink handle. */
+  synchronized void updateDynamicFilter(long lowerBound, long upperBound, boolean finished) {
+    if (sinkHandle != null) {
+      sinkHandle.updateDynamicFilter(lowerBound, upperBound, finished);
+      return;
+    }
+    if (pendingDynamicFilter == null) {
+      pendingDynamicFilter = new DynamicFilter();
+    }
+    pendingDynamicFilter.update(lowerBound, upperBound, finished);
+  }
+
+  LocalSinkHandle getSinkHandle() {
+    return sinkHandle;
+  }
+
+  TFragmentInstanceId getLocalFragmentInstanceId() {
+    return localFragmentInstanceId;
+  }
+
+  synchronized ListenableFuture<Void> isBlocked() {
+    return blocked;
+  }
+
+  synchronized boolean hasNoMoreTsBlocks() {
+    return noMoreTsBlocks;
+  }
+
+  synchronized boolean isEmpty() {
+    return queue.isEmpty();
+  }
+
+  synchronized int getNumOfBufferedTsBlocks() {
+    return queue.size();
+  }
+
+  synchronized long getBufferRetainedSizeInBytes() {
+    return bufferRetainedSizeInBytes;
+  }
+
+  /**
+   * Add a tsblock to the queue. Returns a future that will be completed when the memory of the
+   * tsblock is reserved. No more tsblock should be added before that.
+   */
+  synchronized ListenableFuture<Void> add(TsBlock tsBlock) {
+    if (destroyed) {
+      // The downstream fragment instance has gone. Drop the tsblock.
+      return immediateFuture(null);
+    }
+    Validate.isTrue(!noMoreTsBlocks, "No more tsblocks should be added.");
+    ListenableFuture<Void> memoryReservation =
+        localMemoryManager
+            .getQueryPool()
+            .reserve(localFragmentInstanceId.getQueryId(), tsBlock.getRetainedSizeInBytes());
+    bufferRetainedSizeInBytes += tsBlock.getRetainedSizeInBytes();
+    queue.add(tsBlock);
+    memoryReservations.add(memoryReservation);
+    if (!blocked.isDone()) {
+      blocked.set(null);
+    }
+    return memoryReservation;
+  }
+
+  /** Remove a tsblock from the head of the queue, or return null if the queue is empty. */
+  synchronized TsBlock remove() {
+    TsBlock tsBlock = queue.poll();
+    if (tsBlock == null) {
+      return null;
+    }
+    bufferRetainedSizeInBytes -= tsBlock.getRetainedSizeInBytes();
+    free(memoryReservations.remove(), tsBlock.getRetainedSizeInBytes());
+    if (queue.isEmpty() && !noMoreTsBlocks) {
+      blocked = SettableFuture.create();
+    }
+    return tsBlock;
+  }
+
+  synchronized void setNoMoreTsBlocks() {
+    noMoreTsBlocks = true;
+    if (!blocked.isDone()) {
+      blocked.set(null);
+    }
+  }
+
+  /** Discard all the buffered tsblocks. Tsblocks added afterwards are dropped. */
+  synchronized void destroy() {
+    if (destroyed) {
+      return;
+    }
+    destroyed = true;
+    noMoreTsBlocks = true;
+    while (!queue.isEmpty()) {
+      free(memoryReservations.remove(), queue.remove().getRetainedSizeInBytes());
+    }
+    bufferRetainedSizeInBytes = 0L;
+    if (!blocked.isDone()) {
+      blocked.set(null);
+    }
+  }
+
+  private void free(ListenableFuture<Void> memoryReservation, long retainedSizeInBytes) {
+    if (memoryReservation.isDone()) {
+      localMemoryManager
+          .getQueryPool()
+          .free(localFragmentInstanceId.getQueryId(), retainedSizeInBytes);
+    } else {
+      // Give the memory back once the pending reservation is completed. The listener must not run
+      // in the thread completing the reservation, who is iterating the pending reservations.
+      memoryReservation.addListener(
+          () ->
+              localMemoryManager
+                  .getQueryPool()
+                  .free(localFragmentInstanceId.getQueryId(), retainedSizeInBytes),
+          executorService);
+    }
+  }
+}
@@ -229,6 +229,11 @@ public class SinkHandle implements ISinkHandle {
     logger.info("Sink handle {} is aborted", this);
   }
 
+  /** Called when the downstream fragment instance publishes a dynamic filter. */
+  void updateDynamicFilter(long lowerBound, long upperBound, boolean finished) {
+    sinkHandleListener.onDynamicFilterUpdated(this, lowerBound, upperBound, finished);
+  }
+
   @Override
   public synchronized void setNoMoreTsBlocks() {
     noMoreTsBlocks = true;
@@ -302,7 +307,8 @@ public class SinkHandle implements ISinkHandle {
     return remotePlanNodeId;
   }
 
-  TFragmentInstanceId getLocalFragmentInstanceId() {
+  @Override
+  public TFragmentInstanceId getLocalFragmentInstanceId() {
     return localFragmentInstanceId;
   }
 
@@ -23,6 +23,7 @@ import org.apache.iotdb.db.mpp.buffer.DataBlockManager.SourceHandleListener;
 import org.apache.iotdb.db.mpp.memory.LocalMemoryManager;
 import org.apache.iotdb.mpp.rpc.thrift.DataBlockService;
 import org.apache.iotdb.mpp.rpc.thrift.TAcknowledgeDataBlockEvent;
+import org.apache.iotdb.mpp.rpc.thrift.TDynamicFilterEvent;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockRequest;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockResponse;
@@ -221,11 +222,24 @@ public class SourceHandle implements ISourceHandle {
     trySubmitGetDataBlocksTask();
   }
 
+  @Override
+  public synchronized void publishDynamicFilter(
+      long lowerBound, long upperBound, boolean finished) {
+    if (closed || noMoreTsBlocks) {
+      return;
+    }
+    executorService.submit(new SendDynamicFilterEventTask(lowerBound, upperBound, finished));
+  }
+
   @Override
   public synchronized void close() {
     if (closed) {
       return;
     }
+    if (!noMoreTsBlocks) {
+      // Stop the upstream fragment instance, the rest of its output will be dropped anyway.
+      executorService.submit(new SendDynamicFilterEventTask(Long.MIN_VALUE, Long.MAX_VALUE, true));
+    }
     sequenceIdToDataBlockSize.clear();
     if (bufferRetainedSizeInBytes > 0) {
       localMemoryManager
@@ -254,11 +268,13 @@ public class SourceHandle implements ISourceHandle {
     return remoteFragmentInstanceId.deepCopy();
   }
 
-  TFragmentInstanceId getLocalFragmentInstanceId() {
+  @Override
+  public TFragmentInstanceId getLocalFragmentInstanceId() {
     return localFragmentInstanceId;
   }
 
-  String getLocalPlanNodeId() {
+  @Override
+  public String getLocalPlanNodeId() {
     return localPlanNodeId;
   }
 
@@ -405,4 +421,44 @@ public class SourceHandle implements ISourceHandle {
       }
     }
   }
+
+  /**
+   * Send the dynamic filter to the upstream fragment instance. The filter is only an optimization,
+   * so the failure of sending it is not a failure of the source handle.
+   */
+  class SendDynamicFilterEventTask implements Runnable {
+
+    private final long lowerBound;
+    private final long upperBound;
+    private final boolean finished;
+
+    public SendDynamicFilterEventTask(long lowerBound, long upperBound, boolean finished) {
+      this.lowerBound = lowerBound;
+      this.upperBound = upperBound;
+      this.finished = finished;
+    }
+
+    @Override
+    public void run() {
+      logger.debug(
+          "Send dynamic filter event [{}, {}] and finished {} to {}.",
+          lowerBound,
+          upperBound,
+          finished,
+          remoteFragmentInstanceId);
+      TDynamicFilterEvent dynamicFilterEvent =
+          new TDynamicFilterEvent(remoteFragmentInstanceId, lowerBound, upperBound, finished);
+      try {
+        client.onDynamicFilterEvent(dynamicFilterEvent);
+      } catch (TException e) {
+        logger.warn(
+            "Failed to send dynamic filter event [{}, {}] and finished {} to {} due to {}",
+            lowerBound,
+            upperBound,
+            finished,
+            remoteFragmentInstanceId,
+            e.getMessage());
+      }
+    }
+  }
 }
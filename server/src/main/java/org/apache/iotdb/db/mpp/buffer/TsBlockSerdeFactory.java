@@ -19,13 +19,22 @@
 
 package org.apache.iotdb.db.mpp.buffer;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 
 import java.util.function.Supplier;
 
+/**
+ * Creates the TsBlockSerde of each exchange. The encodings and compression used by the sink side
+ * follow the configuration of its own node, and are recorded in every serialized data block, so the
+ * source side decodes them without any configuration.
+ */
 public class TsBlockSerdeFactory implements Supplier<TsBlockSerde> {
   @Override
   public TsBlockSerde get() {
-    return new TsBlockSerde();
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    return new TsBlockSerde(
+        config.isEnableDataBlockColumnEncoding(), config.isEnableDataBlockCompression());
   }
 }
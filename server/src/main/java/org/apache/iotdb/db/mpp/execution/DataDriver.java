@@ -19,6 +19,9 @@
 package org.apache.iotdb.db.mpp.execution;
 
 import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataPrefetcher;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
@@ -147,6 +150,11 @@ public class DataDriver implements Driver {
     return NOT_BLOCKED;
   }
 
+  @TestOnly
+  public Operator getRoot() {
+    return root;
+  }
+
   @Override
   public FragmentInstanceId getInfo() {
     return driverContext.getId();
@@ -224,6 +232,10 @@ public class DataDriver implements Driver {
       // running merge
       addUsedFilesForQuery(dataSource);
 
+      if (IoTDBDescriptor.getInstance().getConfig().isEnableMetadataPrefetch()) {
+        TimeSeriesMetadataPrefetcher.getInstance().prefetch(pathList, dataSource);
+      }
+
       return dataSource;
     } finally {
       dataRegion.readUnlock();
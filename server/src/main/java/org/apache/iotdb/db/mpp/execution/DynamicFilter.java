@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution;
+
+import java.util.StringJoiner;
+
+/**
+ * The feedback published by the downstream fragment instance of a FragmentInstance, through the
+ * data exchange. The downstream fragment instance only needs the rows whose time is in [lowerBound,
+ * upperBound], or no more rows at all once it is finished. The bounds only get narrower, so that
+ * the source operators of the fragment instance can drop the rows outside them and stop scanning
+ * early.
+ */
+public class DynamicFilter {
+
+  private volatile long lowerBound = Long.MIN_VALUE;
+  private volatile long upperBound = Long.MAX_VALUE;
+  private volatile boolean finished;
+
+  /** Narrow the time range of the needed rows, and mark the filter finished if required. */
+  public synchronized void update(long lowerBound, long upperBound, boolean finished) {
+    if (lowerBound > this.lowerBound) {
+      this.lowerBound = lowerBound;
+    }
+    if (upperBound < this.upperBound) {
+      this.upperBound = upperBound;
+    }
+    if (finished || this.lowerBound > this.upperBound) {
+      this.finished = true;
+    }
+  }
+
+  public void update(DynamicFilter other) {
+    update(other.lowerBound, other.upperBound, other.finished);
+  }
+
+  public long getLowerBound() {
+    return lowerBound;
+  }
+
+  public long getUpperBound() {
+    return upperBound;
+  }
+
+  /** If the downstream fragment instance needs no more rows. */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  public boolean isEmpty() {
+    return !finished && lowerBound == Long.MIN_VALUE && upperBound == Long.MAX_VALUE;
+  }
+
+  public boolean satisfy(long time) {
+    return !finished && time >= lowerBound && time <= upperBound;
+  }
+
+  @Override
+  public String toString() {
+    return new StringJoiner(", ", DynamicFilter.class.getSimpleName() + "[", "]")
+        .add("lowerBound=" + lowerBound)
+        .add("upperBound=" + upperBound)
+        .add("finished=" + finished)
+        .toString();
+  }
+}
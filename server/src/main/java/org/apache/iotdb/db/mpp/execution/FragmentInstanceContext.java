@@ -19,6 +19,9 @@
 package org.apache.iotdb.db.mpp.execution;
 
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.memory.LocalMemoryManager;
+import org.apache.iotdb.db.mpp.memory.MemoryContext;
+import org.apache.iotdb.db.mpp.memory.MemoryPool;
 import org.apache.iotdb.db.mpp.operator.OperatorContext;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -45,6 +48,13 @@ public class FragmentInstanceContext extends QueryContext {
 
   private long endTime = -1;
 
+  // published by the downstream fragment instance who receives the output of this one
+  private final DynamicFilter dynamicFilter = new DynamicFilter();
+
+  // memory of the operators is reserved from this pool, under the query of this fragment instance
+  private final MemoryPool memoryPool;
+  private MemoryContext memoryContext;
+
   //    private final GcMonitor gcMonitor;
   //    private final AtomicLong startNanos = new AtomicLong();
   //    private final AtomicLong startFullGcCount = new AtomicLong(-1);
@@ -55,8 +65,14 @@ public class FragmentInstanceContext extends QueryContext {
 
   public FragmentInstanceContext(
       FragmentInstanceId id, AtomicReference<FragmentInstanceState> state) {
+    this(id, state, LocalMemoryManager.getInstance().getQueryPool());
+  }
+
+  public FragmentInstanceContext(
+      FragmentInstanceId id, AtomicReference<FragmentInstanceState> state, MemoryPool memoryPool) {
     this.id = id;
     this.state = state;
+    this.memoryPool = memoryPool;
   }
 
   public OperatorContext addOperatorContext(
@@ -92,18 +108,39 @@ public class FragmentInstanceContext extends QueryContext {
     this.driverContext = driverContext;
   }
 
+  public DynamicFilter getDynamicFilter() {
+    return dynamicFilter;
+  }
+
+  /** Get the memory context of this fragment instance, which the operator contexts belong to. */
+  public synchronized MemoryContext getMemoryContext() {
+    if (memoryContext == null) {
+      memoryContext = MemoryContext.newRootContext(memoryPool, id.getQueryId().getId());
+    }
+    return memoryContext;
+  }
+
+  private synchronized void releaseMemory() {
+    if (memoryContext != null) {
+      memoryContext.close();
+    }
+  }
+
   public void failed(Throwable cause) {
     state.set(FragmentInstanceState.FAILED);
+    releaseMemory();
   }
 
   public void cancel() {
     state.set(FragmentInstanceState.CANCELED);
     this.endTime = System.currentTimeMillis();
+    releaseMemory();
   }
 
   public void abort() {
     state.set(FragmentInstanceState.ABORTED);
     this.endTime = System.currentTimeMillis();
+    releaseMemory();
   }
 
   public void finish() {
@@ -112,6 +149,7 @@ public class FragmentInstanceContext extends QueryContext {
     }
     state.set(FragmentInstanceState.FINISHED);
     this.endTime = System.currentTimeMillis();
+    releaseMemory();
   }
 
   public void flushing() {
@@ -19,9 +19,12 @@
 package org.apache.iotdb.db.mpp.execution;
 
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion;
 import org.apache.iotdb.db.metadata.schemaregion.ISchemaRegion;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.memory.LocalMemoryManager;
+import org.apache.iotdb.db.mpp.memory.MemoryPool;
 import org.apache.iotdb.db.mpp.schedule.FragmentInstanceScheduler;
 import org.apache.iotdb.db.mpp.schedule.IFragmentInstanceScheduler;
 import org.apache.iotdb.db.mpp.sql.planner.LocalExecutionPlanner;
@@ -52,6 +55,11 @@ public class FragmentInstanceManager {
 
   private final Duration infoCacheTime;
 
+  private final MemoryPool queryPool = LocalMemoryManager.getInstance().getQueryPool();
+  private final long queryMemoryBlockedTimeoutInNanos =
+      TimeUnit.MILLISECONDS.toNanos(
+          IoTDBDescriptor.getInstance().getConfig().getQueryMemoryBlockedTimeoutInMs());
+
   public static FragmentInstanceManager getInstance() {
     return FragmentInstanceManager.InstanceHolder.INSTANCE;
   }
@@ -75,6 +83,18 @@ public class FragmentInstanceManager {
         200,
         200,
         TimeUnit.MILLISECONDS);
+
+    instanceManagementExecutor.scheduleWithFixedDelay(
+        () -> {
+          try {
+            abortLargestQueryIfMemoryBlocked();
+          } catch (Throwable e) {
+            logger.warn("Error checking the blocked query memory", e);
+          }
+        },
+        200,
+        200,
+        TimeUnit.MILLISECONDS);
   }
 
   public FragmentInstanceInfo execDataQueryFragmentInstance(
@@ -189,6 +209,32 @@ public class FragmentInstanceManager {
             });
   }
 
+  /**
+   * The reservations waiting for the query memory are stuck if no memory is freed for a long time,
+   * even after the revocable memory is asked to be released. As the last resort, the query
+   * reserving the most memory is aborted to free its memory for the others.
+   */
+  private void abortLargestQueryIfMemoryBlocked() {
+    if (!queryPool.isBlockedLongerThan(queryMemoryBlockedTimeoutInNanos)) {
+      return;
+    }
+    String largestQuery = queryPool.getLargestQuery();
+    if (largestQuery == null) {
+      return;
+    }
+    logger.warn(
+        "Query memory has been blocked for more than {}ms, abort the query {} reserving {} bytes",
+        TimeUnit.NANOSECONDS.toMillis(queryMemoryBlockedTimeoutInNanos),
+        largestQuery,
+        queryPool.getQueryMemoryReservedBytes(largestQuery));
+    for (FragmentInstanceId instanceId : instanceExecution.keySet()) {
+      if (largestQuery.equals(instanceId.getQueryId().getId())) {
+        abortFragmentInstance(instanceId);
+      }
+    }
+    queryPool.resetBlockedTime();
+  }
+
   private static class InstanceHolder {
 
     private InstanceHolder() {}
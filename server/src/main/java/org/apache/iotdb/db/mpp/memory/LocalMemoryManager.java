@@ -27,6 +27,9 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
  */
 public class LocalMemoryManager {
 
+  // the share of the query pool which a single query can reserve
+  private static final double MAX_BYTES_PER_QUERY_RATIO = 0.5;
+
   private final MemoryPool queryPool;
 
   public LocalMemoryManager() {
@@ -34,10 +37,28 @@ public class LocalMemoryManager {
         new MemoryPool(
             "query",
             IoTDBDescriptor.getInstance().getConfig().getAllocateMemoryForRead(),
-            (long) (IoTDBDescriptor.getInstance().getConfig().getAllocateMemoryForRead() * 0.5));
+            getMaxBytesPerQuery());
+  }
+
+  /** The max bytes a single query can reserve from the query pool of this data node. */
+  public static long getMaxBytesPerQuery() {
+    return (long)
+        (IoTDBDescriptor.getInstance().getConfig().getAllocateMemoryForRead()
+            * MAX_BYTES_PER_QUERY_RATIO);
+  }
+
+  public static LocalMemoryManager getInstance() {
+    return InstanceHolder.INSTANCE;
   }
 
   public MemoryPool getQueryPool() {
     return queryPool;
   }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {}
+
+    private static final LocalMemoryManager INSTANCE = new LocalMemoryManager();
+  }
 }
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.memory;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.commons.lang3.Validate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+
+/**
+ * Tracks the memory used by an operator or a fragment instance. The bytes of a context roll up to
+ * its parent, and the root context of a fragment instance reserves them from a {@link MemoryPool}
+ * under its query, where the memory of all the fragment instances of the query is accounted.
+ *
+ * <p>The memory of a context is either revocable, which its operator releases by spilling when the
+ * pool asks for it, or not. The bytes of a context are only set by the thread running its operator,
+ * while the revocation may be requested by any thread.
+ */
+public class MemoryContext {
+
+  private static final ListenableFuture<Void> NOT_BLOCKED = immediateVoidFuture();
+
+  private final MemoryContext parent;
+  private final List<MemoryContext> children = new CopyOnWriteArrayList<>();
+
+  // bytes of this context, not including its children
+  private long localBytes;
+  private long localRevocableBytes;
+
+  // bytes of this context and all its descendants
+  private final AtomicLong bytes = new AtomicLong();
+  private final AtomicLong revocableBytes = new AtomicLong();
+
+  private volatile boolean revokeRequested;
+
+  // The fields below are only used by the root context.
+  private final MemoryPool memoryPool;
+  private final String queryId;
+  private long reservedBytes;
+  private ListenableFuture<Void> pendingReservation;
+  private long pendingBytes;
+  private boolean closed;
+
+  private MemoryContext(MemoryContext parent, MemoryPool memoryPool, String queryId) {
+    this.parent = parent;
+    this.memoryPool = memoryPool;
+    this.queryId = queryId;
+  }
+
+  /** Create the context of a fragment instance, whose memory is reserved from the pool. */
+  public static MemoryContext newRootContext(MemoryPool memoryPool, String queryId) {
+    MemoryContext root =
+        new MemoryContext(null, Validate.notNull(memoryPool), Validate.notNull(queryId));
+    memoryPool.registerMemoryContext(root);
+    return root;
+  }
+
+  /** Create the context of an operator. */
+  public MemoryContext newChildContext() {
+    MemoryContext child = new MemoryContext(this, null, null);
+    children.add(child);
+    return child;
+  }
+
+  /**
+   * Set the bytes of this context which can't be revoked. Returns a future which is completed when
+   * the memory is reserved from the pool. The caller may go on without waiting for it.
+   */
+  public ListenableFuture<Void> setBytes(long bytes) {
+    Validate.isTrue(bytes >= 0, "bytes should not be negative.");
+    long delta = bytes - localBytes;
+    localBytes = bytes;
+    return update(delta, 0);
+  }
+
+  /**
+   * Set the bytes of this context which can be revoked. Returns a future which is completed when
+   * the memory is reserved from the pool. The caller should release the memory soon if the future
+   * is not completed.
+   */
+  public ListenableFuture<Void> setRevocableBytes(long bytes) {
+    Validate.isTrue(bytes >= 0, "bytes should not be negative.");
+    long delta = bytes - localRevocableBytes;
+    localRevocableBytes = bytes;
+    if (bytes == 0) {
+      revokeRequested = false;
+    }
+    return update(delta, delta);
+  }
+
+  private ListenableFuture<Void> update(long delta, long revocableDelta) {
+    if (delta == 0) {
+      return NOT_BLOCKED;
+    }
+    MemoryContext context = this;
+    while (true) {
+      context.bytes.addAndGet(delta);
+      context.revocableBytes.addAndGet(revocableDelta);
+      if (context.parent == null) {
+        return context.reserve();
+      }
+      context = context.parent;
+    }
+  }
+
+  /** Reserve or free the memory of the pool, so that the reserved bytes match the used bytes. */
+  private synchronized ListenableFuture<Void> reserve() {
+    if (closed) {
+      return NOT_BLOCKED;
+    }
+    if (pendingReservation != null) {
+      if (!pendingReservation.isDone() && bytes.get() > reservedBytes) {
+        return pendingReservation;
+      }
+      if (!memoryPool.tryCancel(pendingReservation)) {
+        reservedBytes += pendingBytes;
+      }
+      pendingReservation = null;
+      pendingBytes = 0;
+    }
+    long delta = bytes.get() - reservedBytes;
+    if (delta < 0) {
+      memoryPool.free(queryId, -delta);
+      reservedBytes += delta;
+    }
+    while (delta > 0) {
+      long bytesToReserve = Math.min(delta, memoryPool.getMaxBytesPerQuery());
+      ListenableFuture<Void> future = memoryPool.reserve(queryId, bytesToReserve);
+      if (!future.isDone()) {
+        pendingReservation = future;
+        pendingBytes = bytesToReserve;
+        return future;
+      }
+      reservedBytes += bytesToReserve;
+      delta -= bytesToReserve;
+    }
+    return NOT_BLOCKED;
+  }
+
+  /** Ask the operators of this context and its descendants to release their revocable memory. */
+  public void requestRevoke() {
+    if (revocableBytes.get() <= 0) {
+      return;
+    }
+    revokeRequested = true;
+    for (MemoryContext child : children) {
+      child.requestRevoke();
+    }
+  }
+
+  /** If the operator of this context should release its revocable memory as soon as possible. */
+  public boolean isRevokeRequested() {
+    return revokeRequested;
+  }
+
+  /** Get the bytes of this context and all its descendants. */
+  public long getBytes() {
+    return bytes.get();
+  }
+
+  /** Get the revocable bytes of this context and all its descendants. */
+  public long getRevocableBytes() {
+    return revocableBytes.get();
+  }
+
+  /**
+   * Release the memory of this context. Closing the root context releases all the memory reserved
+   * for the fragment instance.
+   */
+  public void close() {
+    if (parent != null) {
+      setRevocableBytes(0);
+      setBytes(0);
+      parent.children.remove(this);
+      return;
+    }
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (pendingReservation != null && !memoryPool.tryCancel(pendingReservation)) {
+        reservedBytes += pendingBytes;
+      }
+      pendingReservation = null;
+      if (reservedBytes > 0) {
+        memoryPool.free(queryId, reservedBytes);
+        reservedBytes = 0;
+      }
+    }
+    memoryPool.deregisterMemoryContext(this);
+  }
+}
@@ -26,13 +26,24 @@ import org.apache.commons.lang3.Validate;
 
 import javax.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 
-/** A thread-safe memory pool. */
+/**
+ * A thread-safe memory pool.
+ *
+ * <p>When a reservation can't be satisfied at once, the fragment instances holding the most
+ * revocable memory are asked to release it, see {@link MemoryContext}.
+ */
 public class MemoryPool {
 
   private static class MemoryReservationFuture<V> extends AbstractFuture<V> {
@@ -71,6 +82,13 @@ public class MemoryPool {
   private final Map<String, Long> queryMemoryReservations = new HashMap<>();
   private final Queue<MemoryReservationFuture<Void>> memoryReservationFutures = new LinkedList<>();
 
+  // root contexts of the fragment instances reserving memory from this pool
+  private final Set<MemoryContext> memoryContexts = ConcurrentHashMap.newKeySet();
+  // when the memory is freed last time, to tell whether the waiting reservations are stuck
+  private volatile long lastFreeTimeNanos = System.nanoTime();
+  // when the first of the waiting reservations began to wait
+  private long blockedSinceNanos = System.nanoTime();
+
   public MemoryPool(String id, long maxBytes, long maxBytesPerQuery) {
     this.id = Validate.notNull(id);
     Validate.isTrue(maxBytes > 0L, "max bytes should be greater than zero.");
@@ -89,6 +107,10 @@ public class MemoryPool {
     return maxBytes;
   }
 
+  public long getMaxBytesPerQuery() {
+    return maxBytesPerQuery;
+  }
+
   public ListenableFuture<Void> reserve(String queryId, long bytes) {
     Validate.notNull(queryId);
     Validate.isTrue(
@@ -100,6 +122,10 @@ public class MemoryPool {
       if (maxBytes - reservedBytes < bytes
           || maxBytesPerQuery - queryMemoryReservations.getOrDefault(queryId, 0L) < bytes) {
         result = MemoryReservationFuture.create(queryId, bytes);
+        memoryReservationFutures.removeIf(Future::isCancelled);
+        if (memoryReservationFutures.isEmpty()) {
+          blockedSinceNanos = System.nanoTime();
+        }
         memoryReservationFutures.add((MemoryReservationFuture<Void>) result);
       } else {
         reservedBytes += bytes;
@@ -108,9 +134,60 @@ public class MemoryPool {
       }
     }
 
+    if (!result.isDone()) {
+      requestMemoryRevoking(bytes);
+    }
     return result;
   }
 
+  /**
+   * Cancel a reservation which is not completed. Returns false if the memory has been reserved, in
+   * which case the caller should free it.
+   */
+  public synchronized boolean tryCancel(ListenableFuture<Void> future) {
+    if (future.isDone() && !future.isCancelled()) {
+      return false;
+    }
+    future.cancel(true);
+    memoryReservationFutures.remove(future);
+    return true;
+  }
+
+  void registerMemoryContext(MemoryContext memoryContext) {
+    memoryContexts.add(memoryContext);
+  }
+
+  void deregisterMemoryContext(MemoryContext memoryContext) {
+    memoryContexts.remove(memoryContext);
+  }
+
+  /**
+   * Ask the fragment instances holding the most revocable memory to release it, until the requested
+   * memory covers the given bytes. The memory is released when their operators run next time.
+   */
+  public void requestMemoryRevoking(long bytes) {
+    List<MemoryContext> candidates = new ArrayList<>(memoryContexts);
+    candidates.sort(Comparator.comparingLong(MemoryContext::getRevocableBytes).reversed());
+    long requestedBytes = 0;
+    for (MemoryContext memoryContext : candidates) {
+      long revocableBytes = memoryContext.getRevocableBytes();
+      if (requestedBytes >= bytes || revocableBytes <= 0) {
+        break;
+      }
+      memoryContext.requestRevoke();
+      requestedBytes += revocableBytes;
+    }
+  }
+
+  /** Get the revocable bytes of all the fragment instances reserving memory from this pool. */
+  public long getRevocableBytes() {
+    long revocableBytes = 0;
+    for (MemoryContext memoryContext : memoryContexts) {
+      revocableBytes += memoryContext.getRevocableBytes();
+    }
+    return revocableBytes;
+  }
+
   public boolean tryReserve(String queryId, long bytes) {
     Validate.notNull(queryId);
     Validate.isTrue(
@@ -148,6 +225,7 @@ public class MemoryPool {
       queryMemoryReservations.put(queryId, queryReservedBytes);
     }
     reservedBytes -= bytes;
+    lastFreeTimeNanos = System.nanoTime();
 
     if (memoryReservationFutures.isEmpty()) {
       return;
@@ -182,4 +260,28 @@ public class MemoryPool {
   public long getReservedBytes() {
     return reservedBytes;
   }
+
+  /**
+   * Returns true if some reservations have been waiting while no memory is freed for the given
+   * time, which means the queries holding the memory can't make progress. The time before the first
+   * reservation waits is not counted, even if no memory is freed during it.
+   */
+  public synchronized boolean isBlockedLongerThan(long timeoutInNanos) {
+    memoryReservationFutures.removeIf(Future::isCancelled);
+    return !memoryReservationFutures.isEmpty()
+        && System.nanoTime() - Math.max(lastFreeTimeNanos, blockedSinceNanos) >= timeoutInNanos;
+  }
+
+  /** Returns the query reserving the most memory, or null if no memory is reserved. */
+  public synchronized String getLargestQuery() {
+    return queryMemoryReservations.entrySet().stream()
+        .max(Map.Entry.comparingByValue())
+        .map(Map.Entry::getKey)
+        .orElse(null);
+  }
+
+  /** Restart the timing of {@link #isBlockedLongerThan(long)}, e.g. after a query is aborted. */
+  public void resetBlockedTime() {
+    lastFreeTimeNanos = System.nanoTime();
+  }
 }
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.mpp.operator;
 
 import org.apache.iotdb.db.mpp.execution.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.memory.MemoryContext;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
 
 /**
@@ -32,6 +33,7 @@ public class OperatorContext {
   private final PlanNodeId planNodeId;
   private final String operatorType;
   private final FragmentInstanceContext instanceContext;
+  private MemoryContext memoryContext;
 
   public OperatorContext(
       int operatorId,
@@ -51,4 +53,12 @@ public class OperatorContext {
   public FragmentInstanceContext getInstanceContext() {
     return instanceContext;
   }
+
+  /** Get the memory context of the operator, whose bytes are accounted to its fragment instance. */
+  public MemoryContext getMemoryContext() {
+    if (memoryContext == null) {
+      memoryContext = instanceContext.getMemoryContext().newChildContext();
+    }
+    return memoryContext;
+  }
 }
@@ -7,7 +7,7 @@
  * "License"); you may not use this file except in compliance
  * with the License.  You may obtain a copy of the License at
  *
- *      http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.apache.org/licenses/LICENSE-2.0
  *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
@@ -18,40 +18,162 @@
  */
 package org.apache.iotdb.db.mpp.operator.process;
 
+import org.apache.iotdb.db.mpp.aggregation.Aggregator;
+import org.apache.iotdb.db.mpp.operator.Operator;
 import org.apache.iotdb.db.mpp.operator.OperatorContext;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Merge the aggregation results of its children into one row per time range.
+ *
+ * <p>Every child outputs one row for each time range in the same order, e.g.,
+ * SeriesAggregateScanOperators of different data regions at PARTIAL step, or ExchangeOperators
+ * fetching them. The i-th rows of all the children are merged by each {@link Aggregator}, and the
+ * timestamp of the row is taken from the first child.
+ */
 public class AggregateOperator implements ProcessOperator {
 
+  private final OperatorContext operatorContext;
+  private final List<Operator> children;
+  private final List<Aggregator> aggregators;
+
+  private final int inputCount;
+  private final TsBlock[] inputTsBlocks;
+  private final int[] inputIndex;
+
+  private final List<TSDataType> outputDataTypes;
+  // the column builders of each aggregator, reused for each output TsBlock
+  private final ColumnBuilder[][] aggregatorColumnBuilders;
+
+  private boolean finished = false;
+
+  public AggregateOperator(
+      OperatorContext operatorContext, List<Operator> children, List<Aggregator> aggregators) {
+    this.operatorContext = operatorContext;
+    this.children = children;
+    this.aggregators = aggregators;
+    this.inputCount = children.size();
+    this.inputTsBlocks = new TsBlock[inputCount];
+    this.inputIndex = new int[inputCount];
+    this.outputDataTypes = new ArrayList<>();
+    this.aggregatorColumnBuilders = new ColumnBuilder[aggregators.size()][];
+    for (int i = 0; i < aggregators.size(); i++) {
+      TSDataType[] outputType = aggregators.get(i).getOutputType();
+      outputDataTypes.addAll(Arrays.asList(outputType));
+      aggregatorColumnBuilders[i] = new ColumnBuilder[outputType.length];
+    }
+  }
+
   @Override
   public OperatorContext getOperatorContext() {
-    return null;
+    return operatorContext;
   }
 
   @Override
   public ListenableFuture<Void> isBlocked() {
-    return ProcessOperator.super.isBlocked();
+    for (int i = 0; i < inputCount; i++) {
+      if (empty(i)) {
+        ListenableFuture<Void> blocked = children.get(i).isBlocked();
+        if (!blocked.isDone()) {
+          return blocked;
+        }
+      }
+    }
+    return NOT_BLOCKED;
   }
 
   @Override
   public TsBlock next() {
-    return null;
+    TsBlockBuilder tsBlockBuilder = new TsBlockBuilder(outputDataTypes);
+    int columnIndex = 0;
+    for (ColumnBuilder[] columnBuilders : aggregatorColumnBuilders) {
+      for (int j = 0; j < columnBuilders.length; j++) {
+        columnBuilders[j] = tsBlockBuilder.getColumnBuilder(columnIndex++);
+      }
+    }
+
+    while (!tsBlockBuilder.isFull() && prepareInput()) {
+      tsBlockBuilder
+          .getTimeColumnBuilder()
+          .writeLong(inputTsBlocks[0].getTimeByIndex(inputIndex[0]));
+      for (int i = 0; i < aggregators.size(); i++) {
+        Aggregator aggregator = aggregators.get(i);
+        aggregator.reset();
+        aggregator.processRow(inputTsBlocks, inputIndex);
+        aggregator.outputResult(aggregatorColumnBuilders[i]);
+      }
+      tsBlockBuilder.declarePosition();
+      for (int i = 0; i < inputCount; i++) {
+        inputIndex[i]++;
+      }
+    }
+    return tsBlockBuilder.build();
+  }
+
+  /**
+   * Make sure every child has a row to be merged.
+   *
+   * @return false if some child is blocked or has no more data
+   */
+  private boolean prepareInput() {
+    for (int i = 0; i < inputCount; i++) {
+      if (!empty(i)) {
+        continue;
+      }
+      Operator child = children.get(i);
+      if (!child.isBlocked().isDone()) {
+        return false;
+      }
+      if (!child.hasNext()) {
+        finished = true;
+        return false;
+      }
+      inputTsBlocks[i] = child.next();
+      inputIndex[i] = 0;
+      if (empty(i)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   public boolean hasNext() {
-    return false;
+    if (finished) {
+      return false;
+    }
+    for (int i = 0; i < inputCount; i++) {
+      if (empty(i) && !children.get(i).hasNext()) {
+        finished = true;
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   public void close() throws Exception {
-    ProcessOperator.super.close();
+    for (Operator child : children) {
+      child.close();
+    }
   }
 
   @Override
   public boolean isFinished() {
-    return false;
+    return !hasNext();
+  }
+
+  private boolean empty(int index) {
+    return inputTsBlocks[index] == null
+        || inputTsBlocks[index].getPositionCount() == inputIndex[index];
   }
 }
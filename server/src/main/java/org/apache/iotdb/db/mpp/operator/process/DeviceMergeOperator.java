@@ -7,7 +7,7 @@
  * "License"); you may not use this file except in compliance
  * with the License.  You may obtain a copy of the License at
  *
- *      http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.apache.org/licenses/LICENSE-2.0
  *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
@@ -18,39 +18,198 @@
  */
 package org.apache.iotdb.db.mpp.operator.process;
 
+import org.apache.iotdb.db.mpp.operator.Operator;
 import org.apache.iotdb.db.mpp.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.sort.SortUtils;
+import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
+import org.apache.iotdb.db.utils.datastructure.LoserTree;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merge the results of different devices into a device-based view ordered by time, for ALIGN BY
+ * DEVICE. Rows of the same timestamp are ordered by the order of the devices.
+ *
+ * <p>Each child outputs the data of one device in the merge order, with the same value columns. The
+ * output has one more column before them, which is the device of the row. The children are merged
+ * by a loser tree without buffering more than one TsBlock of each child.
+ */
 public class DeviceMergeOperator implements ProcessOperator {
+
+  private final OperatorContext operatorContext;
+  private final List<Operator> children;
+  private final List<TSDataType> dataTypes;
+  private final boolean ascending;
+
+  private final int inputCount;
+  private final Binary[] devices;
+  private final TsBlock[] inputTsBlocks;
+  private final int[] inputIndex;
+  private final boolean[] noMoreTsBlocks;
+  // types of the output columns, the first one is the device column
+  private final List<TSDataType> outputDataTypes;
+
+  private LoserTree loserTree;
+  // the winner whose TsBlock was used up but the next one is not fetched yet, -1 if none
+  private int pendingLeaf = -1;
+
+  /**
+   * @param devices the device of each child
+   * @param dataTypes types of the value columns of the children
+   */
+  public DeviceMergeOperator(
+      OperatorContext operatorContext,
+      List<String> devices,
+      List<Operator> children,
+      List<TSDataType> dataTypes,
+      OrderBy mergeOrder) {
+    this.operatorContext = operatorContext;
+    this.children = children;
+    this.dataTypes = dataTypes;
+    this.ascending = mergeOrder == OrderBy.TIMESTAMP_ASC;
+    this.inputCount = children.size();
+    this.devices = new Binary[inputCount];
+    for (int i = 0; i < inputCount; i++) {
+      this.devices[i] = new Binary(devices.get(i));
+    }
+    this.inputTsBlocks = new TsBlock[inputCount];
+    this.inputIndex = new int[inputCount];
+    this.noMoreTsBlocks = new boolean[inputCount];
+    this.outputDataTypes = new ArrayList<>(dataTypes.size() + 1);
+    outputDataTypes.add(TSDataType.TEXT);
+    outputDataTypes.addAll(dataTypes);
+  }
+
   @Override
   public OperatorContext getOperatorContext() {
-    return null;
+    return operatorContext;
   }
 
   @Override
   public ListenableFuture<Void> isBlocked() {
-    return ProcessOperator.super.isBlocked();
+    for (int i = 0; i < inputCount; i++) {
+      if (!noMoreTsBlocks[i] && empty(i)) {
+        ListenableFuture<Void> blocked = children.get(i).isBlocked();
+        if (!blocked.isDone()) {
+          return blocked;
+        }
+      }
+    }
+    return NOT_BLOCKED;
   }
 
   @Override
   public TsBlock next() {
-    return null;
+    TsBlockBuilder builder = new TsBlockBuilder(outputDataTypes);
+    if (loserTree == null) {
+      // all the children need a row to build the tree
+      for (int i = 0; i < inputCount; i++) {
+        if (!fetchIfEmpty(i)) {
+          return null;
+        }
+      }
+      loserTree = new LoserTree(inputCount, this::compareInputs);
+    } else if (pendingLeaf != -1) {
+      if (!fetchIfEmpty(pendingLeaf)) {
+        return null;
+      }
+      loserTree.adjust(pendingLeaf);
+      pendingLeaf = -1;
+    }
+
+    while (!builder.isFull()) {
+      int winner = loserTree.getWinner();
+      if (empty(winner)) {
+        // every child is used up
+        break;
+      }
+      builder.getColumnBuilder(0).writeBinary(devices[winner]);
+      SortUtils.appendRow(builder, inputTsBlocks[winner], inputIndex[winner], dataTypes, 1);
+      builder.declarePosition();
+      inputIndex[winner]++;
+      if (!fetchIfEmpty(winner)) {
+        // the order is unknown until the next TsBlock of the winner arrives
+        pendingLeaf = winner;
+        break;
+      }
+      loserTree.adjust(winner);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Fetch the next TsBlock of the child if its current one is used up.
+   *
+   * @return false if the child has more data but it is not available now
+   */
+  private boolean fetchIfEmpty(int index) {
+    if (!empty(index) || noMoreTsBlocks[index]) {
+      return true;
+    }
+    Operator child = children.get(index);
+    if (!child.isBlocked().isDone()) {
+      return false;
+    }
+    if (!child.hasNext()) {
+      noMoreTsBlocks[index] = true;
+      return true;
+    }
+    inputTsBlocks[index] = child.next();
+    inputIndex[index] = 0;
+    return !empty(index);
+  }
+
+  private int compareInputs(int left, int right) {
+    boolean leftEmpty = empty(left);
+    boolean rightEmpty = empty(right);
+    if (leftEmpty || rightEmpty) {
+      // used up children are the last
+      return Boolean.compare(leftEmpty, rightEmpty);
+    }
+    int result =
+        Long.compare(
+            inputTsBlocks[left].getTimeByIndex(inputIndex[left]),
+            inputTsBlocks[right].getTimeByIndex(inputIndex[right]));
+    return ascending ? result : -result;
   }
 
   @Override
   public boolean hasNext() {
+    for (int i = 0; i < inputCount; i++) {
+      if (!empty(i)) {
+        return true;
+      } else if (!noMoreTsBlocks[i]) {
+        if (children.get(i).hasNext()) {
+          return true;
+        } else {
+          noMoreTsBlocks[i] = true;
+        }
+      }
+    }
     return false;
   }
 
   @Override
   public void close() throws Exception {
-    ProcessOperator.super.close();
+    for (Operator child : children) {
+      child.close();
+    }
   }
 
   @Override
   public boolean isFinished() {
-    return false;
+    return !hasNext();
+  }
+
+  private boolean empty(int index) {
+    return inputTsBlocks[index] == null
+        || inputTsBlocks[index].getPositionCount() == inputIndex[index];
   }
 }
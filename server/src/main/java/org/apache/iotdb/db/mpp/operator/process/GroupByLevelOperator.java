@@ -7,7 +7,7 @@
  * "License"); you may not use this file except in compliance
  * with the License.  You may obtain a copy of the License at
  *
- *      http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.apache.org/licenses/LICENSE-2.0
  *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
@@ -18,40 +18,24 @@
  */
 package org.apache.iotdb.db.mpp.operator.process;
 
+import org.apache.iotdb.db.mpp.aggregation.Aggregator;
+import org.apache.iotdb.db.mpp.operator.Operator;
 import org.apache.iotdb.db.mpp.operator.OperatorContext;
-import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 
-import com.google.common.util.concurrent.ListenableFuture;
+import java.util.Collections;
+import java.util.List;
 
-public class GroupByLevelOperator implements ProcessOperator {
-
-  @Override
-  public OperatorContext getOperatorContext() {
-    return null;
-  }
-
-  @Override
-  public ListenableFuture<Void> isBlocked() {
-    return ProcessOperator.super.isBlocked();
-  }
-
-  @Override
-  public TsBlock next() {
-    return null;
-  }
-
-  @Override
-  public boolean hasNext() {
-    return false;
-  }
-
-  @Override
-  public void close() throws Exception {
-    ProcessOperator.super.close();
-  }
+/**
+ * Merge the aggregation results of the series in the same group of GROUP BY LEVEL.
+ *
+ * <p>The child outputs the intermediate results of all the series in columns, e.g., a
+ * TimeJoinOperator over SeriesAggregateScanOperators at PARTIAL step. Each {@link Aggregator} is
+ * one group, whose input locations are the intermediate columns of the series in the group.
+ */
+public class GroupByLevelOperator extends AggregateOperator {
 
-  @Override
-  public boolean isFinished() {
-    return false;
+  public GroupByLevelOperator(
+      OperatorContext operatorContext, Operator child, List<Aggregator> groupAggregators) {
+    super(operatorContext, Collections.singletonList(child), groupAggregators);
   }
 }
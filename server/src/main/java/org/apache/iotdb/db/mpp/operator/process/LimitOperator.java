@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.mpp.operator.process;
 
+import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.mpp.operator.Operator;
 import org.apache.iotdb.db.mpp.operator.OperatorContext;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
@@ -47,6 +48,11 @@ public class LimitOperator implements ProcessOperator {
     return operatorContext;
   }
 
+  @TestOnly
+  public Operator getChild() {
+    return child;
+  }
+
   @Override
   public ListenableFuture<Void> isBlocked() {
     return child.isBlocked();
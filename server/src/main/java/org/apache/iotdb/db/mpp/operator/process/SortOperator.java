@@ -7,7 +7,7 @@
  * "License"); you may not use this file except in compliance
  * with the License.  You may obtain a copy of the License at
  *
- *      http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.apache.org/licenses/LICENSE-2.0
  *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
@@ -18,40 +18,258 @@
  */
 package org.apache.iotdb.db.mpp.operator.process;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.mpp.memory.MemoryContext;
+import org.apache.iotdb.db.mpp.operator.Operator;
 import org.apache.iotdb.db.mpp.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.sort.MemorySortedRun;
+import org.apache.iotdb.db.mpp.sort.RowComparator;
+import org.apache.iotdb.db.mpp.sort.SortKey;
+import org.apache.iotdb.db.mpp.sort.SortUtils;
+import org.apache.iotdb.db.mpp.sort.SortedRun;
+import org.apache.iotdb.db.mpp.sort.SpilledSortedRun;
+import org.apache.iotdb.db.utils.datastructure.LoserTree;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 
 import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sort all the rows of its child by the sort keys, with the memory bounded by the query memory
+ * pool.
+ *
+ * <p>The input TsBlocks are buffered as revocable memory of the {@link MemoryContext} of this
+ * operator as long as it can be reserved from the pool. Once the reservation can't be satisfied at
+ * once, or the pool asks to revoke the memory for other queries, the buffered rows are sorted and
+ * spilled to a local file as a sorted run and the memory is freed. After all the input is consumed,
+ * the spilled runs and the rows left in memory are merged by a loser tree, reading one TsBlock of
+ * each spilled run at a time.
+ */
 public class SortOperator implements ProcessOperator {
 
+  private static final Logger logger = LoggerFactory.getLogger(SortOperator.class);
+
+  private final OperatorContext operatorContext;
+  private final Operator child;
+  private final List<TSDataType> dataTypes;
+  private final RowComparator comparator;
+
+  private final MemoryContext memoryContext;
+  private final File spillDir;
+
+  // input TsBlocks not spilled yet, and their retained bytes
+  private final List<TsBlock> bufferedTsBlocks = new ArrayList<>();
+  private long bufferedBytes = 0;
+  private final List<File> spilledFiles = new ArrayList<>();
+
+  // set after all the input is consumed
+  private List<SortedRun> sortedRuns;
+  private LoserTree loserTree;
+
+  public SortOperator(
+      OperatorContext operatorContext,
+      Operator child,
+      List<TSDataType> dataTypes,
+      List<SortKey> sortKeys) {
+    this.operatorContext = operatorContext;
+    this.child = child;
+    this.dataTypes = dataTypes;
+    this.comparator = new RowComparator(sortKeys, dataTypes);
+    this.memoryContext = operatorContext.getMemoryContext();
+    this.spillDir =
+        new File(
+            IoTDBDescriptor.getInstance().getConfig().getQueryDir()
+                + File.separator
+                + "sort"
+                + File.separator
+                + operatorContext.getInstanceContext().getId().getFullId()
+                + "-"
+                + operatorContext.getOperatorId());
+  }
+
   @Override
   public OperatorContext getOperatorContext() {
-    return null;
+    return operatorContext;
   }
 
   @Override
   public ListenableFuture<Void> isBlocked() {
-    return ProcessOperator.super.isBlocked();
+    if (sortedRuns != null || memoryContext.isRevokeRequested()) {
+      return NOT_BLOCKED;
+    }
+    return child.isBlocked();
   }
 
   @Override
   public TsBlock next() {
-    return null;
+    try {
+      if (sortedRuns == null) {
+        if (memoryContext.isRevokeRequested()) {
+          // release the memory for other queries before consuming more input
+          spill();
+          return null;
+        }
+        // consume one input TsBlock each time to yield to the scheduler
+        if (child.hasNext()) {
+          TsBlock tsBlock = child.next();
+          if (tsBlock != null && !tsBlock.isEmpty()) {
+            addInput(tsBlock);
+          }
+          return null;
+        }
+        prepareSortedRuns();
+      }
+      return mergeSortedRuns();
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while sorting", e);
+    }
+  }
+
+  private void addInput(TsBlock tsBlock) throws IOException {
+    bufferedTsBlocks.add(tsBlock);
+    bufferedBytes += tsBlock.getRetainedSizeInBytes();
+    if (!memoryContext.setRevocableBytes(bufferedBytes).isDone()) {
+      spill();
+    }
+  }
+
+  private void spill() throws IOException {
+    if (bufferedTsBlocks.isEmpty()) {
+      freeMemory();
+      return;
+    }
+    if (spilledFiles.isEmpty()) {
+      FileUtils.forceMkdir(spillDir);
+    }
+    File file = new File(spillDir, String.valueOf(spilledFiles.size()));
+    spilledFiles.add(file);
+    try (SpilledSortedRun.Writer writer = SpilledSortedRun.writer(file)) {
+      SortedRun sortedRun = new MemorySortedRun(bufferedTsBlocks, comparator);
+      TsBlockBuilder builder = new TsBlockBuilder(dataTypes);
+      while (sortedRun.hasRow()) {
+        SortUtils.appendRow(
+            builder, sortedRun.currentTsBlock(), sortedRun.currentPosition(), dataTypes, 0);
+        builder.declarePosition();
+        sortedRun.next();
+        if (builder.isFull()) {
+          writer.write(builder.build());
+          builder.reset();
+        }
+      }
+      if (!builder.isEmpty()) {
+        writer.write(builder.build());
+      }
+    }
+    logger.debug("Spilled {} TsBlocks to {}", bufferedTsBlocks.size(), file);
+    bufferedTsBlocks.clear();
+    freeMemory();
+  }
+
+  private void prepareSortedRuns() throws IOException {
+    sortedRuns = new ArrayList<>(spilledFiles.size() + 1);
+    for (File file : spilledFiles) {
+      sortedRuns.add(new SpilledSortedRun(file));
+    }
+    if (!bufferedTsBlocks.isEmpty()) {
+      sortedRuns.add(new MemorySortedRun(bufferedTsBlocks, comparator));
+    }
+    // the rows left in memory are needed until they are merged, so they can't be revoked any more
+    memoryContext.setRevocableBytes(0);
+    memoryContext.setBytes(bufferedBytes);
+    for (SortedRun sortedRun : sortedRuns) {
+      // load the first TsBlock of the spilled runs before building the tree
+      sortedRun.hasRow();
+    }
+    if (!sortedRuns.isEmpty()) {
+      loserTree = new LoserTree(sortedRuns.size(), this::compareRuns);
+    }
+  }
+
+  private int compareRuns(int left, int right) {
+    SortedRun leftRun = sortedRuns.get(left);
+    SortedRun rightRun = sortedRuns.get(right);
+    try {
+      boolean leftHasRow = leftRun.hasRow();
+      boolean rightHasRow = rightRun.hasRow();
+      if (!leftHasRow || !rightHasRow) {
+        return Boolean.compare(rightHasRow, leftHasRow);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while reading the spilled file", e);
+    }
+    return comparator.compare(
+        leftRun.currentTsBlock(),
+        leftRun.currentPosition(),
+        rightRun.currentTsBlock(),
+        rightRun.currentPosition());
+  }
+
+  private TsBlock mergeSortedRuns() throws IOException {
+    TsBlockBuilder builder = new TsBlockBuilder(dataTypes);
+    if (loserTree == null) {
+      return builder.build();
+    }
+    while (!builder.isFull()) {
+      int winner = loserTree.getWinner();
+      SortedRun sortedRun = sortedRuns.get(winner);
+      if (!sortedRun.hasRow()) {
+        break;
+      }
+      SortUtils.appendRow(
+          builder, sortedRun.currentTsBlock(), sortedRun.currentPosition(), dataTypes, 0);
+      builder.declarePosition();
+      sortedRun.next();
+      loserTree.adjust(winner);
+    }
+    return builder.build();
   }
 
   @Override
   public boolean hasNext() {
-    return false;
+    if (sortedRuns == null) {
+      return true;
+    }
+    if (loserTree == null) {
+      return false;
+    }
+    try {
+      return sortedRuns.get(loserTree.getWinner()).hasRow();
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while reading the spilled file", e);
+    }
   }
 
   @Override
   public void close() throws Exception {
-    ProcessOperator.super.close();
+    if (sortedRuns != null) {
+      for (SortedRun sortedRun : sortedRuns) {
+        sortedRun.close();
+      }
+    }
+    bufferedTsBlocks.clear();
+    memoryContext.close();
+    if (!spilledFiles.isEmpty()) {
+      FileUtils.deleteDirectory(spillDir);
+    }
+    child.close();
   }
 
   @Override
   public boolean isFinished() {
-    return false;
+    return !hasNext();
+  }
+
+  private void freeMemory() {
+    bufferedBytes = 0;
+    memoryContext.setRevocableBytes(0);
   }
 }
@@ -18,8 +18,10 @@
  */
 package org.apache.iotdb.db.mpp.operator.process;
 
+import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.mpp.operator.Operator;
 import org.apache.iotdb.db.mpp.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.operator.source.ExchangeOperator;
 import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
 import org.apache.iotdb.db.utils.datastructure.TimeSelector;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -58,6 +60,19 @@ public class TimeJoinOperator implements ProcessOperator {
    */
   private final List<TSDataType> dataTypes;
 
+  private final boolean ascending;
+
+  // number of rows needed by the parent operator, 0 if all the rows are needed
+  private long limit;
+
+  // number of rows returned by each child
+  private final long[] inputRowCounts;
+
+  // time of the last row needed by the parent operator, valid if hasTopKBound is true
+  private long topKBound;
+
+  private boolean hasTopKBound;
+
   private boolean finished;
 
   public TimeJoinOperator(
@@ -74,6 +89,22 @@ public class TimeJoinOperator implements ProcessOperator {
     this.timeSelector = new TimeSelector(this.inputCount << 1, OrderBy.TIMESTAMP_ASC == mergeOrder);
     this.columnCount = dataTypes.size();
     this.dataTypes = dataTypes;
+    this.ascending = OrderBy.TIMESTAMP_ASC == mergeOrder;
+    this.inputRowCounts = new long[this.inputCount];
+  }
+
+  /**
+   * The parent operator only needs the first {@code limit} rows. Once any child has returned that
+   * many rows, the time of its last needed row bounds the time of the rows needed by the parent,
+   * which is published to the upstream fragment instances of the children.
+   */
+  public void setLimit(long limit) {
+    this.limit = limit;
+  }
+
+  @TestOnly
+  public long getLimit() {
+    return limit;
   }
 
   @Override
@@ -109,6 +140,9 @@ public class TimeJoinOperator implements ProcessOperator {
           for (int row = 0; row < rowSize; row++) {
             timeSelector.add(inputTsBlocks[i].getTimeByIndex(row));
           }
+          if (limit > 0) {
+            updateTopKBound(i);
+          }
         }
       }
       // update the currentEndTime if the TsBlock is not empty
@@ -120,6 +154,7 @@ public class TimeJoinOperator implements ProcessOperator {
         init = true;
       }
     }
+    updateMemory();
 
     if (timeSelector.isEmpty()) {
       // return empty TsBlock
@@ -174,11 +209,26 @@ public class TimeJoinOperator implements ProcessOperator {
 
   @Override
   public void close() throws Exception {
+    operatorContext.getMemoryContext().close();
     for (Operator child : children) {
       child.close();
     }
   }
 
+  /**
+   * Account the input TsBlocks buffered until all their rows are joined. The memory can't be
+   * revoked, so the operator goes on even if it can't be reserved at once.
+   */
+  private void updateMemory() {
+    long bytes = 0;
+    for (int i = 0; i < inputCount; i++) {
+      if (!empty(i)) {
+        bytes += inputTsBlocks[i].getRetainedSizeInBytes();
+      }
+    }
+    operatorContext.getMemoryContext().setBytes(bytes);
+  }
+
   @Override
   public boolean isFinished() {
     if (finished) {
@@ -195,6 +245,30 @@ public class TimeJoinOperator implements ProcessOperator {
     return finished;
   }
 
+  private void updateTopKBound(int childIndex) {
+    TsBlock block = inputTsBlocks[childIndex];
+    long previousRowCount = inputRowCounts[childIndex];
+    inputRowCounts[childIndex] += block.getPositionCount();
+    if (previousRowCount >= limit || inputRowCounts[childIndex] < limit) {
+      return;
+    }
+    // The times of the rows of one child are distinct, so the first limit rows of the output are
+    // not after the limit-th row of any child.
+    long bound = block.getTimeByIndex((int) (limit - previousRowCount - 1));
+    if (hasTopKBound && (ascending ? bound >= topKBound : bound <= topKBound)) {
+      return;
+    }
+    topKBound = bound;
+    hasTopKBound = true;
+    for (Operator child : children) {
+      if (child instanceof ExchangeOperator) {
+        ((ExchangeOperator) child)
+            .publishDynamicFilter(
+                ascending ? Long.MIN_VALUE : bound, ascending ? bound : Long.MAX_VALUE, false);
+      }
+    }
+  }
+
   private boolean empty(int columnIndex) {
     return inputTsBlocks[columnIndex] == null
         || inputTsBlocks[columnIndex].getPositionCount() == inputIndex[columnIndex];
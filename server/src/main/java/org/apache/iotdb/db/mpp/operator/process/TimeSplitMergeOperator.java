@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.operator.process;
+
+import org.apache.iotdb.db.mpp.operator.Operator;
+import org.apache.iotdb.db.mpp.operator.OperatorContext;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.io.IOException;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Concatenate the output of the time splits of one series scan. The children read disjoint time
+ * ranges and are ordered by the scan order, so the TsBlocks of a child are returned only after all
+ * the ones of its previous children. The later children keep running in their own fragment
+ * instances meanwhile, and their output is buffered by the exchange.
+ */
+public class TimeSplitMergeOperator implements ProcessOperator {
+
+  private final OperatorContext operatorContext;
+  private final List<Operator> children;
+
+  // the index of the child being read
+  private int currentIndex = 0;
+
+  public TimeSplitMergeOperator(OperatorContext operatorContext, List<Operator> children) {
+    this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+    this.children = requireNonNull(children, "children is null");
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+
+  @Override
+  public ListenableFuture<Void> isBlocked() {
+    if (currentIndex >= children.size()) {
+      return NOT_BLOCKED;
+    }
+    return children.get(currentIndex).isBlocked();
+  }
+
+  @Override
+  public TsBlock next() {
+    return children.get(currentIndex).next();
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (currentIndex < children.size()) {
+      if (children.get(currentIndex).hasNext()) {
+        return true;
+      }
+      currentIndex++;
+    }
+    return false;
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (Operator child : children) {
+      child.close();
+    }
+  }
+
+  @Override
+  public boolean isFinished() throws IOException {
+    for (int i = currentIndex; i < children.size(); i++) {
+      if (!children.get(i).isFinished()) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -69,6 +69,11 @@ public class ExchangeOperator implements SourceOperator {
     return sourceHandle.isFinished();
   }
 
+  /** See {@link ISourceHandle#publishDynamicFilter(long, long, boolean)}. */
+  public void publishDynamicFilter(long lowerBound, long upperBound, boolean finished) {
+    sourceHandle.publishDynamicFilter(lowerBound, upperBound, finished);
+  }
+
   @Override
   public PlanNodeId getSourceId() {
     return sourceId;
@@ -7,7 +7,7 @@
  * "License"); you may not use this file except in compliance
  * with the License.  You may obtain a copy of the License at
  *
- *      http://www.apache.org/licenses/LICENSE-2.0
+ *     http://www.apache.org/licenses/LICENSE-2.0
  *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
@@ -19,48 +19,566 @@
 package org.apache.iotdb.db.mpp.operator.source;
 
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.mpp.aggregation.AccumulatorFactory;
+import org.apache.iotdb.db.mpp.aggregation.AggregationStep;
+import org.apache.iotdb.db.mpp.aggregation.Aggregator;
+import org.apache.iotdb.db.mpp.aggregation.InputLocation;
 import org.apache.iotdb.db.mpp.operator.OperatorContext;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.sql.statement.component.GroupByTimeComponent;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.db.utils.timerangeiterator.ITimeRangeIterator;
+import org.apache.iotdb.db.utils.timerangeiterator.TimeRangeIteratorFactory;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.utils.Pair;
 
-import com.google.common.util.concurrent.ListenableFuture;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
 
+import static org.apache.iotdb.db.qp.utils.DatetimeUtils.MS_TO_MONTH;
+
+/**
+ * This operator is responsible to do the aggregation calculation for one series based on global
+ * time range and time split parameter.
+ *
+ * <p>Every time next() is invoked, one TsBlock is returned, each row of which is the result of one
+ * time range. The timestamp of each row is the start time of the time range, or 0 if there is no
+ * time split parameter.
+ *
+ * <p>The statistics of a file, chunk or page are used instead of its data if it lies entirely in
+ * the current time range, it is not overlapped with other data and none of its data is deleted.
+ *
+ * <p>At PARTIAL step, the intermediate results are returned instead of the final ones, so that the
+ * results of the same series in different data regions can be merged by the parent operator.
+ *
+ * <p>If the time ranges overlap (the sliding step is smaller than the interval), the series is
+ * aggregated once for each of the disjoint pre-aggregation time ranges, and their intermediate
+ * results are merged into the result of each window, so that no data is aggregated twice.
+ */
 public class SeriesAggregateScanOperator implements DataSourceOperator {
-  @Override
-  public OperatorContext getOperatorContext() {
-    return null;
+
+  private final OperatorContext operatorContext;
+  private final PlanNodeId sourceId;
+  private final SeriesScanUtil seriesScanUtil;
+  private final boolean ascending;
+  private final Filter timeFilter;
+  private final List<Aggregator> aggregators;
+  private final TsBlockBuilder tsBlockBuilder;
+  // the number of output columns of each aggregator
+  private final int[] aggregatorColumnCounts;
+
+  // generates the time ranges to aggregate, null if there is no time split parameter. They are the
+  // disjoint pre-aggregation time ranges if the windows overlap.
+  private final ITimeRangeIterator timeRangeIterator;
+  // current time range, both sides are closed
+  private TimeRange curTimeRange;
+  // whether the result of curTimeRange is not returned yet
+  private boolean hasCachedTimeRange;
+
+  // the remaining part of the last decoded page, which is after the last time range
+  private TsBlock preCachedData;
+
+  // generates the overlapped windows, null if the windows do not overlap
+  private final ITimeRangeIterator windowIterator;
+  // current window, both sides are closed
+  private TimeRange curWindow;
+  // whether the result of curWindow is not returned yet
+  private boolean hasCachedWindow;
+  // merge the intermediate results of the pre-aggregation time ranges in curWindow
+  private final List<Aggregator> windowAggregators;
+  private final int[] windowAggregatorColumnCounts;
+  // the intermediate results of the pre-aggregation time ranges which may be in curWindow or the
+  // following windows, in the traversing order
+  private final Deque<Pair<TimeRange, TsBlock>> cachedPreAggrResults = new ArrayDeque<>();
+  private final TsBlockBuilder preAggrResultBuilder;
+
+  public SeriesAggregateScanOperator(
+      PlanNodeId sourceId,
+      PartialPath seriesPath,
+      Set<String> allSensors,
+      OperatorContext context,
+      List<AggregationType> aggregateFuncList,
+      AggregationStep step,
+      Filter timeFilter,
+      boolean ascending,
+      GroupByTimeComponent groupByTimeParameter) {
+    this.sourceId = sourceId;
+    this.operatorContext = context;
+    this.ascending = ascending;
+    this.timeFilter = timeFilter;
+    this.seriesScanUtil =
+        new SeriesScanUtil(
+            seriesPath,
+            allSensors,
+            seriesPath.getSeriesType(),
+            context.getInstanceContext(),
+            timeFilter,
+            null,
+            ascending);
+
+    boolean isSlidingWindow =
+        groupByTimeParameter != null
+            && groupByTimeParameter.getInterval() > groupByTimeParameter.getSlidingStep();
+
+    // the results of the pre-aggregation time ranges are always intermediate ones
+    aggregators = new ArrayList<>(aggregateFuncList.size());
+    aggregatorColumnCounts = new int[aggregateFuncList.size()];
+    List<TSDataType> resultTypes = new ArrayList<>();
+    for (int i = 0; i < aggregateFuncList.size(); i++) {
+      Aggregator aggregator =
+          new Aggregator(
+              AccumulatorFactory.createAccumulator(
+                  aggregateFuncList.get(i), seriesPath.getSeriesType(), ascending),
+              isSlidingWindow ? AggregationStep.PARTIAL : step);
+      aggregators.add(aggregator);
+      TSDataType[] outputType = aggregator.getOutputType();
+      aggregatorColumnCounts[i] = outputType.length;
+      resultTypes.addAll(Arrays.asList(outputType));
+    }
+
+    if (isSlidingWindow) {
+      AggregationStep windowStep =
+          step.isOutputPartial() ? AggregationStep.INTERMEDIATE : AggregationStep.FINAL;
+      windowAggregators = new ArrayList<>(aggregateFuncList.size());
+      windowAggregatorColumnCounts = new int[aggregateFuncList.size()];
+      List<TSDataType> windowResultTypes = new ArrayList<>();
+      for (int i = 0, columnIndex = 0; i < aggregateFuncList.size(); i++) {
+        InputLocation[] inputLocations = new InputLocation[aggregatorColumnCounts[i]];
+        for (int j = 0; j < inputLocations.length; j++) {
+          inputLocations[j] = new InputLocation(0, columnIndex++);
+        }
+        Aggregator aggregator =
+            new Aggregator(
+                AccumulatorFactory.createAccumulator(
+                    aggregateFuncList.get(i), seriesPath.getSeriesType(), ascending),
+                windowStep,
+                Collections.singletonList(inputLocations));
+        windowAggregators.add(aggregator);
+        TSDataType[] outputType = aggregator.getOutputType();
+        windowAggregatorColumnCounts[i] = outputType.length;
+        windowResultTypes.addAll(Arrays.asList(outputType));
+      }
+      preAggrResultBuilder = new TsBlockBuilder(resultTypes);
+      tsBlockBuilder = new TsBlockBuilder(windowResultTypes);
+    } else {
+      windowAggregators = null;
+      windowAggregatorColumnCounts = null;
+      preAggrResultBuilder = null;
+      tsBlockBuilder = new TsBlockBuilder(resultTypes);
+    }
+
+    if (groupByTimeParameter == null) {
+      timeRangeIterator = null;
+      windowIterator = null;
+      curTimeRange = new TimeRange(Long.MIN_VALUE, Long.MAX_VALUE);
+      hasCachedTimeRange = true;
+    } else {
+      timeRangeIterator = initTimeRangeIterator(groupByTimeParameter, ascending, isSlidingWindow);
+      Pair<Long, Long> firstTimeRange = timeRangeIterator.getFirstTimeRange();
+      if (firstTimeRange != null) {
+        curTimeRange = new TimeRange(firstTimeRange.left, firstTimeRange.right - 1);
+        hasCachedTimeRange = true;
+      }
+      if (isSlidingWindow) {
+        windowIterator = initTimeRangeIterator(groupByTimeParameter, ascending, false);
+        Pair<Long, Long> firstWindow = windowIterator.getFirstTimeRange();
+        if (firstWindow != null) {
+          curWindow = new TimeRange(firstWindow.left, firstWindow.right - 1);
+          hasCachedWindow = true;
+        }
+      } else {
+        windowIterator = null;
+      }
+    }
+  }
+
+  private static ITimeRangeIterator initTimeRangeIterator(
+      GroupByTimeComponent groupByTimeParameter, boolean ascending, boolean isPreAggr) {
+    long interval = groupByTimeParameter.getInterval();
+    long slidingStep = groupByTimeParameter.getSlidingStep();
+    if (groupByTimeParameter.isIntervalByMonth()) {
+      interval = interval / MS_TO_MONTH;
+    }
+    if (groupByTimeParameter.isSlidingStepByMonth()) {
+      slidingStep = slidingStep / MS_TO_MONTH;
+    }
+    return TimeRangeIteratorFactory.getTimeRangeIterator(
+        groupByTimeParameter.getStartTime(),
+        groupByTimeParameter.getEndTime(),
+        interval,
+        slidingStep,
+        ascending,
+        groupByTimeParameter.isIntervalByMonth(),
+        groupByTimeParameter.isSlidingStepByMonth(),
+        isPreAggr);
   }
 
   @Override
-  public ListenableFuture<Void> isBlocked() {
-    return DataSourceOperator.super.isBlocked();
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
   }
 
   @Override
   public TsBlock next() {
-    return null;
+    if (!hasNext()) {
+      throw new IllegalStateException("no next batch");
+    }
+    tsBlockBuilder.reset();
+    try {
+      if (windowIterator == null) {
+        while (hasNextTimeRange() && !tsBlockBuilder.isFull()) {
+          calculateNextResult();
+          appendResult(
+              tsBlockBuilder,
+              aggregators,
+              aggregatorColumnCounts,
+              timeRangeIterator == null ? 0 : curTimeRange.getMin());
+          hasCachedTimeRange = false;
+        }
+      } else {
+        while (hasNextWindow() && !tsBlockBuilder.isFull()) {
+          calculateNextWindow();
+          hasCachedWindow = false;
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while scanning the file", e);
+    }
+    return tsBlockBuilder.build();
   }
 
   @Override
   public boolean hasNext() {
-    return false;
+    return windowIterator == null ? hasNextTimeRange() : hasNextWindow();
   }
 
-  @Override
-  public void close() throws Exception {
-    DataSourceOperator.super.close();
+  private boolean hasNextTimeRange() {
+    if (hasCachedTimeRange) {
+      return true;
+    }
+    if (timeRangeIterator == null || curTimeRange == null) {
+      return false;
+    }
+    Pair<Long, Long> nextTimeRange = timeRangeIterator.getNextTimeRange(curTimeRange.getMin());
+    if (nextTimeRange == null) {
+      return false;
+    }
+    curTimeRange = new TimeRange(nextTimeRange.left, nextTimeRange.right - 1);
+    hasCachedTimeRange = true;
+    return true;
+  }
+
+  private boolean hasNextWindow() {
+    if (hasCachedWindow) {
+      return true;
+    }
+    if (curWindow == null) {
+      return false;
+    }
+    Pair<Long, Long> nextWindow = windowIterator.getNextTimeRange(curWindow.getMin());
+    if (nextWindow == null) {
+      return false;
+    }
+    curWindow = new TimeRange(nextWindow.left, nextWindow.right - 1);
+    hasCachedWindow = true;
+    return true;
   }
 
   @Override
   public boolean isFinished() {
-    return false;
+    return !hasNext();
   }
 
   @Override
   public PlanNodeId getSourceId() {
-    return null;
+    return sourceId;
   }
 
   @Override
-  public void initQueryDataSource(QueryDataSource dataSource) {}
+  public void initQueryDataSource(QueryDataSource dataSource) {
+    seriesScanUtil.initQueryDataSource(dataSource);
+  }
+
+  /**
+   * Aggregate the pre-aggregation time ranges until the first one after the current window, and
+   * merge the intermediate results of those in the current window into its result.
+   */
+  private void calculateNextWindow() throws IOException {
+    // the windows move in the traversing order, so the time ranges before the current window are
+    // not in the following windows either
+    while (!cachedPreAggrResults.isEmpty()
+        && isBeforeCurWindow(cachedPreAggrResults.peekFirst().left)) {
+      cachedPreAggrResults.pollFirst();
+    }
+    while ((cachedPreAggrResults.isEmpty()
+            || !isAfterCurWindow(cachedPreAggrResults.peekLast().left))
+        && hasNextTimeRange()) {
+      calculateNextResult();
+      preAggrResultBuilder.reset();
+      appendResult(
+          preAggrResultBuilder, aggregators, aggregatorColumnCounts, curTimeRange.getMin());
+      cachedPreAggrResults.addLast(new Pair<>(curTimeRange, preAggrResultBuilder.build()));
+      hasCachedTimeRange = false;
+    }
+
+    for (Aggregator aggregator : windowAggregators) {
+      aggregator.reset();
+    }
+    // a pre-aggregation time range is either entirely in a window or disjoint from it
+    TsBlock[] inputs = new TsBlock[1];
+    int[] positions = new int[] {0};
+    for (Pair<TimeRange, TsBlock> preAggrResult : cachedPreAggrResults) {
+      if (curWindow.contains(preAggrResult.left.getMin(), preAggrResult.left.getMax())) {
+        inputs[0] = preAggrResult.right;
+        for (Aggregator aggregator : windowAggregators) {
+          aggregator.processRow(inputs, positions);
+        }
+      }
+    }
+    appendResult(
+        tsBlockBuilder, windowAggregators, windowAggregatorColumnCounts, curWindow.getMin());
+  }
+
+  private void calculateNextResult() throws IOException {
+    for (Aggregator aggregator : aggregators) {
+      aggregator.reset();
+    }
+
+    if (calcFromCachedData()) {
+      return;
+    }
+
+    // read page data firstly
+    if (readAndCalcFromPage()) {
+      return;
+    }
+
+    // read chunk data secondly
+    if (readAndCalcFromChunk()) {
+      return;
+    }
+
+    // read from file finally
+    while (seriesScanUtil.hasNextFile()) {
+      Statistics fileStatistics = seriesScanUtil.currentFileStatistics();
+      if (isAfterCurTimeRange(fileStatistics)) {
+        return;
+      }
+      if (isBeforeCurTimeRange(fileStatistics)) {
+        seriesScanUtil.skipCurrentFile();
+        continue;
+      }
+      // calc from fileMetaData
+      if (canUseStatistics(
+          fileStatistics,
+          seriesScanUtil.isFileOverlapped(),
+          seriesScanUtil.currentFileModified())) {
+        calcFromStatistics(fileStatistics);
+        seriesScanUtil.skipCurrentFile();
+        if (isEndCalc()) {
+          return;
+        }
+        continue;
+      }
+
+      // read chunk
+      if (readAndCalcFromChunk()) {
+        return;
+      }
+    }
+  }
+
+  /** @return true if the calculation of current time range is finished */
+  private boolean calcFromCachedData() throws IOException {
+    if (preCachedData == null) {
+      return false;
+    }
+    TsBlock cachedData = preCachedData;
+    preCachedData = null;
+    return calcFromTsBlock(cachedData);
+  }
+
+  /** @return true if the calculation of current time range is finished */
+  private boolean readAndCalcFromChunk() throws IOException {
+    while (seriesScanUtil.hasNextChunk()) {
+      Statistics chunkStatistics = seriesScanUtil.currentChunkStatistics();
+      if (isAfterCurTimeRange(chunkStatistics)) {
+        return true;
+      }
+      if (isBeforeCurTimeRange(chunkStatistics)) {
+        seriesScanUtil.skipCurrentChunk();
+        continue;
+      }
+      // calc from chunkMetaData
+      if (canUseStatistics(
+          chunkStatistics,
+          seriesScanUtil.isChunkOverlapped(),
+          seriesScanUtil.currentChunkModified())) {
+        calcFromStatistics(chunkStatistics);
+        seriesScanUtil.skipCurrentChunk();
+        if (isEndCalc()) {
+          return true;
+        }
+        continue;
+      }
+
+      // read page
+      if (readAndCalcFromPage()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** @return true if the calculation of current time range is finished */
+  private boolean readAndCalcFromPage() throws IOException {
+    while (seriesScanUtil.hasNextPage()) {
+      // the statistics of an overlapped page can not be used
+      if (!seriesScanUtil.isPageOverlapped()) {
+        Statistics pageStatistics = seriesScanUtil.currentPageStatistics();
+        if (isAfterCurTimeRange(pageStatistics)) {
+          return true;
+        }
+        if (isBeforeCurTimeRange(pageStatistics)) {
+          seriesScanUtil.skipCurrentPage();
+          continue;
+        }
+        // calc from pageHeader
+        if (canUseStatistics(pageStatistics, false, seriesScanUtil.currentPageModified())) {
+          calcFromStatistics(pageStatistics);
+          seriesScanUtil.skipCurrentPage();
+          if (isEndCalc()) {
+            return true;
+          }
+          continue;
+        }
+      }
+
+      // calc from page data
+      TsBlock tsBlock = seriesScanUtil.nextPage();
+      if (tsBlock == null || tsBlock.isEmpty()) {
+        continue;
+      }
+      if (calcFromTsBlock(tsBlock)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Aggregate the points of the TsBlock in the current time range. The points after it are cached
+   * for the next time ranges.
+   *
+   * @return true if the calculation of current time range is finished
+   */
+  private boolean calcFromTsBlock(TsBlock tsBlock) throws IOException {
+    int positionCount = tsBlock.getPositionCount();
+    int start = 0;
+    while (start < positionCount && isBeforeCurTimeRange(tsBlock.getTimeByIndex(start))) {
+      start++;
+    }
+    int end = start;
+    while (end < positionCount && curTimeRange.contains(tsBlock.getTimeByIndex(end))) {
+      end++;
+    }
+
+    if (end > start) {
+      TsBlock region = tsBlock.getRegion(start, end - start);
+      for (Aggregator aggregator : aggregators) {
+        if (!aggregator.hasFinalResult()) {
+          aggregator.processTsBlock(region);
+        }
+      }
+    }
+
+    if (end < positionCount) {
+      preCachedData = tsBlock.getRegion(end, positionCount - end);
+      return true;
+    }
+    return isEndCalc();
+  }
+
+  private void calcFromStatistics(Statistics statistics) {
+    for (Aggregator aggregator : aggregators) {
+      if (!aggregator.hasFinalResult()) {
+        aggregator.processStatistics(statistics);
+      }
+    }
+  }
+
+  private boolean canUseStatistics(Statistics statistics, boolean overlapped, boolean modified) {
+    return !overlapped
+        && !modified
+        && curTimeRange.contains(statistics.getStartTime(), statistics.getEndTime())
+        && (timeFilter == null
+            || timeFilter.containStartEndTime(statistics.getStartTime(), statistics.getEndTime()));
+  }
+
+  private boolean isEndCalc() {
+    for (Aggregator aggregator : aggregators) {
+      if (!aggregator.hasFinalResult()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** whether the data are before the current time range in the traversing order */
+  private boolean isBeforeCurTimeRange(Statistics statistics) {
+    return ascending
+        ? statistics.getEndTime() < curTimeRange.getMin()
+        : statistics.getStartTime() > curTimeRange.getMax();
+  }
+
+  /** whether the data are after the current time range in the traversing order */
+  private boolean isAfterCurTimeRange(Statistics statistics) {
+    return ascending
+        ? statistics.getStartTime() > curTimeRange.getMax()
+        : statistics.getEndTime() < curTimeRange.getMin();
+  }
+
+  private boolean isBeforeCurTimeRange(long time) {
+    return ascending ? time < curTimeRange.getMin() : time > curTimeRange.getMax();
+  }
+
+  /** whether the time range is before the current window in the traversing order */
+  private boolean isBeforeCurWindow(TimeRange timeRange) {
+    return ascending
+        ? timeRange.getMax() < curWindow.getMin()
+        : timeRange.getMin() > curWindow.getMax();
+  }
+
+  /** whether the time range is after the current window in the traversing order */
+  private boolean isAfterCurWindow(TimeRange timeRange) {
+    return ascending
+        ? timeRange.getMin() > curWindow.getMax()
+        : timeRange.getMax() < curWindow.getMin();
+  }
+
+  private static void appendResult(
+      TsBlockBuilder builder, List<Aggregator> aggregators, int[] columnCounts, long time) {
+    builder.getTimeColumnBuilder().writeLong(time);
+    for (int i = 0, columnIndex = 0; i < aggregators.size(); i++) {
+      ColumnBuilder[] columnBuilders = new ColumnBuilder[columnCounts[i]];
+      for (int j = 0; j < columnBuilders.length; j++) {
+        columnBuilders[j] = builder.getColumnBuilder(columnIndex++);
+      }
+      aggregators.get(i).outputResult(columnBuilders);
+    }
+    builder.declarePosition();
+  }
 }
@@ -20,9 +20,11 @@ package org.apache.iotdb.db.mpp.operator.source;
 
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.mpp.execution.DynamicFilter;
 import org.apache.iotdb.db.mpp.operator.OperatorContext;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
@@ -34,6 +36,22 @@ public class SeriesScanOperator implements DataSourceOperator {
   private final OperatorContext operatorContext;
   private final SeriesScanUtil seriesScanUtil;
   private final PlanNodeId sourceId;
+  private final Filter timeFilter;
+  private final Filter valueFilter;
+  private final boolean ascending;
+
+  // Published by the downstream fragment instance. The time of the rows returned by this operator
+  // is the time of the rows in the output of the fragment instance, as long as there is no
+  // aggregation above it.
+  private final DynamicFilter dynamicFilter;
+  // a row beyond the end of the dynamic filter in the scan order has been read
+  private boolean beyondDynamicFilter = false;
+
+  // rows still to be skipped before the first returned row
+  private int remainingOffset;
+  // rows still to be returned, -1 means no limit
+  private int remainingLimit;
+
   private TsBlock tsBlock;
   private boolean hasCachedTsBlock = false;
   private boolean finished = false;
@@ -47,8 +65,42 @@ public class SeriesScanOperator implements DataSourceOperator {
       Filter timeFilter,
       Filter valueFilter,
       boolean ascending) {
+    this(
+        sourceId,
+        seriesPath,
+        allSensors,
+        dataType,
+        context,
+        timeFilter,
+        valueFilter,
+        ascending,
+        0,
+        0);
+  }
+
+  /**
+   * @param limit max number of rows to return, no limit if it's not positive
+   * @param offset number of leading rows to skip
+   */
+  public SeriesScanOperator(
+      PlanNodeId sourceId,
+      PartialPath seriesPath,
+      Set<String> allSensors,
+      TSDataType dataType,
+      OperatorContext context,
+      Filter timeFilter,
+      Filter valueFilter,
+      boolean ascending,
+      int limit,
+      int offset) {
     this.sourceId = sourceId;
     this.operatorContext = context;
+    this.timeFilter = timeFilter;
+    this.valueFilter = valueFilter;
+    this.ascending = ascending;
+    this.dynamicFilter = context.getInstanceContext().getDynamicFilter();
+    this.remainingOffset = Math.max(offset, 0);
+    this.remainingLimit = limit > 0 ? limit : -1;
     this.seriesScanUtil =
         new SeriesScanUtil(
             seriesPath,
@@ -81,6 +133,9 @@ public class SeriesScanOperator implements DataSourceOperator {
       if (hasCachedTsBlock) {
         return true;
       }
+      if (remainingLimit == 0 || beyondDynamicFilter || dynamicFilter.isFinished()) {
+        return false;
+      }
 
       /*
        * consume page data firstly
@@ -101,7 +156,7 @@ public class SeriesScanOperator implements DataSourceOperator {
       /*
        * consume next file finally
        */
-      while (seriesScanUtil.hasNextFile()) {
+      while (!beyondDynamicFilter && seriesScanUtil.hasNextFile()) {
         if (readChunkData()) {
           hasCachedTsBlock = true;
           return true;
@@ -119,7 +174,7 @@ public class SeriesScanOperator implements DataSourceOperator {
   }
 
   private boolean readChunkData() throws IOException {
-    while (seriesScanUtil.hasNextChunk()) {
+    while (!beyondDynamicFilter && seriesScanUtil.hasNextChunk()) {
       if (readPageData()) {
         return true;
       }
@@ -129,14 +184,100 @@ public class SeriesScanOperator implements DataSourceOperator {
 
   private boolean readPageData() throws IOException {
     while (seriesScanUtil.hasNextPage()) {
-      tsBlock = seriesScanUtil.nextPage();
+      if (remainingOffset > 0 && canSkipCurrentPage()) {
+        remainingOffset -= (int) seriesScanUtil.currentPageStatistics().getCount();
+        seriesScanUtil.skipCurrentPage();
+        continue;
+      }
+      if (remainingOffset == 0 && remainingLimit < 0 && canSkipCurrentPageByDynamicFilter()) {
+        seriesScanUtil.skipCurrentPage();
+        continue;
+      }
+      tsBlock = applyDynamicFilter(applyOffsetAndLimit(seriesScanUtil.nextPage()));
       if (!isEmpty(tsBlock)) {
         return true;
       }
+      if (beyondDynamicFilter) {
+        return false;
+      }
     }
     return false;
   }
 
+  /**
+   * A page lying entirely outside the dynamic filter is dropped by its statistics. This is only
+   * done when there is no offset or limit left, since they are applied to the rows before the
+   * dynamic filter, and the count of a page is not exact if some of its rows are filtered out.
+   */
+  private boolean canSkipCurrentPageByDynamicFilter() throws IOException {
+    if (dynamicFilter.isEmpty() || seriesScanUtil.isPageOverlapped()) {
+      return false;
+    }
+    Statistics statistics = seriesScanUtil.currentPageStatistics();
+    return statistics != null
+        && (statistics.getEndTime() < dynamicFilter.getLowerBound()
+            || statistics.getStartTime() > dynamicFilter.getUpperBound());
+  }
+
+  /**
+   * Drop the rows outside the dynamic filter. The rows are ordered by time, so no more rows are
+   * needed once a row is beyond the end of the dynamic filter in the scan order.
+   */
+  private TsBlock applyDynamicFilter(TsBlock block) {
+    if (isEmpty(block) || dynamicFilter.isEmpty()) {
+      return block;
+    }
+    long startBound = ascending ? dynamicFilter.getLowerBound() : dynamicFilter.getUpperBound();
+    long endBound = ascending ? dynamicFilter.getUpperBound() : dynamicFilter.getLowerBound();
+    int positionCount = block.getPositionCount();
+    int start = 0;
+    while (start < positionCount && isBefore(block.getTimeByIndex(start), startBound)) {
+      start++;
+    }
+    int end = positionCount;
+    while (end > start && isBefore(endBound, block.getTimeByIndex(end - 1))) {
+      end--;
+      beyondDynamicFilter = true;
+    }
+    return start == 0 && end == positionCount ? block : block.getRegion(start, end - start);
+  }
+
+  /** If time1 is read before time2 in the scan order. */
+  private boolean isBefore(long time1, long time2) {
+    return ascending ? time1 < time2 : time1 > time2;
+  }
+
+  /**
+   * A page lying entirely inside the rows to be skipped is dropped by its statistics without
+   * decoding it, which is only exact when no row of the page is filtered out or merged.
+   */
+  private boolean canSkipCurrentPage() throws IOException {
+    if (valueFilter != null || seriesScanUtil.isPageOverlapped()) {
+      return false;
+    }
+    Statistics statistics = seriesScanUtil.currentPageStatistics();
+    return statistics != null
+        && !seriesScanUtil.currentPageModified()
+        && statistics.getCount() <= remainingOffset
+        && (timeFilter == null
+            || timeFilter.containStartEndTime(statistics.getStartTime(), statistics.getEndTime()));
+  }
+
+  private TsBlock applyOffsetAndLimit(TsBlock block) {
+    if (isEmpty(block)) {
+      return block;
+    }
+    int positionCount = block.getPositionCount();
+    int start = Math.min(remainingOffset, positionCount);
+    remainingOffset -= start;
+    int length = positionCount - start;
+    if (remainingLimit >= 0) {
+      length = Math.min(length, remainingLimit);
+      remainingLimit -= length;
+    }
+    return start == 0 && length == positionCount ? block : block.getRegion(start, length);
+  }
+
   private boolean isEmpty(TsBlock tsBlock) {
     return tsBlock == null || tsBlock.isEmpty();
   }
@@ -29,7 +29,7 @@ import org.apache.iotdb.db.mpp.common.QueryId;
 import org.apache.iotdb.db.mpp.execution.Driver;
 import org.apache.iotdb.db.mpp.schedule.queue.IndexedBlockingQueue;
 import org.apache.iotdb.db.mpp.schedule.queue.L1PriorityQueue;
-import org.apache.iotdb.db.mpp.schedule.queue.L2PriorityQueue;
+import org.apache.iotdb.db.mpp.schedule.queue.MultilevelPriorityQueue;
 import org.apache.iotdb.db.mpp.schedule.task.FragmentInstanceTask;
 import org.apache.iotdb.db.mpp.schedule.task.FragmentInstanceTaskID;
 import org.apache.iotdb.db.mpp.schedule.task.FragmentInstanceTaskStatus;
@@ -46,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /** the manager of fragment instances scheduling */
@@ -57,7 +58,7 @@ public class FragmentInstanceScheduler implements IFragmentInstanceScheduler, IS
     return InstanceHolder.instance;
   }
 
-  private final IndexedBlockingQueue<FragmentInstanceTask> readyQueue;
+  private final MultilevelPriorityQueue readyQueue;
   private final IndexedBlockingQueue<FragmentInstanceTask> timeoutQueue;
   private final Set<FragmentInstanceTask> blockedTasks;
   private final Map<QueryId, Set<FragmentInstanceTask>> queryMap;
@@ -71,16 +72,10 @@ public class FragmentInstanceScheduler implements IFragmentInstanceScheduler, IS
   private final List<AbstractExecutor> threads;
 
   private FragmentInstanceScheduler() {
-    this.readyQueue =
-        new L2PriorityQueue<>(
-            MAX_CAPACITY,
-            new FragmentInstanceTask.SchedulePriorityComparator(),
-            new FragmentInstanceTask());
+    this.readyQueue = new MultilevelPriorityQueue(MAX_CAPACITY, new FragmentInstanceTask());
     this.timeoutQueue =
         new L1PriorityQueue<>(
-            MAX_CAPACITY,
-            new FragmentInstanceTask.SchedulePriorityComparator(),
-            new FragmentInstanceTask());
+            MAX_CAPACITY, new FragmentInstanceTask.TimeoutComparator(), new FragmentInstanceTask());
     this.queryMap = new ConcurrentHashMap<>();
     this.blockedTasks = Collections.synchronizedSet(new HashSet<>());
     this.scheduler = new Scheduler();
@@ -282,7 +277,8 @@ public class FragmentInstanceScheduler implements IFragmentInstanceScheduler, IS
         if (task.getStatus() != FragmentInstanceTaskStatus.RUNNING) {
           return;
         }
-        task.updateSchedulePriority(context);
+        readyQueue.updatePriority(
+            task, context.getCpuDuration().getWall().roundTo(TimeUnit.NANOSECONDS));
         task.setStatus(FragmentInstanceTaskStatus.READY);
         readyQueue.push(task);
       } finally {
@@ -297,7 +293,8 @@ public class FragmentInstanceScheduler implements IFragmentInstanceScheduler, IS
         if (task.getStatus() != FragmentInstanceTaskStatus.RUNNING) {
           return;
         }
-        task.updateSchedulePriority(context);
+        readyQueue.updatePriority(
+            task, context.getCpuDuration().getWall().roundTo(TimeUnit.NANOSECONDS));
         task.setStatus(FragmentInstanceTaskStatus.BLOCKED);
         blockedTasks.add(task);
       } finally {
@@ -312,7 +309,8 @@ public class FragmentInstanceScheduler implements IFragmentInstanceScheduler, IS
         if (task.getStatus() != FragmentInstanceTaskStatus.RUNNING) {
           return;
         }
-        task.updateSchedulePriority(context);
+        readyQueue.updatePriority(
+            task, context.getCpuDuration().getWall().roundTo(TimeUnit.NANOSECONDS));
         task.setStatus(FragmentInstanceTaskStatus.FINISHED);
         clearFragmentInstanceTask(task);
       } finally {
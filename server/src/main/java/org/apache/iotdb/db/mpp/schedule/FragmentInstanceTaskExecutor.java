@@ -21,7 +21,12 @@ package org.apache.iotdb.db.mpp.schedule;
 import org.apache.iotdb.db.mpp.execution.Driver;
 import org.apache.iotdb.db.mpp.schedule.queue.IndexedBlockingQueue;
 import org.apache.iotdb.db.mpp.schedule.task.FragmentInstanceTask;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
 import org.apache.iotdb.db.utils.stats.CpuTimer;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
@@ -52,6 +57,7 @@ public class FragmentInstanceTaskExecutor extends AbstractExecutor {
     if (!scheduler.readyToRunning(task)) {
       return;
     }
+    recordQueuedTime(task);
     Driver instance = task.getFragmentInstance();
     CpuTimer timer = new CpuTimer();
     ListenableFuture<Void> future = instance.processFor(EXECUTION_TIME_SLICE);
@@ -81,4 +87,20 @@ public class FragmentInstanceTaskExecutor extends AbstractExecutor {
           listeningExecutor);
     }
   }
+
+  private void recordQueuedTime(FragmentInstanceTask task) {
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .timer(
+              System.nanoTime() - task.getReadyQueuedTime(),
+              TimeUnit.NANOSECONDS,
+              Metric.COST_TASK.toString(),
+              MetricLevel.IMPORTANT,
+              Tag.NAME.toString(),
+              "fragment_instance_queued",
+              Tag.TYPE.toString(),
+              "level_" + task.getLevel());
+    }
+  }
 }
@@ -19,6 +19,8 @@
 package org.apache.iotdb.db.mpp.schedule.queue;
 
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -39,6 +41,9 @@ public class L1PriorityQueue<E extends IDIndexedAccessible> extends IndexedBlock
   // Here we use a map not a set to act as a queue because we need to get the element reference
   // after it was removed.
   private final SortedMap<E, E> elements;
+  // The comparator may order elements by fields other than the id, so an element can't be found
+  // in the sorted map by a query holder with only the id set. Index the elements by id instead.
+  private final Map<ID, E> elementsById;
 
   /**
    * Init the queue with max capacity and specified comparator.
@@ -52,6 +57,7 @@ public class L1PriorityQueue<E extends IDIndexedAccessible> extends IndexedBlock
   public L1PriorityQueue(int maxCapacity, Comparator<E> comparator, E queryHolder) {
     super(maxCapacity, queryHolder);
     this.elements = new TreeMap<>(comparator);
+    this.elementsById = new HashMap<>();
   }
 
   @Override
@@ -61,31 +67,39 @@ public class L1PriorityQueue<E extends IDIndexedAccessible> extends IndexedBlock
 
   @Override
   protected E pollFirst() {
-    return elements.remove(elements.firstKey());
+    E element = elements.remove(elements.firstKey());
+    elementsById.remove(element.getId());
+    return element;
   }
 
   @Override
   protected void pushToQueue(E element) {
     elements.put(element, element);
+    elementsById.put(element.getId(), element);
   }
 
   @Override
   protected E remove(E element) {
-    return elements.remove(element);
+    E target = elementsById.remove(element.getId());
+    if (target != null) {
+      elements.remove(target);
+    }
+    return target;
   }
 
   @Override
   protected boolean contains(E element) {
-    return elements.containsKey(element);
+    return elementsById.containsKey(element.getId());
   }
 
   @Override
   protected E get(E element) {
-    return elements.get(element);
+    return elementsById.get(element.getId());
   }
 
   @Override
   protected void clearAllElements() {
     elements.clear();
+    elementsById.clear();
   }
 }
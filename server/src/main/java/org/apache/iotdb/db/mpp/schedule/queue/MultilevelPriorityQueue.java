@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.schedule.queue;
+
+import org.apache.iotdb.db.mpp.schedule.task.FragmentInstanceTask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A multilevel feedback queue of {@link FragmentInstanceTask}. A task starts in level 0 and drops
+ * to a lower level once its accumulated scheduled time crosses the level threshold, so that short
+ * queries are not starved by long running ones sharing the same worker threads.
+ *
+ * <p>Each level is expected to get {@link #LEVEL_TIME_MULTIPLIER} times the scheduled time of the
+ * next one. When polling, the non-empty level which is the furthest behind its expected share is
+ * selected, and within the level the task with the lowest level priority (i.e. the least scheduled
+ * time) goes first.
+ *
+ * <p>The time complexity of operations are:
+ *
+ * <ul>
+ *   <li><b>{@link #remove(IDIndexedAccessible)} ()}: </b> O(logN).
+ *   <li><b>{@link #push(IDIndexedAccessible)}: </b> O(logN).
+ *   <li><b>{@link #poll()}: </b> O(logN).
+ *   <li><b>{@link #get(ID)}}: </b> O(1).
+ * </ul>
+ */
+public class MultilevelPriorityQueue extends IndexedBlockingQueue<FragmentInstanceTask> {
+
+  // a task enters the level i once its scheduled time reaches LEVEL_THRESHOLD_SECONDS[i]
+  static final int[] LEVEL_THRESHOLD_SECONDS = {0, 1, 10, 60, 300};
+  // one execution contributes at most this much to its level, so that a single task with a very
+  // long time slice cannot make the whole level fall behind its share.
+  static final long LEVEL_CONTRIBUTION_CAP = TimeUnit.SECONDS.toNanos(30);
+  static final double LEVEL_TIME_MULTIPLIER = 2;
+
+  private final List<SortedMap<FragmentInstanceTask, FragmentInstanceTask>> levelWaitingTasks;
+  private final Map<ID, FragmentInstanceTask> elements;
+
+  // the total scheduled time of each level
+  private final long[] levelScheduledTime;
+  // the level priority of the latest polled task of each level, -1 if no task has been polled
+  private final long[] levelMinPriority;
+
+  /**
+   * Init the queue with max capacity.
+   *
+   * @see IndexedBlockingQueue
+   * @param maxCapacity the max capacity of the queue.
+   * @param queryHolder the query holder instance.
+   * @throws IllegalArgumentException if maxCapacity <= 0.
+   */
+  public MultilevelPriorityQueue(int maxCapacity, FragmentInstanceTask queryHolder) {
+    super(maxCapacity, queryHolder);
+    this.levelWaitingTasks = new ArrayList<>(LEVEL_THRESHOLD_SECONDS.length);
+    for (int i = 0; i < LEVEL_THRESHOLD_SECONDS.length; i++) {
+      levelWaitingTasks.add(new TreeMap<>(new FragmentInstanceTask.SchedulePriorityComparator()));
+    }
+    this.elements = new HashMap<>();
+    this.levelScheduledTime = new long[LEVEL_THRESHOLD_SECONDS.length];
+    this.levelMinPriority = new long[LEVEL_THRESHOLD_SECONDS.length];
+    Arrays.fill(levelMinPriority, -1);
+  }
+
+  /**
+   * Charge the time of the last execution to the task and its level, and move the task to a lower
+   * level if it has been scheduled for long enough. It must be called when the task is not in the
+   * queue, as its position in the queue depends on the priority.
+   *
+   * @param task the task which has just been executed.
+   * @param quantaNanos the wall time of the last execution in nanoseconds.
+   */
+  public synchronized void updatePriority(FragmentInstanceTask task, long quantaNanos) {
+    long scheduledNanos = task.addScheduledTime(quantaNanos);
+    int oldLevel = task.getLevel();
+    int newLevel = computeLevel(scheduledNanos);
+    long levelContribution = Math.min(quantaNanos, LEVEL_CONTRIBUTION_CAP);
+
+    if (oldLevel == newLevel) {
+      levelScheduledTime[oldLevel] += levelContribution;
+      task.setPriority(oldLevel, task.getLevelPriority() + quantaNanos);
+      return;
+    }
+
+    // a task normally accrues time in a level slowly and then moves to the next one, but if the
+    // last execution was particularly long, charge each level it crossed as if it had run there up
+    // to the level limit.
+    long remainingLevelContribution = levelContribution;
+    long remainingTaskTime = quantaNanos;
+    for (int level = oldLevel; level < newLevel; level++) {
+      long timeAccruedToLevel =
+          Math.min(
+              TimeUnit.SECONDS.toNanos(
+                  LEVEL_THRESHOLD_SECONDS[level + 1] - LEVEL_THRESHOLD_SECONDS[level]),
+              remainingLevelContribution);
+      levelScheduledTime[level] += timeAccruedToLevel;
+      remainingLevelContribution -= timeAccruedToLevel;
+      remainingTaskTime -= timeAccruedToLevel;
+    }
+    levelScheduledTime[newLevel] += remainingLevelContribution;
+    if (levelMinPriority[newLevel] == -1) {
+      levelMinPriority[newLevel] = scheduledNanos;
+    }
+    task.setPriority(newLevel, levelMinPriority[newLevel] + remainingTaskTime);
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return elements.isEmpty();
+  }
+
+  @Override
+  protected FragmentInstanceTask pollFirst() {
+    long targetScheduledTime = getLevel0TargetTime();
+    double worstRatio = 1;
+    int selectedLevel = -1;
+    for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+      if (!levelWaitingTasks.get(level).isEmpty()) {
+        long levelTime = levelScheduledTime[level];
+        double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
+        if (selectedLevel == -1 || ratio > worstRatio) {
+          worstRatio = ratio;
+          selectedLevel = level;
+        }
+      }
+      targetScheduledTime /= LEVEL_TIME_MULTIPLIER;
+    }
+
+    SortedMap<FragmentInstanceTask, FragmentInstanceTask> tasks =
+        levelWaitingTasks.get(selectedLevel);
+    FragmentInstanceTask task = tasks.remove(tasks.firstKey());
+    elements.remove(task.getId());
+    levelMinPriority[selectedLevel] = task.getLevelPriority();
+    return task;
+  }
+
+  @Override
+  protected void pushToQueue(FragmentInstanceTask element) {
+    int level = element.getLevel();
+    SortedMap<FragmentInstanceTask, FragmentInstanceTask> tasks = levelWaitingTasks.get(level);
+    if (tasks.isEmpty()) {
+      // an idle level should not accumulate credits, otherwise it would monopolize the workers
+      // once it gets tasks again, so catch its scheduled time up with the expected one.
+      long level0Time = getLevel0TargetTime();
+      levelScheduledTime[level] = (long) (level0Time / Math.pow(LEVEL_TIME_MULTIPLIER, level));
+    }
+    element.setReadyQueuedTime(System.nanoTime());
+    tasks.put(element, element);
+    elements.put(element.getId(), element);
+  }
+
+  @Override
+  protected FragmentInstanceTask remove(FragmentInstanceTask element) {
+    FragmentInstanceTask task = elements.remove(element.getId());
+    if (task != null) {
+      levelWaitingTasks.get(task.getLevel()).remove(task);
+    }
+    return task;
+  }
+
+  @Override
+  protected boolean contains(FragmentInstanceTask element) {
+    return elements.containsKey(element.getId());
+  }
+
+  @Override
+  protected FragmentInstanceTask get(FragmentInstanceTask element) {
+    return elements.get(element.getId());
+  }
+
+  @Override
+  protected void clearAllElements() {
+    levelWaitingTasks.forEach(SortedMap::clear);
+    elements.clear();
+  }
+
+  private long getLevel0TargetTime() {
+    long level0TargetTime = levelScheduledTime[0];
+    double currentMultiplier = 1;
+    for (int level = 1; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+      currentMultiplier /= LEVEL_TIME_MULTIPLIER;
+      level0TargetTime =
+          Math.max(level0TargetTime, (long) (levelScheduledTime[level] / currentMultiplier));
+    }
+    return level0TargetTime;
+  }
+
+  static int computeLevel(long scheduledNanos) {
+    for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length - 1; level++) {
+      if (scheduledNanos < TimeUnit.SECONDS.toNanos(LEVEL_THRESHOLD_SECONDS[level + 1])) {
+        return level;
+      }
+    }
+    return LEVEL_THRESHOLD_SECONDS.length - 1;
+  }
+}
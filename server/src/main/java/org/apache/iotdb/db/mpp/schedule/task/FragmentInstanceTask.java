@@ -22,7 +22,6 @@ import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.PlanFragmentId;
 import org.apache.iotdb.db.mpp.common.QueryId;
 import org.apache.iotdb.db.mpp.execution.Driver;
-import org.apache.iotdb.db.mpp.schedule.ExecutionContext;
 import org.apache.iotdb.db.mpp.schedule.FragmentInstanceTaskExecutor;
 import org.apache.iotdb.db.mpp.schedule.queue.ID;
 import org.apache.iotdb.db.mpp.schedule.queue.IDIndexedAccessible;
@@ -31,7 +30,6 @@ import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.units.Duration;
 
 import java.util.Comparator;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -45,13 +43,16 @@ public class FragmentInstanceTask implements IDIndexedAccessible {
   private FragmentInstanceTaskStatus status;
   private final Driver fragmentInstance;
 
-  // the higher this field is, the higher probability it will be scheduled.
-  private volatile double schedulePriority;
+  // the level in the multilevel ready queue and the priority within the level, the lower the
+  // level priority is, the higher probability it will be scheduled.
+  private volatile int level;
+  private volatile long levelPriority;
   private final long ddl;
   private final Lock lock;
 
   // Running stats
   private long cpuWallNano;
+  private long readyQueuedTime;
 
   /** Initialize a dummy instance for queryHolder */
   public FragmentInstanceTask() {
@@ -62,7 +63,6 @@ public class FragmentInstanceTask implements IDIndexedAccessible {
     this.fragmentInstance = instance;
     this.id = new FragmentInstanceTaskID(instance.getInfo());
     this.setStatus(status);
-    this.schedulePriority = 0.0D;
     this.ddl = System.currentTimeMillis() + timeoutMs;
     this.lock = new ReentrantLock();
   }
@@ -94,23 +94,40 @@ public class FragmentInstanceTask implements IDIndexedAccessible {
   }
 
   /**
-   * Update the schedule priority according to the execution context.
+   * Accumulate the wall time of the last execution.
    *
-   * @param context the last execution context.
+   * @param quantaNanos the wall time of the last execution in nanoseconds.
+   * @return the total scheduled time of the task in nanoseconds.
    */
-  public void updateSchedulePriority(ExecutionContext context) {
-    // TODO: need to implement more complex here
+  public long addScheduledTime(long quantaNanos) {
+    cpuWallNano += quantaNanos;
+    return cpuWallNano;
+  }
+
+  public long getScheduledTime() {
+    return cpuWallNano;
+  }
+
+  public void setPriority(int level, long levelPriority) {
+    this.level = level;
+    this.levelPriority = levelPriority;
+  }
+
+  public int getLevel() {
+    return level;
+  }
 
-    // 1. The penalty factor means that if a task executes less time in one schedule, it will have a
-    // high schedule priority
-    double penaltyFactor =
-        context.getCpuDuration().getWall().getValue(TimeUnit.NANOSECONDS)
-            / context.getTimeSlice().getValue(TimeUnit.NANOSECONDS);
-    // 2. If a task is nearly timeout, it should be scheduled as soon as possible.
-    long base = System.currentTimeMillis() - ddl;
+  public long getLevelPriority() {
+    return levelPriority;
+  }
+
+  /** the time when the task was pushed into the ready queue, from {@link System#nanoTime()}. */
+  public long getReadyQueuedTime() {
+    return readyQueuedTime;
+  }
 
-    // 3. Now the final schedulePriority is out, this may not be so reasonable.
-    this.schedulePriority = base * penaltyFactor;
+  public void setReadyQueuedTime(long readyQueuedTime) {
+    this.readyQueuedTime = readyQueuedTime;
   }
 
   public void lock() {
@@ -122,7 +139,7 @@ public class FragmentInstanceTask implements IDIndexedAccessible {
   }
 
   public double getSchedulePriority() {
-    return schedulePriority;
+    return levelPriority;
   }
 
   public long getDDL() {
@@ -157,7 +174,7 @@ public class FragmentInstanceTask implements IDIndexedAccessible {
     }
   }
 
-  /** a comparator of ddl, the higher the schedulePriority is, the low order it has. */
+  /** a comparator of schedulePriority, the lower the schedulePriority is, the low order it has. */
   public static class SchedulePriorityComparator implements Comparator<FragmentInstanceTask> {
 
     @Override
@@ -165,10 +182,10 @@ public class FragmentInstanceTask implements IDIndexedAccessible {
       if (o1.getId().equals(o2.getId())) {
         return 0;
       }
-      if (o1.getSchedulePriority() > o2.getSchedulePriority()) {
+      if (o1.getSchedulePriority() < o2.getSchedulePriority()) {
         return -1;
       }
-      if (o1.getSchedulePriority() < o2.getSchedulePriority()) {
+      if (o1.getSchedulePriority() > o2.getSchedulePriority()) {
         return 1;
       }
       return o1.getId().compareTo(o2.getId());
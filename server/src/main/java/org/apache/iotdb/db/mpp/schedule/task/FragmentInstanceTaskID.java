@@ -42,6 +42,11 @@ public class FragmentInstanceTaskID implements ID, Comparable<FragmentInstanceTa
         && id.getInstanceId().equals(((FragmentInstanceTaskID) o).getInstanceId());
   }
 
+  @Override
+  public int hashCode() {
+    return id.getFullId().hashCode();
+  }
+
   public String toString() {
     return id.getFullId();
   }
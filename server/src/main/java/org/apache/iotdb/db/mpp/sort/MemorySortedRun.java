@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sort;
+
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rows of the buffered TsBlocks sorted in place. Only the addresses of the rows are sorted, each of
+ * which is the index of the TsBlock in the high 32 bits and the position in the low 32 bits.
+ */
+public class MemorySortedRun implements SortedRun {
+
+  private final List<TsBlock> tsBlocks;
+  private final long[] addresses;
+  private int index = 0;
+
+  public MemorySortedRun(List<TsBlock> tsBlocks, RowComparator comparator) {
+    this.tsBlocks = tsBlocks;
+    int rowCount = 0;
+    for (TsBlock tsBlock : tsBlocks) {
+      rowCount += tsBlock.getPositionCount();
+    }
+    Long[] boxedAddresses = new Long[rowCount];
+    int i = 0;
+    for (int blockIndex = 0; blockIndex < tsBlocks.size(); blockIndex++) {
+      int positionCount = tsBlocks.get(blockIndex).getPositionCount();
+      for (int position = 0; position < positionCount; position++) {
+        boxedAddresses[i++] = ((long) blockIndex << 32) | position;
+      }
+    }
+    // stable, so rows with equal keys keep their input order
+    Arrays.sort(
+        boxedAddresses,
+        (left, right) ->
+            comparator.compare(
+                tsBlocks.get(blockIndex(left)),
+                position(left),
+                tsBlocks.get(blockIndex(right)),
+                position(right)));
+    this.addresses = new long[rowCount];
+    for (i = 0; i < rowCount; i++) {
+      addresses[i] = boxedAddresses[i];
+    }
+  }
+
+  private static int blockIndex(long address) {
+    return (int) (address >>> 32);
+  }
+
+  private static int position(long address) {
+    return (int) address;
+  }
+
+  @Override
+  public boolean hasRow() {
+    return index < addresses.length;
+  }
+
+  @Override
+  public TsBlock currentTsBlock() {
+    return tsBlocks.get(blockIndex(addresses[index]));
+  }
+
+  @Override
+  public int currentPosition() {
+    return position(addresses[index]);
+  }
+
+  @Override
+  public void next() {
+    index++;
+  }
+
+  @Override
+  public void close() {
+    // the TsBlocks are released by the owner
+  }
+}
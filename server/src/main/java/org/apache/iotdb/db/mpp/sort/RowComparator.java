@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sort;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+
+import java.util.List;
+
+/** Compares rows of TsBlocks with the same schema by a list of {@link SortKey} */
+public class RowComparator {
+
+  private final List<SortKey> sortKeys;
+  private final List<TSDataType> dataTypes;
+
+  /** @param dataTypes types of the value columns */
+  public RowComparator(List<SortKey> sortKeys, List<TSDataType> dataTypes) {
+    this.sortKeys = sortKeys;
+    this.dataTypes = dataTypes;
+  }
+
+  public int compare(TsBlock left, int leftPosition, TsBlock right, int rightPosition) {
+    for (SortKey sortKey : sortKeys) {
+      int result;
+      int columnIndex = sortKey.getColumnIndex();
+      if (columnIndex == SortKey.TIME_COLUMN) {
+        result =
+            Long.compare(left.getTimeByIndex(leftPosition), right.getTimeByIndex(rightPosition));
+      } else {
+        Column leftColumn = left.getColumn(columnIndex);
+        Column rightColumn = right.getColumn(columnIndex);
+        boolean leftNull = leftColumn.isNull(leftPosition);
+        boolean rightNull = rightColumn.isNull(rightPosition);
+        if (leftNull || rightNull) {
+          if (leftNull && rightNull) {
+            continue;
+          }
+          // nulls last regardless of the direction
+          return leftNull ? 1 : -1;
+        }
+        result =
+            compareValue(
+                dataTypes.get(columnIndex), leftColumn, leftPosition, rightColumn, rightPosition);
+      }
+      if (result != 0) {
+        return sortKey.isAscending() ? result : -result;
+      }
+    }
+    return 0;
+  }
+
+  private static int compareValue(
+      TSDataType dataType, Column left, int leftPosition, Column right, int rightPosition) {
+    switch (dataType) {
+      case BOOLEAN:
+        return Boolean.compare(left.getBoolean(leftPosition), right.getBoolean(rightPosition));
+      case INT32:
+        return Integer.compare(left.getInt(leftPosition), right.getInt(rightPosition));
+      case INT64:
+        return Long.compare(left.getLong(leftPosition), right.getLong(rightPosition));
+      case FLOAT:
+        return Float.compare(left.getFloat(leftPosition), right.getFloat(rightPosition));
+      case DOUBLE:
+        return Double.compare(left.getDouble(leftPosition), right.getDouble(rightPosition));
+      case TEXT:
+        return left.getBinary(leftPosition).compareTo(right.getBinary(rightPosition));
+      default:
+        throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sort;
+
+/** A column to sort by and its direction. Null values are always sorted last. */
+public class SortKey {
+
+  // the column index of the timestamps
+  public static final int TIME_COLUMN = -1;
+
+  private final int columnIndex;
+  private final boolean ascending;
+
+  /**
+   * @param columnIndex index of the value column, or {@link #TIME_COLUMN} to sort by time
+   * @param ascending whether the column is sorted in ascending order
+   */
+  public SortKey(int columnIndex, boolean ascending) {
+    this.columnIndex = columnIndex;
+    this.ascending = ascending;
+  }
+
+  public int getColumnIndex() {
+    return columnIndex;
+  }
+
+  public boolean isAscending() {
+    return ascending;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sort;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+
+import java.util.List;
+
+public class SortUtils {
+
+  private SortUtils() {}
+
+  /**
+   * Copy one row of the TsBlock to the builder.
+   *
+   * @param dataTypes types of the value columns
+   * @param columnOffset the index of the first column builder to write
+   */
+  public static void appendRow(
+      TsBlockBuilder builder,
+      TsBlock tsBlock,
+      int position,
+      List<TSDataType> dataTypes,
+      int columnOffset) {
+    builder.getTimeColumnBuilder().writeLong(tsBlock.getTimeByIndex(position));
+    for (int i = 0; i < dataTypes.size(); i++) {
+      ColumnBuilder columnBuilder = builder.getColumnBuilder(columnOffset + i);
+      Column column = tsBlock.getColumn(i);
+      if (column.isNull(position)) {
+        columnBuilder.appendNull();
+        continue;
+      }
+      switch (dataTypes.get(i)) {
+        case BOOLEAN:
+          columnBuilder.writeBoolean(column.getBoolean(position));
+          break;
+        case INT32:
+          columnBuilder.writeInt(column.getInt(position));
+          break;
+        case INT64:
+          columnBuilder.writeLong(column.getLong(position));
+          break;
+        case FLOAT:
+          columnBuilder.writeFloat(column.getFloat(position));
+          break;
+        case DOUBLE:
+          columnBuilder.writeDouble(column.getDouble(position));
+          break;
+        case TEXT:
+          columnBuilder.writeBinary(column.getBinary(position));
+          break;
+        default:
+          throw new UnsupportedOperationException("Unsupported data type: " + dataTypes.get(i));
+      }
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sort;
+
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import java.io.IOException;
+
+/** A sequence of sorted rows, visited row by row in a k-way merge */
+public interface SortedRun extends AutoCloseable {
+
+  /** @return false if all the rows are visited */
+  boolean hasRow() throws IOException;
+
+  /** @return the TsBlock containing the current row */
+  TsBlock currentTsBlock();
+
+  /** @return the position of the current row in {@link #currentTsBlock()} */
+  int currentPosition();
+
+  /** Move to the next row */
+  void next() throws IOException;
+
+  @Override
+  void close() throws IOException;
+}
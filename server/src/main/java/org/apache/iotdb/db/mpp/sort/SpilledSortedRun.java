@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sort;
+
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * A sorted run spilled to a local file, which is a sequence of TsBlocks in the format of {@link
+ * TsBlockSerde}, each prefixed by its length. Only one TsBlock is kept in memory while reading.
+ */
+public class SpilledSortedRun implements SortedRun {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final File file;
+  private final DataInputStream inputStream;
+  private final TsBlockSerde serde = new TsBlockSerde();
+
+  private TsBlock tsBlock;
+  private int position;
+
+  public SpilledSortedRun(File file) throws IOException {
+    this.file = file;
+    this.inputStream =
+        new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE));
+  }
+
+  /** Open a writer of a new run file, the TsBlocks written should be sorted */
+  public static Writer writer(File file) throws IOException {
+    return new Writer(file);
+  }
+
+  @Override
+  public boolean hasRow() throws IOException {
+    while (tsBlock == null || position >= tsBlock.getPositionCount()) {
+      int length;
+      try {
+        length = inputStream.readInt();
+      } catch (EOFException e) {
+        return false;
+      }
+      byte[] bytes = new byte[length];
+      inputStream.readFully(bytes);
+      tsBlock = serde.deserialize(ByteBuffer.wrap(bytes));
+      position = 0;
+    }
+    return true;
+  }
+
+  @Override
+  public TsBlock currentTsBlock() {
+    return tsBlock;
+  }
+
+  @Override
+  public int currentPosition() {
+    return position;
+  }
+
+  @Override
+  public void next() {
+    position++;
+  }
+
+  @Override
+  public void close() throws IOException {
+    tsBlock = null;
+    inputStream.close();
+    Files.deleteIfExists(file.toPath());
+  }
+
+  public static class Writer implements AutoCloseable {
+
+    private final DataOutputStream outputStream;
+    private final TsBlockSerde serde = new TsBlockSerde();
+
+    private Writer(File file) throws IOException {
+      this.outputStream =
+          new DataOutputStream(
+              new BufferedOutputStream(Files.newOutputStream(file.toPath()), BUFFER_SIZE));
+    }
+
+    public void write(TsBlock tsBlock) throws IOException {
+      ByteBuffer buffer = serde.serialize(tsBlock);
+      outputStream.writeInt(buffer.remaining());
+      outputStream.write(
+          buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+
+    @Override
+    public void close() throws IOException {
+      outputStream.close();
+    }
+  }
+}
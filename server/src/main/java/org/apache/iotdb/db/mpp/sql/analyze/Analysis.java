@@ -22,6 +22,7 @@ package org.apache.iotdb.db.mpp.sql.analyze;
 import org.apache.iotdb.commons.partition.DataPartition;
 import org.apache.iotdb.commons.partition.RegionReplicaSet;
 import org.apache.iotdb.commons.partition.SchemaPartition;
+import org.apache.iotdb.commons.partition.TimePartitionSlot;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.mpp.common.header.DatasetHeader;
 import org.apache.iotdb.db.mpp.common.schematree.SchemaTree;
@@ -63,6 +64,11 @@ public class Analysis {
     return dataPartition.getDataRegionReplicaSet(seriesPath.getDevice(), null);
   }
 
+  public List<TimePartitionSlot> getTimePartitionSlots(
+      PartialPath seriesPath, RegionReplicaSet regionReplicaSet) {
+    return dataPartition.getTimePartitionSlots(seriesPath.getDevice(), regionReplicaSet);
+  }
+
   public Statement getStatement() {
     return statement;
   }
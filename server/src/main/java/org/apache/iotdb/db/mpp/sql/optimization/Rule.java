@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.optimization;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
+
+/**
+ * A Rule rewrites the sub-plan rooted at one {@link PlanNode} into an equivalent but cheaper one.
+ * Rules are applied by {@link RuleBasedPlanOptimizer} to every node of the plan until none of them
+ * fires anymore.
+ */
+public interface Rule {
+
+  /**
+   * @return the node replacing {@code node}, or {@code node} itself if the rule does not apply.
+   *     Attributes of the existing nodes may be changed in place, as long as applying the rule
+   *     again to its own output does not change anything.
+   */
+  PlanNode apply(PlanNode node, MPPQueryContext context);
+
+  default String getName() {
+    return getClass().getSimpleName();
+  }
+}
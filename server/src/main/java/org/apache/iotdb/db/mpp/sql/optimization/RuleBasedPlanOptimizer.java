@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.optimization;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.sql.optimization.rule.MergeAdjacentTimeJoins;
+import org.apache.iotdb.db.mpp.sql.optimization.rule.PruneFilterNull;
+import org.apache.iotdb.db.mpp.sql.optimization.rule.PushAggregationIntoSeriesScan;
+import org.apache.iotdb.db.mpp.sql.optimization.rule.PushLimitOffsetIntoSeriesScan;
+import org.apache.iotdb.db.mpp.sql.optimization.rule.PushTimeFilterIntoSeriesScan;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeUtil;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.DeviceMergeNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RuleBasedPlanOptimizer rewrites the logical plan bottom-up with a list of {@link Rule}s. A pass
+ * visits every node once, applying the rules in order, and passes are repeated until one of them
+ * changes nothing.
+ */
+public class RuleBasedPlanOptimizer implements PlanOptimizer {
+
+  private static final Logger logger = LoggerFactory.getLogger(RuleBasedPlanOptimizer.class);
+
+  // guards against rules undoing each other forever
+  private static final int MAX_PASSES = 100;
+
+  private final List<Rule> rules;
+
+  public RuleBasedPlanOptimizer() {
+    this(
+        ImmutableList.of(
+            new PruneFilterNull(),
+            new PushTimeFilterIntoSeriesScan(),
+            new PushLimitOffsetIntoSeriesScan(),
+            new PushAggregationIntoSeriesScan(),
+            new MergeAdjacentTimeJoins()));
+  }
+
+  public RuleBasedPlanOptimizer(List<Rule> rules) {
+    this.rules = rules;
+  }
+
+  @Override
+  public PlanNode optimize(PlanNode plan, MPPQueryContext context) {
+    PlanNode root = plan;
+    for (int pass = 0; pass < MAX_PASSES; pass++) {
+      PassContext passContext = new PassContext(context);
+      root = rewrite(root, passContext);
+      if (!passContext.changed) {
+        if (pass > 0 && logger.isDebugEnabled()) {
+          logger.debug(
+              "plan of query {} after {} optimizing passes:\n{}",
+              context.getQueryId(),
+              pass,
+              PlanNodeUtil.nodeToString(root));
+        }
+        return root;
+      }
+    }
+    logger.warn("rules didn't converge after {} passes, stop optimizing", MAX_PASSES);
+    return root;
+  }
+
+  private PlanNode rewrite(PlanNode node, PassContext passContext) {
+    List<PlanNode> children = node.getChildren();
+    if (children != null) {
+      children = new ArrayList<>(children);
+      for (int i = 0; i < children.size(); i++) {
+        PlanNode child = children.get(i);
+        PlanNode newChild = rewrite(child, passContext);
+        if (newChild != child) {
+          replaceChild(node, i, newChild);
+        }
+      }
+    }
+
+    PlanNode result = node;
+    for (Rule rule : rules) {
+      PlanNode rewritten = rule.apply(result, passContext.queryContext);
+      if (rewritten != result) {
+        logger.debug("rule {} rewrote {} to {}", rule.getName(), result.getPlanNodeId(), rewritten);
+        passContext.changed = true;
+        result = rewritten;
+      }
+    }
+    return result;
+  }
+
+  private static void replaceChild(PlanNode parent, int index, PlanNode newChild) {
+    if (parent instanceof TimeJoinNode) {
+      List<PlanNode> children = new ArrayList<>(parent.getChildren());
+      children.set(index, newChild);
+      ((TimeJoinNode) parent).setChildren(children);
+    } else if (parent instanceof DeviceMergeNode) {
+      parent.getChildren().set(index, newChild);
+    } else {
+      // all the other nodes own a single child, which is replaced by addChild
+      parent.addChild(newChild);
+    }
+  }
+
+  private static class PassContext {
+    private final MPPQueryContext queryContext;
+    private boolean changed;
+
+    private PassContext(MPPQueryContext queryContext) {
+      this.queryContext = queryContext;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.optimization.rule;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.sql.optimization.Rule;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.statement.component.FilterNullPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inlines the children of a TimeJoinNode into its parent TimeJoinNode, saving one merge of every
+ * row. Only a child with the same order and without null filtering can be inlined.
+ */
+public class MergeAdjacentTimeJoins implements Rule {
+
+  @Override
+  public PlanNode apply(PlanNode node, MPPQueryContext context) {
+    if (!(node instanceof TimeJoinNode)) {
+      return node;
+    }
+    TimeJoinNode timeJoinNode = (TimeJoinNode) node;
+    boolean merged = false;
+    List<PlanNode> children = new ArrayList<>();
+    for (PlanNode child : timeJoinNode.getChildren()) {
+      if (canInline(timeJoinNode, child)) {
+        children.addAll(child.getChildren());
+        merged = true;
+      } else {
+        children.add(child);
+      }
+    }
+    if (!merged) {
+      return node;
+    }
+    TimeJoinNode result =
+        new TimeJoinNode(timeJoinNode.getPlanNodeId(), timeJoinNode.getMergeOrder(), children);
+    result.setWithoutPolicy(timeJoinNode.getFilterNullPolicy());
+    return result;
+  }
+
+  private static boolean canInline(TimeJoinNode parent, PlanNode child) {
+    return child instanceof TimeJoinNode
+        && ((TimeJoinNode) child).getMergeOrder() == parent.getMergeOrder()
+        && ((TimeJoinNode) child).getFilterNullPolicy() == FilterNullPolicy.NO_FILTER;
+  }
+}
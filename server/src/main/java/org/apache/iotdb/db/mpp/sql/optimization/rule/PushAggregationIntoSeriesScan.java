@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.optimization.rule;
+
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.sql.optimization.Rule;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.AggregateNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesAggregateScanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.db.mpp.sql.statement.component.FilterNullPolicy;
+import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replaces an AggregateNode over raw SeriesScanNodes by SeriesAggregateScanNodes, which aggregate
+ * each series where it is read and can use the statistics of files, chunks and pages.
+ *
+ * <p>As a TimeJoinNode without null filtering never drops a value, the aggregation of one column of
+ * its output equals the aggregation of the series alone, so the scans may sit below a TimeJoinNode.
+ * Scans with a value filter, limit or offset are left alone.
+ */
+public class PushAggregationIntoSeriesScan implements Rule {
+
+  @Override
+  public PlanNode apply(PlanNode node, MPPQueryContext context) {
+    if (!(node instanceof AggregateNode)) {
+      return node;
+    }
+    AggregateNode aggregateNode = (AggregateNode) node;
+    if (aggregateNode.getAggregateFuncMap().isEmpty()) {
+      return node;
+    }
+    PlanNode child = aggregateNode.getChildren().get(0);
+
+    List<PlanNode> scanNodes = new ArrayList<>();
+    OrderBy mergeOrder;
+    if (child instanceof SeriesScanNode) {
+      scanNodes.add(child);
+      mergeOrder = ((SeriesScanNode) child).getScanOrder();
+    } else if (child instanceof TimeJoinNode
+        && ((TimeJoinNode) child).getFilterNullPolicy() == FilterNullPolicy.NO_FILTER) {
+      scanNodes.addAll(child.getChildren());
+      mergeOrder = ((TimeJoinNode) child).getMergeOrder();
+    } else {
+      return node;
+    }
+
+    Map<PartialPath, SeriesScanNode> pathToScanNode = new HashMap<>();
+    for (PlanNode scanNode : scanNodes) {
+      if (!(scanNode instanceof SeriesScanNode) || !isPlainScan((SeriesScanNode) scanNode)) {
+        return node;
+      }
+      pathToScanNode.put(((SeriesScanNode) scanNode).getSeriesPath(), (SeriesScanNode) scanNode);
+    }
+
+    // keep the column order of the AggregateNode
+    List<PlanNode> aggregateScanNodes = new ArrayList<>();
+    for (Map.Entry<PartialPath, Set<AggregationType>> entry :
+        aggregateNode.getAggregateFuncMap().entrySet()) {
+      SeriesScanNode scanNode = pathToScanNode.get(entry.getKey());
+      if (scanNode == null) {
+        return node;
+      }
+      aggregateScanNodes.add(
+          new SeriesAggregateScanNode(
+              context.getQueryId().genPlanNodeId(),
+              scanNode.getSeriesPath(),
+              new ArrayList<>(entry.getValue()),
+              scanNode.getScanOrder(),
+              scanNode.getTimeFilter(),
+              aggregateNode.getGroupByTimeParameter()));
+    }
+    if (aggregateScanNodes.size() == 1) {
+      return aggregateScanNodes.get(0);
+    }
+    return new TimeJoinNode(aggregateNode.getPlanNodeId(), mergeOrder, aggregateScanNodes);
+  }
+
+  private static boolean isPlainScan(SeriesScanNode scanNode) {
+    return scanNode.getValueFilter() == null
+        && scanNode.getLimit() <= 0
+        && scanNode.getOffset() <= 0;
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.optimization.rule;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.sql.optimization.Rule;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.LimitNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.OffsetNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.db.mpp.sql.statement.component.FilterNullPolicy;
+
+/**
+ * Pushes LimitNode and OffsetNode into SeriesScanNodes.
+ *
+ * <p>A LimitNode or OffsetNode right above a SeriesScanNode is merged into the scan. A LimitNode
+ * above a TimeJoinNode of SeriesScanNodes is kept, but as the first n rows of an outer join on time
+ * only come from the first n rows of every input, each scan stops after limit (plus the offsets in
+ * between) rows.
+ */
+public class PushLimitOffsetIntoSeriesScan implements Rule {
+
+  @Override
+  public PlanNode apply(PlanNode node, MPPQueryContext context) {
+    if (node instanceof LimitNode) {
+      return pushLimit((LimitNode) node);
+    }
+    if (node instanceof OffsetNode) {
+      return pushOffset((OffsetNode) node);
+    }
+    return node;
+  }
+
+  private PlanNode pushLimit(LimitNode limitNode) {
+    int limit = limitNode.getLimit();
+    PlanNode child = limitNode.getChild();
+    if (child instanceof SeriesScanNode) {
+      SeriesScanNode scanNode = (SeriesScanNode) child;
+      scanNode.setLimit(scanNode.getLimit() > 0 ? Math.min(scanNode.getLimit(), limit) : limit);
+      return scanNode;
+    }
+
+    long rowsNeeded = limit;
+    while (child instanceof OffsetNode) {
+      rowsNeeded += ((OffsetNode) child).getOffset();
+      child = ((OffsetNode) child).getChild();
+    }
+    if (rowsNeeded > Integer.MAX_VALUE
+        || !(child instanceof TimeJoinNode)
+        || ((TimeJoinNode) child).getFilterNullPolicy() != FilterNullPolicy.NO_FILTER) {
+      return limitNode;
+    }
+    for (PlanNode scanNode : child.getChildren()) {
+      if (!(scanNode instanceof SeriesScanNode) || ((SeriesScanNode) scanNode).getOffset() > 0) {
+        return limitNode;
+      }
+    }
+    for (PlanNode scanNode : child.getChildren()) {
+      SeriesScanNode seriesScanNode = (SeriesScanNode) scanNode;
+      if (seriesScanNode.getLimit() <= 0 || seriesScanNode.getLimit() > rowsNeeded) {
+        seriesScanNode.setLimit((int) rowsNeeded);
+      }
+    }
+    return limitNode;
+  }
+
+  private PlanNode pushOffset(OffsetNode offsetNode) {
+    if (!(offsetNode.getChild() instanceof SeriesScanNode)) {
+      return offsetNode;
+    }
+    int offset = offsetNode.getOffset();
+    SeriesScanNode scanNode = (SeriesScanNode) offsetNode.getChild();
+    if (scanNode.getLimit() <= 0) {
+      scanNode.setOffset(scanNode.getOffset() + offset);
+      return scanNode;
+    }
+    // the offset is applied on the rows left by the limit of the scan
+    if (scanNode.getLimit() > offset) {
+      scanNode.setOffset(scanNode.getOffset() + offset);
+      scanNode.setLimit(scanNode.getLimit() - offset);
+      return scanNode;
+    }
+    // nothing is left, which the scan can't express as limit 0 means no limit
+    return offsetNode;
+  }
+}
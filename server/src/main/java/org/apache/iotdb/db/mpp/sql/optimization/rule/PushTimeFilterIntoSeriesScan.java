@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.optimization.rule;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.sql.optimization.Rule;
+import org.apache.iotdb.db.mpp.sql.planner.plan.IOutputPlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.FilterNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves a FilterNode whose predicate only restricts the time into the SeriesScanNodes below it, so
+ * that files, chunks and pages out of the time range are skipped by their statistics.
+ *
+ * <p>The FilterNode is removed if it sits on a SeriesScanNode, or on a TimeJoinNode of
+ * SeriesScanNodes, and keeps all the columns of its child.
+ */
+public class PushTimeFilterIntoSeriesScan implements Rule {
+
+  @Override
+  public PlanNode apply(PlanNode node, MPPQueryContext context) {
+    if (!(node instanceof FilterNode)
+        || !(((FilterNode) node).getPredicate() instanceof GlobalTimeExpression)) {
+      return node;
+    }
+    FilterNode filterNode = (FilterNode) node;
+    PlanNode child = filterNode.getChild();
+    if (!filterNode
+        .getOutputColumnNames()
+        .equals(((IOutputPlanNode) child).getOutputColumnNames())) {
+      return node;
+    }
+
+    List<SeriesScanNode> scanNodes = new ArrayList<>();
+    if (child instanceof SeriesScanNode) {
+      scanNodes.add((SeriesScanNode) child);
+    } else if (child instanceof TimeJoinNode) {
+      for (PlanNode scanNode : child.getChildren()) {
+        if (!(scanNode instanceof SeriesScanNode)) {
+          return node;
+        }
+        scanNodes.add((SeriesScanNode) scanNode);
+      }
+    } else {
+      return node;
+    }
+    for (SeriesScanNode scanNode : scanNodes) {
+      // the filter must not be evaluated after the rows cut by limit and offset
+      if (scanNode.getLimit() > 0 || scanNode.getOffset() > 0) {
+        return node;
+      }
+    }
+
+    Filter timeFilter = ((GlobalTimeExpression) filterNode.getPredicate()).getFilter();
+    for (SeriesScanNode scanNode : scanNodes) {
+      scanNode.setTimeFilter(
+          scanNode.getTimeFilter() == null
+              ? timeFilter
+              : FilterFactory.and(scanNode.getTimeFilter(), timeFilter));
+    }
+    return child;
+  }
+}
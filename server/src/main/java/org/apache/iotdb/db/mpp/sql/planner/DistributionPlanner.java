@@ -19,8 +19,13 @@
 package org.apache.iotdb.db.mpp.sql.planner;
 
 import org.apache.iotdb.commons.partition.RegionReplicaSet;
+import org.apache.iotdb.commons.partition.TimePartitionSlot;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.mpp.aggregation.AggregationStep;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
 import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.memory.LocalMemoryManager;
 import org.apache.iotdb.db.mpp.sql.analyze.Analysis;
 import org.apache.iotdb.db.mpp.sql.analyze.QueryType;
 import org.apache.iotdb.db.mpp.sql.planner.plan.DistributedQueryPlan;
@@ -41,9 +46,16 @@ import org.apache.iotdb.db.mpp.sql.planner.plan.node.metedata.read.SchemaMergeNo
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.metedata.read.SchemaScanNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.ExchangeNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeSplitMergeNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.sink.FragmentSinkNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesAggregateScanNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SourceNode;
+import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilderStatus;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -134,6 +146,30 @@ public class DistributionPlanner {
     rootInstance.getFragment().setRoot(sinkNode);
   }
 
+  /**
+   * The parallelism of a series scan on one DataRegion is bounded by the CPU cores and by the
+   * memory of a query, as each split holds at least one TsBlock in its scan and one in the
+   * exchange.
+   */
+  private static int getMaxSeriesScanParallelism() {
+    long maxSplitCountByMemory =
+        LocalMemoryManager.getMaxBytesPerQuery()
+            / (2L * TsBlockBuilderStatus.DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES);
+    return (int)
+        Math.max(
+            1,
+            Math.min(
+                IoTDBDescriptor.getInstance().getConfig().getMaxSeriesScanParallelism(),
+                maxSplitCountByMemory));
+  }
+
+  private static RegionReplicaSet getSourceRegion(PlanNode node) {
+    if (node instanceof SourceNode) {
+      return ((SourceNode) node).getRegionReplicaSet();
+    }
+    return getSourceRegion(node.getChildren().get(0));
+  }
+
   private PlanFragmentId getNextFragmentId() {
     return new PlanFragmentId(this.logicalPlan.getContext().getQueryId(), this.planFragmentIndex++);
   }
@@ -174,13 +210,19 @@ public class DistributionPlanner {
       return root;
     }
 
+    @Override
+    public PlanNode visitSeriesAggregate(
+        SeriesAggregateScanNode node, DistributionPlanContext context) {
+      return splitSeriesAggregateScan(node, context);
+    }
+
     @Override
     public PlanNode visitTimeJoin(TimeJoinNode node, DistributionPlanContext context) {
       TimeJoinNode root = (TimeJoinNode) node.clone();
 
       // Step 1: Get all source nodes. For the node which is not source, add it as the child of
       // current TimeJoinNode
-      List<SeriesScanNode> sources = new ArrayList<>();
+      List<PlanNode> sources = new ArrayList<>();
       for (PlanNode child : node.getChildren()) {
         if (child instanceof SeriesScanNode) {
           // If the child is SeriesScanNode, we need to check whether this node should be seperated
@@ -191,16 +233,12 @@ public class DistributionPlanner {
           // If the size of dataDistribution is m, this SeriesScanNode should be seperated into m
           // SeriesScanNode.
           for (RegionReplicaSet dataRegion : dataDistribution) {
-            SeriesScanNode split = (SeriesScanNode) handle.clone();
-            split.setPlanNodeId(context.queryContext.getQueryId().genPlanNodeId());
-            split.setRegionReplicaSet(dataRegion);
-            sources.add(split);
+            sources.add(splitSeriesScan(handle, dataRegion, context));
           }
         } else if (child instanceof SeriesAggregateScanNode) {
-          // TODO: (xingtanzjr) We should do the same thing for SeriesAggregateScanNode. Consider to
-          // make SeriesAggregateScanNode
-          // and SeriesScanNode to derived from the same parent Class because they have similar
-          // process logic in many scenarios
+          // The partial results of all the splits are merged before the TimeJoinNode, so that the
+          // aggregation of one series is still one group of columns.
+          sources.add(splitSeriesAggregateScan((SeriesAggregateScanNode) child, context));
         } else {
           // In a general logical query plan, the children of TimeJoinNode should only be
           // SeriesScanNode or SeriesAggregateScanNode
@@ -210,27 +248,27 @@ public class DistributionPlanner {
       }
 
       // Step 2: For the source nodes, group them by the DataRegion.
-      Map<RegionReplicaSet, List<SeriesScanNode>> sourceGroup =
-          sources.stream().collect(Collectors.groupingBy(SeriesScanNode::getRegionReplicaSet));
+      Map<RegionReplicaSet, List<PlanNode>> sourceGroup =
+          sources.stream().collect(Collectors.groupingBy(DistributionPlanner::getSourceRegion));
       // Step 3: For the source nodes which belong to same data region, add a TimeJoinNode for them
       // and make the
       // new TimeJoinNode as the child of current TimeJoinNode
       // TODO: (xingtanzjr) optimize the procedure here to remove duplicated TimeJoinNode
       final boolean[] addParent = {false};
       sourceGroup.forEach(
-          (dataRegion, seriesScanNodes) -> {
-            if (seriesScanNodes.size() == 1) {
-              root.addChild(seriesScanNodes.get(0));
+          (dataRegion, sourceNodes) -> {
+            if (sourceNodes.size() == 1) {
+              root.addChild(sourceNodes.get(0));
             } else {
               if (!addParent[0]) {
-                seriesScanNodes.forEach(root::addChild);
+                sourceNodes.forEach(root::addChild);
                 addParent[0] = true;
               } else {
                 // We clone a TimeJoinNode from root to make the params to be consistent.
                 // But we need to assign a new ID to it
                 TimeJoinNode parentOfGroup = (TimeJoinNode) root.clone();
                 root.setPlanNodeId(context.queryContext.getQueryId().genPlanNodeId());
-                seriesScanNodes.forEach(parentOfGroup::addChild);
+                sourceNodes.forEach(parentOfGroup::addChild);
                 root.addChild(parentOfGroup);
               }
             }
@@ -239,6 +277,104 @@ public class DistributionPlanner {
       return root;
     }
 
+    /**
+     * Split the scan of one series on one DataRegion by its time partitions. The splits are
+     * concatenated by a TimeSplitMergeNode in the scan order.
+     */
+    private PlanNode splitSeriesScan(
+        SeriesScanNode node, RegionReplicaSet dataRegion, DistributionPlanContext context) {
+      // The limit and offset can't be applied to each split separately
+      List<Filter> splitTimeFilters =
+          node.getLimit() > 0 || node.getOffset() > 0
+              ? Collections.singletonList(node.getTimeFilter())
+              : splitTimeFilter(node.getSeriesPath(), node.getTimeFilter(), dataRegion);
+      List<PlanNode> splits = new ArrayList<>();
+      for (Filter splitTimeFilter : splitTimeFilters) {
+        SeriesScanNode split = (SeriesScanNode) node.clone();
+        split.setPlanNodeId(context.queryContext.getQueryId().genPlanNodeId());
+        split.setRegionReplicaSet(dataRegion);
+        split.setTimeFilter(splitTimeFilter);
+        splits.add(split);
+      }
+      if (splits.size() == 1) {
+        return splits.get(0);
+      }
+      if (node.getScanOrder() == OrderBy.TIMESTAMP_DESC) {
+        Collections.reverse(splits);
+      }
+      return new TimeSplitMergeNode(
+          context.queryContext.getQueryId().genPlanNodeId(),
+          node.getScanOrder(),
+          Collections.emptyList(),
+          splits);
+    }
+
+    /**
+     * Split the aggregation of one series by its DataRegions and the time partitions of each
+     * DataRegion. The splits output partial results, which are merged by a TimeSplitMergeNode.
+     */
+    private PlanNode splitSeriesAggregateScan(
+        SeriesAggregateScanNode node, DistributionPlanContext context) {
+      List<PlanNode> splits = new ArrayList<>();
+      for (RegionReplicaSet dataRegion :
+          analysis.getPartitionInfo(node.getSeriesPath(), node.getTimeFilter())) {
+        for (Filter splitTimeFilter :
+            splitTimeFilter(node.getSeriesPath(), node.getTimeFilter(), dataRegion)) {
+          SeriesAggregateScanNode split = (SeriesAggregateScanNode) node.clone();
+          split.setPlanNodeId(context.queryContext.getQueryId().genPlanNodeId());
+          split.setRegionReplicaSet(dataRegion);
+          split.setTimeFilter(splitTimeFilter);
+          splits.add(split);
+        }
+      }
+      if (splits.size() == 1) {
+        return splits.get(0);
+      }
+      splits.forEach(split -> ((SeriesAggregateScanNode) split).setStep(AggregationStep.PARTIAL));
+      return new TimeSplitMergeNode(
+          context.queryContext.getQueryId().genPlanNodeId(),
+          node.getScanOrder(),
+          node.getAggregateFuncList(),
+          splits);
+    }
+
+    /**
+     * Divide the time partitions of the series on the DataRegion into groups of adjacent ones, and
+     * return the time filter of each group. The time range of a group starts at its first time
+     * partition, and the first and the last group are unbounded so that no data is missed.
+     */
+    private List<Filter> splitTimeFilter(
+        PartialPath seriesPath, Filter timeFilter, RegionReplicaSet dataRegion) {
+      List<TimePartitionSlot> timePartitionSlots =
+          analysis.getTimePartitionSlots(seriesPath, dataRegion);
+      int splitCount = Math.min(timePartitionSlots.size(), getMaxSeriesScanParallelism());
+      if (splitCount <= 1) {
+        return Collections.singletonList(timeFilter);
+      }
+      List<Filter> splitTimeFilters = new ArrayList<>(splitCount);
+      for (int i = 0; i < splitCount; i++) {
+        Filter rangeFilter = null;
+        if (i > 0) {
+          long startTime =
+              timePartitionSlots.get(i * timePartitionSlots.size() / splitCount).getStartTime();
+          rangeFilter = TimeFilter.gtEq(startTime);
+        }
+        if (i < splitCount - 1) {
+          long endTime =
+              timePartitionSlots
+                  .get((i + 1) * timePartitionSlots.size() / splitCount)
+                  .getStartTime();
+          rangeFilter =
+              rangeFilter == null
+                  ? TimeFilter.lt(endTime)
+                  : FilterFactory.and(rangeFilter, TimeFilter.lt(endTime));
+        }
+        splitTimeFilters.add(
+            timeFilter == null ? rangeFilter : FilterFactory.and(timeFilter, rangeFilter));
+      }
+      return splitTimeFilters;
+    }
+
     public PlanNode visit(PlanNode node, DistributionPlanContext context) {
       return node.accept(this, context);
     }
@@ -375,6 +511,33 @@ public class DistributionPlanner {
       return newNode;
     }
 
+    @Override
+    public PlanNode visitTimeSplitMerge(TimeSplitMergeNode node, NodeGroupContext context) {
+      TimeSplitMergeNode newNode = (TimeSplitMergeNode) node.clone();
+      List<PlanNode> visitedChildren = new ArrayList<>();
+      node.getChildren()
+          .forEach(
+              child -> {
+                visitedChildren.add(visit(child, context));
+              });
+
+      // The node runs with its first split. Each of the other splits is put into its own
+      // FragmentInstance even if it is in the same DataRegion, so that the splits run in parallel.
+      RegionReplicaSet dataRegion =
+          context.getNodeDistribution(visitedChildren.get(0).getPlanNodeId()).region;
+      context.putNodeDistribution(
+          newNode.getPlanNodeId(),
+          new NodeDistribution(NodeDistributionType.SAME_WITH_SOME_CHILD, dataRegion));
+      newNode.addChild(visitedChildren.get(0));
+      for (int i = 1; i < visitedChildren.size(); i++) {
+        ExchangeNode exchangeNode =
+            new ExchangeNode(context.queryContext.getQueryId().genPlanNodeId());
+        exchangeNode.setChild(visitedChildren.get(i));
+        newNode.addChild(exchangeNode);
+      }
+      return newNode;
+    }
+
     private RegionReplicaSet calculateDataRegionByChildren(
         List<PlanNode> children, NodeGroupContext context) {
       // Step 1: calculate the count of children group by DataRegion.
@@ -23,6 +23,11 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.metadata.schemaregion.ISchemaRegion;
+import org.apache.iotdb.db.mpp.aggregation.Accumulator;
+import org.apache.iotdb.db.mpp.aggregation.AccumulatorFactory;
+import org.apache.iotdb.db.mpp.aggregation.AggregationStep;
+import org.apache.iotdb.db.mpp.aggregation.Aggregator;
+import org.apache.iotdb.db.mpp.aggregation.InputLocation;
 import org.apache.iotdb.db.mpp.buffer.DataBlockManager;
 import org.apache.iotdb.db.mpp.buffer.DataBlockService;
 import org.apache.iotdb.db.mpp.buffer.ISinkHandle;
@@ -35,14 +40,17 @@ import org.apache.iotdb.db.mpp.execution.SchemaDriver;
 import org.apache.iotdb.db.mpp.execution.SchemaDriverContext;
 import org.apache.iotdb.db.mpp.operator.Operator;
 import org.apache.iotdb.db.mpp.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.operator.process.AggregateOperator;
 import org.apache.iotdb.db.mpp.operator.process.LimitOperator;
 import org.apache.iotdb.db.mpp.operator.process.TimeJoinOperator;
+import org.apache.iotdb.db.mpp.operator.process.TimeSplitMergeOperator;
 import org.apache.iotdb.db.mpp.operator.schema.DevicesSchemaScanOperator;
 import org.apache.iotdb.db.mpp.operator.schema.SchemaFetchOperator;
 import org.apache.iotdb.db.mpp.operator.schema.SchemaMergeOperator;
 import org.apache.iotdb.db.mpp.operator.schema.TimeSeriesSchemaScanOperator;
 import org.apache.iotdb.db.mpp.operator.source.DataSourceOperator;
 import org.apache.iotdb.db.mpp.operator.source.ExchangeOperator;
+import org.apache.iotdb.db.mpp.operator.source.SeriesAggregateScanOperator;
 import org.apache.iotdb.db.mpp.operator.source.SeriesScanOperator;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanVisitor;
@@ -61,6 +69,7 @@ import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.LimitNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.OffsetNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.SortNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeSplitMergeNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.sink.FragmentSinkNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesAggregateScanNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesScanNode;
@@ -69,6 +78,7 @@ import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -150,7 +160,9 @@ public class LocalExecutionPlanner {
               operatorContext,
               node.getTimeFilter(),
               node.getValueFilter(),
-              ascending);
+              ascending,
+              node.getLimit(),
+              node.getOffset());
 
       context.addSourceOperator(seriesScanOperator);
       context.addPath(seriesPath);
@@ -214,7 +226,30 @@ public class LocalExecutionPlanner {
     @Override
     public Operator visitSeriesAggregate(
         SeriesAggregateScanNode node, LocalExecutionPlanContext context) {
-      return super.visitSeriesAggregate(node, context);
+      PartialPath seriesPath = node.getSeriesPath();
+      boolean ascending = node.getScanOrder() == OrderBy.TIMESTAMP_ASC;
+      OperatorContext operatorContext =
+          context.instanceContext.addOperatorContext(
+              context.getNextOperatorId(),
+              node.getPlanNodeId(),
+              SeriesAggregateScanOperator.class.getSimpleName());
+
+      SeriesAggregateScanOperator aggregateScanOperator =
+          new SeriesAggregateScanOperator(
+              node.getPlanNodeId(),
+              seriesPath,
+              Collections.singleton(seriesPath.getMeasurement()),
+              operatorContext,
+              node.getAggregateFuncList(),
+              node.getStep(),
+              node.getTimeFilter(),
+              ascending,
+              node.getGroupByTimeParameter());
+
+      context.addSourceOperator(aggregateScanOperator);
+      context.addPath(seriesPath);
+
+      return aggregateScanOperator;
     }
 
     @Override
@@ -249,6 +284,9 @@ public class LocalExecutionPlanner {
     @Override
     public Operator visitLimit(LimitNode node, LocalExecutionPlanContext context) {
       Operator child = node.getChild().accept(this, context);
+      if (child instanceof TimeJoinOperator) {
+        ((TimeJoinOperator) child).setLimit(node.getLimit());
+      }
       return new LimitOperator(
           context.instanceContext.addOperatorContext(
               context.getNextOperatorId(),
@@ -289,6 +327,51 @@ public class LocalExecutionPlanner {
           operatorContext, children, node.getMergeOrder(), node.getOutputColumnTypes());
     }
 
+    @Override
+    public Operator visitTimeSplitMerge(
+        TimeSplitMergeNode node, LocalExecutionPlanContext context) {
+      List<Operator> children =
+          node.getChildren().stream()
+              .map(child -> child.accept(this, context))
+              .collect(Collectors.toList());
+      if (!node.isAggregation()) {
+        OperatorContext operatorContext =
+            context.instanceContext.addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                TimeSplitMergeOperator.class.getSimpleName());
+        return new TimeSplitMergeOperator(operatorContext, children);
+      }
+
+      // merge the partial results of the splits, the intermediate columns of each aggregation
+      // follow the ones of the previous aggregation in the output of every split
+      boolean ascending = node.getMergeOrder() == OrderBy.TIMESTAMP_ASC;
+      List<Aggregator> aggregators = new ArrayList<>();
+      int columnIndex = 0;
+      for (int i = 0; i < node.getAggregateFuncList().size(); i++) {
+        Accumulator accumulator =
+            AccumulatorFactory.createAccumulator(
+                node.getAggregateFuncList().get(i), node.getOutputColumnTypes().get(i), ascending);
+        int intermediateColumnCount = accumulator.getIntermediateType().length;
+        List<InputLocation[]> inputLocationList = new ArrayList<>(children.size());
+        for (int child = 0; child < children.size(); child++) {
+          InputLocation[] locations = new InputLocation[intermediateColumnCount];
+          for (int j = 0; j < intermediateColumnCount; j++) {
+            locations[j] = new InputLocation(child, columnIndex + j);
+          }
+          inputLocationList.add(locations);
+        }
+        aggregators.add(new Aggregator(accumulator, AggregationStep.FINAL, inputLocationList));
+        columnIndex += intermediateColumnCount;
+      }
+      OperatorContext operatorContext =
+          context.instanceContext.addOperatorContext(
+              context.getNextOperatorId(),
+              node.getPlanNodeId(),
+              AggregateOperator.class.getSimpleName());
+      return new AggregateOperator(operatorContext, children, aggregators);
+    }
+
     @Override
     public Operator visitExchange(ExchangeNode node, LocalExecutionPlanContext context) {
       OperatorContext operatorContext =
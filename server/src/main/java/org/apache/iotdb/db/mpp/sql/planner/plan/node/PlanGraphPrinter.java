@@ -19,10 +19,16 @@
 
 package org.apache.iotdb.db.mpp.sql.planner.plan.node;
 
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.AggregateNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.ExchangeNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.FilterNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.FilterNullNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.LimitNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.OffsetNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeSplitMergeNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.sink.FragmentSinkNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesAggregateScanNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesScanNode;
 
 import org.apache.commons.lang3.Validate;
@@ -60,7 +66,59 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     List<String> boxValue = new ArrayList<>();
     boxValue.add(String.format("SeriesScanNode-%s", node.getPlanNodeId().getId()));
     boxValue.add(String.format("Series: %s", node.getSeriesPath()));
-    boxValue.add(String.format("Partition: %s", node.getRegionReplicaSet().getConsensusGroupId()));
+    if (node.getTimeFilter() != null) {
+      boxValue.add(String.format("TimeFilter: %s", node.getTimeFilter()));
+    }
+    if (node.getLimit() > 0) {
+      boxValue.add(String.format("Limit: %d", node.getLimit()));
+    }
+    if (node.getOffset() > 0) {
+      boxValue.add(String.format("Offset: %d", node.getOffset()));
+    }
+    if (node.getRegionReplicaSet() != null) {
+      boxValue.add(
+          String.format("Partition: %s", node.getRegionReplicaSet().getConsensusGroupId()));
+    }
+    return render(node, boxValue, context);
+  }
+
+  @Override
+  public List<String> visitSeriesAggregate(SeriesAggregateScanNode node, GraphContext context) {
+    List<String> boxValue = new ArrayList<>();
+    boxValue.add(String.format("SeriesAggregateScanNode-%s", node.getPlanNodeId().getId()));
+    boxValue.add(String.format("Series: %s", node.getSeriesPath()));
+    boxValue.add(String.format("Aggregations: %s", node.getAggregateFuncList()));
+    if (node.getTimeFilter() != null) {
+      boxValue.add(String.format("TimeFilter: %s", node.getTimeFilter()));
+    }
+    if (node.getRegionReplicaSet() != null) {
+      boxValue.add(
+          String.format("Partition: %s", node.getRegionReplicaSet().getConsensusGroupId()));
+    }
+    return render(node, boxValue, context);
+  }
+
+  @Override
+  public List<String> visitRowBasedSeriesAggregate(AggregateNode node, GraphContext context) {
+    List<String> boxValue = new ArrayList<>();
+    boxValue.add(String.format("AggregateNode-%s", node.getPlanNodeId().getId()));
+    boxValue.add(String.format("Aggregations: %s", node.getAggregateFuncMap()));
+    return render(node, boxValue, context);
+  }
+
+  @Override
+  public List<String> visitFilter(FilterNode node, GraphContext context) {
+    List<String> boxValue = new ArrayList<>();
+    boxValue.add(String.format("FilterNode-%s", node.getPlanNodeId().getId()));
+    boxValue.add(String.format("Predicate: %s", node.getPredicate()));
+    return render(node, boxValue, context);
+  }
+
+  @Override
+  public List<String> visitFilterNull(FilterNullNode node, GraphContext context) {
+    List<String> boxValue = new ArrayList<>();
+    boxValue.add(String.format("FilterNullNode-%s", node.getPlanNodeId().getId()));
+    boxValue.add(String.format("Policy: %s", node.getDiscardPolicy()));
     return render(node, boxValue, context);
   }
 
@@ -79,6 +137,17 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     return render(node, boxValue, context);
   }
 
+  @Override
+  public List<String> visitTimeSplitMerge(TimeSplitMergeNode node, GraphContext context) {
+    List<String> boxValue = new ArrayList<>();
+    boxValue.add(String.format("TimeSplitMergeNode-%s", node.getPlanNodeId().getId()));
+    boxValue.add(String.format("Order: %s", node.getMergeOrder()));
+    if (node.isAggregation()) {
+      boxValue.add(String.format("AggregateFunctions: %s", node.getAggregateFuncList()));
+    }
+    return render(node, boxValue, context);
+  }
+
   @Override
   public List<String> visitLimit(LimitNode node, GraphContext context) {
     List<String> boxValue = new ArrayList<>();
@@ -87,6 +156,14 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     return render(node, boxValue, context);
   }
 
+  @Override
+  public List<String> visitOffset(OffsetNode node, GraphContext context) {
+    List<String> boxValue = new ArrayList<>();
+    boxValue.add(String.format("Offset-%s", node.getPlanNodeId().getId()));
+    boxValue.add(String.format("Count: %d", node.getOffset()));
+    return render(node, boxValue, context);
+  }
+
   @Override
   public List<String> visitFragmentSink(FragmentSinkNode node, GraphContext context) {
     List<String> boxValue = new ArrayList<>();
@@ -39,6 +39,7 @@ import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.LimitNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.OffsetNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.SortNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeSplitMergeNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.sink.FragmentSinkNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesAggregateScanNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesScanNode;
@@ -81,7 +82,8 @@ public enum PlanNodeType {
   // TODO @xinzhongtianxia remove this
   SHOW_DEVICES((short) 25),
   SCHEMA_FETCH((short) 26),
-  SCHEMA_MERGE((short) 27);
+  SCHEMA_MERGE((short) 27),
+  TIME_SPLIT_MERGE((short) 28);
 
   private final short nodeType;
 
@@ -165,6 +167,8 @@ public enum PlanNodeType {
         return SchemaFetchNode.deserialize(buffer);
       case 27:
         return SchemaMergeNode.deserialize(buffer);
+      case 28:
+        return TimeSplitMergeNode.deserialize(buffer);
       default:
         throw new IllegalArgumentException("Invalid node type: " + nodeType);
     }
@@ -124,6 +124,14 @@ public class AggregateNode extends ProcessNode implements IOutputPlanNode {
     return columnHeaders.stream().map(ColumnHeader::getColumnType).collect(Collectors.toList());
   }
 
+  public Map<PartialPath, Set<AggregationType>> getAggregateFuncMap() {
+    return aggregateFuncMap;
+  }
+
+  public GroupByTimeComponent getGroupByTimeParameter() {
+    return groupByTimeParameter;
+  }
+
   @Override
   public <R, C> R accept(PlanVisitor<R, C> visitor, C context) {
     return visitor.visitRowBasedSeriesAggregate(this, context);
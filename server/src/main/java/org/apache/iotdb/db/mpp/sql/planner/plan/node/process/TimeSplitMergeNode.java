@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.planner.plan.node.process;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.mpp.common.header.ColumnHeader;
+import org.apache.iotdb.db.mpp.sql.planner.plan.IOutputPlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeType;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * This node merges the time splits of one series scan. Each child reads the same series in a
+ * disjoint time range, so that the splits can run in parallel fragment instances.
+ *
+ * <p>If the split is a SeriesScanNode, the children belong to the same DataRegion, they are ordered
+ * by the mergeOrder and their output is concatenated. If the split is a SeriesAggregateScanNode at
+ * PARTIAL step, aggregateFuncList is not empty and the partial results of all the children, which
+ * may belong to different DataRegions, are merged into the final result.
+ */
+public class TimeSplitMergeNode extends ProcessNode implements IOutputPlanNode {
+
+  // The order of the time ranges of the children.
+  private final OrderBy mergeOrder;
+
+  // The aggregation functions of the splits, empty if the splits are raw data scans.
+  private final List<AggregationType> aggregateFuncList;
+
+  private List<PlanNode> children;
+
+  private List<ColumnHeader> columnHeaders = new ArrayList<>();
+
+  public TimeSplitMergeNode(
+      PlanNodeId id, OrderBy mergeOrder, List<AggregationType> aggregateFuncList) {
+    super(id);
+    this.mergeOrder = mergeOrder;
+    this.aggregateFuncList = aggregateFuncList;
+    this.children = new ArrayList<>();
+  }
+
+  public TimeSplitMergeNode(
+      PlanNodeId id,
+      OrderBy mergeOrder,
+      List<AggregationType> aggregateFuncList,
+      List<PlanNode> children) {
+    this(id, mergeOrder, aggregateFuncList);
+    this.children = children;
+    this.columnHeaders = ((IOutputPlanNode) children.get(0)).getOutputColumnHeaders();
+  }
+
+  @Override
+  public List<PlanNode> getChildren() {
+    return children;
+  }
+
+  @Override
+  public void addChild(PlanNode child) {
+    this.children.add(child);
+  }
+
+  @Override
+  public PlanNode clone() {
+    TimeSplitMergeNode cloneNode =
+        new TimeSplitMergeNode(getPlanNodeId(), mergeOrder, aggregateFuncList);
+    cloneNode.columnHeaders = this.columnHeaders;
+    return cloneNode;
+  }
+
+  @Override
+  public int allowedChildCount() {
+    return CHILD_COUNT_NO_LIMIT;
+  }
+
+  @Override
+  public List<ColumnHeader> getOutputColumnHeaders() {
+    return columnHeaders;
+  }
+
+  @Override
+  public List<String> getOutputColumnNames() {
+    return columnHeaders.stream().map(ColumnHeader::getColumnName).collect(Collectors.toList());
+  }
+
+  @Override
+  public List<TSDataType> getOutputColumnTypes() {
+    return columnHeaders.stream().map(ColumnHeader::getColumnType).collect(Collectors.toList());
+  }
+
+  public OrderBy getMergeOrder() {
+    return mergeOrder;
+  }
+
+  public List<AggregationType> getAggregateFuncList() {
+    return aggregateFuncList;
+  }
+
+  public boolean isAggregation() {
+    return !aggregateFuncList.isEmpty();
+  }
+
+  @Override
+  public <R, C> R accept(PlanVisitor<R, C> visitor, C context) {
+    return visitor.visitTimeSplitMerge(this, context);
+  }
+
+  @Override
+  protected void serializeAttributes(ByteBuffer byteBuffer) {
+    PlanNodeType.TIME_SPLIT_MERGE.serialize(byteBuffer);
+    ReadWriteIOUtils.write(mergeOrder.ordinal(), byteBuffer);
+    ReadWriteIOUtils.write(aggregateFuncList.size(), byteBuffer);
+    for (AggregationType aggregationType : aggregateFuncList) {
+      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+      try {
+        aggregationType.serializeTo(dataOutputStream);
+      } catch (IOException ioException) {
+        ioException.printStackTrace();
+      }
+      byteBuffer.put(byteArrayOutputStream.toByteArray());
+    }
+    ReadWriteIOUtils.write(columnHeaders.size(), byteBuffer);
+    for (ColumnHeader columnHeader : columnHeaders) {
+      columnHeader.serialize(byteBuffer);
+    }
+  }
+
+  public static TimeSplitMergeNode deserialize(ByteBuffer byteBuffer) {
+    OrderBy mergeOrder = OrderBy.values()[ReadWriteIOUtils.readInt(byteBuffer)];
+    int aggregateFuncSize = ReadWriteIOUtils.readInt(byteBuffer);
+    List<AggregationType> aggregateFuncList = new ArrayList<>();
+    for (int i = 0; i < aggregateFuncSize; i++) {
+      aggregateFuncList.add(AggregationType.deserialize(byteBuffer));
+    }
+    int columnHeaderSize = ReadWriteIOUtils.readInt(byteBuffer);
+    List<ColumnHeader> columnHeaders = new ArrayList<>();
+    for (int i = 0; i < columnHeaderSize; i++) {
+      columnHeaders.add(ColumnHeader.deserialize(byteBuffer));
+    }
+    PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
+    TimeSplitMergeNode timeSplitMergeNode =
+        new TimeSplitMergeNode(planNodeId, mergeOrder, aggregateFuncList);
+    timeSplitMergeNode.columnHeaders = columnHeaders;
+    return timeSplitMergeNode;
+  }
+
+  public String toString() {
+    return "TimeSplitMergeNode-" + this.getPlanNodeId();
+  }
+
+  @TestOnly
+  public Pair<String, List<String>> print() {
+    String title = String.format("[TimeSplitMergeNode (%s)]", this.getPlanNodeId());
+    List<String> attributes = new ArrayList<>();
+    attributes.add("MergeOrder: " + mergeOrder);
+    attributes.add("AggregateFunctions: " + aggregateFuncList);
+    return new Pair<>(title, attributes);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TimeSplitMergeNode that = (TimeSplitMergeNode) o;
+    return mergeOrder == that.mergeOrder
+        && Objects.equals(aggregateFuncList, that.aggregateFuncList)
+        && Objects.equals(children, that.children);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(mergeOrder, aggregateFuncList, children);
+  }
+}
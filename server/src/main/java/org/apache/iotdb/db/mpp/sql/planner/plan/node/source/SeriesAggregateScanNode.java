@@ -22,6 +22,7 @@ import org.apache.iotdb.commons.partition.RegionReplicaSet;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.metadata.path.PathDeserializeUtil;
+import org.apache.iotdb.db.mpp.aggregation.AggregationStep;
 import org.apache.iotdb.db.mpp.common.header.ColumnHeader;
 import org.apache.iotdb.db.mpp.sql.planner.plan.IOutputPlanNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
@@ -31,7 +32,6 @@ import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanVisitor;
 import org.apache.iotdb.db.mpp.sql.statement.component.GroupByTimeComponent;
 import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
 import org.apache.iotdb.db.query.aggregation.AggregationType;
-import org.apache.iotdb.tsfile.exception.NotImplementedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
@@ -76,7 +76,7 @@ public class SeriesAggregateScanNode extends SourceNode implements IOutputPlanNo
   // The default order is TIMESTAMP_ASC, which means "order by timestamp asc"
   private final OrderBy scanOrder;
 
-  private final Filter timeFilter;
+  private Filter timeFilter;
 
   // The parameter of `group by time`
   // Its value will be null if there is no `group by time` clause,
@@ -87,6 +87,10 @@ public class SeriesAggregateScanNode extends SourceNode implements IOutputPlanNo
   // The id of DataRegion where the node will run
   private RegionReplicaSet regionReplicaSet;
 
+  // PARTIAL if the node is one of the time splits of the aggregation, whose results are merged by a
+  // TimeSplitMergeNode
+  private AggregationStep step = AggregationStep.SINGLE;
+
   public SeriesAggregateScanNode(
       PlanNodeId id,
       PartialPath seriesPath,
@@ -119,7 +123,17 @@ public class SeriesAggregateScanNode extends SourceNode implements IOutputPlanNo
 
   @Override
   public PlanNode clone() {
-    throw new NotImplementedException("clone of SeriesAggregateScanNode is not implemented");
+    SeriesAggregateScanNode cloneNode =
+        new SeriesAggregateScanNode(
+            getPlanNodeId(),
+            seriesPath,
+            aggregateFuncList,
+            scanOrder,
+            timeFilter,
+            groupByTimeParameter);
+    cloneNode.regionReplicaSet = regionReplicaSet;
+    cloneNode.step = step;
+    return cloneNode;
   }
 
   @Override
@@ -180,6 +194,7 @@ public class SeriesAggregateScanNode extends SourceNode implements IOutputPlanNo
     }
     ReadWriteIOUtils.write(scanOrder.ordinal(), byteBuffer);
     timeFilter.serialize(byteBuffer);
+    ReadWriteIOUtils.write(step.ordinal(), byteBuffer);
     // TODO serialize groupByTimeParameter
     regionReplicaSet.serializeImpl(byteBuffer);
   }
@@ -193,6 +208,7 @@ public class SeriesAggregateScanNode extends SourceNode implements IOutputPlanNo
     }
     OrderBy scanOrder = OrderBy.values()[ReadWriteIOUtils.readInt(byteBuffer)];
     Filter timeFilter = FilterFactory.deserialize(byteBuffer);
+    AggregationStep step = AggregationStep.values()[ReadWriteIOUtils.readInt(byteBuffer)];
 
     // TODO serialize groupByTimeParameter
     RegionReplicaSet regionReplicaSet = RegionReplicaSet.deserializeImpl(byteBuffer);
@@ -201,6 +217,7 @@ public class SeriesAggregateScanNode extends SourceNode implements IOutputPlanNo
         new SeriesAggregateScanNode(
             planNodeId, partialPath, aggregateFuncList, scanOrder, timeFilter, null);
     seriesAggregateScanNode.regionReplicaSet = regionReplicaSet;
+    seriesAggregateScanNode.step = step;
     return seriesAggregateScanNode;
   }
 
@@ -212,6 +229,30 @@ public class SeriesAggregateScanNode extends SourceNode implements IOutputPlanNo
     return aggregateFuncList;
   }
 
+  public OrderBy getScanOrder() {
+    return scanOrder;
+  }
+
+  public Filter getTimeFilter() {
+    return timeFilter;
+  }
+
+  public void setTimeFilter(Filter timeFilter) {
+    this.timeFilter = timeFilter;
+  }
+
+  public AggregationStep getStep() {
+    return step;
+  }
+
+  public void setStep(AggregationStep step) {
+    this.step = step;
+  }
+
+  public GroupByTimeComponent getGroupByTimeParameter() {
+    return groupByTimeParameter;
+  }
+
   @TestOnly
   public Pair<String, List<String>> print() {
     String title = String.format("[SeriesAggregateScanNode (%s)]", this.getPlanNodeId());
@@ -237,6 +278,7 @@ public class SeriesAggregateScanNode extends SourceNode implements IOutputPlanNo
             aggregateFuncList.stream().sorted().collect(Collectors.toList()),
             that.aggregateFuncList.stream().sorted().collect(Collectors.toList()))
         && scanOrder == that.scanOrder
+        && step == that.step
         && Objects.equals(timeFilter, that.timeFilter);
   }
 
@@ -150,7 +150,16 @@ public class SeriesScanNode extends SourceNode implements IOutputPlanNode {
 
   @Override
   public PlanNode clone() {
-    return new SeriesScanNode(getPlanNodeId(), getSeriesPath(), this.regionReplicaSet);
+    SeriesScanNode cloneNode =
+        new SeriesScanNode(getPlanNodeId(), getSeriesPath(), this.regionReplicaSet);
+    cloneNode.allSensors = this.allSensors;
+    cloneNode.scanOrder = this.scanOrder;
+    cloneNode.timeFilter = this.timeFilter;
+    cloneNode.valueFilter = this.valueFilter;
+    cloneNode.limit = this.limit;
+    cloneNode.offset = this.offset;
+    cloneNode.columnHeader = this.columnHeader;
+    return cloneNode;
   }
 
   @Override
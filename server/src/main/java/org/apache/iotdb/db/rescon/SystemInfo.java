@@ -213,6 +213,14 @@ public class SystemInfo {
     return isCurrentTsFileProcessorSelected;
   }
 
+  /**
+   * Submit the flush task of the TsFileProcessor in another thread, for the callers holding a lock
+   * of its data region that the flush task waits for.
+   */
+  public void submitAFlushTask(TsFileProcessor tsFileProcessor) {
+    flushTaskSubmitThreadPool.submit(tsFileProcessor::submitAFlushTask);
+  }
+
   public boolean isRejected() {
     return rejected;
   }
@@ -127,8 +127,8 @@ public class AlignedTVList extends TVList {
     }
     indices.get(arrayIndex)[elementIndex] = rowCount;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
-      sorted = false;
+    if (rowCount > 1 && timestamp < getTime(rowCount - 2)) {
+      markRunStart(rowCount - 1);
     }
   }
 
@@ -526,6 +526,12 @@ public class AlignedTVList extends TVList {
     return cloneList;
   }
 
+  /** Only indices are reordered by sorting, the value arrays are never shared. */
+  @Override
+  protected void copyValueArray(int arrayIndex) {
+    indices.set(arrayIndex, cloneIndex(indices.get(arrayIndex)));
+  }
+
   private int[] cloneIndex(int[] array) {
     int[] cloneArray = new int[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -570,19 +576,8 @@ public class AlignedTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < rowCount) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
-    }
-    if (sortedIndices == null || sortedIndices.length < rowCount) {
-      sortedIndices =
-          (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, rowCount);
-    }
-    sort(0, rowCount);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
+  protected void allocateSortedValues(int size) {
+    sortedIndices = (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, size);
   }
 
   @Override
@@ -60,8 +60,8 @@ public class BinaryTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
-      sorted = false;
+    if (rowCount > 1 && timestamp < getTime(rowCount - 2)) {
+      markRunStart(rowCount - 1);
     }
   }
 
@@ -95,6 +95,19 @@ public class BinaryTVList extends TVList {
     return cloneList;
   }
 
+  @Override
+  public BinaryTVList copyOnWriteClone() {
+    BinaryTVList cloneList = new BinaryTVList();
+    copyOnWriteCloneAs(cloneList);
+    cloneList.values.addAll(values);
+    return cloneList;
+  }
+
+  @Override
+  protected void copyValueArray(int arrayIndex) {
+    values.set(arrayIndex, cloneValue(values.get(arrayIndex)));
+  }
+
   private Binary[] cloneValue(Binary[] array) {
     Binary[] cloneArray = new Binary[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -102,26 +115,15 @@ public class BinaryTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < rowCount) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
-    }
-    if (sortedValues == null || sortedValues.length < rowCount) {
-      sortedValues =
-          (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, rowCount);
-    }
-    sort(0, rowCount);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
+  protected void allocateSortedValues(int size) {
+    sortedValues = (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, size);
   }
 
   @Override
   void clearValue() {
     if (values != null) {
-      for (Binary[] dataArray : values) {
-        PrimitiveArrayManager.release(dataArray);
+      for (int i = sharedArrayNum; i < values.size(); i++) {
+        PrimitiveArrayManager.release(values.get(i));
       }
       values.clear();
     }
@@ -250,9 +252,6 @@ public class BinaryTVList extends TVList {
   // move null values to the end of time array and value array, then return number of null values
   int dropNullValThenUpdateMinTimeAndSorted(
       long[] time, Binary[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
-    long inPutMinTime = Long.MAX_VALUE;
-    boolean inputSorted = true;
-
     int nullCnt = 0;
     for (int vIdx = start; vIdx < end; vIdx++) {
       if (bitMap.isMarked(vIdx)) {
@@ -265,15 +264,9 @@ public class BinaryTVList extends TVList {
         time[tIdx - nullCnt] = time[tIdx];
         values[vIdx - nullCnt] = values[vIdx];
       }
-      // update minTime and sorted
-      tIdx = tIdx - nullCnt;
-      inPutMinTime = Math.min(inPutMinTime, time[tIdx]);
-      if (inputSorted && tIdx > 0 && time[tIdx - 1] > time[tIdx]) {
-        inputSorted = false;
-      }
     }
-    minTime = Math.min(inPutMinTime, minTime);
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
+    // update minTime and sorted runs with the remaining times
+    updateMinTimeAndSorted(time, start - tIdxOffset, end - tIdxOffset - nullCnt);
     return nullCnt;
   }
 
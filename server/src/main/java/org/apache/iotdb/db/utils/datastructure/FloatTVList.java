@@ -59,8 +59,8 @@ public class FloatTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
-      sorted = false;
+    if (rowCount > 1 && timestamp < getTime(rowCount - 2)) {
+      markRunStart(rowCount - 1);
     }
   }
 
@@ -94,6 +94,19 @@ public class FloatTVList extends TVList {
     return cloneList;
   }
 
+  @Override
+  public FloatTVList copyOnWriteClone() {
+    FloatTVList cloneList = new FloatTVList();
+    copyOnWriteCloneAs(cloneList);
+    cloneList.values.addAll(values);
+    return cloneList;
+  }
+
+  @Override
+  protected void copyValueArray(int arrayIndex) {
+    values.set(arrayIndex, cloneValue(values.get(arrayIndex)));
+  }
+
   private float[] cloneValue(float[] array) {
     float[] cloneArray = new float[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -101,26 +114,15 @@ public class FloatTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < rowCount) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
-    }
-    if (sortedValues == null || sortedValues.length < rowCount) {
-      sortedValues =
-          (float[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.FLOAT, rowCount);
-    }
-    sort(0, rowCount);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
+  protected void allocateSortedValues(int size) {
+    sortedValues = (float[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.FLOAT, size);
   }
 
   @Override
   void clearValue() {
     if (values != null) {
-      for (float[] dataArray : values) {
-        PrimitiveArrayManager.release(dataArray);
+      for (int i = sharedArrayNum; i < values.size(); i++) {
+        PrimitiveArrayManager.release(values.get(i));
       }
       values.clear();
     }
@@ -253,9 +255,6 @@ public class FloatTVList extends TVList {
   // move null values to the end of time array and value array, then return number of null values
   int dropNullValThenUpdateMinTimeAndSorted(
       long[] time, float[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
-    long inPutMinTime = Long.MAX_VALUE;
-    boolean inputSorted = true;
-
     int nullCnt = 0;
     for (int vIdx = start; vIdx < end; vIdx++) {
       if (bitMap.isMarked(vIdx)) {
@@ -268,15 +267,9 @@ public class FloatTVList extends TVList {
         time[tIdx - nullCnt] = time[tIdx];
         values[vIdx - nullCnt] = values[vIdx];
       }
-      // update minTime and sorted
-      tIdx = tIdx - nullCnt;
-      inPutMinTime = Math.min(inPutMinTime, time[tIdx]);
-      if (inputSorted && tIdx > 0 && time[tIdx - 1] > time[tIdx]) {
-        inputSorted = false;
-      }
     }
-    minTime = Math.min(inPutMinTime, minTime);
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
+    // update minTime and sorted runs with the remaining times
+    updateMinTimeAndSorted(time, start - tIdxOffset, end - tIdxOffset - nullCnt);
     return nullCnt;
   }
 
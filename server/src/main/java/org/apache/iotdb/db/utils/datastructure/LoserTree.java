@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+/**
+ * A loser tree to merge k sorted inputs, whose leaves are the indexes of the inputs. Each internal
+ * node keeps the loser of the match below it and the overall winner is kept at node 0, so replacing
+ * the winner needs only log(k) comparisons along one path, fewer than sifting a binary heap.
+ *
+ * <p>The caller compares the current elements of two leaves and must order an exhausted leaf after
+ * all the others. Equal elements are won by the smaller leaf, which keeps the merge stable.
+ */
+public class LoserTree {
+
+  /** Compares the current elements of two leaves, like {@link java.util.Comparator} */
+  @FunctionalInterface
+  public interface LeafComparator {
+    int compare(int leftLeaf, int rightLeaf);
+  }
+
+  // beats every leaf, only used while building the tree
+  private static final int MIN_LEAF = -1;
+
+  private final int leafCount;
+  private final LeafComparator comparator;
+  // tree[0] is the winner, tree[1..leafCount-1] are the losers of the internal nodes
+  private final int[] tree;
+
+  public LoserTree(int leafCount, LeafComparator comparator) {
+    if (leafCount <= 0) {
+      throw new IllegalArgumentException("leaf count should be greater than zero: " + leafCount);
+    }
+    this.leafCount = leafCount;
+    this.comparator = comparator;
+    this.tree = new int[leafCount];
+    for (int i = 0; i < leafCount; i++) {
+      tree[i] = MIN_LEAF;
+    }
+    for (int leaf = leafCount - 1; leaf >= 0; leaf--) {
+      adjust(leaf);
+    }
+  }
+
+  public int getWinner() {
+    return tree[0];
+  }
+
+  /** Replay the matches from the leaf to the root, called after the element of the leaf changed */
+  public void adjust(int leaf) {
+    int winner = leaf;
+    for (int node = (leaf + leafCount) >> 1; node > 0; node >>= 1) {
+      if (beats(tree[node], winner)) {
+        int loser = winner;
+        winner = tree[node];
+        tree[node] = loser;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  private boolean beats(int left, int right) {
+    if (left == MIN_LEAF) {
+      return true;
+    }
+    if (right == MIN_LEAF) {
+      return false;
+    }
+    int result = comparator.compare(left, right);
+    return result < 0 || (result == 0 && left < right);
+  }
+}
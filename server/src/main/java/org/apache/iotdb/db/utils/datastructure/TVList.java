@@ -34,6 +34,7 @@ import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -44,6 +45,10 @@ import static org.apache.iotdb.tsfile.utils.RamUsageEstimator.NUM_BYTES_OBJECT_R
 public abstract class TVList implements WALEntryValue {
 
   protected static final int SMALL_ARRAY_LENGTH = 32;
+  // stop tracking sorted runs when they are shorter than this on average, the list is too
+  // disordered to benefit from merging runs and is sorted from scratch instead
+  private static final int MIN_AVG_RUN_LENGTH = 16;
+  private static final int INITIAL_RUN_CAPACITY = 16;
   protected static final String ERR_DATATYPE_NOT_CONSISTENT = "DataType not consistent";
   // list of timestamp array, add 1 when expanded -> data point timestamp array
   // index relation: arrayIndex -> elementIndex
@@ -58,6 +63,16 @@ public abstract class TVList implements WALEntryValue {
   protected long pivotTime;
   protected long minTime;
 
+  // start indexes of the sorted runs except the first one, appended when a row is smaller than its
+  // previous row. It's only meaningful when the list is not sorted, and null if there are too many
+  // runs to track.
+  private int[] runStarts;
+  private int runNum;
+
+  // number of leading primitive arrays shared with the list this one is cloned from by
+  // copyOnWriteClone(), they are copied before being modified and never released by this list
+  protected int sharedArrayNum;
+
   private long version;
 
   public TVList() {
@@ -222,7 +237,35 @@ public abstract class TVList implements WALEntryValue {
     throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
   }
 
-  public abstract void sort();
+  /**
+   * Sort the list by time stably. If the sorted runs are tracked, only the rows after the longest
+   * sorted prefix are touched and adjacent runs are merged, so nearly sorted lists are finalized in
+   * about linear time. Otherwise, the whole list is merge sorted.
+   */
+  public void sort() {
+    if (!sorted) {
+      int from = 0;
+      if (runStarts != null) {
+        from = getFirstUnsortedIndex();
+      }
+      ensureOwnedArrays(from);
+      sortedTimestamps =
+          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount - from);
+      allocateSortedValues(rowCount - from);
+      if (runStarts != null) {
+        mergeRuns(from);
+      } else {
+        sort(0, rowCount);
+      }
+      clearSortedValue();
+      clearSortedTime();
+    }
+    sorted = true;
+    runStarts = null;
+  }
+
+  /** Allocate the sorting buffer of values with the given number of rows. */
+  protected abstract void allocateSortedValues(int size);
 
   public long getMinTime() {
     return minTime;
@@ -245,6 +288,28 @@ public abstract class TVList implements WALEntryValue {
   @Override
   public abstract TVList clone();
 
+  /**
+   * Clone a list that can be modified while queries are still reading this one. Unlike {@link
+   * #clone()}, the primitive arrays are shared and only copied when the cloned list is about to
+   * reorder the rows in them, so the rows already in place are never copied.
+   */
+  public TVList copyOnWriteClone() {
+    return clone();
+  }
+
+  /** Replace the value array at arrayIndex with a copy of it. */
+  protected abstract void copyValueArray(int arrayIndex);
+
+  /** Copy the shared arrays containing rows from index on, so that these rows can be modified. */
+  protected void ensureOwnedArrays(int index) {
+    int firstArrayIndex = index / ARRAY_SIZE;
+    for (int i = firstArrayIndex; i < sharedArrayNum; i++) {
+      timestamps.set(i, cloneTime(timestamps.get(i)));
+      copyValueArray(i);
+    }
+    sharedArrayNum = Math.min(sharedArrayNum, firstArrayIndex);
+  }
+
   public TVList clone(long version) {
     this.version = version;
     return clone();
@@ -259,11 +324,24 @@ public abstract class TVList implements WALEntryValue {
   public int delete(long lowerBound, long upperBound) {
     int newSize = 0;
     minTime = Long.MAX_VALUE;
+    // the remaining rows keep their order, find their runs again
+    sorted = true;
+    long lastTime = Long.MIN_VALUE;
     for (int i = 0; i < rowCount; i++) {
       long time = getTime(i);
       if (time < lowerBound || time > upperBound) {
-        set(i, newSize++);
+        if (newSize != i) {
+          set(i, newSize);
+        }
+        if (time < lastTime) {
+          markRunStart(newSize);
+        }
+        newSize++;
+        lastTime = time;
         minTime = Math.min(time, minTime);
+      } else if (newSize == i) {
+        // rows from here on will be moved
+        ensureOwnedArrays(i);
       }
     }
     int deletedNumber = rowCount - newSize;
@@ -288,23 +366,42 @@ public abstract class TVList implements WALEntryValue {
     cloneList.rowCount = rowCount;
     cloneList.sorted = sorted;
     cloneList.minTime = minTime;
+    if (runStarts != null) {
+      cloneList.runStarts = Arrays.copyOf(runStarts, runStarts.length);
+      cloneList.runNum = runNum;
+    }
+  }
+
+  protected void copyOnWriteCloneAs(TVList cloneList) {
+    cloneList.timestamps.addAll(timestamps);
+    cloneList.sharedArrayNum = timestamps.size();
+    cloneList.rowCount = rowCount;
+    cloneList.sorted = sorted;
+    cloneList.minTime = minTime;
+    if (runStarts != null) {
+      cloneList.runStarts = Arrays.copyOf(runStarts, runStarts.length);
+      cloneList.runNum = runNum;
+    }
   }
 
   public void clear() {
     rowCount = 0;
     sorted = true;
+    runStarts = null;
     minTime = Long.MAX_VALUE;
     clearTime();
     clearSortedTime();
 
     clearValue();
     clearSortedValue();
+    sharedArrayNum = 0;
   }
 
   protected void clearTime() {
     if (timestamps != null) {
-      for (long[] dataArray : timestamps) {
-        PrimitiveArrayManager.release(dataArray);
+      // shared arrays may still be read by queries, leave them to GC
+      for (int i = sharedArrayNum; i < timestamps.size(); i++) {
+        PrimitiveArrayManager.release(timestamps.get(i));
       }
       timestamps.clear();
     }
@@ -382,6 +479,119 @@ public abstract class TVList implements WALEntryValue {
     return runHi - lo;
   }
 
+  /** Record that the row at index is smaller than its previous row and starts a new run. */
+  protected void markRunStart(int index) {
+    if (sorted) {
+      sorted = false;
+      runStarts = new int[INITIAL_RUN_CAPACITY];
+      runNum = 0;
+    } else if (runStarts == null) {
+      // too many runs, not tracked any more
+      return;
+    }
+    if (runNum == runStarts.length) {
+      if ((long) runNum * MIN_AVG_RUN_LENGTH > rowCount) {
+        runStarts = null;
+        return;
+      }
+      runStarts = Arrays.copyOf(runStarts, runNum * 2);
+    }
+    runStarts[runNum++] = index;
+  }
+
+  /**
+   * Rows before the returned index are not greater than any row after the first run, so they are
+   * already in their sorted places.
+   */
+  private int getFirstUnsortedIndex() {
+    int firstRunEnd = runStarts[0];
+    long minTimeOfOtherRuns = Long.MAX_VALUE;
+    for (int i = firstRunEnd; i < rowCount; i++) {
+      minTimeOfOtherRuns = Math.min(minTimeOfOtherRuns, getTime(i));
+    }
+    return upperBound(0, firstRunEnd, minTimeOfOtherRuns);
+  }
+
+  /** Merge the tracked runs in [from, rowCount) pair by pair until one run is left. */
+  private void mergeRuns(int from) {
+    int[] bounds = new int[runNum + 2];
+    bounds[0] = from;
+    System.arraycopy(runStarts, 0, bounds, 1, runNum);
+    int boundNum = runNum + 1;
+    bounds[boundNum] = rowCount;
+    while (boundNum > 1) {
+      int newBoundNum = 0;
+      for (int i = 0; i < boundNum; i += 2) {
+        if (i + 1 < boundNum) {
+          mergeAdjacentRuns(bounds[i], bounds[i + 1], bounds[i + 2]);
+        }
+        bounds[newBoundNum++] = bounds[i];
+      }
+      bounds[newBoundNum] = rowCount;
+      boundNum = newBoundNum;
+    }
+  }
+
+  /**
+   * Merge the sorted runs [lo, mid) and [mid, hi) stably. Rows of the left run not greater than the
+   * first row of the right run and rows of the right run not smaller than the last row of the left
+   * run are already in place, only the rows between them are moved. The sorting buffer is indexed
+   * from 0.
+   */
+  private void mergeAdjacentRuns(int lo, int mid, int hi) {
+    if (getTime(mid - 1) <= getTime(mid)) {
+      return;
+    }
+    lo = upperBound(lo, mid, getTime(mid));
+    hi = lowerBound(mid, hi, getTime(mid - 1));
+
+    // copy the left part to the sorting buffer, then merge it with the right part from lo
+    int leftLength = mid - lo;
+    for (int i = 0; i < leftLength; i++) {
+      setToSorted(lo + i, i);
+    }
+    int leftIdx = 0;
+    int rightIdx = mid;
+    int dest = lo;
+    while (leftIdx < leftLength && rightIdx < hi) {
+      if (getTime(rightIdx) < sortedTimestamps[leftIdx / ARRAY_SIZE][leftIdx % ARRAY_SIZE]) {
+        set(rightIdx++, dest++);
+      } else {
+        setFromSorted(leftIdx++, dest++);
+      }
+    }
+    // the remaining rows of the right part are already in place
+    while (leftIdx < leftLength) {
+      setFromSorted(leftIdx++, dest++);
+    }
+  }
+
+  /** the first index in [lo, hi) whose time is greater than the given time */
+  private int upperBound(int lo, int hi, long time) {
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (getTime(mid) <= time) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /** the first index in [lo, hi) whose time is not smaller than the given time */
+  private int lowerBound(int lo, int hi, long time) {
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (getTime(mid) < time) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
   protected int compare(int idx1, int idx2) {
     long t1 = getTime(idx1);
     long t2 = getTime(idx2);
@@ -493,18 +703,25 @@ public abstract class TVList implements WALEntryValue {
     updateMinTimeAndSorted(time, 0, time.length);
   }
 
+  /**
+   * Update minTime and the sorted runs with times in [start, end) before they are appended to the
+   * list.
+   */
   void updateMinTimeAndSorted(long[] time, int start, int end) {
-    int length = time.length;
-    long inPutMinTime = Long.MAX_VALUE;
-    boolean inputSorted = true;
-    for (int i = start; i < end; i++) {
+    if (start >= end) {
+      return;
+    }
+    long inPutMinTime = time[start];
+    if (rowCount > 0 && time[start] < getTime(rowCount - 1)) {
+      markRunStart(rowCount);
+    }
+    for (int i = start + 1; i < end; i++) {
       inPutMinTime = Math.min(inPutMinTime, time[i]);
-      if (inputSorted && i < length - 1 && time[i] > time[i + 1]) {
-        inputSorted = false;
+      if (time[i] < time[i - 1]) {
+        markRunStart(rowCount + i - start);
       }
     }
     minTime = Math.min(inPutMinTime, minTime);
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
   }
 
   /** for log */
@@ -54,6 +54,12 @@ public class WALBuffer extends AbstractWALBuffer {
   private static final int WAL_BUFFER_SIZE = config.getWalBufferSize();
   private static final long FSYNC_WAL_DELAY_IN_MS = config.getFsyncWalDelayInMs();
   private static final int QUEUE_CAPACITY = config.getWalBufferQueueCapacity();
+  private static final int WAL_BUFFER_ENTRY_SIZE = config.getWalBufferEntrySize();
+
+  /** whether to serialize WALEntries in writer threads and batch fsync adaptively */
+  private final boolean groupCommit = config.isEnableWalGroupCommit();
+  /** decides the group commit window and records batching metrics */
+  private final WALGroupCommitController groupCommitController;
 
   /** whether close method is called */
   private volatile boolean isClosed = false;
@@ -79,6 +85,7 @@ public class WALBuffer extends AbstractWALBuffer {
 
   public WALBuffer(String identifier, String logDirectory) throws FileNotFoundException {
     super(identifier, logDirectory);
+    groupCommitController = new WALGroupCommitController(identifier, FSYNC_WAL_DELAY_IN_MS);
     allocateBuffers();
     serializeThread =
         IoTDBThreadPoolFactory.newSingleThreadExecutor(
@@ -109,6 +116,10 @@ public class WALBuffer extends AbstractWALBuffer {
       walEntry.getWalFlushListener().fail(new WALNodeClosedException(identifier));
       return;
     }
+    // serialize small WALEntry in the writer thread, serializeThread only copies its bytes
+    if (groupCommit) {
+      walEntry.serializeInAdvance(WAL_BUFFER_ENTRY_SIZE);
+    }
     // just add this WALEntry to queue
     try {
       walEntries.put(walEntry);
@@ -133,81 +144,124 @@ public class WALBuffer extends AbstractWALBuffer {
       }
     }
 
+    private boolean rollWAlFileWriter;
+    private int batchSize;
+
     /** In order to control memory usage of blocking queue, get 1 and then serialize 1 */
     private void serialize() {
-      boolean rollWAlFileWriter = false;
-      int batchSize = 0;
+      rollWAlFileWriter = false;
+      batchSize = 0;
+      long batchStartTime;
+      long waitTime = 0;
 
       // try to get first WALEntry with blocking interface
       try {
         WALEntry firstWALEntry = walEntries.take();
-        if (!firstWALEntry.isSignal()) {
-          try {
-            firstWALEntry.serialize(byteBufferVew);
-            ++batchSize;
-            fsyncListeners.add(firstWALEntry.getWalFlushListener());
-          } catch (Exception e) {
-            logger.error(
-                "Fail to serialize WALEntry to wal node-{}'s buffer, discard it.", identifier, e);
-            firstWALEntry.getWalFlushListener().fail(e);
-          }
-        } else {
-          switch (((SignalWALEntry) firstWALEntry).getSignalType()) {
-            case ROLL_WAL_LOG_WRITER_SIGNAL:
-              rollWAlFileWriter = true;
-              fsyncListeners.add(firstWALEntry.getWalFlushListener());
-              break;
-            case CLOSE_SIGNAL:
-            default:
-              break;
-          }
+        batchStartTime = System.nanoTime();
+        groupCommitController.startBatch(batchStartTime);
+        if (handleWALEntry(firstWALEntry)) {
+          finishBatch(0);
+          return;
         }
       } catch (InterruptedException e) {
         logger.warn(
             "Interrupted when waiting for taking WALEntry from blocking queue to serialize.");
         Thread.currentThread().interrupt();
+        finishBatch(0);
+        return;
       }
 
-      // for better fsync performance, sleep a while to enlarge write batch
-      if (FSYNC_WAL_DELAY_IN_MS > 0) {
-        try {
-          Thread.sleep(FSYNC_WAL_DELAY_IN_MS);
-        } catch (InterruptedException e) {
-          logger.warn("Interrupted when sleeping a while to enlarge wal write batch.");
-          Thread.currentThread().interrupt();
+      if (groupCommit) {
+        // wait for more WALEntries only when they are expected to arrive during one fsync
+        long deadline = groupCommitController.getBatchDeadline(batchStartTime);
+        boolean batchEnd = drainWALEntries();
+        while (!batchEnd && batchSize < groupCommitController.getTargetBatchSize()) {
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            break;
+          }
+          WALEntry walEntry;
+          long waitStartTime = System.nanoTime();
+          try {
+            walEntry = walEntries.poll(remaining, TimeUnit.NANOSECONDS);
+          } catch (InterruptedException e) {
+            logger.warn("Interrupted when waiting for more WALEntries to enlarge write batch.");
+            Thread.currentThread().interrupt();
+            break;
+          } finally {
+            waitTime += System.nanoTime() - waitStartTime;
+          }
+          if (walEntry == null) {
+            break;
+          }
+          batchEnd = handleWALEntry(walEntry) || drainWALEntries();
         }
+      } else {
+        // for better fsync performance, sleep a while to enlarge write batch
+        if (FSYNC_WAL_DELAY_IN_MS > 0) {
+          try {
+            Thread.sleep(FSYNC_WAL_DELAY_IN_MS);
+          } catch (InterruptedException e) {
+            logger.warn("Interrupted when sleeping a while to enlarge wal write batch.");
+            Thread.currentThread().interrupt();
+          }
+          waitTime = TimeUnit.MILLISECONDS.toNanos(FSYNC_WAL_DELAY_IN_MS);
+        }
+        drainWALEntries();
       }
 
-      // try to get more WALEntries with non-blocking interface to enlarge write batch
+      finishBatch(waitTime);
+    }
+
+    /**
+     * Try to get more WALEntries with non-blocking interface to enlarge write batch.
+     *
+     * @return true if a signal ends this batch
+     */
+    private boolean drainWALEntries() {
       while (walEntries.peek() != null && batchSize < QUEUE_CAPACITY) {
-        WALEntry walEntry = walEntries.poll();
-        if (!walEntry.isSignal()) {
-          try {
-            walEntry.serialize(byteBufferVew);
-          } catch (Exception e) {
-            logger.error(
-                "Fail to serialize WALEntry to wal node-{}'s buffer, discard it.", identifier, e);
-            walEntry.getWalFlushListener().fail(e);
-            continue;
-          }
-          ++batchSize;
+        if (handleWALEntry(walEntries.poll())) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Serialize one WALEntry to workingBuffer, or handle the signal.
+     *
+     * @return true if the WALEntry is a signal, which ends this batch
+     */
+    private boolean handleWALEntry(WALEntry walEntry) {
+      if (!walEntry.isSignal()) {
+        try {
+          walEntry.serialize(byteBufferVew);
+        } catch (Exception e) {
+          logger.error(
+              "Fail to serialize WALEntry to wal node-{}'s buffer, discard it.", identifier, e);
+          walEntry.getWalFlushListener().fail(e);
+          return false;
+        }
+        ++batchSize;
+        fsyncListeners.add(walEntry.getWalFlushListener());
+        return false;
+      }
+      switch (((SignalWALEntry) walEntry).getSignalType()) {
+        case ROLL_WAL_LOG_WRITER_SIGNAL:
+          rollWAlFileWriter = true;
           fsyncListeners.add(walEntry.getWalFlushListener());
-        } else {
-          switch (((SignalWALEntry) walEntry).getSignalType()) {
-            case ROLL_WAL_LOG_WRITER_SIGNAL:
-              rollWAlFileWriter = true;
-              fsyncListeners.add(walEntry.getWalFlushListener());
-              break;
-            case CLOSE_SIGNAL:
-            default:
-              break;
-          }
           break;
-        }
+        case CLOSE_SIGNAL:
+        default:
+          break;
       }
+      return true;
+    }
 
-      // call fsync at last and set fsyncListeners
+    /** call fsync at last and set fsyncListeners */
+    private void finishBatch(long waitTime) {
       if (batchSize > 0 || rollWAlFileWriter) {
+        groupCommitController.finishBatch(batchSize, waitTime);
         fsyncWorkingBuffer(fsyncListeners, rollWAlFileWriter);
       }
     }
@@ -357,7 +411,9 @@ public class WALBuffer extends AbstractWALBuffer {
       // force os cache to the storage device
       if (force) {
         try {
+          long startTime = System.nanoTime();
           currentWALFileWriter.force();
+          groupCommitController.recordFsync(System.nanoTime() - startTime);
         } catch (IOException e) {
           logger.error(
               "Fail to fsync wal node-{}'s log writer, change system mode to read-only.",
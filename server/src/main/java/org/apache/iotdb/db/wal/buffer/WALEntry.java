@@ -36,6 +36,9 @@ import org.apache.iotdb.db.wal.utils.listener.WALFlushListener;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -63,6 +66,9 @@ public class WALEntry implements SerializedSize {
    */
   private final WALFlushListener walFlushListener;
 
+  /** bytes serialized by the writer thread in advance, null if not serialized yet */
+  private byte[] serializedBytes;
+
   public WALEntry(int memTableId, WALEntryValue value) {
     this(memTableId, value, config.getWalMode() == WALMode.SYNC);
     if (value instanceof InsertTabletPlan) {
@@ -112,10 +118,44 @@ public class WALEntry implements SerializedSize {
 
   @Override
   public int serializedSize() {
+    if (tabletInfo != null && type == WALEntryType.INSERT_TABLET_PLAN) {
+      return FIXED_SERIALIZED_SIZE
+          + ((InsertTabletPlan) value).serializedSize(tabletInfo.tabletStart, tabletInfo.tabletEnd);
+    } else if (tabletInfo != null && type == WALEntryType.INSERT_TABLET_NODE) {
+      return FIXED_SERIALIZED_SIZE
+          + ((InsertTabletNode) value).serializedSize(tabletInfo.tabletStart, tabletInfo.tabletEnd);
+    }
     return FIXED_SERIALIZED_SIZE + value.serializedSize();
   }
 
+  /**
+   * Serialize this WALEntry into a heap buffer on the current thread if it's not larger than
+   * sizeLimit, then {@link #serialize(IWALByteBufferView)} only copies these bytes. Bigger entries,
+   * e.g. memTable snapshots, are still serialized into the wal buffer directly.
+   */
+  public void serializeInAdvance(int sizeLimit) {
+    int size = serializedSize();
+    if (size > sizeLimit) {
+      return;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    try {
+      serialize(new HeapByteBufferView(buffer));
+    } catch (BufferOverflowException e) {
+      // the estimated size is inaccurate, fall back to serializing into the wal buffer
+      return;
+    }
+    serializedBytes =
+        buffer.position() == size
+            ? buffer.array()
+            : Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
   public void serialize(IWALByteBufferView buffer) {
+    if (serializedBytes != null) {
+      buffer.put(serializedBytes);
+      return;
+    }
     buffer.put(type.getCode());
     buffer.putInt(memTableId);
     switch (type) {
@@ -206,6 +246,55 @@ public class WALEntry implements SerializedSize {
     return false;
   }
 
+  /** Fixed-size view of a heap ByteBuffer, used to serialize WALEntry in advance. */
+  private static class HeapByteBufferView implements IWALByteBufferView {
+    private final ByteBuffer buffer;
+
+    private HeapByteBufferView(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void put(byte b) {
+      buffer.put(b);
+    }
+
+    @Override
+    public void put(byte[] src) {
+      buffer.put(src);
+    }
+
+    @Override
+    public void putChar(char value) {
+      buffer.putChar(value);
+    }
+
+    @Override
+    public void putShort(short value) {
+      buffer.putShort(value);
+    }
+
+    @Override
+    public void putInt(int value) {
+      buffer.putInt(value);
+    }
+
+    @Override
+    public void putLong(long value) {
+      buffer.putLong(value);
+    }
+
+    @Override
+    public void putFloat(float value) {
+      buffer.putFloat(value);
+    }
+
+    @Override
+    public void putDouble(double value) {
+      buffer.putDouble(value);
+    }
+  }
+
   private static class TabletInfo {
     /** start row of insert tablet */
     private final int tabletStart;
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.wal.buffer;
+
+import org.apache.iotdb.db.engine.compaction.CompactionWritePressureController;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class decides how long the serialize thread of one wal node waits for more WALEntries before
+ * handing a batch over to fsync, and exports the batching metrics of this node.
+ *
+ * <p>The group commit window tracks two moving averages: the fsync latency observed by the sync
+ * thread and the arrival rate of WALEntries observed by the serialize thread. Waiting only pays off
+ * when more entries are expected to arrive during one fsync, so the target batch size is {@code
+ * arrivalRate * fsyncLatency}, and the serialize thread stops waiting as soon as the batch reaches
+ * this size, the queue runs dry, or the window {@code min(fsyncLatency, maxDelay)} ends. Under
+ * light load the target is below one entry and entries are committed without any delay.
+ */
+public class WALGroupCommitController {
+  /** weight of the newest sample in the moving averages */
+  private static final double ALPHA = 0.2;
+
+  /** wal node identifier */
+  private final String identifier;
+  /** upper bound of the group commit window, in ns */
+  private final long maxDelayInNs;
+
+  /** moving average of fsync latency in ns, updated by the sync thread */
+  private volatile long fsyncLatencyInNs = 0;
+  // region these variables are only accessed by the serialize thread
+  /** moving average of WALEntry arrivals per ns */
+  private double arrivalRate = 0;
+  /** start time of the previous batch in ns, 0 before the first batch */
+  private long lastBatchStartTime = 0;
+  /** number of WALEntries of the previous batch */
+  private int lastBatchSize = 0;
+  // endregion
+
+  public WALGroupCommitController(String identifier, long maxDelayInMs) {
+    this.identifier = identifier;
+    this.maxDelayInNs = TimeUnit.MILLISECONDS.toNanos(maxDelayInMs);
+  }
+
+  /** Called by the serialize thread when the first WALEntry of a batch is taken. */
+  public void startBatch(long startTime) {
+    if (lastBatchStartTime > 0 && startTime > lastBatchStartTime) {
+      double rate = (double) lastBatchSize / (startTime - lastBatchStartTime);
+      arrivalRate = arrivalRate == 0 ? rate : ALPHA * rate + (1 - ALPHA) * arrivalRate;
+    }
+    lastBatchStartTime = startTime;
+  }
+
+  /** Number of WALEntries expected to arrive during one fsync. */
+  public double getTargetBatchSize() {
+    return arrivalRate * fsyncLatencyInNs;
+  }
+
+  /** Latest time to stop waiting for more WALEntries of the batch started at startTime. */
+  public long getBatchDeadline(long startTime) {
+    return startTime + Math.min(fsyncLatencyInNs, maxDelayInNs);
+  }
+
+  /** Called by the serialize thread when a batch is handed over to the sync thread. */
+  public void finishBatch(int batchSize, long waitTimeInNs) {
+    lastBatchSize = batchSize;
+    if (!MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      return;
+    }
+    MetricsService.getInstance()
+        .getMetricManager()
+        .histogram(
+            batchSize,
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "wal_batch_size",
+            Tag.TYPE.toString(),
+            "node-" + identifier);
+    MetricsService.getInstance()
+        .getMetricManager()
+        .timer(
+            waitTimeInNs,
+            TimeUnit.NANOSECONDS,
+            Metric.COST_TASK.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "wal_group_commit_wait",
+            Tag.TYPE.toString(),
+            "node-" + identifier);
+  }
+
+  /** Called by the sync thread after each fsync. */
+  public void recordFsync(long latencyInNs) {
+    long prev = fsyncLatencyInNs;
+    fsyncLatencyInNs = prev == 0 ? latencyInNs : (long) (ALPHA * latencyInNs + (1 - ALPHA) * prev);
+    CompactionWritePressureController.getInstance().recordWalFsync(latencyInNs);
+    if (!MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      return;
+    }
+    MetricsService.getInstance()
+        .getMetricManager()
+        .timer(
+            latencyInNs,
+            TimeUnit.NANOSECONDS,
+            Metric.COST_TASK.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "wal_fsync",
+            Tag.TYPE.toString(),
+            "node-" + identifier);
+  }
+
+  public long getFsyncLatencyInNs() {
+    return fsyncLatencyInNs;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class ChunkOffHeapCacheTest {
+
+  private static final int SLAB_SIZE = 16 * 1024;
+  private static final String FILE_A = tsFilePath(1);
+  private static final String FILE_B = tsFilePath(2);
+
+  @Test
+  public void testPutAndGet() {
+    ChunkOffHeapCache cache = new ChunkOffHeapCache(2L * SLAB_SIZE, SLAB_SIZE);
+    ChunkMetadata metadata = metadata(FILE_A, 100);
+    Chunk chunk = chunk(5000, (byte) 7);
+    cache.put(metadata, chunk);
+
+    Chunk cached = cache.get(metadata);
+    Assert.assertNotNull(cached);
+    Assert.assertEquals(chunk.getHeader(), cached.getHeader());
+    Assert.assertEquals(chunk.getData(), cached.getData());
+    Assert.assertFalse(cached.getData().isDirect());
+    Assert.assertEquals(8 * 1024, cache.getUsedMemory());
+    Assert.assertEquals(5000, cache.getHitBytes());
+
+    Assert.assertNull(cache.get(metadata(FILE_A, 200)));
+    Assert.assertNull(cache.get(metadata(FILE_B, 100)));
+    Assert.assertEquals(1.0 / 3, cache.getHitRatio(), 0.0001);
+
+    cache.remove(metadata);
+    Assert.assertNull(cache.get(metadata));
+    Assert.assertEquals(0, cache.getUsedMemory());
+  }
+
+  @Test
+  public void testBypass() {
+    ChunkOffHeapCache cache = new ChunkOffHeapCache(SLAB_SIZE, SLAB_SIZE);
+    cache.put(metadata(FILE_A, 0), chunk(SLAB_SIZE + 1, (byte) 1));
+    Assert.assertEquals(1, cache.getBypassCount());
+    Assert.assertEquals(0, cache.getAllocatedMemory());
+
+    // the only slab is taken by 4KB blocks, so there is no room for an 8KB chunk
+    cache.put(metadata(FILE_A, 1), chunk(100, (byte) 1));
+    cache.put(metadata(FILE_A, 2), chunk(5000, (byte) 1));
+    Assert.assertEquals(2, cache.getBypassCount());
+    Assert.assertNotNull(cache.get(metadata(FILE_A, 1)));
+    Assert.assertNull(cache.get(metadata(FILE_A, 2)));
+  }
+
+  @Test
+  public void testScanResistance() {
+    // one slab holds four 4KB blocks, three of them may be protected
+    ChunkOffHeapCache cache = new ChunkOffHeapCache(SLAB_SIZE, SLAB_SIZE);
+    ChunkMetadata hot = metadata(FILE_A, 0);
+    cache.put(hot, chunk(4096, (byte) 1));
+    Assert.assertNotNull(cache.get(hot));
+    Assert.assertTrue(cache.isProtected(hot));
+
+    // a scan over many chunks only rotates the probation segment
+    for (int i = 1; i <= 20; i++) {
+      cache.put(metadata(FILE_B, i), chunk(4096, (byte) i));
+    }
+    Assert.assertEquals(17, cache.getEvictionCount());
+    Assert.assertEquals(17L * 4096, cache.getEvictionBytes());
+    Chunk cached = cache.get(hot);
+    Assert.assertNotNull(cached);
+    Assert.assertEquals(1, cached.getData().get(0));
+    Assert.assertNotNull(cache.get(metadata(FILE_B, 20)));
+    Assert.assertNull(cache.get(metadata(FILE_B, 1)));
+
+    cache.clear();
+    Assert.assertNull(cache.get(hot));
+    Assert.assertEquals(0, cache.getUsedMemory());
+    Assert.assertEquals(SLAB_SIZE, cache.getAllocatedMemory());
+  }
+
+  private static String tsFilePath(long version) {
+    return String.join(
+        File.separator,
+        "data",
+        "sequence",
+        "root.sg1",
+        "0",
+        "0",
+        version + "-" + version + "-0-0.tsfile");
+  }
+
+  private static ChunkMetadata metadata(String filePath, long offset) {
+    ChunkMetadata metadata =
+        new ChunkMetadata(
+            "s1", TSDataType.INT64, offset, Statistics.getStatsByType(TSDataType.INT64));
+    metadata.setFilePath(filePath);
+    return metadata;
+  }
+
+  private static Chunk chunk(int size, byte value) {
+    byte[] data = new byte[size];
+    Arrays.fill(data, value);
+    ChunkHeader header =
+        new ChunkHeader(
+            "s1", size, TSDataType.INT64, CompressionType.UNCOMPRESSED, TSEncoding.PLAIN, 1);
+    return new Chunk(header, ByteBuffer.wrap(data), null, null);
+  }
+}
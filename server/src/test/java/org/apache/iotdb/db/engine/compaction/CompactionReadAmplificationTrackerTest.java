@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class CompactionReadAmplificationTrackerTest {
+  private final CompactionReadAmplificationTracker tracker =
+      CompactionReadAmplificationTracker.getInstance();
+  private long originHalfLife;
+
+  @Before
+  public void setUp() {
+    originHalfLife =
+        IoTDBDescriptor.getInstance().getConfig().getCompactionReadAmplificationHalfLifeInMs();
+    // long enough to make the decay negligible during the test
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setCompactionReadAmplificationHalfLifeInMs(Long.MAX_VALUE / 4);
+    tracker.clear();
+  }
+
+  @After
+  public void tearDown() {
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setCompactionReadAmplificationHalfLifeInMs(originHalfLife);
+    tracker.clear();
+  }
+
+  @Test
+  public void testRecordQuery() {
+    // a query touches 3 seq files and 2 unseq files of partition 0, and 1 seq file of partition 1
+    List<TsFileResource> seqResources = new ArrayList<>();
+    seqResources.add(mockResource(0));
+    seqResources.add(mockResource(0));
+    seqResources.add(mockResource(0));
+    seqResources.add(mockResource(1));
+    List<TsFileResource> unseqResources = new ArrayList<>();
+    unseqResources.add(mockResource(0));
+    unseqResources.add(mockResource(0));
+    tracker.recordQuery("root.sg", "0", seqResources, unseqResources);
+    tracker.recordQuery(
+        "root.sg", "0", Collections.singletonList(mockResource(0)), Collections.emptyList());
+
+    Assert.assertEquals(3, tracker.getReadAmplification("root.sg", "0", 0), 0.001);
+    Assert.assertEquals(4, tracker.getScore("root.sg", "0", 0), 0.001);
+    Assert.assertEquals(1, tracker.getReadAmplification("root.sg", "0", 1), 0.001);
+    Assert.assertEquals(0, tracker.getScore("root.sg", "0", 1), 0.001);
+    Assert.assertEquals(0, tracker.getScore("root.sg", "1", 0), 0.001);
+
+    tracker.removeDataRegion("root.sg", "0");
+    Assert.assertEquals(0, tracker.getScore("root.sg", "0", 0), 0.001);
+  }
+
+  @Test
+  public void testDecay() throws InterruptedException {
+    IoTDBDescriptor.getInstance().getConfig().setCompactionReadAmplificationHalfLifeInMs(50);
+    List<TsFileResource> seqResources = new ArrayList<>();
+    for (int i = 0; i < 11; i++) {
+      seqResources.add(mockResource(0));
+    }
+    tracker.recordQuery("root.sg", "0", seqResources, Collections.emptyList());
+    double score = tracker.getScore("root.sg", "0", 0);
+    Assert.assertTrue(score > 0);
+    Thread.sleep(200);
+    Assert.assertTrue(tracker.getScore("root.sg", "0", 0) < score / 4);
+    // the read amplification is not affected by the decay
+    Assert.assertEquals(11, tracker.getReadAmplification("root.sg", "0", 0), 0.001);
+  }
+
+  private TsFileResource mockResource(long timePartition) {
+    TsFileResource resource = Mockito.mock(TsFileResource.class);
+    Mockito.when(resource.getTimePartition()).thenReturn(timePartition);
+    return resource;
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.compaction;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.compaction.cross.CrossSpaceCompactionTask;
 import org.apache.iotdb.db.engine.compaction.inner.InnerCompactionTest;
@@ -40,6 +41,8 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class CompactionTaskManagerTest extends InnerCompactionTest {
@@ -345,4 +348,43 @@ public class CompactionTaskManagerTest extends InnerCompactionTest {
       Assert.assertFalse(resource.isCompactionCandidate());
     }
   }
+
+  @Test
+  public void testReserveCompactionMemory() throws Exception {
+    long originBudget = IoTDBDescriptor.getInstance().getConfig().getCrossCompactionMemoryBudget();
+    int originThreadNum = IoTDBDescriptor.getInstance().getConfig().getConcurrentCompactionThread();
+    IoTDBDescriptor.getInstance().getConfig().setCrossCompactionMemoryBudget(100);
+    IoTDBDescriptor.getInstance().getConfig().setConcurrentCompactionThread(1);
+    CompactionTaskManager manager = CompactionTaskManager.getInstance();
+    long reserved = manager.getReservedCompactionMemory();
+    try {
+      manager.reserveCompactionMemory(80, () -> false);
+      CountDownLatch reservedLatch = new CountDownLatch(1);
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  manager.reserveCompactionMemory(50, () -> false);
+                  reservedLatch.countDown();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              });
+      thread.start();
+      // the budget is exhausted, so the second reservation waits
+      Assert.assertFalse(reservedLatch.await(200, TimeUnit.MILLISECONDS));
+      // a reservation allowed to overdraw is never blocked
+      manager.reserveCompactionMemory(50, () -> true);
+      Assert.assertEquals(reserved + 130, manager.getReservedCompactionMemory());
+      manager.releaseCompactionMemory(50);
+      manager.releaseCompactionMemory(80);
+      Assert.assertTrue(reservedLatch.await(MAX_WAITING_TIME, TimeUnit.MILLISECONDS));
+      thread.join();
+      Assert.assertEquals(reserved + 50, manager.getReservedCompactionMemory());
+      manager.releaseCompactionMemory(50);
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setCrossCompactionMemoryBudget(originBudget);
+      IoTDBDescriptor.getInstance().getConfig().setConcurrentCompactionThread(originThreadNum);
+    }
+  }
 }
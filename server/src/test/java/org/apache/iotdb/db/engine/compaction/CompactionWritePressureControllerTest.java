@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompactionWritePressureControllerTest {
+  private double originThreshold;
+
+  @Before
+  public void setUp() {
+    originThreshold =
+        IoTDBDescriptor.getInstance().getConfig().getCompactionWritePressureThreshold();
+  }
+
+  @After
+  public void tearDown() {
+    IoTDBDescriptor.getInstance().getConfig().setCompactionWritePressureThreshold(originThreshold);
+  }
+
+  @Test
+  public void testThrottleWhenFsyncSlowsDown() {
+    CompactionWritePressureController controller = CompactionWritePressureController.getInstance();
+    IoTDBDescriptor.getInstance().getConfig().setCompactionWritePressureThreshold(1.5);
+    for (int i = 0; i < 1000; i++) {
+      controller.recordWalFsync(1_000_000L);
+    }
+    Assert.assertEquals(1, controller.getThrottleFactor(), 0.001);
+
+    // the fsync latency rises tenfold
+    for (int i = 0; i < 20; i++) {
+      controller.recordWalFsync(10_000_000L);
+    }
+    double pressure = controller.getWritePressure();
+    Assert.assertTrue(pressure > 1.5);
+    double throttleFactor = controller.getThrottleFactor();
+    Assert.assertTrue(throttleFactor < 1);
+    Assert.assertTrue(throttleFactor >= 0.1);
+
+    IoTDBDescriptor.getInstance().getConfig().setCompactionWritePressureThreshold(0);
+    Assert.assertEquals(1, controller.getThrottleFactor(), 0.001);
+
+    // the latency recovers
+    IoTDBDescriptor.getInstance().getConfig().setCompactionWritePressureThreshold(1.5);
+    for (int i = 0; i < 1000; i++) {
+      controller.recordWalFsync(1_000_000L);
+    }
+    Assert.assertEquals(1, controller.getThrottleFactor(), 0.001);
+  }
+}
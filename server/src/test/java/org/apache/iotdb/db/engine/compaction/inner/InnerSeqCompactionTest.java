@@ -467,8 +467,14 @@ public class InnerSeqCompactionTest {
             if (compactionTimeseriesType == CompactionTimeseriesType.ALL_SAME) {
               if (toMergeFileNum == 2) {
                 if (compactionBeforeHasMod) {
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[0], 1149L);
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[1], 1149L);
+                  putChunk(
+                      chunkPagePointsNumMerged,
+                      fullPaths[0],
+                      new long[] {100L, 449L, 100L, 200L, 300L});
+                  putChunk(
+                      chunkPagePointsNumMerged,
+                      fullPaths[1],
+                      new long[] {100L, 200L, 300L, 100L, 449L});
                   putChunk(
                       chunkPagePointsNumMerged,
                       fullPaths[2],
@@ -489,9 +495,18 @@ public class InnerSeqCompactionTest {
                 }
               } else if (toMergeFileNum == 3) {
                 if (compactionBeforeHasMod) {
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[0], 1749L);
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[1], 1749L);
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[2], 1749L);
+                  putChunk(
+                      chunkPagePointsNumMerged,
+                      fullPaths[0],
+                      new long[] {100L, 449L, 100L, 200L, 300L, 100L, 200L, 300L});
+                  putChunk(
+                      chunkPagePointsNumMerged,
+                      fullPaths[1],
+                      new long[] {100L, 200L, 300L, 100L, 449L, 100L, 200L, 300L});
+                  putChunk(
+                      chunkPagePointsNumMerged,
+                      fullPaths[2],
+                      new long[] {100L, 200L, 300L, 100L, 200L, 300L, 100L, 449L});
                 } else {
                   putChunk(
                       chunkPagePointsNumMerged,
@@ -510,7 +525,7 @@ public class InnerSeqCompactionTest {
             } else if (compactionTimeseriesType == CompactionTimeseriesType.PART_SAME) {
               if (toMergeFileNum == 2) {
                 if (compactionBeforeHasMod) {
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[0], 549L);
+                  putChunk(chunkPagePointsNumMerged, fullPaths[0], new long[] {100L, 449L});
                   putChunk(
                       chunkPagePointsNumMerged,
                       fullPaths[1],
@@ -519,7 +534,7 @@ public class InnerSeqCompactionTest {
                       chunkPagePointsNumMerged,
                       fullPaths[2],
                       new long[] {100L, 200L, 300L, 100L, 200L, 300L});
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[3], 549L);
+                  putChunk(chunkPagePointsNumMerged, fullPaths[3], new long[] {100L, 449L});
                 } else {
                   putChunk(chunkPagePointsNumMerged, fullPaths[0], new long[] {100L, 200L, 300L});
                   putChunk(
@@ -534,7 +549,7 @@ public class InnerSeqCompactionTest {
                 }
               } else if (toMergeFileNum == 3) {
                 if (compactionBeforeHasMod) {
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[0], 549L);
+                  putChunk(chunkPagePointsNumMerged, fullPaths[0], new long[] {100L, 449L});
                   putChunk(
                       chunkPagePointsNumMerged,
                       fullPaths[1],
@@ -543,8 +558,11 @@ public class InnerSeqCompactionTest {
                       chunkPagePointsNumMerged,
                       fullPaths[2],
                       new long[] {100L, 200L, 300L, 100L, 200L, 300L, 100L, 200L, 300L});
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[3], 1149L);
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[4], 549L);
+                  putChunk(
+                      chunkPagePointsNumMerged,
+                      fullPaths[3],
+                      new long[] {100L, 449L, 100L, 200L, 300L});
+                  putChunk(chunkPagePointsNumMerged, fullPaths[4], new long[] {100L, 449L});
                 } else {
                   putChunk(chunkPagePointsNumMerged, fullPaths[0], new long[] {100L, 200L, 300L});
                   putChunk(
@@ -567,10 +585,10 @@ public class InnerSeqCompactionTest {
                 if (compactionBeforeHasMod) {
                   putChunk(chunkPagePointsNumMerged, fullPaths[0], new long[] {100L, 200L, 300L});
                   putChunk(chunkPagePointsNumMerged, fullPaths[1], new long[] {100L, 200L, 300L});
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[2], 549L);
+                  putChunk(chunkPagePointsNumMerged, fullPaths[2], new long[] {100L, 449L});
                   putChunk(chunkPagePointsNumMerged, fullPaths[3], new long[] {100L, 200L, 300L});
                   putChunk(chunkPagePointsNumMerged, fullPaths[4], new long[] {100L, 200L, 300L});
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[5], 549L);
+                  putChunk(chunkPagePointsNumMerged, fullPaths[5], new long[] {100L, 449L});
                 } else {
                   putChunk(chunkPagePointsNumMerged, fullPaths[0], new long[] {100L, 200L, 300L});
                   putChunk(chunkPagePointsNumMerged, fullPaths[1], new long[] {100L, 200L, 300L});
@@ -583,13 +601,13 @@ public class InnerSeqCompactionTest {
                 if (compactionBeforeHasMod) {
                   putChunk(chunkPagePointsNumMerged, fullPaths[0], new long[] {100L, 200L, 300L});
                   putChunk(chunkPagePointsNumMerged, fullPaths[1], new long[] {100L, 200L, 300L});
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[2], 549L);
+                  putChunk(chunkPagePointsNumMerged, fullPaths[2], new long[] {100L, 449L});
                   putChunk(chunkPagePointsNumMerged, fullPaths[3], new long[] {100L, 200L, 300L});
                   putChunk(chunkPagePointsNumMerged, fullPaths[4], new long[] {100L, 200L, 300L});
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[5], 549L);
+                  putChunk(chunkPagePointsNumMerged, fullPaths[5], new long[] {100L, 449L});
                   putChunk(chunkPagePointsNumMerged, fullPaths[6], new long[] {100L, 200L, 300L});
                   putChunk(chunkPagePointsNumMerged, fullPaths[7], new long[] {100L, 200L, 300L});
-                  putOnePageChunk(chunkPagePointsNumMerged, fullPaths[8], 549L);
+                  putChunk(chunkPagePointsNumMerged, fullPaths[8], new long[] {100L, 449L});
                 } else {
                   putChunk(chunkPagePointsNumMerged, fullPaths[0], new long[] {100L, 200L, 300L});
                   putChunk(chunkPagePointsNumMerged, fullPaths[1], new long[] {100L, 200L, 300L});
@@ -316,7 +316,8 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
 
   /**
    * Generate some small data that are less than lower bound, and a chunk larger than target size.
-   * The large chunk will be deserialized into points and written to the chunk writer.
+   * The small data is deserialized into the chunk writer, and the page of the large chunk is
+   * appended after it without being decoded.
    *
    * @throws Exception
    */
@@ -387,10 +388,8 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
       Map<String, List<List<Long>>> chunkPagePointsNumMerged = new HashMap<>();
       // outer list is a chunk, inner list is point num in each page
       for (String path : fullPathSet) {
-        CompactionCheckerUtils.putOnePageChunk(
-            chunkPagePointsNumMerged,
-            path,
-            (fileNum - 1) * fileNum * pointStep / 2 + testTargetChunkPointNum + 100L);
+        CompactionCheckerUtils.putChunk(
+            chunkPagePointsNumMerged, path, new long[] {150L, testTargetChunkPointNum + 100L});
       }
       Map<PartialPath, List<TimeValuePair>> compactedData =
           CompactionCheckerUtils.getDataByQuery(
@@ -503,8 +502,8 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
 
   /**
    * Generate chunk that size are less than lower bound, and they will be deserialized and written
-   * into chunk writer. Then generate a middle size chunk, which will be deserialized and written
-   * into chunk writer because there are remaining points in current chunk writer.
+   * into chunk writer. Then generate a middle size chunk, whose page is large enough to be appended
+   * to the remaining points in current chunk writer without being decoded.
    *
    * @throws Exception
    */
@@ -575,10 +574,8 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
       Map<String, List<List<Long>>> chunkPagePointsNumMerged = new HashMap<>();
       // outer list is a chunk, inner list is point num in each page
       for (String path : fullPathSet) {
-        CompactionCheckerUtils.putOnePageChunk(
-            chunkPagePointsNumMerged,
-            path,
-            (fileNum - 1) * fileNum * pointStep / 2 + testTargetChunkPointNum - 100L);
+        CompactionCheckerUtils.putChunk(
+            chunkPagePointsNumMerged, path, new long[] {150L, testTargetChunkPointNum - 100L});
       }
       Map<PartialPath, List<TimeValuePair>> compactedData =
           CompactionCheckerUtils.getDataByQuery(
@@ -598,13 +595,13 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
   }
 
   /**
-   * Generate files that chunk are less than chunk point num lower bound, the chunk will be
-   * deserialized into points and written into in ChunkWriter.
+   * Generate files that chunk are less than both chunk point num lower bound and chunk size lower
+   * bound, the chunk will be deserialized into points and written into in ChunkWriter.
    */
   @Test
   public void testDeserializePage() throws Exception {
     long testTargetChunkPointNum = 1500L;
-    long testChunkSizeLowerBound = 1024L;
+    long testChunkSizeLowerBound = 10240L;
     long testChunkPointNumLowerBound = 1000L;
     long originTargetChunkSize = IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
     long originTargetChunkPointNum =
@@ -677,8 +674,9 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
 
   /**
    * Generate some chunks are less than the target size and greater than the lower bound, and some
-   * chunks that are less than the lower bound. So the chunk will be merged first, and the cached
-   * chunk will be deserialized into points later.
+   * chunks that are less than the lower bound. So the chunk will be merged first, and the pages of
+   * the cached chunk are appended to the chunk writer without being decoded, only the small page is
+   * deserialized into points.
    *
    * @throws Exception
    */
@@ -737,8 +735,8 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
       // outer list is a chunk, inner list is point num in each page
       List<List<Long>> chunkPointsArray = new ArrayList<>();
       for (String path : fullPathSet) {
-        CompactionCheckerUtils.putOnePageChunk(
-            chunkPagePointsNumMerged, path, fileNum * (fileNum + 1) * pointStep / 2);
+        CompactionCheckerUtils.putChunk(
+            chunkPagePointsNumMerged, path, new long[] {300L, 250L, 200L, 150L, 100L, 50L});
       }
       CompactionCheckerUtils.checkChunkAndPage(chunkPagePointsNumMerged, targetResource);
       Map<PartialPath, List<TimeValuePair>> compactedData =
@@ -812,8 +810,9 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
       Map<String, List<List<Long>>> chunkPagePointsNumMerged = new HashMap<>();
       // outer list is a chunk, inner list is point num in each page
       for (String path : fullPathSet) {
-        CompactionCheckerUtils.putOnePageChunk(chunkPagePointsNumMerged, path, 2750);
-        CompactionCheckerUtils.putOnePageChunk(chunkPagePointsNumMerged, path, 2950);
+        CompactionCheckerUtils.putChunk(
+            chunkPagePointsNumMerged, path, new long[] {100, 200, 300, 50, 2100});
+        CompactionCheckerUtils.putChunk(chunkPagePointsNumMerged, path, new long[] {50, 600, 2300});
         CompactionCheckerUtils.putOnePageChunk(chunkPagePointsNumMerged, path, 2500);
         CompactionCheckerUtils.putChunk(
             chunkPagePointsNumMerged, path, new long[] {1000, 500, 500});
@@ -890,10 +889,10 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
       Map<String, List<List<Long>>> chunkPagePointsNumMerged = new HashMap<>();
       // outer list is a chunk, inner list is point num in each page
       for (String path : fullPathSet) {
-        CompactionCheckerUtils.putOnePageChunk(chunkPagePointsNumMerged, path, 2010);
-        CompactionCheckerUtils.putOnePageChunk(chunkPagePointsNumMerged, path, 2010);
+        CompactionCheckerUtils.putChunk(chunkPagePointsNumMerged, path, new long[] {1960, 50});
+        CompactionCheckerUtils.putChunk(chunkPagePointsNumMerged, path, new long[] {1960, 50});
         CompactionCheckerUtils.putOnePageChunk(chunkPagePointsNumMerged, path, 2100);
-        CompactionCheckerUtils.putOnePageChunk(chunkPagePointsNumMerged, path, 2010);
+        CompactionCheckerUtils.putChunk(chunkPagePointsNumMerged, path, new long[] {50, 1960});
         CompactionCheckerUtils.putOnePageChunk(chunkPagePointsNumMerged, path, 2300);
         CompactionCheckerUtils.putOnePageChunk(chunkPagePointsNumMerged, path, 2500);
         CompactionCheckerUtils.putChunk(
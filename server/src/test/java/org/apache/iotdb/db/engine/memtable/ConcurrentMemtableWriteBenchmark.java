@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memtable;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.DeviceLock;
+import org.apache.iotdb.db.exception.WriteProcessException;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Multi-threaded memtable write benchmark. Writers insert tablets of their own devices into one
+ * memtable, either serialized by one lock like the insert lock of a data region, or in parallel
+ * with concurrent memtable write, where only the inserts of the same device exclude each other.
+ */
+public class ConcurrentMemtableWriteBenchmark {
+
+  private static int[] threadNums = {1, 2, 4, 8, 16};
+  private static int numOfDevice = 64;
+  private static int numOfMeasurement = 10;
+  private static int numOfTabletPerDevice = 100;
+  private static int numOfRowPerTablet = 100;
+
+  private static String[] measurementIds = new String[numOfMeasurement];
+  private static IMeasurementMNode[] mNodes = new IMeasurementMNode[numOfMeasurement];
+  private static List<Integer> dataTypes = new ArrayList<>();
+
+  static {
+    for (int i = 0; i < numOfMeasurement; i++) {
+      measurementIds[i] = "s" + i;
+      mNodes[i] =
+          MeasurementMNode.getMeasurementMNode(
+              null,
+              measurementIds[i],
+              new MeasurementSchema(measurementIds[i], TSDataType.INT64, TSEncoding.RLE),
+              null);
+      dataTypes.add(TSDataType.INT64.ordinal());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    for (int threadNum : threadNums) {
+      long serialTime = bench(threadNum, false);
+      long concurrentTime = bench(threadNum, true);
+      long totalPoints =
+          (long) numOfDevice * numOfTabletPerDevice * numOfRowPerTablet * numOfMeasurement;
+      System.out.println(
+          String.format(
+              "Threads: %d, one insert lock: %d ms (%.2f M points/s), "
+                  + "concurrent memtable write: %d ms (%.2f M points/s)",
+              threadNum,
+              serialTime,
+              totalPoints / 1000.0 / serialTime,
+              concurrentTime,
+              totalPoints / 1000.0 / concurrentTime));
+    }
+  }
+
+  /** @return the time used to write all the tablets in ms */
+  private static long bench(int threadNum, boolean concurrentWrite) throws Exception {
+    IoTDBDescriptor.getInstance().getConfig().setEnableConcurrentMemtableWrite(concurrentWrite);
+    IMemTable memTable = new PrimitiveMemTable();
+    ReentrantLock insertLock = new ReentrantLock();
+
+    // prepare the tablets first, so that only the insertions are measured
+    List<List<InsertTabletPlan>> tabletsOfThreads = new ArrayList<>();
+    for (int t = 0; t < threadNum; t++) {
+      tabletsOfThreads.add(new ArrayList<>());
+    }
+    for (int i = 0; i < numOfTabletPerDevice; i++) {
+      for (int d = 0; d < numOfDevice; d++) {
+        tabletsOfThreads
+            .get(d % threadNum)
+            .add(genTablet("root.sg.d" + d, (long) i * numOfRowPerTablet));
+      }
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    List<Future<?>> futures = new ArrayList<>();
+    long startTime = System.currentTimeMillis();
+    for (List<InsertTabletPlan> tablets : tabletsOfThreads) {
+      futures.add(
+          pool.submit(
+              () -> {
+                for (InsertTabletPlan tablet : tablets) {
+                  insert(memTable, tablet, concurrentWrite, insertLock);
+                }
+                return null;
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    long endTime = System.currentTimeMillis();
+    pool.shutdown();
+    memTable.release();
+    return endTime - startTime;
+  }
+
+  private static void insert(
+      IMemTable memTable,
+      InsertTabletPlan tablet,
+      boolean concurrentWrite,
+      ReentrantLock insertLock)
+      throws WriteProcessException {
+    if (concurrentWrite) {
+      String device = tablet.getDevicePath().getFullPath();
+      DeviceLock.writeLock(device);
+      try {
+        memTable.insertTablet(tablet, 0, numOfRowPerTablet);
+      } finally {
+        DeviceLock.writeUnlock(device);
+      }
+    } else {
+      insertLock.lock();
+      try {
+        memTable.insertTablet(tablet, 0, numOfRowPerTablet);
+      } finally {
+        insertLock.unlock();
+      }
+    }
+  }
+
+  private static InsertTabletPlan genTablet(String deviceId, long startTime)
+      throws IllegalPathException {
+    long[] times = new long[numOfRowPerTablet];
+    Object[] columns = new Object[numOfMeasurement];
+    for (int m = 0; m < numOfMeasurement; m++) {
+      columns[m] = new long[numOfRowPerTablet];
+    }
+    for (int r = 0; r < numOfRowPerTablet; r++) {
+      times[r] = startTime + r;
+      for (int m = 0; m < numOfMeasurement; m++) {
+        ((long[]) columns[m])[r] = r;
+      }
+    }
+    InsertTabletPlan tablet =
+        new InsertTabletPlan(new PartialPath(deviceId), measurementIds, dataTypes);
+    tablet.setTimes(times);
+    tablet.setColumns(columns);
+    tablet.setRowCount(numOfRowPerTablet);
+    tablet.setMeasurementMNodes(mNodes);
+    return tablet;
+  }
+}
@@ -21,13 +21,18 @@ package org.apache.iotdb.db.engine.memtable;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.metadata.idtable.entry.DeviceIDFactory;
 import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 import java.util.Collections;
+import java.util.Random;
 
-/** Memtable insert benchmark. Bench the Memtable and get its performance. */
+/**
+ * Memtable insert benchmark. Bench the Memtable and get its performance, then bench sorting a
+ * TVList with different ratios of out-of-order points.
+ */
 public class MemtableBenchmark {
 
   private static String deviceId = "d0";
@@ -37,6 +42,10 @@ public class MemtableBenchmark {
   private static String[] measurementId = new String[numOfMeasurement];
   private static TSDataType tsDataType = TSDataType.INT64;
 
+  private static int numOfPointInTVList = 1_000_000;
+  private static double[] disorderRatios = {0, 0.001, 0.01, 0.1, 0.5};
+  private static int sortRound = 10;
+
   static {
     for (int i = 0; i < numOfMeasurement; i++) {
       measurementId[i] = "m" + i;
@@ -65,5 +74,52 @@ public class MemtableBenchmark {
                 + "Num of points for each time series: %d, "
                 + "The total time: %d ms. ",
             numOfMeasurement, numOfPoint, endTime - startTime));
+
+    for (double disorderRatio : disorderRatios) {
+      benchTVListSort(disorderRatio);
+    }
+  }
+
+  /**
+   * Sort a list in which disorderRatio of the points arrive up to 1000 points late, both for flush
+   * (sorting in place) and for a query snapshot (the list is referenced, so it's cloned first).
+   */
+  private static void benchTVListSort(double disorderRatio) {
+    Random random = new Random(1);
+    long[] times = new long[numOfPointInTVList];
+    for (int i = 0; i < numOfPointInTVList; i++) {
+      times[i] = random.nextDouble() < disorderRatio ? i - random.nextInt(1000) : i;
+    }
+
+    long sortTime = 0;
+    long cloneSortTime = 0;
+    long copyOnWriteSortTime = 0;
+    for (int round = 0; round < sortRound; round++) {
+      TVList list = TVList.newList(tsDataType);
+      for (int i = 0; i < numOfPointInTVList; i++) {
+        list.putLong(times[i], i);
+      }
+      long start = System.nanoTime();
+      TVList clone = list.clone();
+      clone.sort();
+      cloneSortTime += System.nanoTime() - start;
+
+      start = System.nanoTime();
+      clone = list.copyOnWriteClone();
+      clone.sort();
+      copyOnWriteSortTime += System.nanoTime() - start;
+
+      start = System.nanoTime();
+      list.sort();
+      sortTime += System.nanoTime() - start;
+    }
+    System.out.println(
+        String.format(
+            "Disorder ratio: %.3f, sort: %.2f ms, clone and sort: %.2f ms, "
+                + "copy-on-write clone and sort: %.2f ms",
+            disorderRatio,
+            sortTime / 1e6 / sortRound,
+            cloneSortTime / 1e6 / sortRound,
+            copyOnWriteSortTime / 1e6 / sortRound));
   }
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
@@ -57,6 +58,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 
@@ -541,6 +545,109 @@ public class PrimitiveMemTableTest {
     return insertTabletPlan;
   }
 
+  private InsertTabletPlan genInsertTabletPlan(String deviceId, long startTime, int rowCount)
+      throws IllegalPathException {
+    String[] measurements = new String[] {"sensor0", "sensor1"};
+    List<Integer> dataTypesList =
+        Arrays.asList(TSDataType.INT64.ordinal(), TSDataType.DOUBLE.ordinal());
+    IMeasurementMNode[] mNodes = new IMeasurementMNode[2];
+    mNodes[0] =
+        MeasurementMNode.getMeasurementMNode(
+            null,
+            measurements[0],
+            new MeasurementSchema(measurements[0], TSDataType.INT64, TSEncoding.RLE),
+            null);
+    mNodes[1] =
+        MeasurementMNode.getMeasurementMNode(
+            null,
+            measurements[1],
+            new MeasurementSchema(measurements[1], TSDataType.DOUBLE, TSEncoding.GORILLA),
+            null);
+
+    long[] times = new long[rowCount];
+    Object[] columns = new Object[] {new long[rowCount], new double[rowCount]};
+    for (int r = 0; r < rowCount; r++) {
+      times[r] = startTime + r;
+      ((long[]) columns[0])[r] = r;
+      ((double[]) columns[1])[r] = r;
+    }
+    InsertTabletPlan insertTabletPlan =
+        new InsertTabletPlan(new PartialPath(deviceId), measurements, dataTypesList);
+    insertTabletPlan.setTimes(times);
+    insertTabletPlan.setColumns(columns);
+    insertTabletPlan.setRowCount(rowCount);
+    insertTabletPlan.setMeasurementMNodes(mNodes);
+    return insertTabletPlan;
+  }
+
+  @Test
+  public void testConcurrentInsertOfDifferentDevices() throws Exception {
+    boolean prevEnableConcurrentWrite =
+        IoTDBDescriptor.getInstance().getConfig().isEnableConcurrentMemtableWrite();
+    IoTDBDescriptor.getInstance().getConfig().setEnableConcurrentMemtableWrite(true);
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      int threadNum = 4;
+      int deviceNumPerThread = 8;
+      int batchNum = 20;
+      int rowCount = 100;
+      IMemTable memTable = new PrimitiveMemTable();
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threadNum; t++) {
+        int threadId = t;
+        futures.add(
+            pool.submit(
+                () -> {
+                  for (int batch = 0; batch < batchNum; batch++) {
+                    for (int d = 0; d < deviceNumPerThread; d++) {
+                      memTable.insertTablet(
+                          genInsertTabletPlan(
+                              "root.sg.d" + threadId + "_" + d, (long) batch * rowCount, rowCount),
+                          0,
+                          rowCount);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+
+      // the same inserts by a single thread
+      IMemTable expected = new PrimitiveMemTable();
+      for (int t = 0; t < threadNum; t++) {
+        for (int batch = 0; batch < batchNum; batch++) {
+          for (int d = 0; d < deviceNumPerThread; d++) {
+            expected.insertTablet(
+                genInsertTabletPlan("root.sg.d" + t + "_" + d, (long) batch * rowCount, rowCount),
+                0,
+                rowCount);
+          }
+        }
+      }
+
+      assertEquals(threadNum * deviceNumPerThread, memTable.getMemTableMap().size());
+      assertEquals(threadNum * deviceNumPerThread * 2, memTable.getSeriesNumber());
+      assertEquals(
+          (long) threadNum * deviceNumPerThread * batchNum * rowCount * 2,
+          memTable.getTotalPointsNum());
+      assertEquals(expected.size(), memTable.size());
+      assertEquals(expected.memSize(), memTable.memSize());
+      for (IWritableMemChunkGroup memChunkGroup : memTable.getMemTableMap().values()) {
+        for (IWritableMemChunk memChunk : memChunkGroup.getMemChunkMap().values()) {
+          assertEquals(batchNum * rowCount, memChunk.count());
+          Assert.assertTrue(memChunk.getTVList().isSorted());
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setEnableConcurrentMemtableWrite(prevEnableConcurrentWrite);
+    }
+  }
+
   @Test
   public void testSerializeSize() throws IOException, QueryProcessException, MetadataException {
     IMemTable memTable = new PrimitiveMemTable();
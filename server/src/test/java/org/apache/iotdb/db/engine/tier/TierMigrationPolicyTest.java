@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.tier;
+
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TierMigrationPolicyTest {
+
+  private final Map<TsFileResource, Integer> tiers = new HashMap<>();
+
+  private TsFileResource mockFile(long endTime, long size, int tier, TsFileResourceStatus status) {
+    TsFileResource resource = Mockito.mock(TsFileResource.class);
+    Mockito.when(resource.getFileEndTime()).thenReturn(endTime);
+    Mockito.when(resource.getTsFileSize()).thenReturn(size);
+    Mockito.when(resource.getStatus()).thenReturn(status);
+    tiers.put(resource, tier);
+    return resource;
+  }
+
+  private Map<TsFileResource, Integer> select(
+      TierMigrationPolicy policy, List<TsFileResource> files, long currentTime) {
+    return policy.select(files, tiers::get, currentTime);
+  }
+
+  @Test
+  public void testAgePolicy() {
+    TierMigrationPolicy policy = new TierMigrationPolicy(new long[] {100, 1000}, new long[0], 3);
+    TsFileResource hot = mockFile(950, 10, 0, TsFileResourceStatus.CLOSED);
+    TsFileResource warm = mockFile(800, 10, 0, TsFileResourceStatus.CLOSED);
+    TsFileResource cold = mockFile(-100, 10, 0, TsFileResourceStatus.CLOSED);
+    TsFileResource migrated = mockFile(500, 10, 1, TsFileResourceStatus.CLOSED);
+    TsFileResource compacting = mockFile(-200, 10, 0, TsFileResourceStatus.COMPACTING);
+
+    Map<TsFileResource, Integer> migrations =
+        select(policy, Arrays.asList(hot, warm, cold, migrated, compacting), 1000);
+    assertEquals(2, migrations.size());
+    assertEquals(1, (int) migrations.get(warm));
+    // old enough for the coldest tier, skip the middle one
+    assertEquals(2, (int) migrations.get(cold));
+  }
+
+  @Test
+  public void testSizePolicy() {
+    TierMigrationPolicy policy = new TierMigrationPolicy(new long[0], new long[] {25, 15}, 3);
+    List<TsFileResource> files = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      files.add(mockFile(i * 100, 10, 0, TsFileResourceStatus.CLOSED));
+    }
+    Map<TsFileResource, Integer> migrations = select(policy, files, 1000);
+
+    // tier 0 keeps the newest 2 files, tier 1 keeps the next one and the rest overflow to tier 2
+    assertEquals(3, migrations.size());
+    assertEquals(2, (int) migrations.get(files.get(0)));
+    assertEquals(2, (int) migrations.get(files.get(1)));
+    assertEquals(1, (int) migrations.get(files.get(2)));
+  }
+
+  @Test
+  public void testDisabledPolicy() {
+    TierMigrationPolicy policy = new TierMigrationPolicy(new long[] {-1}, new long[] {0}, 2);
+    TsFileResource file = mockFile(-1000, 1000, 0, TsFileResourceStatus.CLOSED);
+    assertTrue(select(policy, Arrays.asList(file), 1000).isEmpty());
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.tier;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.conf.directories.DirectoryManager;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.flush.TsFileFlushPolicy.DirectFlushPolicy;
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.storagegroup.DataRegion;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.exception.DataRegionException;
+import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.TriggerExecutionException;
+import org.apache.iotdb.db.exception.WriteProcessException;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.rescon.TsFileResourceManager;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.iotdb.db.engine.storagegroup.TsFileResource.RESOURCE_SUFFIX;
+import static org.apache.iotdb.db.engine.tier.TsFileTierMigrationTask.MIGRATING_SUFFIX;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TsFileTierMigrationTaskTest {
+
+  private static final String SG = "root.TierMigrationTest";
+  private static final String S1 = "s1";
+  private static final String TIER_DIR =
+      TestConstant.BASE_OUTPUT_PATH + "tier1" + File.separator + "data";
+
+  private String[][] prevStorageTierDataDirs;
+  private DataRegion dataRegion;
+
+  @Before
+  public void setUp() throws MetadataException, DataRegionException {
+    prevStorageTierDataDirs = IoTDBDescriptor.getInstance().getConfig().getStorageTierDataDirs();
+    IoTDBDescriptor.getInstance().getConfig().setStorageTierDataDirs(new String[][] {{TIER_DIR}});
+    DirectoryManager.getInstance().resetStorageTiers();
+    EnvironmentUtils.envSetUp();
+    IoTDB.schemaProcessor.setStorageGroup(new PartialPath(SG));
+    IoTDB.schemaProcessor.createTimeseries(
+        new PartialPath(SG + IoTDBConstant.PATH_SEPARATOR + S1),
+        TSDataType.INT64,
+        TSEncoding.PLAIN,
+        CompressionType.UNCOMPRESSED,
+        Collections.emptyMap());
+    dataRegion = createDataRegion();
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    dataRegion.syncCloseAllWorkingTsFileProcessors();
+    // the folders of the colder tier are cleaned with data_dirs
+    EnvironmentUtils.cleanEnv();
+    IoTDBDescriptor.getInstance().getConfig().setStorageTierDataDirs(prevStorageTierDataDirs);
+    DirectoryManager.getInstance().resetStorageTiers();
+  }
+
+  private DataRegion createDataRegion() throws DataRegionException {
+    return new DataRegion(
+        IoTDBDescriptor.getInstance().getConfig().getSystemDir(), SG, new DirectFlushPolicy(), SG);
+  }
+
+  /** write the given number of sealed sequence TsFiles, each one with 100 points */
+  private void prepareData(int fileNum)
+      throws WriteProcessException, IllegalPathException, TriggerExecutionException {
+    InsertRowPlan plan = new InsertRowPlan();
+    plan.setDevicePath(new PartialPath(SG));
+    plan.setMeasurements(new String[] {S1});
+    plan.setDataTypes(new TSDataType[] {TSDataType.INT64});
+    plan.setValues(new Object[] {1L});
+    plan.setMeasurementMNodes(
+        new IMeasurementMNode[] {
+          MeasurementMNode.getMeasurementMNode(
+              null, S1, new MeasurementSchema(S1, TSDataType.INT64, TSEncoding.PLAIN), null)
+        });
+    plan.transferType();
+    for (int i = 0; i < fileNum * 100; i++) {
+      plan.setTime(i);
+      dataRegion.insert(plan);
+      if ((i + 1) % 100 == 0) {
+        dataRegion.syncCloseAllWorkingTsFileProcessors();
+      }
+    }
+  }
+
+  /** the folder in the colder tier holding the migrated copies of the TsFiles of the source */
+  private File getTierPartitionFolder(File sourceFile) throws DiskSpaceInsufficientException {
+    File partitionFolder = sourceFile.getParentFile();
+    File dataRegionFolder = partitionFolder.getParentFile();
+    File storageGroupFolder = dataRegionFolder.getParentFile();
+    File folder =
+        new File(
+            DirectoryManager.getInstance().getNextFolderForStorageTier(1, true)
+                + File.separator
+                + storageGroupFolder.getName()
+                + File.separator
+                + dataRegionFolder.getName()
+                + File.separator
+                + partitionFolder.getName());
+    assertTrue(folder.exists() || folder.mkdirs());
+    return folder;
+  }
+
+  private static File getMigratingFile(File file) {
+    return new File(file.getPath() + MIGRATING_SUFFIX);
+  }
+
+  @Test
+  public void testMigrate() throws Exception {
+    prepareData(2);
+    List<TsFileResource> seqResources = dataRegion.getTsFileManager().getTsFileList(true);
+    assertEquals(2, seqResources.size());
+    TsFileResource source = seqResources.get(0);
+    File sourceFile = source.getTsFile();
+    try (ModificationFile modificationFile =
+        new ModificationFile(sourceFile.getPath() + ModificationFile.FILE_SUFFIX)) {
+      modificationFile.write(
+          new Deletion(new PartialPath(SG + IoTDBConstant.PATH_SEPARATOR + S1), 0, 0, 10));
+    }
+    long registeredResourceNum = TsFileResourceManager.getInstance().getPriorityQueueSize();
+
+    assertTrue(new TsFileTierMigrationTask(dataRegion, source, true, 1).migrate());
+
+    File targetFile = new File(getTierPartitionFolder(sourceFile), sourceFile.getName());
+    assertTrue(targetFile.exists());
+    assertTrue(new File(targetFile.getPath() + RESOURCE_SUFFIX).exists());
+    assertTrue(new File(targetFile.getPath() + ModificationFile.FILE_SUFFIX).exists());
+    assertFalse(getMigratingFile(targetFile).exists());
+    assertEquals(1, DirectoryManager.getInstance().getStorageTierOfFile(targetFile));
+
+    assertFalse(sourceFile.exists());
+    assertFalse(new File(sourceFile.getPath() + RESOURCE_SUFFIX).exists());
+    assertFalse(new File(sourceFile.getPath() + ModificationFile.FILE_SUFFIX).exists());
+    assertTrue(source.isDeleted());
+
+    seqResources = dataRegion.getTsFileManager().getTsFileList(true);
+    assertEquals(2, seqResources.size());
+    TsFileResource target = seqResources.get(0);
+    assertEquals(targetFile.getAbsolutePath(), target.getTsFile().getAbsolutePath());
+    assertEquals(TsFileResourceStatus.CLOSED, target.getStatus());
+    assertEquals(source.getEndTime(SG), target.getEndTime(SG));
+    // the source is replaced by the target
+    assertEquals(registeredResourceNum, TsFileResourceManager.getInstance().getPriorityQueueSize());
+  }
+
+  @Test
+  public void testMigrateFileRemovedByTTL() throws Exception {
+    prepareData(1);
+    TsFileResource source = dataRegion.getTsFileManager().getTsFileList(true).get(0);
+    File sourceFile = source.getTsFile();
+
+    // the TTL check runs after the TsFile is linked or copied into the colder tier, right before
+    // the migration takes the write lock of the data region to replace it
+    DataRegion racingDataRegion = Mockito.spy(dataRegion);
+    Mockito.doAnswer(
+            invocation -> {
+              dataRegion.setDataTTL(1);
+              dataRegion.checkFilesTTL();
+              return invocation.callRealMethod();
+            })
+        .when(racingDataRegion)
+        .writeLock("tierMigration");
+
+    assertFalse(new TsFileTierMigrationTask(racingDataRegion, source, true, 1).migrate());
+
+    File targetFile = new File(getTierPartitionFolder(sourceFile), sourceFile.getName());
+    assertFalse(targetFile.exists());
+    assertFalse(getMigratingFile(targetFile).exists());
+    assertFalse(getMigratingFile(new File(targetFile.getPath() + RESOURCE_SUFFIX)).exists());
+    // the migration holds the read lock of the source, so TTL only marks it as deleted, and the
+    // next check removes it
+    assertTrue(source.isDeleted());
+    assertSame(source, dataRegion.getTsFileManager().getTsFileList(true).get(0));
+    dataRegion.checkFilesTTL();
+    assertFalse(sourceFile.exists());
+  }
+
+  @Test
+  public void testRecoverUnfinishedMigration() throws Exception {
+    prepareData(1);
+    TsFileResource source = dataRegion.getTsFileManager().getTsFileList(true).get(0);
+    File sourceFile = source.getTsFile();
+    File targetFile = new File(getTierPartitionFolder(sourceFile), sourceFile.getName());
+    // the system crashed while the TsFile was being copied into the colder tier
+    Files.copy(sourceFile.toPath(), getMigratingFile(targetFile).toPath());
+    Files.copy(
+        new File(sourceFile.getPath() + RESOURCE_SUFFIX).toPath(),
+        getMigratingFile(new File(targetFile.getPath() + RESOURCE_SUFFIX)).toPath());
+    dataRegion.syncCloseAllWorkingTsFileProcessors();
+
+    dataRegion = createDataRegion();
+
+    assertFalse(getMigratingFile(targetFile).exists());
+    assertFalse(getMigratingFile(new File(targetFile.getPath() + RESOURCE_SUFFIX)).exists());
+    assertFalse(targetFile.exists());
+    List<TsFileResource> seqResources = dataRegion.getTsFileManager().getTsFileList(true);
+    assertEquals(1, seqResources.size());
+    assertEquals(sourceFile.getAbsolutePath(), seqResources.get(0).getTsFile().getAbsolutePath());
+  }
+
+  @Test
+  public void testRecoverDuplicatedMigration() throws Exception {
+    prepareData(1);
+    TsFileResource source = dataRegion.getTsFileManager().getTsFileList(true).get(0);
+    File sourceFile = source.getTsFile();
+    File targetFile = new File(getTierPartitionFolder(sourceFile), sourceFile.getName());
+    // the system crashed after the TsFile was migrated but before the source was removed
+    Files.copy(sourceFile.toPath(), targetFile.toPath());
+    Files.copy(
+        new File(sourceFile.getPath() + RESOURCE_SUFFIX).toPath(),
+        new File(targetFile.getPath() + RESOURCE_SUFFIX).toPath());
+    dataRegion.syncCloseAllWorkingTsFileProcessors();
+
+    dataRegion = createDataRegion();
+
+    // the copy in the colder tier is kept
+    assertFalse(sourceFile.exists());
+    assertFalse(new File(sourceFile.getPath() + RESOURCE_SUFFIX).exists());
+    assertTrue(targetFile.exists());
+    List<TsFileResource> seqResources = dataRegion.getTsFileManager().getTsFileList(true);
+    assertEquals(1, seqResources.size());
+    assertEquals(targetFile.getAbsolutePath(), seqResources.get(0).getTsFile().getAbsolutePath());
+  }
+}
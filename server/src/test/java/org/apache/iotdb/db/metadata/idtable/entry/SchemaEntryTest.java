@@ -27,6 +27,9 @@ import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.apache.iotdb.db.utils.EncodingInferenceUtils.getDefaultEncoding;
 import static org.junit.Assert.assertEquals;
 
@@ -65,4 +68,35 @@ public class SchemaEntryTest {
       assertEquals(110L, schemaEntry.getLastTime());
     }
   }
+
+  @Test
+  public void concurrentUpdateLastCacheTest() throws InterruptedException {
+    SchemaEntry schemaEntry = new SchemaEntry(TSDataType.INT64);
+    int threadNum = 8;
+    int updateNum = 10000;
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadNum; i++) {
+      int offset = i;
+      threads.add(
+          new Thread(
+              () -> {
+                for (int j = 0; j < updateNum; j++) {
+                  long time = (long) j * threadNum + offset;
+                  schemaEntry.updateCachedLast(
+                      new TimeValuePair(time, new TsPrimitiveType.TsLong(time)), false, 0L);
+                }
+              }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // the newest point wins, and its time and value are never torn
+    long lastTime = (long) updateNum * threadNum - 1;
+    assertEquals(lastTime, schemaEntry.getCachedLast().getTimestamp());
+    assertEquals(new TsPrimitiveType.TsLong(lastTime), schemaEntry.getCachedLast().getValue());
+  }
 }
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AccumulatorTest {
+
+  // timestamps are 0 to 9, the value of time t is t - 5 and the first one is null
+  private TsBlock rawData;
+
+  @Before
+  public void setUp() {
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT64));
+    for (int i = 0; i < 10; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      if (i == 0) {
+        builder.getColumnBuilder(0).appendNull();
+      } else {
+        builder.getColumnBuilder(0).writeLong(i - 5);
+      }
+      builder.declarePosition();
+    }
+    rawData = builder.build();
+  }
+
+  @Test
+  public void testRawInput() {
+    assertEquals(9L, aggregate(AggregationType.COUNT, true).getLong(0));
+    assertEquals(0.0, aggregate(AggregationType.SUM, true).getDouble(0), 0.0001);
+    assertEquals(0.0, aggregate(AggregationType.AVG, true).getDouble(0), 0.0001);
+    assertEquals(4L, aggregate(AggregationType.MAX_VALUE, true).getLong(0));
+    assertEquals(-4L, aggregate(AggregationType.MIN_VALUE, true).getLong(0));
+    assertEquals(4L, aggregate(AggregationType.EXTREME, true).getLong(0));
+    for (boolean ascending : new boolean[] {true, false}) {
+      assertEquals(-4L, aggregate(AggregationType.FIRST_VALUE, ascending).getLong(0));
+      assertEquals(4L, aggregate(AggregationType.LAST_VALUE, ascending).getLong(0));
+      assertEquals(1L, aggregate(AggregationType.MIN_TIME, ascending).getLong(0));
+      assertEquals(9L, aggregate(AggregationType.MAX_TIME, ascending).getLong(0));
+    }
+  }
+
+  @Test
+  public void testMergeIntermediateResults() {
+    for (AggregationType aggregationType : AggregationType.values()) {
+      Column expected = aggregate(aggregationType, true);
+      Column actual = aggregateInTwoParts(aggregationType);
+      assertEquals(aggregationType.name(), expected.getObject(0), actual.getObject(0));
+    }
+  }
+
+  @Test
+  public void testStatistics() {
+    Statistics statistics = Statistics.getStatsByType(TSDataType.INT64);
+    for (int i = 1; i < 10; i++) {
+      statistics.update(i, (long) (i - 5));
+    }
+    for (AggregationType aggregationType : AggregationType.values()) {
+      Accumulator accumulator =
+          AccumulatorFactory.createAccumulator(aggregationType, TSDataType.INT64, true);
+      accumulator.addStatistics(statistics);
+      assertEquals(
+          aggregationType.name(),
+          aggregate(aggregationType, true).getObject(0),
+          outputFinal(accumulator).getObject(0));
+    }
+  }
+
+  @Test
+  public void testEmptyInput() {
+    for (AggregationType aggregationType : AggregationType.values()) {
+      Accumulator accumulator =
+          AccumulatorFactory.createAccumulator(aggregationType, TSDataType.INT64, true);
+      TsBlock nullOnly = rawData.getRegion(0, 1);
+      accumulator.addInput(nullOnly.getTimeColumn(), nullOnly.getColumn(0));
+      Column result = outputFinal(accumulator);
+      if (aggregationType == AggregationType.COUNT) {
+        assertEquals(0L, result.getLong(0));
+      } else {
+        assertTrue(aggregationType.name(), result.isNull(0));
+      }
+    }
+  }
+
+  @Test
+  public void testHasFinalResult() {
+    Accumulator first =
+        AccumulatorFactory.createAccumulator(AggregationType.FIRST_VALUE, TSDataType.INT64, true);
+    assertFalse(first.hasFinalResult());
+    first.addInput(rawData.getTimeColumn(), rawData.getColumn(0));
+    assertTrue(first.hasFinalResult());
+    first.reset();
+    assertFalse(first.hasFinalResult());
+
+    Accumulator last =
+        AccumulatorFactory.createAccumulator(AggregationType.LAST_VALUE, TSDataType.INT64, true);
+    last.addInput(rawData.getTimeColumn(), rawData.getColumn(0));
+    assertFalse(last.hasFinalResult());
+  }
+
+  private Column aggregate(AggregationType aggregationType, boolean ascending) {
+    Accumulator accumulator =
+        AccumulatorFactory.createAccumulator(aggregationType, TSDataType.INT64, ascending);
+    TsBlock input = ascending ? rawData : reverse(rawData);
+    accumulator.addInput(input.getTimeColumn(), input.getColumn(0));
+    return outputFinal(accumulator);
+  }
+
+  /** aggregate the two halves separately and merge their intermediate results */
+  private Column aggregateInTwoParts(AggregationType aggregationType) {
+    Accumulator accumulator =
+        AccumulatorFactory.createAccumulator(aggregationType, TSDataType.INT64, true);
+    TsBlockBuilder intermediateBuilder =
+        new TsBlockBuilder(Arrays.asList(accumulator.getIntermediateType()));
+    for (int offset = 0; offset < 10; offset += 5) {
+      accumulator.reset();
+      TsBlock part = rawData.getRegion(offset, 5);
+      accumulator.addInput(part.getTimeColumn(), part.getColumn(0));
+      accumulator.outputIntermediate(intermediateBuilder.getValueColumnBuilders());
+      intermediateBuilder.getTimeColumnBuilder().writeLong(0);
+      intermediateBuilder.declarePosition();
+    }
+    TsBlock intermediate = intermediateBuilder.build();
+    Column[] partialResult = new Column[intermediate.getValueColumnCount()];
+    for (int i = 0; i < partialResult.length; i++) {
+      partialResult[i] = intermediate.getColumn(i);
+    }
+
+    Accumulator merger =
+        AccumulatorFactory.createAccumulator(aggregationType, TSDataType.INT64, true);
+    for (int i = 0; i < intermediate.getPositionCount(); i++) {
+      merger.addIntermediate(partialResult, i);
+    }
+    return outputFinal(merger);
+  }
+
+  private static Column outputFinal(Accumulator accumulator) {
+    TsBlockBuilder builder =
+        new TsBlockBuilder(Collections.singletonList(accumulator.getFinalType()));
+    ColumnBuilder columnBuilder = builder.getColumnBuilder(0);
+    accumulator.outputFinal(columnBuilder);
+    return columnBuilder.build();
+  }
+
+  private static TsBlock reverse(TsBlock tsBlock) {
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT64));
+    for (int i = tsBlock.getPositionCount() - 1; i >= 0; i--) {
+      builder.getTimeColumnBuilder().writeLong(tsBlock.getTimeByIndex(i));
+      if (tsBlock.getColumn(0).isNull(i)) {
+        builder.getColumnBuilder(0).appendNull();
+      } else {
+        builder.getColumnBuilder(0).writeLong(tsBlock.getColumn(0).getLong(i));
+      }
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.buffer;
+
+import org.apache.iotdb.db.mpp.buffer.DataBlockManager.SinkHandleListener;
+import org.apache.iotdb.db.mpp.buffer.DataBlockManager.SourceHandleListener;
+import org.apache.iotdb.db.mpp.memory.LocalMemoryManager;
+import org.apache.iotdb.db.mpp.memory.MemoryPool;
+import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class LocalSinkHandleTest {
+
+  private static final String QUERY_ID = "q0";
+  private static final long MOCK_TSBLOCK_SIZE = 1024L * 1024L;
+
+  private final TFragmentInstanceId remoteFragmentInstanceId =
+      new TFragmentInstanceId(QUERY_ID, 0, "0");
+  private final String remotePlanNodeId = "exchange_0";
+  private final TFragmentInstanceId localFragmentInstanceId =
+      new TFragmentInstanceId(QUERY_ID, 1, "0");
+
+  @Test
+  public void testSendAndReceive() {
+    final int numOfMockTsBlock = 3;
+    // The memory pool can hold two tsblocks at most.
+    MemoryPool memoryPool = new MemoryPool("test", 2 * MOCK_TSBLOCK_SIZE, 2 * MOCK_TSBLOCK_SIZE);
+    LocalMemoryManager mockLocalMemoryManager = Mockito.mock(LocalMemoryManager.class);
+    Mockito.when(mockLocalMemoryManager.getQueryPool()).thenReturn(memoryPool);
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    SharedTsBlockQueue queue =
+        new SharedTsBlockQueue(remoteFragmentInstanceId, mockLocalMemoryManager, executorService);
+    SinkHandleListener mockSinkHandleListener = Mockito.mock(SinkHandleListener.class);
+    SourceHandleListener mockSourceHandleListener = Mockito.mock(SourceHandleListener.class);
+    LocalSinkHandle sinkHandle =
+        new LocalSinkHandle(
+            remoteFragmentInstanceId,
+            remotePlanNodeId,
+            localFragmentInstanceId,
+            queue,
+            mockSinkHandleListener);
+    LocalSourceHandle sourceHandle =
+        new LocalSourceHandle(
+            localFragmentInstanceId,
+            remoteFragmentInstanceId,
+            remotePlanNodeId,
+            queue,
+            mockSourceHandleListener);
+    Assert.assertTrue(sinkHandle.isFull().isDone());
+    Assert.assertFalse(sourceHandle.isBlocked().isDone());
+    Assert.assertNull(sourceHandle.receive());
+
+    // The third tsblock exceeds the memory pool, so the sink handle is blocked until the source
+    // handle receives one.
+    List<TsBlock> mockTsBlocks = Utils.createMockTsBlocks(numOfMockTsBlock, MOCK_TSBLOCK_SIZE);
+    for (int i = 0; i < numOfMockTsBlock; i++) {
+      Assert.assertTrue(sinkHandle.isFull().isDone());
+      sinkHandle.send(Collections.singletonList(mockTsBlocks.get(i)));
+      Assert.assertTrue(sourceHandle.isBlocked().isDone());
+    }
+    Assert.assertFalse(sinkHandle.isFull().isDone());
+    Assert.assertEquals(numOfMockTsBlock, sinkHandle.getNumOfBufferedTsBlocks());
+    Assert.assertEquals(
+        numOfMockTsBlock * MOCK_TSBLOCK_SIZE, sourceHandle.getBufferRetainedSizeInBytes());
+    Assert.assertSame(mockTsBlocks.get(0), sourceHandle.receive());
+    Assert.assertTrue(sinkHandle.isFull().isDone());
+
+    sinkHandle.close();
+    Assert.assertTrue(sinkHandle.isClosed());
+    Assert.assertFalse(sinkHandle.isFinished());
+    Assert.assertFalse(sourceHandle.isFinished());
+    Mockito.verify(mockSinkHandleListener, Mockito.times(1)).onClosed(sinkHandle);
+    Mockito.verify(mockSinkHandleListener, Mockito.never()).onFinish(sinkHandle);
+
+    Assert.assertSame(mockTsBlocks.get(1), sourceHandle.receive());
+    Assert.assertFalse(sourceHandle.isFinished());
+    Assert.assertSame(mockTsBlocks.get(2), sourceHandle.receive());
+    Assert.assertTrue(sourceHandle.isBlocked().isDone());
+    Assert.assertTrue(sourceHandle.isFinished());
+    Assert.assertTrue(sinkHandle.isFinished());
+    Mockito.verify(mockSourceHandleListener, Mockito.times(1)).onFinished(sourceHandle);
+    Mockito.verify(mockSinkHandleListener, Mockito.times(1)).onFinish(sinkHandle);
+    Assert.assertEquals(0L, memoryPool.getQueryMemoryReservedBytes(QUERY_ID));
+    executorService.shutdown();
+  }
+
+  @Test
+  public void testAbort() throws InterruptedException {
+    final int numOfMockTsBlock = 3;
+    MemoryPool memoryPool = new MemoryPool("test", 2 * MOCK_TSBLOCK_SIZE, 2 * MOCK_TSBLOCK_SIZE);
+    LocalMemoryManager mockLocalMemoryManager = Mockito.mock(LocalMemoryManager.class);
+    Mockito.when(mockLocalMemoryManager.getQueryPool()).thenReturn(memoryPool);
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    SharedTsBlockQueue queue =
+        new SharedTsBlockQueue(remoteFragmentInstanceId, mockLocalMemoryManager, executorService);
+    SinkHandleListener mockSinkHandleListener = Mockito.mock(SinkHandleListener.class);
+    LocalSinkHandle sinkHandle =
+        new LocalSinkHandle(
+            remoteFragmentInstanceId,
+            remotePlanNodeId,
+            localFragmentInstanceId,
+            queue,
+            mockSinkHandleListener);
+    LocalSourceHandle sourceHandle =
+        new LocalSourceHandle(
+            localFragmentInstanceId,
+            remoteFragmentInstanceId,
+            remotePlanNodeId,
+            queue,
+            Mockito.mock(SourceHandleListener.class));
+
+    // The memory of the last tsblock is still being reserved when the sink handle is aborted.
+    sinkHandle.send(Utils.createMockTsBlocks(numOfMockTsBlock - 1, MOCK_TSBLOCK_SIZE));
+    Assert.assertTrue(sinkHandle.isFull().isDone());
+    sinkHandle.send(Utils.createMockTsBlocks(1, MOCK_TSBLOCK_SIZE));
+    Assert.assertFalse(sinkHandle.isFull().isDone());
+
+    sinkHandle.abort();
+    Assert.assertTrue(sinkHandle.isClosed());
+    Assert.assertTrue(sourceHandle.isFinished());
+    Assert.assertEquals(0, sinkHandle.getNumOfBufferedTsBlocks());
+    Mockito.verify(mockSinkHandleListener, Mockito.times(1)).onAborted(sinkHandle);
+    Mockito.verify(mockSinkHandleListener, Mockito.never()).onFinish(sinkHandle);
+    executorService.shutdown();
+    Assert.assertTrue(executorService.awaitTermination(1, TimeUnit.SECONDS));
+    Assert.assertEquals(0L, memoryPool.getQueryMemoryReservedBytes(QUERY_ID));
+  }
+
+  @Test
+  public void testPublishDynamicFilter() {
+    LocalMemoryManager mockLocalMemoryManager = Mockito.mock(LocalMemoryManager.class);
+    ExecutorService mockExecutorService = Mockito.mock(ExecutorService.class);
+    SharedTsBlockQueue queue =
+        new SharedTsBlockQueue(
+            remoteFragmentInstanceId, mockLocalMemoryManager, mockExecutorService);
+    SinkHandleListener mockSinkHandleListener = Mockito.mock(SinkHandleListener.class);
+    LocalSourceHandle sourceHandle =
+        new LocalSourceHandle(
+            localFragmentInstanceId,
+            remoteFragmentInstanceId,
+            remotePlanNodeId,
+            queue,
+            Mockito.mock(SourceHandleListener.class));
+
+    // The dynamic filters published before the sink handle is created are merged.
+    sourceHandle.publishDynamicFilter(10L, Long.MAX_VALUE, false);
+    sourceHandle.publishDynamicFilter(Long.MIN_VALUE, 100L, false);
+    LocalSinkHandle sinkHandle =
+        new LocalSinkHandle(
+            remoteFragmentInstanceId,
+            remotePlanNodeId,
+            localFragmentInstanceId,
+            queue,
+            mockSinkHandleListener);
+    Mockito.verify(mockSinkHandleListener, Mockito.times(1))
+        .onDynamicFilterUpdated(sinkHandle, 10L, 100L, false);
+
+    sourceHandle.publishDynamicFilter(20L, 100L, false);
+    Mockito.verify(mockSinkHandleListener, Mockito.times(1))
+        .onDynamicFilterUpdated(sinkHandle, 20L, 100L, false);
+
+    // Closing the source handle before it is finished stops the sink side.
+    sourceHandle.close();
+    Mockito.verify(mockSinkHandleListener, Mockito.times(1))
+        .onDynamicFilterUpdated(sinkHandle, Long.MIN_VALUE, Long.MAX_VALUE, true);
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.memory;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class MemoryContextTest {
+
+  MemoryPool pool;
+
+  @Before
+  public void before() {
+    pool = new MemoryPool("test", 1024L, 512L);
+  }
+
+  @Test
+  public void testReserveByRootContext() {
+    MemoryContext root = MemoryContext.newRootContext(pool, "q0");
+    MemoryContext child0 = root.newChildContext();
+    MemoryContext child1 = root.newChildContext();
+
+    Assert.assertTrue(child0.setBytes(256L).isDone());
+    Assert.assertTrue(child1.setRevocableBytes(128L).isDone());
+    Assert.assertEquals(384L, root.getBytes());
+    Assert.assertEquals(128L, root.getRevocableBytes());
+    Assert.assertEquals(384L, pool.getQueryMemoryReservedBytes("q0"));
+
+    Assert.assertTrue(child0.setBytes(64L).isDone());
+    Assert.assertEquals(192L, pool.getQueryMemoryReservedBytes("q0"));
+
+    child1.close();
+    Assert.assertEquals(64L, root.getBytes());
+    Assert.assertEquals(0L, root.getRevocableBytes());
+    Assert.assertEquals(64L, pool.getQueryMemoryReservedBytes("q0"));
+
+    root.close();
+    Assert.assertEquals(0L, pool.getReservedBytes());
+  }
+
+  @Test
+  public void testRevokeWhenBlocked() {
+    MemoryContext spillable = MemoryContext.newRootContext(pool, "q0").newChildContext();
+    MemoryContext other = MemoryContext.newRootContext(pool, "q1").newChildContext();
+    MemoryContext blocked = MemoryContext.newRootContext(pool, "q2").newChildContext();
+
+    Assert.assertTrue(spillable.setRevocableBytes(512L).isDone());
+    Assert.assertTrue(other.setBytes(512L).isDone());
+    Assert.assertEquals(512L, pool.getRevocableBytes());
+    Assert.assertFalse(spillable.isRevokeRequested());
+
+    ListenableFuture<Void> future = blocked.setBytes(256L);
+    Assert.assertFalse(future.isDone());
+    Assert.assertTrue(spillable.isRevokeRequested());
+    Assert.assertFalse(other.isRevokeRequested());
+
+    // the operator spills and releases its memory
+    spillable.setRevocableBytes(0L);
+    Assert.assertFalse(spillable.isRevokeRequested());
+    Assert.assertTrue(future.isDone());
+    Assert.assertEquals(256L, pool.getQueryMemoryReservedBytes("q2"));
+    Assert.assertEquals(0L, pool.getQueryMemoryReservedBytes("q0"));
+  }
+
+  @Test
+  public void testCancelPendingReservation() {
+    MemoryContext root0 = MemoryContext.newRootContext(pool, "q0");
+    MemoryContext root1 = MemoryContext.newRootContext(pool, "q1");
+    MemoryContext root2 = MemoryContext.newRootContext(pool, "q2");
+    MemoryContext child2 = root2.newChildContext();
+
+    Assert.assertTrue(root0.newChildContext().setBytes(512L).isDone());
+    Assert.assertTrue(root1.newChildContext().setBytes(512L).isDone());
+    ListenableFuture<Void> future = child2.setBytes(128L);
+    Assert.assertFalse(future.isDone());
+
+    // the memory is not needed any more before the reservation is satisfied
+    child2.setBytes(0L);
+    root0.close();
+    Assert.assertTrue(future.isCancelled());
+    Assert.assertEquals(0L, pool.getQueryMemoryReservedBytes("q2"));
+    Assert.assertEquals(512L, pool.getReservedBytes());
+
+    root1.close();
+    root2.close();
+    Assert.assertEquals(0L, pool.getReservedBytes());
+  }
+
+  @Test
+  public void testCloseRootWithPendingReservation() {
+    MemoryContext root0 = MemoryContext.newRootContext(pool, "q0");
+    MemoryContext root1 = MemoryContext.newRootContext(pool, "q1");
+
+    Assert.assertTrue(root0.newChildContext().setBytes(512L).isDone());
+    Assert.assertTrue(root1.newChildContext().setBytes(256L).isDone());
+    Assert.assertFalse(root1.newChildContext().setBytes(512L).isDone());
+    Assert.assertEquals("q0", pool.getLargestQuery());
+    Assert.assertTrue(pool.isBlockedLongerThan(0L));
+
+    root1.close();
+    Assert.assertFalse(pool.isBlockedLongerThan(0L));
+    Assert.assertEquals(0L, pool.getQueryMemoryReservedBytes("q1"));
+
+    root0.close();
+    Assert.assertEquals(0L, pool.getReservedBytes());
+    Assert.assertNull(pool.getLargestQuery());
+  }
+
+  @Test
+  public void testBlockedTimeStartsWhenReservationWaits() throws InterruptedException {
+    long timeoutInNanos = TimeUnit.MILLISECONDS.toNanos(50);
+    MemoryContext root0 = MemoryContext.newRootContext(pool, "q0");
+    MemoryContext root1 = MemoryContext.newRootContext(pool, "q1");
+    Assert.assertTrue(root0.newChildContext().setBytes(512L).isDone());
+    Assert.assertTrue(root1.newChildContext().setBytes(512L).isDone());
+
+    // no memory is freed for longer than the timeout while nothing is waiting
+    Thread.sleep(100);
+    MemoryContext root2 = MemoryContext.newRootContext(pool, "q2");
+    Assert.assertFalse(root2.newChildContext().setBytes(128L).isDone());
+    Assert.assertFalse(pool.isBlockedLongerThan(timeoutInNanos));
+
+    Thread.sleep(100);
+    Assert.assertTrue(pool.isBlockedLongerThan(timeoutInNanos));
+
+    root0.close();
+    root1.close();
+    root2.close();
+    Assert.assertEquals(0L, pool.getReservedBytes());
+  }
+}
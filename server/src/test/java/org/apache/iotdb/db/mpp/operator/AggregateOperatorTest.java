@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.operator;
+
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.mpp.aggregation.AccumulatorFactory;
+import org.apache.iotdb.db.mpp.aggregation.AggregationStep;
+import org.apache.iotdb.db.mpp.aggregation.Aggregator;
+import org.apache.iotdb.db.mpp.aggregation.InputLocation;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceState;
+import org.apache.iotdb.db.mpp.operator.process.AggregateOperator;
+import org.apache.iotdb.db.mpp.operator.process.GroupByLevelOperator;
+import org.apache.iotdb.db.mpp.operator.process.TimeJoinOperator;
+import org.apache.iotdb.db.mpp.operator.source.SeriesAggregateScanOperator;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.sql.statement.component.GroupByTimeComponent;
+import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.db.query.reader.series.SeriesReaderTestUtil;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+
+public class AggregateOperatorTest {
+  private static final String AGGREGATE_OPERATOR_TEST_SG = "root.AggregateOperatorTest";
+  private final List<String> deviceIds = new ArrayList<>();
+  private final List<MeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  private FragmentInstanceContext fragmentInstanceContext;
+
+  @Before
+  public void setUp() throws MetadataException, IOException, WriteProcessException {
+    SeriesReaderTestUtil.setUp(
+        measurementSchemas, deviceIds, seqResources, unSeqResources, AGGREGATE_OPERATOR_TEST_SG);
+    QueryId queryId = new QueryId("stub_query");
+    AtomicReference<FragmentInstanceState> state =
+        new AtomicReference<>(FragmentInstanceState.RUNNING);
+    fragmentInstanceContext =
+        new FragmentInstanceContext(
+            new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance"), state);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    SeriesReaderTestUtil.tearDown(seqResources, unSeqResources);
+  }
+
+  /** Merge the intermediate COUNT and AVG of two series, which have the same data */
+  @Test
+  public void testMergeIntermediateResults() throws IllegalPathException {
+    List<Operator> children =
+        Arrays.asList(initPartialScanOperator(0, "device0"), initPartialScanOperator(1, "device1"));
+    List<Aggregator> aggregators =
+        Arrays.asList(
+            new Aggregator(
+                AccumulatorFactory.createAccumulator(AggregationType.COUNT, TSDataType.INT32, true),
+                AggregationStep.FINAL,
+                Arrays.asList(
+                    new InputLocation[] {new InputLocation(0, 0)},
+                    new InputLocation[] {new InputLocation(1, 0)})),
+            new Aggregator(
+                AccumulatorFactory.createAccumulator(AggregationType.AVG, TSDataType.INT32, true),
+                AggregationStep.FINAL,
+                Arrays.asList(
+                    new InputLocation[] {new InputLocation(0, 1), new InputLocation(0, 2)},
+                    new InputLocation[] {new InputLocation(1, 1), new InputLocation(1, 2)})));
+    fragmentInstanceContext.addOperatorContext(
+        2, new PlanNodeId("2"), AggregateOperator.class.getSimpleName());
+    AggregateOperator aggregateOperator =
+        new AggregateOperator(
+            fragmentInstanceContext.getOperatorContexts().get(2), children, aggregators);
+
+    int count = 0;
+    while (aggregateOperator.hasNext()) {
+      TsBlock tsBlock = aggregateOperator.next();
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        long startTime = 50L * count;
+        assertEquals(startTime, tsBlock.getTimeByIndex(i));
+        assertEquals(100, tsBlock.getColumn(0).getLong(i));
+        assertEquals(
+            averageOfValues(startTime, startTime + 50), tsBlock.getColumn(1).getDouble(i), 0.0001);
+        count++;
+      }
+    }
+    assertEquals(10, count);
+  }
+
+  /** Both series are in the same group, whose intermediate results are joined in one TsBlock */
+  @Test
+  public void testGroupByLevel() throws IllegalPathException {
+    List<Operator> children =
+        Arrays.asList(initPartialScanOperator(0, "device0"), initPartialScanOperator(1, "device1"));
+    fragmentInstanceContext.addOperatorContext(
+        2, new PlanNodeId("2"), TimeJoinOperator.class.getSimpleName());
+    TimeJoinOperator timeJoinOperator =
+        new TimeJoinOperator(
+            fragmentInstanceContext.getOperatorContexts().get(2),
+            children,
+            OrderBy.TIMESTAMP_ASC,
+            Arrays.asList(
+                TSDataType.INT64,
+                TSDataType.INT64,
+                TSDataType.DOUBLE,
+                TSDataType.INT64,
+                TSDataType.INT64,
+                TSDataType.DOUBLE));
+    List<Aggregator> aggregators =
+        Collections.singletonList(
+            new Aggregator(
+                AccumulatorFactory.createAccumulator(AggregationType.AVG, TSDataType.INT32, true),
+                AggregationStep.FINAL,
+                Arrays.asList(
+                    new InputLocation[] {new InputLocation(0, 1), new InputLocation(0, 2)},
+                    new InputLocation[] {new InputLocation(0, 4), new InputLocation(0, 5)})));
+    fragmentInstanceContext.addOperatorContext(
+        3, new PlanNodeId("3"), GroupByLevelOperator.class.getSimpleName());
+    GroupByLevelOperator groupByLevelOperator =
+        new GroupByLevelOperator(
+            fragmentInstanceContext.getOperatorContexts().get(3), timeJoinOperator, aggregators);
+
+    int count = 0;
+    while (groupByLevelOperator.hasNext()) {
+      TsBlock tsBlock = groupByLevelOperator.next();
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        long startTime = 50L * count;
+        assertEquals(startTime, tsBlock.getTimeByIndex(i));
+        assertEquals(
+            averageOfValues(startTime, startTime + 50), tsBlock.getColumn(0).getDouble(i), 0.0001);
+        count++;
+      }
+    }
+    assertEquals(10, count);
+  }
+
+  /** COUNT and AVG of sensor0 of the device at PARTIAL step, grouped by time of 50ms in [0, 500) */
+  private SeriesAggregateScanOperator initPartialScanOperator(int index, String device)
+      throws IllegalPathException {
+    MeasurementPath measurementPath =
+        new MeasurementPath(
+            AGGREGATE_OPERATOR_TEST_SG + "." + device + ".sensor0", TSDataType.INT32);
+    GroupByTimeComponent groupByTimeParameter = new GroupByTimeComponent();
+    groupByTimeParameter.setStartTime(0);
+    groupByTimeParameter.setEndTime(500);
+    groupByTimeParameter.setInterval(50);
+    groupByTimeParameter.setSlidingStep(50);
+    groupByTimeParameter.setLeftCRightO(true);
+    PlanNodeId planNodeId = new PlanNodeId(String.valueOf(index));
+    fragmentInstanceContext.addOperatorContext(
+        index, planNodeId, SeriesAggregateScanOperator.class.getSimpleName());
+    SeriesAggregateScanOperator operator =
+        new SeriesAggregateScanOperator(
+            planNodeId,
+            measurementPath,
+            Collections.singleton("sensor0"),
+            fragmentInstanceContext.getOperatorContexts().get(index),
+            Arrays.asList(AggregationType.COUNT, AggregationType.AVG),
+            AggregationStep.PARTIAL,
+            null,
+            true,
+            groupByTimeParameter);
+    operator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+    return operator;
+  }
+
+  /** average of the values of sensor0 in [startTime, endTime), see SeriesReaderTestUtil */
+  private static double averageOfValues(long startTime, long endTime) {
+    double sum = 0;
+    for (long time = startTime; time < endTime; time++) {
+      if (time < 200) {
+        sum += 20000 + time;
+      } else if (time < 260 || (time >= 300 && time < 380) || time >= 400) {
+        sum += 10000 + time;
+      } else {
+        sum += time;
+      }
+    }
+    return sum / (endTime - startTime);
+  }
+}
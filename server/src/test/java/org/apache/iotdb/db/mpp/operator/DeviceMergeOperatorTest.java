@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.operator;
+
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceState;
+import org.apache.iotdb.db.mpp.operator.process.DeviceMergeOperator;
+import org.apache.iotdb.db.mpp.operator.source.SeriesScanOperator;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
+import org.apache.iotdb.db.query.reader.series.SeriesReaderTestUtil;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+
+public class DeviceMergeOperatorTest {
+  private static final String DEVICE_MERGE_OPERATOR_TEST_SG = "root.DeviceMergeOperatorTest";
+  private final List<String> deviceIds = new ArrayList<>();
+  private final List<MeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  @Before
+  public void setUp() throws MetadataException, IOException, WriteProcessException {
+    SeriesReaderTestUtil.setUp(
+        measurementSchemas, deviceIds, seqResources, unSeqResources, DEVICE_MERGE_OPERATOR_TEST_SG);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    SeriesReaderTestUtil.tearDown(seqResources, unSeqResources);
+  }
+
+  @Test
+  public void testMergeByTime() throws Exception {
+    for (boolean ascending : new boolean[] {true, false}) {
+      QueryId queryId = new QueryId("stub_query");
+      AtomicReference<FragmentInstanceState> state =
+          new AtomicReference<>(FragmentInstanceState.RUNNING);
+      FragmentInstanceContext fragmentInstanceContext =
+          new FragmentInstanceContext(
+              new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance"), state);
+      List<String> devices =
+          Arrays.asList(
+              DEVICE_MERGE_OPERATOR_TEST_SG + ".device0",
+              DEVICE_MERGE_OPERATOR_TEST_SG + ".device1");
+      List<Operator> children = new ArrayList<>();
+      for (int i = 0; i < devices.size(); i++) {
+        PlanNodeId planNodeId = new PlanNodeId(String.valueOf(i));
+        fragmentInstanceContext.addOperatorContext(
+            i, planNodeId, SeriesScanOperator.class.getSimpleName());
+        SeriesScanOperator seriesScanOperator =
+            new SeriesScanOperator(
+                planNodeId,
+                new MeasurementPath(devices.get(i) + ".sensor0", TSDataType.INT32),
+                Collections.singleton("sensor0"),
+                TSDataType.INT32,
+                fragmentInstanceContext.getOperatorContexts().get(i),
+                null,
+                null,
+                ascending);
+        seriesScanOperator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+        children.add(seriesScanOperator);
+      }
+      fragmentInstanceContext.addOperatorContext(
+          2, new PlanNodeId("2"), DeviceMergeOperator.class.getSimpleName());
+      DeviceMergeOperator deviceMergeOperator =
+          new DeviceMergeOperator(
+              fragmentInstanceContext.getOperatorContexts().get(2),
+              devices,
+              children,
+              Collections.singletonList(TSDataType.INT32),
+              ascending ? OrderBy.TIMESTAMP_ASC : OrderBy.TIMESTAMP_DESC);
+
+      // each timestamp has a row of device0 followed by a row of device1
+      int count = 0;
+      while (deviceMergeOperator.hasNext()) {
+        TsBlock tsBlock = deviceMergeOperator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          long expectedTime = ascending ? count / 2 : 499 - count / 2;
+          assertEquals(expectedTime, tsBlock.getTimeByIndex(i));
+          assertEquals(devices.get(count % 2), tsBlock.getColumn(0).getBinary(i).getStringValue());
+          count++;
+        }
+      }
+      assertEquals(1000, count);
+      deviceMergeOperator.close();
+    }
+  }
+}
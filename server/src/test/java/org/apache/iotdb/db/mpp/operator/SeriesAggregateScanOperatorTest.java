@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.operator;
+
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.mpp.aggregation.AggregationStep;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceState;
+import org.apache.iotdb.db.mpp.operator.source.SeriesAggregateScanOperator;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.sql.statement.component.GroupByTimeComponent;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.db.query.reader.series.SeriesReaderTestUtil;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SeriesAggregateScanOperatorTest {
+  private static final String SERIES_AGGREGATE_SCAN_OPERATOR_TEST_SG =
+      "root.SeriesAggregateScanOperatorTest";
+  private final List<String> deviceIds = new ArrayList<>();
+  private final List<MeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  @Before
+  public void setUp() throws MetadataException, IOException, WriteProcessException {
+    SeriesReaderTestUtil.setUp(
+        measurementSchemas,
+        deviceIds,
+        seqResources,
+        unSeqResources,
+        SERIES_AGGREGATE_SCAN_OPERATOR_TEST_SG);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    SeriesReaderTestUtil.tearDown(seqResources, unSeqResources);
+  }
+
+  @Test
+  public void testAggregationWithoutTimeFilter() throws IllegalPathException {
+    List<AggregationType> aggregationTypes =
+        Arrays.asList(
+            AggregationType.COUNT,
+            AggregationType.SUM,
+            AggregationType.MAX_VALUE,
+            AggregationType.MIN_VALUE,
+            AggregationType.FIRST_VALUE,
+            AggregationType.LAST_VALUE,
+            AggregationType.MIN_TIME,
+            AggregationType.MAX_TIME);
+    for (boolean ascending : new boolean[] {true, false}) {
+      SeriesAggregateScanOperator operator =
+          initSeriesAggregateScanOperator(
+              aggregationTypes, AggregationStep.SINGLE, null, ascending, null);
+      TsBlock tsBlock = operator.next();
+      assertEquals(1, tsBlock.getPositionCount());
+      assertEquals(500, tsBlock.getColumn(0).getLong(0));
+      assertEquals(sumOfValues(0, 500), tsBlock.getColumn(1).getDouble(0), 0.0001);
+      assertEquals(20199, tsBlock.getColumn(2).getInt(0));
+      assertEquals(260, tsBlock.getColumn(3).getInt(0));
+      assertEquals(20000, tsBlock.getColumn(4).getInt(0));
+      assertEquals(10499, tsBlock.getColumn(5).getInt(0));
+      assertEquals(0, tsBlock.getColumn(6).getLong(0));
+      assertEquals(499, tsBlock.getColumn(7).getLong(0));
+      assertFalse(operator.hasNext());
+    }
+  }
+
+  @Test
+  public void testAggregationWithTimeFilter() throws IllegalPathException {
+    List<AggregationType> aggregationTypes =
+        Arrays.asList(AggregationType.COUNT, AggregationType.SUM);
+    Filter timeFilter = TimeFilter.gtEq(120);
+    SeriesAggregateScanOperator operator =
+        initSeriesAggregateScanOperator(
+            aggregationTypes, AggregationStep.SINGLE, timeFilter, true, null);
+    TsBlock tsBlock = operator.next();
+    assertEquals(380, tsBlock.getColumn(0).getLong(0));
+    assertEquals(sumOfValues(120, 500), tsBlock.getColumn(1).getDouble(0), 0.0001);
+    assertFalse(operator.hasNext());
+  }
+
+  @Test
+  public void testGroupByTime() throws IllegalPathException {
+    List<AggregationType> aggregationTypes =
+        Arrays.asList(AggregationType.COUNT, AggregationType.SUM);
+    GroupByTimeComponent groupByTimeParameter = new GroupByTimeComponent();
+    groupByTimeParameter.setStartTime(0);
+    groupByTimeParameter.setEndTime(500);
+    groupByTimeParameter.setInterval(50);
+    groupByTimeParameter.setSlidingStep(50);
+    groupByTimeParameter.setLeftCRightO(true);
+    for (boolean ascending : new boolean[] {true, false}) {
+      SeriesAggregateScanOperator operator =
+          initSeriesAggregateScanOperator(
+              aggregationTypes, AggregationStep.SINGLE, null, ascending, groupByTimeParameter);
+      int count = 0;
+      while (operator.hasNext()) {
+        TsBlock tsBlock = operator.next();
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          long startTime = ascending ? 50L * count : 450 - 50L * count;
+          assertEquals(startTime, tsBlock.getTimeByIndex(i));
+          assertEquals(50, tsBlock.getColumn(0).getLong(i));
+          assertEquals(
+              sumOfValues(startTime, startTime + 50), tsBlock.getColumn(1).getDouble(i), 0.0001);
+          count++;
+        }
+      }
+      assertEquals(10, count);
+    }
+  }
+
+  @Test
+  public void testGroupByTimeWithSlidingWindow() throws IllegalPathException {
+    List<AggregationType> aggregationTypes =
+        Arrays.asList(AggregationType.COUNT, AggregationType.SUM);
+    GroupByTimeComponent groupByTimeParameter = new GroupByTimeComponent();
+    groupByTimeParameter.setStartTime(0);
+    groupByTimeParameter.setEndTime(500);
+    groupByTimeParameter.setInterval(50);
+    groupByTimeParameter.setSlidingStep(30);
+    groupByTimeParameter.setLeftCRightO(true);
+    for (AggregationStep step :
+        new AggregationStep[] {AggregationStep.SINGLE, AggregationStep.PARTIAL}) {
+      for (boolean ascending : new boolean[] {true, false}) {
+        SeriesAggregateScanOperator operator =
+            initSeriesAggregateScanOperator(
+                aggregationTypes, step, null, ascending, groupByTimeParameter);
+        int count = 0;
+        while (operator.hasNext()) {
+          TsBlock tsBlock = operator.next();
+          // COUNT and SUM output themselves as intermediate results
+          assertEquals(2, tsBlock.getValueColumnCount());
+          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+            // the windows start at 0, 30, ..., 480 and the last ones are cut off at 500
+            long startTime = ascending ? 30L * count : 480 - 30L * count;
+            long endTime = Math.min(startTime + 50, 500);
+            assertEquals(startTime, tsBlock.getTimeByIndex(i));
+            assertEquals(endTime - startTime, tsBlock.getColumn(0).getLong(i));
+            assertEquals(
+                sumOfValues(startTime, endTime), tsBlock.getColumn(1).getDouble(i), 0.0001);
+            count++;
+          }
+        }
+        assertEquals(17, count);
+      }
+    }
+  }
+
+  @Test
+  public void testPartialAggregation() throws IllegalPathException {
+    List<AggregationType> aggregationTypes =
+        Arrays.asList(AggregationType.AVG, AggregationType.FIRST_VALUE);
+    for (boolean ascending : new boolean[] {true, false}) {
+      SeriesAggregateScanOperator operator =
+          initSeriesAggregateScanOperator(
+              aggregationTypes, AggregationStep.PARTIAL, null, ascending, null);
+      TsBlock tsBlock = operator.next();
+      // AVG outputs count and sum, FIRST_VALUE outputs the value and its timestamp
+      assertEquals(4, tsBlock.getValueColumnCount());
+      assertEquals(500, tsBlock.getColumn(0).getLong(0));
+      assertEquals(sumOfValues(0, 500), tsBlock.getColumn(1).getDouble(0), 0.0001);
+      assertEquals(20000, tsBlock.getColumn(2).getInt(0));
+      assertEquals(0, tsBlock.getColumn(3).getLong(0));
+      assertFalse(operator.hasNext());
+    }
+  }
+
+  private SeriesAggregateScanOperator initSeriesAggregateScanOperator(
+      List<AggregationType> aggregationTypes,
+      AggregationStep step,
+      Filter timeFilter,
+      boolean ascending,
+      GroupByTimeComponent groupByTimeParameter)
+      throws IllegalPathException {
+    MeasurementPath measurementPath =
+        new MeasurementPath(
+            SERIES_AGGREGATE_SCAN_OPERATOR_TEST_SG + ".device0.sensor0", TSDataType.INT32);
+    QueryId queryId = new QueryId("stub_query");
+    AtomicReference<FragmentInstanceState> state =
+        new AtomicReference<>(FragmentInstanceState.RUNNING);
+    FragmentInstanceContext fragmentInstanceContext =
+        new FragmentInstanceContext(
+            new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance"), state);
+    PlanNodeId planNodeId = new PlanNodeId("1");
+    fragmentInstanceContext.addOperatorContext(
+        1, planNodeId, SeriesAggregateScanOperator.class.getSimpleName());
+    SeriesAggregateScanOperator operator =
+        new SeriesAggregateScanOperator(
+            planNodeId,
+            measurementPath,
+            Collections.singleton("sensor0"),
+            fragmentInstanceContext.getOperatorContexts().get(0),
+            aggregationTypes,
+            step,
+            timeFilter,
+            ascending,
+            groupByTimeParameter);
+    operator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+    return operator;
+  }
+
+  /** sum of the values of sensor0 in [startTime, endTime), see SeriesReaderTestUtil */
+  private static double sumOfValues(long startTime, long endTime) {
+    double sum = 0;
+    for (long time = startTime; time < endTime; time++) {
+      if (time < 200) {
+        sum += 20000 + time;
+      } else if (time < 260 || (time >= 300 && time < 380) || time >= 400) {
+        sum += 10000 + time;
+      } else {
+        sum += time;
+      }
+    }
+    return sum;
+  }
+}
@@ -49,6 +49,7 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -125,4 +126,95 @@ public class SeriesScanOperatorTest {
       fail();
     }
   }
+
+  @Test
+  public void dynamicFilterTest() throws IllegalPathException {
+    MeasurementPath measurementPath =
+        new MeasurementPath(SERIES_SCAN_OPERATOR_TEST_SG + ".device0.sensor0", TSDataType.INT32);
+    Set<String> allSensors = new HashSet<>();
+    allSensors.add("sensor0");
+    QueryId queryId = new QueryId("stub_query");
+    AtomicReference<FragmentInstanceState> state =
+        new AtomicReference<>(FragmentInstanceState.RUNNING);
+    for (boolean ascending : new boolean[] {true, false}) {
+      FragmentInstanceContext fragmentInstanceContext =
+          new FragmentInstanceContext(
+              new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance"), state);
+      PlanNodeId planNodeId = new PlanNodeId("1");
+      fragmentInstanceContext.addOperatorContext(
+          1, planNodeId, SeriesScanOperator.class.getSimpleName());
+      SeriesScanOperator seriesScanOperator =
+          new SeriesScanOperator(
+              planNodeId,
+              measurementPath,
+              allSensors,
+              TSDataType.INT32,
+              fragmentInstanceContext.getOperatorContexts().get(0),
+              null,
+              null,
+              ascending);
+      seriesScanOperator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+      // the downstream fragment instance only needs the rows in [50, 105]
+      fragmentInstanceContext.getDynamicFilter().update(50, 105, false);
+      long expectedTime = ascending ? 50 : 105;
+      while (seriesScanOperator.hasNext()) {
+        TsBlock tsBlock = seriesScanOperator.next();
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          assertEquals(expectedTime, tsBlock.getTimeByIndex(i));
+          assertEquals(20000 + expectedTime, tsBlock.getColumn(0).getInt(i));
+          expectedTime += ascending ? 1 : -1;
+        }
+      }
+      assertEquals(ascending ? 106 : 49, expectedTime);
+
+      // no more rows are returned once the downstream fragment instance is finished
+      fragmentInstanceContext.getDynamicFilter().update(Long.MIN_VALUE, Long.MAX_VALUE, true);
+      assertFalse(seriesScanOperator.hasNext());
+    }
+  }
+
+  @Test
+  public void dynamicFilterWithLimitTest() throws IllegalPathException {
+    MeasurementPath measurementPath =
+        new MeasurementPath(SERIES_SCAN_OPERATOR_TEST_SG + ".device0.sensor0", TSDataType.INT32);
+    Set<String> allSensors = new HashSet<>();
+    allSensors.add("sensor0");
+    QueryId queryId = new QueryId("stub_query");
+    AtomicReference<FragmentInstanceState> state =
+        new AtomicReference<>(FragmentInstanceState.RUNNING);
+    for (boolean ascending : new boolean[] {true, false}) {
+      FragmentInstanceContext fragmentInstanceContext =
+          new FragmentInstanceContext(
+              new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance"), state);
+      PlanNodeId planNodeId = new PlanNodeId("1");
+      fragmentInstanceContext.addOperatorContext(
+          1, planNodeId, SeriesScanOperator.class.getSimpleName());
+      SeriesScanOperator seriesScanOperator =
+          new SeriesScanOperator(
+              planNodeId,
+              measurementPath,
+              allSensors,
+              TSDataType.INT32,
+              fragmentInstanceContext.getOperatorContexts().get(0),
+              null,
+              null,
+              ascending,
+              70,
+              0);
+      seriesScanOperator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+      fragmentInstanceContext.getDynamicFilter().update(50, 105, false);
+      // the limit counts the rows dropped by the dynamic filter, i.e., [0, 70) in ascending order
+      // and [430, 500) in descending order, which has no row in [50, 105]
+      long expectedTime = 50;
+      while (seriesScanOperator.hasNext()) {
+        TsBlock tsBlock = seriesScanOperator.next();
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          assertEquals(expectedTime, tsBlock.getTimeByIndex(i));
+          assertEquals(20000 + expectedTime, tsBlock.getColumn(0).getInt(i));
+          expectedTime++;
+        }
+      }
+      assertEquals(ascending ? 70 : 50, expectedTime);
+    }
+  }
 }
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.operator;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceState;
+import org.apache.iotdb.db.mpp.memory.MemoryPool;
+import org.apache.iotdb.db.mpp.operator.process.SortOperator;
+import org.apache.iotdb.db.mpp.operator.source.SeriesScanOperator;
+import org.apache.iotdb.db.mpp.sort.SortKey;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.query.reader.series.SeriesReaderTestUtil;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SortOperatorTest {
+  private static final String SORT_OPERATOR_TEST_SG = "root.SortOperatorTest";
+  private final List<String> deviceIds = new ArrayList<>();
+  private final List<MeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  @Before
+  public void setUp() throws MetadataException, IOException, WriteProcessException {
+    SeriesReaderTestUtil.setUp(
+        measurementSchemas, deviceIds, seqResources, unSeqResources, SORT_OPERATOR_TEST_SG);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    SeriesReaderTestUtil.tearDown(seqResources, unSeqResources);
+  }
+
+  @Test
+  public void testSortInMemory() throws Exception {
+    MemoryPool memoryPool = new MemoryPool("test", 1024 * 1024 * 1024, 1024 * 1024 * 1024);
+    checkSortByValueDesc(memoryPool);
+    assertEquals(0, memoryPool.getReservedBytes());
+  }
+
+  @Test
+  public void testSortWithSpill() throws Exception {
+    // no TsBlock fits in the pool, so each of them is spilled as a sorted run
+    MemoryPool memoryPool = new MemoryPool("test", 1, 1);
+    checkSortByValueDesc(memoryPool);
+    assertEquals(0, memoryPool.getReservedBytes());
+    File sortDir = new File(IoTDBDescriptor.getInstance().getConfig().getQueryDir(), "sort");
+    String[] spillDirs = sortDir.list();
+    assertTrue(spillDirs == null || spillDirs.length == 0);
+  }
+
+  /** sort sensor0 of device0 by the value in descending order and then by time */
+  private void checkSortByValueDesc(MemoryPool memoryPool) throws Exception {
+    QueryId queryId = new QueryId("stub_query");
+    AtomicReference<FragmentInstanceState> state =
+        new AtomicReference<>(FragmentInstanceState.RUNNING);
+    FragmentInstanceContext fragmentInstanceContext =
+        new FragmentInstanceContext(
+            new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance"),
+            state,
+            memoryPool);
+    PlanNodeId planNodeId = new PlanNodeId("1");
+    fragmentInstanceContext.addOperatorContext(
+        1, planNodeId, SeriesScanOperator.class.getSimpleName());
+    fragmentInstanceContext.addOperatorContext(
+        2, new PlanNodeId("2"), SortOperator.class.getSimpleName());
+    SeriesScanOperator seriesScanOperator = initSeriesScanOperator(fragmentInstanceContext);
+    SortOperator sortOperator =
+        new SortOperator(
+            fragmentInstanceContext.getOperatorContexts().get(1),
+            seriesScanOperator,
+            Collections.singletonList(TSDataType.INT32),
+            Arrays.asList(new SortKey(0, false), new SortKey(SortKey.TIME_COLUMN, true)));
+
+    int count = 0;
+    int lastValue = Integer.MAX_VALUE;
+    long lastTime = Long.MIN_VALUE;
+    while (sortOperator.hasNext()) {
+      TsBlock tsBlock = sortOperator.next();
+      if (tsBlock == null) {
+        continue;
+      }
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        int value = tsBlock.getColumn(0).getInt(i);
+        long time = tsBlock.getTimeByIndex(i);
+        assertEquals(valueOf(time), value);
+        assertTrue(value < lastValue || (value == lastValue && time > lastTime));
+        lastValue = value;
+        lastTime = time;
+        count++;
+      }
+    }
+    assertEquals(500, count);
+    assertFalse(sortOperator.hasNext());
+    sortOperator.close();
+    fragmentInstanceContext.finish();
+  }
+
+  private SeriesScanOperator initSeriesScanOperator(FragmentInstanceContext fragmentInstanceContext)
+      throws IllegalPathException {
+    MeasurementPath measurementPath =
+        new MeasurementPath(SORT_OPERATOR_TEST_SG + ".device0.sensor0", TSDataType.INT32);
+    SeriesScanOperator seriesScanOperator =
+        new SeriesScanOperator(
+            new PlanNodeId("1"),
+            measurementPath,
+            Collections.singleton("sensor0"),
+            TSDataType.INT32,
+            fragmentInstanceContext.getOperatorContexts().get(0),
+            null,
+            null,
+            true);
+    seriesScanOperator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+    return seriesScanOperator;
+  }
+
+  /** the value of sensor0 at the time, see SeriesReaderTestUtil */
+  private static int valueOf(long time) {
+    if (time < 200) {
+      return (int) (20000 + time);
+    } else if (time < 260 || (time >= 300 && time < 380) || time >= 400) {
+      return (int) (10000 + time);
+    } else {
+      return (int) time;
+    }
+  }
+}
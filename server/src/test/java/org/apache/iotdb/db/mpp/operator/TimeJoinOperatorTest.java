@@ -26,26 +26,37 @@ import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.PlanFragmentId;
 import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.DataDriver;
 import org.apache.iotdb.db.mpp.execution.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.execution.FragmentInstanceState;
+import org.apache.iotdb.db.mpp.operator.process.LimitOperator;
 import org.apache.iotdb.db.mpp.operator.process.TimeJoinOperator;
+import org.apache.iotdb.db.mpp.operator.source.ExchangeOperator;
 import org.apache.iotdb.db.mpp.operator.source.SeriesScanOperator;
+import org.apache.iotdb.db.mpp.sql.planner.LocalExecutionPlanner;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.LimitNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesScanNode;
 import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
 import org.apache.iotdb.db.query.reader.series.SeriesReaderTestUtil;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -157,4 +168,120 @@ public class TimeJoinOperatorTest {
       fail();
     }
   }
+
+  /** The bound is published once a child has returned LIMIT rows, and only if it is tighter */
+  @Test
+  public void publishTopKBoundTest() {
+    ExchangeOperator exchangeOperator1 = Mockito.mock(ExchangeOperator.class);
+    Mockito.when(exchangeOperator1.next())
+        .thenReturn(constructTsBlock(1, 3), constructTsBlock(5, 7));
+    ExchangeOperator exchangeOperator2 = Mockito.mock(ExchangeOperator.class);
+    Mockito.when(exchangeOperator2.next())
+        .thenReturn(constructTsBlock(2, 4), constructTsBlock(6, 8));
+    TimeJoinOperator timeJoinOperator =
+        constructExchangeTimeJoinOperator(
+            OrderBy.TIMESTAMP_ASC, exchangeOperator1, exchangeOperator2);
+    timeJoinOperator.setLimit(3);
+
+    // 2 rows of each child, [1, 3] are joined
+    timeJoinOperator.next();
+    Mockito.verify(exchangeOperator1, Mockito.never())
+        .publishDynamicFilter(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyBoolean());
+    Mockito.verify(exchangeOperator2, Mockito.never())
+        .publishDynamicFilter(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyBoolean());
+
+    // the 3rd row of the 1st child is at 5, so no row after 5 is needed
+    timeJoinOperator.next();
+    for (ExchangeOperator exchangeOperator : Arrays.asList(exchangeOperator1, exchangeOperator2)) {
+      Mockito.verify(exchangeOperator).publishDynamicFilter(Long.MIN_VALUE, 5, false);
+    }
+
+    // the 3rd row of the 2nd child is at 6, which is not tighter
+    timeJoinOperator.next();
+    for (ExchangeOperator exchangeOperator : Arrays.asList(exchangeOperator1, exchangeOperator2)) {
+      Mockito.verify(exchangeOperator, Mockito.times(1))
+          .publishDynamicFilter(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyBoolean());
+    }
+  }
+
+  /** In descending order, the bound is the lower bound of the time of the needed rows */
+  @Test
+  public void publishDescTopKBoundTest() {
+    ExchangeOperator exchangeOperator1 = Mockito.mock(ExchangeOperator.class);
+    Mockito.when(exchangeOperator1.next()).thenReturn(constructTsBlock(8, 6, 4, 2));
+    ExchangeOperator exchangeOperator2 = Mockito.mock(ExchangeOperator.class);
+    Mockito.when(exchangeOperator2.next()).thenReturn(constructTsBlock(9, 7, 5, 3));
+    TimeJoinOperator timeJoinOperator =
+        constructExchangeTimeJoinOperator(
+            OrderBy.TIMESTAMP_DESC, exchangeOperator1, exchangeOperator2);
+    timeJoinOperator.setLimit(3);
+
+    // the 3rd row of the 1st child is at 4, and then the one of the 2nd child at 5 is tighter
+    timeJoinOperator.next();
+    for (ExchangeOperator exchangeOperator : Arrays.asList(exchangeOperator1, exchangeOperator2)) {
+      InOrder inOrder = Mockito.inOrder(exchangeOperator);
+      inOrder.verify(exchangeOperator).publishDynamicFilter(4, Long.MAX_VALUE, false);
+      inOrder.verify(exchangeOperator).publishDynamicFilter(5, Long.MAX_VALUE, false);
+      Mockito.verify(exchangeOperator, Mockito.times(2))
+          .publishDynamicFilter(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyBoolean());
+    }
+  }
+
+  /** The limit of a LimitNode is pushed into its TimeJoinOperator child */
+  @Test
+  public void limitSetByPlannerTest() throws IllegalPathException {
+    TimeJoinNode timeJoinNode = new TimeJoinNode(new PlanNodeId("1"), OrderBy.TIMESTAMP_ASC);
+    timeJoinNode.addChild(
+        new SeriesScanNode(
+            new PlanNodeId("2"),
+            new MeasurementPath(TIME_JOIN_OPERATOR_TEST_SG + ".device0.sensor0", TSDataType.INT32),
+            new HashSet<>(Arrays.asList("sensor0", "sensor1")),
+            OrderBy.TIMESTAMP_ASC));
+    timeJoinNode.addChild(
+        new SeriesScanNode(
+            new PlanNodeId("3"),
+            new MeasurementPath(TIME_JOIN_OPERATOR_TEST_SG + ".device0.sensor1", TSDataType.INT32),
+            new HashSet<>(Arrays.asList("sensor0", "sensor1")),
+            OrderBy.TIMESTAMP_ASC));
+    LimitNode limitNode = new LimitNode(new PlanNodeId("0"), timeJoinNode, 10);
+
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceContext fragmentInstanceContext =
+        new FragmentInstanceContext(
+            new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance"),
+            new AtomicReference<>(FragmentInstanceState.RUNNING));
+    DataDriver dataDriver =
+        LocalExecutionPlanner.getInstance().plan(limitNode, fragmentInstanceContext, null, null);
+    assertTrue(dataDriver.getRoot() instanceof LimitOperator);
+    Operator child = ((LimitOperator) dataDriver.getRoot()).getChild();
+    assertTrue(child instanceof TimeJoinOperator);
+    assertEquals(10, ((TimeJoinOperator) child).getLimit());
+  }
+
+  private TimeJoinOperator constructExchangeTimeJoinOperator(
+      OrderBy mergeOrder, ExchangeOperator... exchangeOperators) {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceContext fragmentInstanceContext =
+        new FragmentInstanceContext(
+            new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance"),
+            new AtomicReference<>(FragmentInstanceState.RUNNING));
+    fragmentInstanceContext.addOperatorContext(
+        0, new PlanNodeId("0"), TimeJoinOperator.class.getSimpleName());
+    return new TimeJoinOperator(
+        fragmentInstanceContext.getOperatorContexts().get(0),
+        Arrays.asList(exchangeOperators),
+        mergeOrder,
+        Collections.nCopies(exchangeOperators.length, TSDataType.INT32));
+  }
+
+  /** INT32 values equal to the times */
+  private static TsBlock constructTsBlock(long... times) {
+    TsBlockBuilder tsBlockBuilder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT32));
+    for (long time : times) {
+      tsBlockBuilder.getTimeColumnBuilder().writeLong(time);
+      tsBlockBuilder.getColumnBuilder(0).writeInt((int) time);
+      tsBlockBuilder.declarePosition();
+    }
+    return tsBlockBuilder.build();
+  }
 }
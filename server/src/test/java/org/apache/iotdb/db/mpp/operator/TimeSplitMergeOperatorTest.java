@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.operator;
+
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.mpp.aggregation.AccumulatorFactory;
+import org.apache.iotdb.db.mpp.aggregation.AggregationStep;
+import org.apache.iotdb.db.mpp.aggregation.Aggregator;
+import org.apache.iotdb.db.mpp.aggregation.InputLocation;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceState;
+import org.apache.iotdb.db.mpp.operator.process.AggregateOperator;
+import org.apache.iotdb.db.mpp.operator.process.TimeSplitMergeOperator;
+import org.apache.iotdb.db.mpp.operator.source.SeriesAggregateScanOperator;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.sql.statement.component.GroupByTimeComponent;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.db.query.reader.series.SeriesReaderTestUtil;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TimeSplitMergeOperatorTest {
+  private static final String TIME_SPLIT_MERGE_OPERATOR_TEST_SG = "root.TimeSplitMergeOperatorTest";
+  private final List<String> deviceIds = new ArrayList<>();
+  private final List<MeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private final List<TsFileResource> seqResources = new ArrayList<>();
+  private final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  private FragmentInstanceContext fragmentInstanceContext;
+
+  @Before
+  public void setUp() throws MetadataException, IOException, WriteProcessException {
+    SeriesReaderTestUtil.setUp(
+        measurementSchemas,
+        deviceIds,
+        seqResources,
+        unSeqResources,
+        TIME_SPLIT_MERGE_OPERATOR_TEST_SG);
+    QueryId queryId = new QueryId("stub_query");
+    AtomicReference<FragmentInstanceState> state =
+        new AtomicReference<>(FragmentInstanceState.RUNNING);
+    fragmentInstanceContext =
+        new FragmentInstanceContext(
+            new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance"), state);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    SeriesReaderTestUtil.tearDown(seqResources, unSeqResources);
+  }
+
+  /** The TsBlocks of each child are returned after all the ones of its previous children */
+  @Test
+  public void testConcatenateChildren() throws Exception {
+    Operator child0 = mockChild(constructTsBlock(0, 10), constructTsBlock(10, 20));
+    Operator child1 = mockChild(constructTsBlock(20, 30));
+    Operator child2 = mockChild();
+    Operator child3 = mockChild(constructTsBlock(30, 40));
+    TimeSplitMergeOperator timeSplitMergeOperator =
+        new TimeSplitMergeOperator(
+            addOperatorContext(0, TimeSplitMergeOperator.class.getSimpleName()),
+            Arrays.asList(child0, child1, child2, child3));
+
+    long expectedTime = 0;
+    while (timeSplitMergeOperator.hasNext()) {
+      assertTrue(timeSplitMergeOperator.isBlocked().isDone());
+      TsBlock tsBlock = timeSplitMergeOperator.next();
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        assertEquals(expectedTime, tsBlock.getTimeByIndex(i));
+        assertEquals(expectedTime, tsBlock.getColumn(0).getInt(i));
+        expectedTime++;
+      }
+    }
+    assertEquals(40, expectedTime);
+  }
+
+  /** Only the children which are not read through yet are waited for */
+  @Test
+  public void testBlockedAndFinished() throws Exception {
+    Operator child0 = mockChild(constructTsBlock(0, 10));
+    Operator child1 = mockChild(constructTsBlock(10, 20));
+    SettableFuture<Void> child1Blocked = SettableFuture.create();
+    Mockito.when(child1.isBlocked()).thenReturn(child1Blocked);
+    TimeSplitMergeOperator timeSplitMergeOperator =
+        new TimeSplitMergeOperator(
+            addOperatorContext(0, TimeSplitMergeOperator.class.getSimpleName()),
+            Arrays.asList(child0, child1));
+
+    assertTrue(timeSplitMergeOperator.isBlocked().isDone());
+    assertTrue(timeSplitMergeOperator.hasNext());
+    assertEquals(0, timeSplitMergeOperator.next().getTimeByIndex(0));
+
+    // child0 is read through, its state doesn't matter any more
+    assertTrue(timeSplitMergeOperator.hasNext());
+    Mockito.when(child0.isBlocked()).thenReturn(SettableFuture.create());
+    Mockito.when(child0.isFinished()).thenReturn(false);
+    assertSame(child1Blocked, timeSplitMergeOperator.isBlocked());
+    assertFalse(timeSplitMergeOperator.isBlocked().isDone());
+    assertFalse(timeSplitMergeOperator.isFinished());
+
+    child1Blocked.set(null);
+    assertTrue(timeSplitMergeOperator.isBlocked().isDone());
+    assertEquals(10, timeSplitMergeOperator.next().getTimeByIndex(0));
+    assertFalse(timeSplitMergeOperator.hasNext());
+    Mockito.when(child1.isFinished()).thenReturn(true);
+    assertTrue(timeSplitMergeOperator.isFinished());
+  }
+
+  /** The PARTIAL results of the time splits before 230 and since 230 are merged at FINAL step */
+  @Test
+  public void testMergePartialResults() throws IllegalPathException {
+    AggregateOperator aggregateOperator = initFinalAggregateOperator(null);
+
+    int count = 0;
+    while (aggregateOperator.hasNext()) {
+      TsBlock tsBlock = aggregateOperator.next();
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        assertEquals(500, tsBlock.getColumn(0).getLong(i));
+        assertEquals(averageOfValues(0, 500), tsBlock.getColumn(1).getDouble(i), 0.0001);
+        assertEquals(valueOf(0), tsBlock.getColumn(2).getInt(i));
+        count++;
+      }
+    }
+    assertEquals(1, count);
+  }
+
+  /** The time range [200, 250) is in both time splits */
+  @Test
+  public void testMergePartialResultsGroupByTime() throws IllegalPathException {
+    GroupByTimeComponent groupByTimeParameter = new GroupByTimeComponent();
+    groupByTimeParameter.setStartTime(0);
+    groupByTimeParameter.setEndTime(500);
+    groupByTimeParameter.setInterval(50);
+    groupByTimeParameter.setSlidingStep(50);
+    groupByTimeParameter.setLeftCRightO(true);
+    AggregateOperator aggregateOperator = initFinalAggregateOperator(groupByTimeParameter);
+
+    int count = 0;
+    while (aggregateOperator.hasNext()) {
+      TsBlock tsBlock = aggregateOperator.next();
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        long startTime = 50L * count;
+        assertEquals(startTime, tsBlock.getTimeByIndex(i));
+        assertEquals(50, tsBlock.getColumn(0).getLong(i));
+        assertEquals(
+            averageOfValues(startTime, startTime + 50), tsBlock.getColumn(1).getDouble(i), 0.0001);
+        assertEquals(valueOf(startTime), tsBlock.getColumn(2).getInt(i));
+        count++;
+      }
+    }
+    assertEquals(10, count);
+  }
+
+  /**
+   * COUNT, AVG and FIRST_VALUE of sensor0 of device0, merged from the PARTIAL results of the time
+   * splits in the same way as LocalExecutionPlanner does for a TimeSplitMergeNode.
+   */
+  private AggregateOperator initFinalAggregateOperator(GroupByTimeComponent groupByTimeParameter)
+      throws IllegalPathException {
+    List<Operator> children =
+        Arrays.asList(
+            initPartialScanOperator(0, TimeFilter.lt(230), groupByTimeParameter),
+            initPartialScanOperator(1, TimeFilter.gtEq(230), groupByTimeParameter));
+    List<Aggregator> aggregators =
+        Arrays.asList(
+            new Aggregator(
+                AccumulatorFactory.createAccumulator(AggregationType.COUNT, TSDataType.INT32, true),
+                AggregationStep.FINAL,
+                Arrays.asList(
+                    new InputLocation[] {new InputLocation(0, 0)},
+                    new InputLocation[] {new InputLocation(1, 0)})),
+            new Aggregator(
+                AccumulatorFactory.createAccumulator(AggregationType.AVG, TSDataType.INT32, true),
+                AggregationStep.FINAL,
+                Arrays.asList(
+                    new InputLocation[] {new InputLocation(0, 1), new InputLocation(0, 2)},
+                    new InputLocation[] {new InputLocation(1, 1), new InputLocation(1, 2)})),
+            new Aggregator(
+                AccumulatorFactory.createAccumulator(
+                    AggregationType.FIRST_VALUE, TSDataType.INT32, true),
+                AggregationStep.FINAL,
+                Arrays.asList(
+                    new InputLocation[] {new InputLocation(0, 3), new InputLocation(0, 4)},
+                    new InputLocation[] {new InputLocation(1, 3), new InputLocation(1, 4)})));
+    return new AggregateOperator(
+        addOperatorContext(2, AggregateOperator.class.getSimpleName()), children, aggregators);
+  }
+
+  private SeriesAggregateScanOperator initPartialScanOperator(
+      int index, Filter timeFilter, GroupByTimeComponent groupByTimeParameter)
+      throws IllegalPathException {
+    MeasurementPath measurementPath =
+        new MeasurementPath(
+            TIME_SPLIT_MERGE_OPERATOR_TEST_SG + ".device0.sensor0", TSDataType.INT32);
+    PlanNodeId planNodeId = new PlanNodeId(String.valueOf(index));
+    fragmentInstanceContext.addOperatorContext(
+        index, planNodeId, SeriesAggregateScanOperator.class.getSimpleName());
+    SeriesAggregateScanOperator operator =
+        new SeriesAggregateScanOperator(
+            planNodeId,
+            measurementPath,
+            Collections.singleton("sensor0"),
+            fragmentInstanceContext.getOperatorContexts().get(index),
+            Arrays.asList(AggregationType.COUNT, AggregationType.AVG, AggregationType.FIRST_VALUE),
+            AggregationStep.PARTIAL,
+            timeFilter,
+            true,
+            groupByTimeParameter);
+    operator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+    return operator;
+  }
+
+  private OperatorContext addOperatorContext(int operatorId, String operatorType) {
+    fragmentInstanceContext.addOperatorContext(
+        operatorId, new PlanNodeId(String.valueOf(operatorId)), operatorType);
+    return fragmentInstanceContext.getOperatorContexts().get(operatorId);
+  }
+
+  private static Operator mockChild(TsBlock... tsBlocks) throws Exception {
+    Operator child = Mockito.mock(Operator.class);
+    Mockito.when(child.isBlocked()).thenReturn(Operator.NOT_BLOCKED);
+    // true for each TsBlock, and then false
+    Boolean[] hasNext = new Boolean[tsBlocks.length];
+    Arrays.fill(hasNext, true);
+    if (tsBlocks.length > 0) {
+      hasNext[tsBlocks.length - 1] = false;
+    }
+    Mockito.when(child.hasNext()).thenReturn(tsBlocks.length > 0, hasNext).thenReturn(false);
+    if (tsBlocks.length > 0) {
+      Mockito.when(child.next())
+          .thenReturn(tsBlocks[0], Arrays.copyOfRange(tsBlocks, 1, tsBlocks.length));
+    }
+    Mockito.when(child.isFinished()).thenReturn(false);
+    return child;
+  }
+
+  /** INT32 values equal to the time in [startTime, endTime) */
+  private static TsBlock constructTsBlock(long startTime, long endTime) {
+    TsBlockBuilder tsBlockBuilder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT32));
+    for (long time = startTime; time < endTime; time++) {
+      tsBlockBuilder.getTimeColumnBuilder().writeLong(time);
+      tsBlockBuilder.getColumnBuilder(0).writeInt((int) time);
+      tsBlockBuilder.declarePosition();
+    }
+    return tsBlockBuilder.build();
+  }
+
+  /** the value of sensor0 at the time, see SeriesReaderTestUtil */
+  private static int valueOf(long time) {
+    if (time < 200) {
+      return (int) (20000 + time);
+    } else if (time < 260 || (time >= 300 && time < 380) || time >= 400) {
+      return (int) (10000 + time);
+    } else {
+      return (int) time;
+    }
+  }
+
+  private static double averageOfValues(long startTime, long endTime) {
+    double sum = 0;
+    for (long time = startTime; time < endTime; time++) {
+      sum += valueOf(time);
+    }
+    return sum / (endTime - startTime);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.schedule.queue;
+
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.Driver;
+import org.apache.iotdb.db.mpp.schedule.task.FragmentInstanceTask;
+import org.apache.iotdb.db.mpp.schedule.task.FragmentInstanceTaskStatus;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.TimeUnit;
+
+public class MultilevelPriorityQueueTest {
+
+  @Test
+  public void testPollLeastScheduledFirst() throws InterruptedException {
+    MultilevelPriorityQueue queue = new MultilevelPriorityQueue(10, new FragmentInstanceTask());
+    FragmentInstanceTask t1 = createTask("inst-1");
+    FragmentInstanceTask t2 = createTask("inst-2");
+    queue.updatePriority(t1, TimeUnit.MILLISECONDS.toNanos(200));
+    queue.updatePriority(t2, TimeUnit.MILLISECONDS.toNanos(100));
+    queue.push(t1);
+    queue.push(t2);
+    Assert.assertEquals(0, t1.getLevel());
+    Assert.assertEquals(0, t2.getLevel());
+    Assert.assertEquals(t2.getId(), queue.poll().getId());
+    Assert.assertEquals(t1.getId(), queue.poll().getId());
+  }
+
+  @Test
+  public void testUpdatePriority() {
+    MultilevelPriorityQueue queue = new MultilevelPriorityQueue(10, new FragmentInstanceTask());
+    FragmentInstanceTask task = createTask("inst-1");
+    queue.updatePriority(task, TimeUnit.MILLISECONDS.toNanos(900));
+    Assert.assertEquals(0, task.getLevel());
+    queue.updatePriority(task, TimeUnit.MILLISECONDS.toNanos(200));
+    Assert.assertEquals(1, task.getLevel());
+    queue.updatePriority(task, TimeUnit.SECONDS.toNanos(100));
+    Assert.assertEquals(3, task.getLevel());
+    queue.updatePriority(task, TimeUnit.SECONDS.toNanos(300));
+    Assert.assertEquals(4, task.getLevel());
+    Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(401100), task.getScheduledTime());
+  }
+
+  @Test
+  public void testLongRunningTaskNotStarveShortOnes() throws InterruptedException {
+    MultilevelPriorityQueue queue = new MultilevelPriorityQueue(10, new FragmentInstanceTask());
+    FragmentInstanceTask longTask = createTask("inst-long");
+    queue.updatePriority(longTask, TimeUnit.SECONDS.toNanos(20));
+    Assert.assertEquals(2, longTask.getLevel());
+    queue.push(longTask);
+    FragmentInstanceTask shortTask = createTask("inst-short");
+    queue.push(shortTask);
+    Assert.assertEquals(shortTask.getId(), queue.poll().getId());
+    Assert.assertEquals(longTask.getId(), queue.poll().getId());
+
+    // level 0 has been scheduled much longer than its share, so the long task goes first
+    queue.push(shortTask);
+    queue.push(longTask);
+    for (int i = 0; i < 100; i++) {
+      FragmentInstanceTask task = createTask("inst-" + i);
+      queue.updatePriority(task, TimeUnit.MILLISECONDS.toNanos(900));
+    }
+    Assert.assertEquals(longTask.getId(), queue.poll().getId());
+    Assert.assertEquals(shortTask.getId(), queue.poll().getId());
+  }
+
+  @Test
+  public void testGetAndRemove() {
+    MultilevelPriorityQueue queue = new MultilevelPriorityQueue(10, new FragmentInstanceTask());
+    FragmentInstanceTask t1 = createTask("inst-1");
+    FragmentInstanceTask t2 = createTask("inst-2");
+    queue.updatePriority(t1, TimeUnit.SECONDS.toNanos(2));
+    queue.updatePriority(t2, TimeUnit.MILLISECONDS.toNanos(10));
+    queue.push(t1);
+    queue.push(t2);
+    Assert.assertSame(t1, queue.get(t1.getId()));
+    Assert.assertSame(t2, queue.get(t2.getId()));
+    Assert.assertSame(t1, queue.remove(t1.getId()));
+    Assert.assertNull(queue.get(t1.getId()));
+    Assert.assertEquals(1, queue.size());
+    queue.clear();
+    Assert.assertNull(queue.get(t2.getId()));
+    Assert.assertEquals(0, queue.size());
+  }
+
+  private FragmentInstanceTask createTask(String instanceId) {
+    Driver mockDriver = Mockito.mock(Driver.class);
+    Mockito.when(mockDriver.getInfo())
+        .thenReturn(new FragmentInstanceId(new PlanFragmentId(new QueryId("test"), 0), instanceId));
+    return new FragmentInstanceTask(mockDriver, 100L, FragmentInstanceTaskStatus.READY);
+  }
+}
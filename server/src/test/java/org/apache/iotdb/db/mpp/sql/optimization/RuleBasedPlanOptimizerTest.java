@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.optimization;
+
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanGraphPrinter;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.AggregateNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.FilterNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.FilterNullNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.LimitNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.OffsetNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesAggregateScanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.db.mpp.sql.statement.component.FilterNullPolicy;
+import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RuleBasedPlanOptimizerTest {
+
+  private final QueryId queryId = new QueryId("test_query");
+  private final MPPQueryContext context = new MPPQueryContext(queryId);
+
+  @Test
+  public void testPushFilterAndLimitIntoSingleScan() throws IllegalPathException {
+    SeriesScanNode scanNode = scan("root.sg.d1.s1");
+    PlanNode filterNode =
+        new FilterNode(
+            queryId.genPlanNodeId(),
+            scanNode,
+            new GlobalTimeExpression(TimeFilter.gt(100)),
+            Collections.singletonList("root.sg.d1.s1"));
+    PlanNode filterNullNode =
+        new FilterNullNode(
+            queryId.genPlanNodeId(),
+            filterNode,
+            FilterNullPolicy.CONTAINS_NULL,
+            Collections.emptyList());
+    PlanNode plan =
+        new OffsetNode(
+            queryId.genPlanNodeId(), new LimitNode(queryId.genPlanNodeId(), filterNullNode, 10), 3);
+
+    PlanNode result = new RuleBasedPlanOptimizer().optimize(plan, context);
+
+    assertSame(scanNode, result);
+    assertEquals(TimeFilter.gt(100), scanNode.getTimeFilter());
+    assertEquals(3, scanNode.getOffset());
+    assertEquals(7, scanNode.getLimit());
+    assertTrue(String.join("\n", PlanGraphPrinter.getGraph(result)).contains("Limit: 7"));
+  }
+
+  @Test
+  public void testPushLimitThroughTimeJoin() throws IllegalPathException {
+    SeriesScanNode scan1 = scan("root.sg.d1.s1");
+    SeriesScanNode scan2 = scan("root.sg.d1.s2");
+    PlanNode timeJoinNode =
+        new TimeJoinNode(
+            queryId.genPlanNodeId(),
+            OrderBy.TIMESTAMP_ASC,
+            new ArrayList<>(Arrays.asList(scan1, scan2)));
+    PlanNode plan =
+        new LimitNode(
+            queryId.genPlanNodeId(), new OffsetNode(queryId.genPlanNodeId(), timeJoinNode, 5), 10);
+
+    PlanNode result = new RuleBasedPlanOptimizer().optimize(plan, context);
+
+    // the join still needs to apply limit and offset, but neither scan reads more than 15 rows
+    assertSame(plan, result);
+    assertEquals(15, scan1.getLimit());
+    assertEquals(15, scan2.getLimit());
+    assertEquals(0, scan1.getOffset());
+  }
+
+  @Test
+  public void testPushAggregationIntoScan() throws IllegalPathException {
+    SeriesScanNode scan1 = scan("root.sg.d1.s1");
+    SeriesScanNode scan2 = scan("root.sg.d1.s2");
+    scan1.setTimeFilter(TimeFilter.lt(50));
+    PlanNode timeJoinNode =
+        new TimeJoinNode(
+            queryId.genPlanNodeId(),
+            OrderBy.TIMESTAMP_ASC,
+            new ArrayList<>(Arrays.asList(scan1, scan2)));
+    Map<PartialPath, Set<AggregationType>> aggregateFuncMap = new LinkedHashMap<>();
+    aggregateFuncMap.put(scan2.getSeriesPath(), Sets.newHashSet(AggregationType.COUNT));
+    aggregateFuncMap.put(scan1.getSeriesPath(), Sets.newHashSet(AggregationType.MAX_VALUE));
+    AggregateNode aggregateNode =
+        new AggregateNode(queryId.genPlanNodeId(), timeJoinNode, aggregateFuncMap, null);
+
+    PlanNode result = new RuleBasedPlanOptimizer().optimize(aggregateNode, context);
+
+    assertTrue(result instanceof TimeJoinNode);
+    assertEquals(
+        aggregateNode.getOutputColumnNames(), ((TimeJoinNode) result).getOutputColumnNames());
+    List<PlanNode> children = result.getChildren();
+    assertEquals(2, children.size());
+    SeriesAggregateScanNode first = (SeriesAggregateScanNode) children.get(0);
+    SeriesAggregateScanNode second = (SeriesAggregateScanNode) children.get(1);
+    assertEquals(scan2.getSeriesPath(), first.getSeriesPath());
+    assertNull(first.getTimeFilter());
+    assertEquals(
+        Collections.singletonList(AggregationType.MAX_VALUE), second.getAggregateFuncList());
+    assertEquals(TimeFilter.lt(50), second.getTimeFilter());
+  }
+
+  @Test
+  public void testMergeAdjacentTimeJoins() throws IllegalPathException {
+    SeriesScanNode scan1 = scan("root.sg.d1.s1");
+    SeriesScanNode scan2 = scan("root.sg.d1.s2");
+    SeriesScanNode scan3 = scan("root.sg.d2.s1");
+    PlanNode innerJoin =
+        new TimeJoinNode(
+            queryId.genPlanNodeId(),
+            OrderBy.TIMESTAMP_ASC,
+            new ArrayList<>(Arrays.asList(scan1, scan2)));
+    TimeJoinNode outerJoin =
+        new TimeJoinNode(
+            queryId.genPlanNodeId(),
+            OrderBy.TIMESTAMP_ASC,
+            new ArrayList<>(Arrays.asList(innerJoin, scan3)));
+    PlanNode plan = new LimitNode(queryId.genPlanNodeId(), outerJoin, 100);
+
+    PlanNode result = new RuleBasedPlanOptimizer().optimize(plan, context);
+
+    TimeJoinNode mergedJoin = (TimeJoinNode) result.getChildren().get(0);
+    assertEquals(outerJoin.getPlanNodeId(), mergedJoin.getPlanNodeId());
+    assertEquals(Arrays.asList(scan1, scan2, scan3), mergedJoin.getChildren());
+    assertEquals(
+        Arrays.asList("root.sg.d1.s1", "root.sg.d1.s2", "root.sg.d2.s1"),
+        mergedJoin.getOutputColumnNames());
+    // the limit is only pushed once the joins are merged
+    assertEquals(100, scan3.getLimit());
+  }
+
+  private SeriesScanNode scan(String path) throws IllegalPathException {
+    MeasurementPath measurementPath = new MeasurementPath(path, TSDataType.INT32);
+    return new SeriesScanNode(
+        queryId.genPlanNodeId(),
+        measurementPath,
+        Collections.singleton(measurementPath.getMeasurement()),
+        OrderBy.TIMESTAMP_ASC);
+  }
+}
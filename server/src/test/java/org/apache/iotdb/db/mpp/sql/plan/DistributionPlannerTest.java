@@ -30,14 +30,25 @@ import org.apache.iotdb.commons.partition.SeriesPartitionSlot;
 import org.apache.iotdb.commons.partition.TimePartitionSlot;
 import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.exception.metadata.IllegalPathException;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.mpp.aggregation.AggregationStep;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
 import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.DataDriver;
+import org.apache.iotdb.db.mpp.execution.DataDriverContext;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.FragmentInstanceState;
+import org.apache.iotdb.db.mpp.operator.process.AggregateOperator;
+import org.apache.iotdb.db.mpp.operator.source.DataSourceOperator;
 import org.apache.iotdb.db.mpp.sql.analyze.Analysis;
 import org.apache.iotdb.db.mpp.sql.analyze.QueryType;
 import org.apache.iotdb.db.mpp.sql.planner.DistributionPlanner;
+import org.apache.iotdb.db.mpp.sql.planner.LocalExecutionPlanner;
 import org.apache.iotdb.db.mpp.sql.planner.plan.DistributedQueryPlan;
 import org.apache.iotdb.db.mpp.sql.planner.plan.LogicalQueryPlan;
 import org.apache.iotdb.db.mpp.sql.planner.plan.SubPlan;
@@ -48,11 +59,16 @@ import org.apache.iotdb.db.mpp.sql.planner.plan.node.metedata.read.TimeSeriesSch
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.ExchangeNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.LimitNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeSplitMergeNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesAggregateScanNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesScanNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.write.InsertRowNode;
 import org.apache.iotdb.db.mpp.sql.planner.plan.node.write.InsertRowsNode;
 import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 import com.google.common.collect.Sets;
@@ -60,11 +76,15 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class DistributionPlannerTest {
 
@@ -330,6 +350,317 @@ public class DistributionPlannerTest {
     assertEquals(1, plan.getInstances().size());
   }
 
+  /** The scan of each DataRegion is split by its time partitions, and each split runs alone */
+  @Test
+  public void testSplitSeriesScanByTimePartitions() throws IllegalPathException {
+    int maxSeriesScanParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getMaxSeriesScanParallelism();
+    IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanParallelism(8);
+    try {
+      QueryId queryId = new QueryId("test_query");
+      PlanNode root = constructTimeSlotScan(queryId, OrderBy.TIMESTAMP_ASC, 0, 0);
+      MPPQueryContext context = new MPPQueryContext("", queryId, null, new Endpoint());
+      DistributionPlanner planner =
+          new DistributionPlanner(
+              constructAnalysisWithTimeSlots(), new LogicalQueryPlan(context, root));
+      PlanNode rootAfterRewrite = planner.rewriteSource();
+      List<TimeSplitMergeNode> timeSplitMergeNodes = new ArrayList<>();
+      collectTimeSplitMergeNodes(rootAfterRewrite, timeSplitMergeNodes);
+      assertEquals(2, timeSplitMergeNodes.size());
+      assertTimeSplits(
+          getTimeSplitMergeNode(timeSplitMergeNodes, 1).getChildren(),
+          OrderBy.TIMESTAMP_ASC,
+          100,
+          200,
+          300);
+      assertTimeSplits(
+          getTimeSplitMergeNode(timeSplitMergeNodes, 2).getChildren(), OrderBy.TIMESTAMP_ASC, 500);
+
+      // the first split runs with the TimeSplitMergeNode, the others are fetched by exchange
+      PlanNode rootWithExchange = planner.addExchangeNode(rootAfterRewrite);
+      timeSplitMergeNodes.clear();
+      collectTimeSplitMergeNodes(rootWithExchange, timeSplitMergeNodes);
+      assertEquals(2, timeSplitMergeNodes.size());
+      for (TimeSplitMergeNode timeSplitMergeNode : timeSplitMergeNodes) {
+        List<PlanNode> children = timeSplitMergeNode.getChildren();
+        assertTrue(children.get(0) instanceof SeriesScanNode);
+        for (int i = 1; i < children.size(); i++) {
+          assertTrue(children.get(i) instanceof ExchangeNode);
+          assertTrue(children.get(i).getChildren().get(0) instanceof SeriesScanNode);
+        }
+      }
+
+      // one FragmentInstance for each of the 6 splits
+      MPPQueryContext newContext = new MPPQueryContext("", queryId, null, new Endpoint());
+      DistributedQueryPlan plan =
+          new DistributionPlanner(
+                  constructAnalysisWithTimeSlots(), new LogicalQueryPlan(newContext, root))
+              .planFragments();
+      assertEquals(6, plan.getInstances().size());
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setMaxSeriesScanParallelism(maxSeriesScanParallelism);
+    }
+  }
+
+  @Test
+  public void testSplitDescSeriesScanByTimePartitions() throws IllegalPathException {
+    int maxSeriesScanParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getMaxSeriesScanParallelism();
+    IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanParallelism(8);
+    try {
+      QueryId queryId = new QueryId("test_query");
+      PlanNode root = constructTimeSlotScan(queryId, OrderBy.TIMESTAMP_DESC, 0, 0);
+      DistributionPlanner planner =
+          new DistributionPlanner(
+              constructAnalysisWithTimeSlots(),
+              new LogicalQueryPlan(new MPPQueryContext(queryId), root));
+      PlanNode rootAfterRewrite = planner.rewriteSource();
+      List<TimeSplitMergeNode> timeSplitMergeNodes = new ArrayList<>();
+      collectTimeSplitMergeNodes(rootAfterRewrite, timeSplitMergeNodes);
+      assertEquals(2, timeSplitMergeNodes.size());
+      assertTimeSplits(
+          getTimeSplitMergeNode(timeSplitMergeNodes, 1).getChildren(),
+          OrderBy.TIMESTAMP_DESC,
+          100,
+          200,
+          300);
+      assertTimeSplits(
+          getTimeSplitMergeNode(timeSplitMergeNodes, 2).getChildren(), OrderBy.TIMESTAMP_DESC, 500);
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setMaxSeriesScanParallelism(maxSeriesScanParallelism);
+    }
+  }
+
+  /** The limit and offset of a split can't be applied, so the scan is not split */
+  @Test
+  public void testNotSplitSeriesScanWithLimitOrOffset() throws IllegalPathException {
+    int maxSeriesScanParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getMaxSeriesScanParallelism();
+    IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanParallelism(8);
+    try {
+      int[][] limitAndOffsets = {{10, 0}, {0, 5}};
+      for (int[] limitAndOffset : limitAndOffsets) {
+        QueryId queryId = new QueryId("test_query");
+        PlanNode root =
+            constructTimeSlotScan(
+                queryId, OrderBy.TIMESTAMP_ASC, limitAndOffset[0], limitAndOffset[1]);
+        DistributionPlanner planner =
+            new DistributionPlanner(
+                constructAnalysisWithTimeSlots(),
+                new LogicalQueryPlan(new MPPQueryContext(queryId), root));
+        PlanNode rootAfterRewrite = planner.rewriteSource();
+        List<TimeSplitMergeNode> timeSplitMergeNodes = new ArrayList<>();
+        collectTimeSplitMergeNodes(rootAfterRewrite, timeSplitMergeNodes);
+        assertEquals(0, timeSplitMergeNodes.size());
+        assertEquals(2, rootAfterRewrite.getChildren().size());
+        for (PlanNode child : rootAfterRewrite.getChildren()) {
+          assertTrue(child instanceof SeriesScanNode);
+        }
+      }
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setMaxSeriesScanParallelism(maxSeriesScanParallelism);
+    }
+  }
+
+  /** Adjacent time partitions are scanned by the same split if there are too many of them */
+  @Test
+  public void testMaxSeriesScanParallelism() throws IllegalPathException {
+    int maxSeriesScanParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getMaxSeriesScanParallelism();
+    IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanParallelism(2);
+    try {
+      QueryId queryId = new QueryId("test_query");
+      PlanNode root = constructTimeSlotScan(queryId, OrderBy.TIMESTAMP_ASC, 0, 0);
+      DistributionPlanner planner =
+          new DistributionPlanner(
+              constructAnalysisWithTimeSlots(),
+              new LogicalQueryPlan(new MPPQueryContext(queryId), root));
+      PlanNode rootAfterRewrite = planner.rewriteSource();
+      List<TimeSplitMergeNode> timeSplitMergeNodes = new ArrayList<>();
+      collectTimeSplitMergeNodes(rootAfterRewrite, timeSplitMergeNodes);
+      assertEquals(2, timeSplitMergeNodes.size());
+      assertTimeSplits(
+          getTimeSplitMergeNode(timeSplitMergeNodes, 1).getChildren(), OrderBy.TIMESTAMP_ASC, 200);
+      assertTimeSplits(
+          getTimeSplitMergeNode(timeSplitMergeNodes, 2).getChildren(), OrderBy.TIMESTAMP_ASC, 500);
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setMaxSeriesScanParallelism(maxSeriesScanParallelism);
+    }
+  }
+
+  /**
+   * The aggregation is split by both DataRegions and time partitions, and the PARTIAL results of
+   * all the splits are merged at FINAL step.
+   */
+  @Test
+  public void testSplitSeriesAggregateScan() throws IllegalPathException {
+    int maxSeriesScanParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getMaxSeriesScanParallelism();
+    IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanParallelism(8);
+    try {
+      QueryId queryId = new QueryId("test_query");
+      SeriesAggregateScanNode root =
+          new SeriesAggregateScanNode(
+              queryId.genPlanNodeId(),
+              new MeasurementPath("root.sg.d1.s1", TSDataType.INT32),
+              Arrays.asList(AggregationType.COUNT, AggregationType.AVG),
+              OrderBy.TIMESTAMP_ASC,
+              null,
+              null);
+      DistributionPlanner planner =
+          new DistributionPlanner(
+              constructAnalysisWithTimeSlots(),
+              new LogicalQueryPlan(new MPPQueryContext(queryId), root));
+      PlanNode rootAfterRewrite = planner.rewriteSource();
+      assertTrue(rootAfterRewrite instanceof TimeSplitMergeNode);
+      assertTrue(((TimeSplitMergeNode) rootAfterRewrite).isAggregation());
+      assertEquals(6, rootAfterRewrite.getChildren().size());
+      for (PlanNode child : rootAfterRewrite.getChildren()) {
+        assertEquals(AggregationStep.PARTIAL, ((SeriesAggregateScanNode) child).getStep());
+      }
+
+      FragmentInstanceContext fragmentInstanceContext =
+          new FragmentInstanceContext(
+              new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance"),
+              new AtomicReference<>(FragmentInstanceState.RUNNING));
+      DataDriver dataDriver =
+          LocalExecutionPlanner.getInstance()
+              .plan(rootAfterRewrite, fragmentInstanceContext, null, null);
+      assertTrue(dataDriver.getRoot() instanceof AggregateOperator);
+      List<DataSourceOperator> sourceOperators =
+          ((DataDriverContext) fragmentInstanceContext.getDriverContext()).getSourceOperators();
+      assertEquals(6, sourceOperators.size());
+      for (DataSourceOperator sourceOperator : sourceOperators) {
+        sourceOperator.initQueryDataSource(
+            new QueryDataSource(Collections.emptyList(), Collections.emptyList()));
+      }
+      // one column for the final result of COUNT and AVG each, instead of their three intermediate
+      // columns
+      TsBlock tsBlock = dataDriver.getRoot().next();
+      assertEquals(1, tsBlock.getPositionCount());
+      assertEquals(2, tsBlock.getValueColumnCount());
+      assertEquals(0, tsBlock.getColumn(0).getLong(0));
+      assertTrue(tsBlock.getColumn(1).isNull(0));
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setMaxSeriesScanParallelism(maxSeriesScanParallelism);
+    }
+  }
+
+  private PlanNode constructTimeSlotScan(QueryId queryId, OrderBy scanOrder, int limit, int offset)
+      throws IllegalPathException {
+    TimeJoinNode timeJoinNode = new TimeJoinNode(queryId.genPlanNodeId(), scanOrder);
+    SeriesScanNode seriesScanNode =
+        new SeriesScanNode(
+            queryId.genPlanNodeId(),
+            new MeasurementPath("root.sg.d1.s1", TSDataType.INT32),
+            Sets.newHashSet("s1"),
+            scanOrder);
+    seriesScanNode.setLimit(limit);
+    seriesScanNode.setOffset(offset);
+    timeJoinNode.addChild(seriesScanNode);
+    return timeJoinNode;
+  }
+
+  private void collectTimeSplitMergeNodes(PlanNode node, List<TimeSplitMergeNode> result) {
+    if (node instanceof TimeSplitMergeNode) {
+      result.add((TimeSplitMergeNode) node);
+    }
+    for (PlanNode child : node.getChildren()) {
+      collectTimeSplitMergeNodes(child, result);
+    }
+  }
+
+  private TimeSplitMergeNode getTimeSplitMergeNode(
+      List<TimeSplitMergeNode> timeSplitMergeNodes, int dataRegionId) {
+    for (TimeSplitMergeNode timeSplitMergeNode : timeSplitMergeNodes) {
+      SeriesScanNode firstSplit = (SeriesScanNode) timeSplitMergeNode.getChildren().get(0);
+      if (firstSplit.getRegionReplicaSet().getConsensusGroupId().getId() == dataRegionId) {
+        return timeSplitMergeNode;
+      }
+    }
+    throw new AssertionError("no TimeSplitMergeNode of DataRegion " + dataRegionId);
+  }
+
+  /**
+   * The time ranges of the splits are adjacent and cover all the time, i.e., [MIN, boundaries[0]),
+   * [boundaries[0], boundaries[1]), ..., [boundaries[n - 1], MAX], ordered by the scan order.
+   */
+  private void assertTimeSplits(List<PlanNode> splits, OrderBy scanOrder, long... boundaries) {
+    assertEquals(boundaries.length + 1, splits.size());
+    for (int i = 0; i < splits.size(); i++) {
+      int range = scanOrder == OrderBy.TIMESTAMP_ASC ? i : splits.size() - 1 - i;
+      Filter timeFilter = ((SeriesScanNode) splits.get(i)).getTimeFilter();
+      long startTime = range == 0 ? Long.MIN_VALUE : boundaries[range - 1];
+      long endTime = range == boundaries.length ? Long.MAX_VALUE : boundaries[range] - 1;
+      assertTrue(timeFilter.satisfy(startTime, null));
+      assertTrue(timeFilter.satisfy(endTime, null));
+      if (range > 0) {
+        assertFalse(timeFilter.satisfy(startTime - 1, null));
+      }
+      if (range < boundaries.length) {
+        assertFalse(timeFilter.satisfy(endTime + 1, null));
+      }
+    }
+  }
+
+  /** root.sg.d1 is stored in DataRegion 1 in 4 time partitions, and in DataRegion 2 in 2 ones */
+  private Analysis constructAnalysisWithTimeSlots() {
+    SeriesPartitionExecutor executor =
+        SeriesPartitionExecutor.getSeriesPartitionExecutor(
+            IoTDBDescriptor.getInstance().getConfig().getSeriesPartitionExecutorClass(),
+            IoTDBDescriptor.getInstance().getConfig().getSeriesPartitionSlotNum());
+    Analysis analysis = new Analysis();
+
+    DataPartition dataPartition =
+        new DataPartition(
+            IoTDBDescriptor.getInstance().getConfig().getSeriesPartitionExecutorClass(),
+            IoTDBDescriptor.getInstance().getConfig().getSeriesPartitionSlotNum());
+    Map<String, Map<SeriesPartitionSlot, Map<TimePartitionSlot, List<RegionReplicaSet>>>>
+        dataPartitionMap = new HashMap<>();
+    Map<SeriesPartitionSlot, Map<TimePartitionSlot, List<RegionReplicaSet>>> sgPartitionMap =
+        new HashMap<>();
+
+    List<RegionReplicaSet> dataRegion1 =
+        Collections.singletonList(
+            new RegionReplicaSet(
+                new DataRegionId(1),
+                Arrays.asList(
+                    new DataNodeLocation(11, new Endpoint("192.0.1.1", 9000)),
+                    new DataNodeLocation(12, new Endpoint("192.0.1.2", 9000)))));
+    List<RegionReplicaSet> dataRegion2 =
+        Collections.singletonList(
+            new RegionReplicaSet(
+                new DataRegionId(2),
+                Arrays.asList(
+                    new DataNodeLocation(21, new Endpoint("192.0.2.1", 9000)),
+                    new DataNodeLocation(22, new Endpoint("192.0.2.2", 9000)))));
+
+    Map<TimePartitionSlot, List<RegionReplicaSet>> d1DataRegionMap = new HashMap<>();
+    d1DataRegionMap.put(new TimePartitionSlot(0), dataRegion1);
+    d1DataRegionMap.put(new TimePartitionSlot(100), dataRegion1);
+    d1DataRegionMap.put(new TimePartitionSlot(200), dataRegion1);
+    d1DataRegionMap.put(new TimePartitionSlot(300), dataRegion1);
+    d1DataRegionMap.put(new TimePartitionSlot(400), dataRegion2);
+    d1DataRegionMap.put(new TimePartitionSlot(500), dataRegion2);
+
+    sgPartitionMap.put(executor.getSeriesPartitionSlot("root.sg.d1"), d1DataRegionMap);
+    dataPartitionMap.put("root.sg", sgPartitionMap);
+    dataPartition.setDataPartitionMap(dataPartitionMap);
+
+    analysis.setDataPartitionInfo(dataPartition);
+    return analysis;
+  }
+
   private Analysis constructAnalysis() {
 
     SeriesPartitionExecutor executor =
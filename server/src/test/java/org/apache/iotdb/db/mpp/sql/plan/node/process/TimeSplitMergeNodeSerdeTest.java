@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.sql.plan.node.process;
+
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.commons.partition.RegionReplicaSet;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.mpp.aggregation.AggregationStep;
+import org.apache.iotdb.db.mpp.sql.plan.node.PlanNodeDeserializeHelper;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.process.TimeSplitMergeNode;
+import org.apache.iotdb.db.mpp.sql.planner.plan.node.source.SeriesAggregateScanNode;
+import org.apache.iotdb.db.mpp.sql.statement.component.OrderBy;
+import org.apache.iotdb.db.query.aggregation.AggregationType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimeSplitMergeNodeSerdeTest {
+
+  @Test
+  public void TestSerializeAndDeserialize() throws IllegalPathException {
+    List<AggregationType> aggregateFuncList = Collections.singletonList(AggregationType.COUNT);
+    List<PlanNode> splits = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      SeriesAggregateScanNode split =
+          new SeriesAggregateScanNode(
+              new PlanNodeId("TestSeriesAggregateScanNode" + i),
+              new MeasurementPath("root.sg.d1.s1", TSDataType.INT32),
+              aggregateFuncList,
+              OrderBy.TIMESTAMP_ASC,
+              i == 0 ? TimeFilter.lt(100) : TimeFilter.gtEq(100),
+              null);
+      split.setStep(AggregationStep.PARTIAL);
+      split.setRegionReplicaSet(new RegionReplicaSet(new DataRegionId(1), new ArrayList<>()));
+      splits.add(split);
+    }
+    TimeSplitMergeNode timeSplitMergeNode =
+        new TimeSplitMergeNode(
+            new PlanNodeId("TestTimeSplitMergeNode"),
+            OrderBy.TIMESTAMP_ASC,
+            aggregateFuncList,
+            splits);
+
+    ByteBuffer byteBuffer = ByteBuffer.allocate(2048);
+    timeSplitMergeNode.serialize(byteBuffer);
+    byteBuffer.flip();
+    assertEquals(PlanNodeDeserializeHelper.deserialize(byteBuffer), timeSplitMergeNode);
+  }
+}
@@ -155,4 +155,70 @@ public class LongTVListTest {
       Assert.assertEquals(tvList.getTime((int) i), clonedTvList.getTime((int) i));
     }
   }
+
+  @Test
+  public void testSortNearlySortedList() {
+    Random random = new Random(1);
+    LongTVList tvList = new LongTVList();
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (long i = 0; i < 10000; i++) {
+      // 1% points arrive late, and some timestamps are duplicated
+      long time = random.nextInt(100) == 0 ? i - random.nextInt(1000) : i / 2;
+      tvList.putLong(time, i);
+      inputs.add(new TimeValuePair(time, new TsLong(i)));
+    }
+    Assert.assertFalse(tvList.isSorted());
+    tvList.sort();
+    // the sort is stable, so the latest value of a duplicated timestamp stays the last one
+    inputs.sort(TimeValuePair::compareTo);
+    for (int i = 0; i < tvList.rowCount; i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+      Assert.assertEquals(inputs.get(i).getValue().getLong(), tvList.getLong(i));
+    }
+  }
+
+  @Test
+  public void testCopyOnWriteClone() {
+    LongTVList tvList = new LongTVList();
+    for (long i = 0; i < 1000; i++) {
+      tvList.putLong(i * 2, i * 2);
+    }
+    // a query is reading the first 1000 rows, and then late points of [1001, 1199] arrive
+    int querySize = tvList.rowCount();
+    for (long i = 500; i < 600; i++) {
+      tvList.putLong(i * 2 + 1, i * 2 + 1);
+    }
+    LongTVList clonedTvList = tvList.copyOnWriteClone();
+    clonedTvList.sort();
+    for (int i = 0; i < querySize; i++) {
+      Assert.assertEquals(i * 2, tvList.getTime(i));
+      Assert.assertEquals(i * 2, tvList.getLong(i));
+    }
+    for (int i = 0; i < clonedTvList.rowCount; i++) {
+      long expected = i <= 500 ? i * 2 : (i <= 700 ? i + 500 : (i - 100) * 2);
+      Assert.assertEquals(expected, clonedTvList.getTime(i));
+      Assert.assertEquals(expected, clonedTvList.getLong(i));
+    }
+    // the rows before the first late point are not moved, so their arrays are still shared
+    Assert.assertSame(tvList.timestamps.get(0), clonedTvList.timestamps.get(0));
+    Assert.assertNotSame(
+        tvList.timestamps.get(tvList.timestamps.size() - 1),
+        clonedTvList.timestamps.get(tvList.timestamps.size() - 1));
+  }
+
+  @Test
+  public void testDeleteNotSortedList() {
+    LongTVList tvList = new LongTVList();
+    for (long i = 1000; i > 0; i--) {
+      tvList.putLong(i, i);
+    }
+    Assert.assertEquals(100, tvList.delete(101, 200));
+    tvList.sort();
+    Assert.assertEquals(900, tvList.rowCount());
+    for (int i = 0; i < tvList.rowCount; i++) {
+      long expected = i < 100 ? i + 1 : i + 101;
+      Assert.assertEquals(expected, tvList.getTime(i));
+      Assert.assertEquals(expected, tvList.getLong(i));
+    }
+  }
 }
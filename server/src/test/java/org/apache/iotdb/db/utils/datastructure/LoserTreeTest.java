@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class LoserTreeTest {
+
+  @Test
+  public void testMerge() {
+    Random random = new Random(0);
+    for (int inputCount = 1; inputCount <= 9; inputCount++) {
+      long[][] inputs = new long[inputCount][];
+      List<Long> expected = new ArrayList<>();
+      for (int i = 0; i < inputCount; i++) {
+        // some inputs are empty
+        inputs[i] = new long[random.nextInt(20)];
+        for (int j = 0; j < inputs[i].length; j++) {
+          inputs[i][j] = random.nextInt(50);
+          expected.add(inputs[i][j]);
+        }
+        Arrays.sort(inputs[i]);
+      }
+      expected.sort(Long::compare);
+
+      int[] indexes = new int[inputCount];
+      LoserTree loserTree =
+          new LoserTree(
+              inputCount,
+              (left, right) -> {
+                boolean leftEmpty = indexes[left] == inputs[left].length;
+                boolean rightEmpty = indexes[right] == inputs[right].length;
+                if (leftEmpty || rightEmpty) {
+                  return Boolean.compare(leftEmpty, rightEmpty);
+                }
+                return Long.compare(inputs[left][indexes[left]], inputs[right][indexes[right]]);
+              });
+      List<Long> actual = new ArrayList<>();
+      while (true) {
+        int winner = loserTree.getWinner();
+        if (indexes[winner] == inputs[winner].length) {
+          break;
+        }
+        actual.add(inputs[winner][indexes[winner]++]);
+        loserTree.adjust(winner);
+      }
+      assertEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testStable() {
+    // all the elements are equal, so the smaller leaf wins
+    int[] remaining = {2, 2, 2};
+    LoserTree loserTree =
+        new LoserTree(
+            3, (left, right) -> Boolean.compare(remaining[left] == 0, remaining[right] == 0));
+    int[] expected = {0, 0, 1, 1, 2, 2};
+    for (int leaf : expected) {
+      assertEquals(leaf, loserTree.getWinner());
+      remaining[leaf]--;
+      loserTree.adjust(leaf);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.wal.buffer;
+
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WALBufferGroupCommitTest extends WALBufferCommonTest {
+  private boolean prevEnableWalGroupCommit;
+
+  @Before
+  public void setUp() throws Exception {
+    EnvironmentUtils.cleanDir(logDirectory);
+    prevEnableWalGroupCommit = config.isEnableWalGroupCommit();
+    config.setEnableWalGroupCommit(true);
+    super.setUp();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    super.tearDown();
+    config.setEnableWalGroupCommit(prevEnableWalGroupCommit);
+    EnvironmentUtils.cleanDir(logDirectory);
+  }
+
+  @Test
+  public void testGroupCommitWindow() {
+    WALGroupCommitController controller = new WALGroupCommitController(identifier, 10);
+    // no fsync observed yet, commit immediately
+    controller.startBatch(1_000);
+    assertEquals(1_000, controller.getBatchDeadline(1_000));
+    assertEquals(0, controller.getTargetBatchSize(), 0);
+    controller.finishBatch(100, 0);
+
+    // 100 entries per 1ms and 2ms fsync, expect about 200 entries during one fsync
+    controller.recordFsync(2_000_000);
+    controller.startBatch(1_001_000);
+    assertEquals(200, controller.getTargetBatchSize(), 1e-6);
+    assertEquals(3_001_000, controller.getBatchDeadline(1_001_000));
+
+    // slow fsync is bounded by fsync_wal_delay_in_ms
+    for (int i = 0; i < 100; i++) {
+      controller.recordFsync(1_000_000_000);
+    }
+    assertTrue(controller.getFsyncLatencyInNs() > 10_000_000);
+    assertEquals(11_001_000, controller.getBatchDeadline(1_001_000));
+  }
+}
@@ -79,6 +79,13 @@ struct TEndOfDataBlockEvent {
   4: required i32 lastSequenceId
 }
 
+struct TDynamicFilterEvent {
+  1: required TFragmentInstanceId sourceFragmentInstanceId
+  2: required i64 lowerBound
+  3: required i64 upperBound
+  4: required bool finished
+}
+
 struct TFragmentInstance {
   1: required binary body
 }
@@ -190,4 +197,6 @@ service DataBlockService {
   void onNewDataBlockEvent(TNewDataBlockEvent e);
 
   void onEndOfDataBlockEvent(TEndOfDataBlockEvent e);
+
+  void onDynamicFilterEvent(TDynamicFilterEvent e);
 }
@@ -111,14 +111,18 @@ public class TSFileConfig implements Serializable {
   private double freqEncodingSNR = 40;
   /** Default block size for FREQ encoding is 1024. */
   private int freqEncodingBlockSize = 1024;
-  /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY or LZ4. */
+  /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY, GZIP, LZ4 or ZSTD. */
   private CompressionType compressor = CompressionType.SNAPPY;
+  /** Compression level of ZSTD, from 1 (fastest) to 22 (smallest). Default value is 3. */
+  private int zstdLevel = 3;
   /** Line count threshold for checking page memory occupied size. */
   private int pageCheckSizeThreshold = 100;
   /** Default endian value is BIG_ENDIAN. */
   private String endian = "BIG_ENDIAN";
   /** Default storage is in local file system */
   private FSType TSFileStorageFs = FSType.LOCAL;
+  /** Whether to read sealed TsFiles in local file system through memory mapping. */
+  private boolean enableMmapRead = false;
   /** Default core-site.xml file path is /etc/hadoop/conf/core-site.xml */
   private String coreSitePath = "/etc/hadoop/conf/core-site.xml";
   /** Default hdfs-site.xml file path is /etc/hadoop/conf/hdfs-site.xml */
@@ -147,6 +151,18 @@ public class TSFileConfig implements Serializable {
   private String kerberosPrincipal = "principal";
   /** The acceptable error rate of bloom filter */
   private double bloomFilterErrorRate = 0.05;
+  /**
+   * Whether to write a value index for each page of the chunks, so that pages which can not contain
+   * the values of an equality or in predicate are skipped without decoding.
+   */
+  private boolean enableValueIndex = false;
+  /**
+   * Pages having no more distinct values than this threshold store their distinct values exactly,
+   * the others store a bloom filter of their values.
+   */
+  private int valueIndexDistinctValueThreshold = 16;
+  /** Pages having more distinct values than this bound are not indexed. */
+  private int valueIndexMaxDistinctValueNum = 4096;
   /** The amount of data iterate each time */
   private int batchSize = 1000;
 
@@ -288,6 +304,14 @@ public class TSFileConfig implements Serializable {
     this.compressor = CompressionType.valueOf(compressor);
   }
 
+  public int getZstdLevel() {
+    return zstdLevel;
+  }
+
+  public void setZstdLevel(int zstdLevel) {
+    this.zstdLevel = zstdLevel;
+  }
+
   public int getPageCheckSizeThreshold() {
     return pageCheckSizeThreshold;
   }
@@ -336,6 +360,30 @@ public class TSFileConfig implements Serializable {
     this.bloomFilterErrorRate = bloomFilterErrorRate;
   }
 
+  public boolean isEnableValueIndex() {
+    return enableValueIndex;
+  }
+
+  public void setEnableValueIndex(boolean enableValueIndex) {
+    this.enableValueIndex = enableValueIndex;
+  }
+
+  public int getValueIndexDistinctValueThreshold() {
+    return valueIndexDistinctValueThreshold;
+  }
+
+  public void setValueIndexDistinctValueThreshold(int valueIndexDistinctValueThreshold) {
+    this.valueIndexDistinctValueThreshold = valueIndexDistinctValueThreshold;
+  }
+
+  public int getValueIndexMaxDistinctValueNum() {
+    return valueIndexMaxDistinctValueNum;
+  }
+
+  public void setValueIndexMaxDistinctValueNum(int valueIndexMaxDistinctValueNum) {
+    this.valueIndexMaxDistinctValueNum = valueIndexMaxDistinctValueNum;
+  }
+
   public FSType getTSFileStorageFs() {
     return this.TSFileStorageFs;
   }
@@ -344,6 +392,14 @@ public class TSFileConfig implements Serializable {
     this.TSFileStorageFs = fileStorageFs;
   }
 
+  public boolean isEnableMmapRead() {
+    return enableMmapRead;
+  }
+
+  public void setEnableMmapRead(boolean enableMmapRead) {
+    this.enableMmapRead = enableMmapRead;
+  }
+
   public String getCoreSitePath() {
     return coreSitePath;
   }
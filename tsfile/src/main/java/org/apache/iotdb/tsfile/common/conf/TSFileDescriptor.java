@@ -80,6 +80,12 @@ public class TSFileDescriptor {
     writer.setString(conf::setTimeEncoder, "time_encoder");
     writer.setString(conf::setValueEncoder, "value_encoder");
     writer.setString(conf::setCompressor, "compressor");
+    writer.setInt(conf::setZstdLevel, "zstd_level");
+    writer.setBoolean(conf::setEnableMmapRead, "enable_mmap_read");
+    writer.setBoolean(conf::setEnableValueIndex, "enable_value_index");
+    writer.setInt(
+        conf::setValueIndexDistinctValueThreshold, "value_index_distinct_value_threshold");
+    writer.setInt(conf::setValueIndexMaxDistinctValueNum, "value_index_max_distinct_value_num");
     writer.setInt(conf::setBatchSize, "batch_size");
     writer.setInt(conf::setFreqEncodingBlockSize, "freq_block_size");
     writer.setDouble(conf::setFreqEncodingSNR, "freq_snr");
@@ -104,6 +110,10 @@ public class TSFileDescriptor {
       set(setter, propertyKey, Double::parseDouble);
     }
 
+    public void setBoolean(Consumer<Boolean> setter, String propertyKey) {
+      set(setter, propertyKey, Boolean::parseBoolean);
+    }
+
     public void setString(Consumer<String> setter, String propertyKey) {
       set(setter, propertyKey, Function.identity());
     }
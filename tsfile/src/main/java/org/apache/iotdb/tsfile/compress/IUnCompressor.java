@@ -22,6 +22,7 @@ package org.apache.iotdb.tsfile.compress;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4SafeDecompressor;
@@ -54,6 +55,8 @@ public interface IUnCompressor {
         return new LZ4UnCompressor();
       case GZIP:
         return new GZIPUnCompressor();
+      case ZSTD:
+        return new ZstdUnCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -236,7 +239,7 @@ public interface IUnCompressor {
     public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
         throws IOException {
       try {
-        return decompressor.decompress(byteArray, offset, length, output, offset);
+        return decompressor.decompress(byteArray, offset, length, output, outOffset);
       } catch (RuntimeException e) {
         logger.error(UNCOMPRESS_INPUT_ERROR, e);
         throw new IOException(e);
@@ -250,8 +253,9 @@ public interface IUnCompressor {
       }
 
       try {
+        int startPosition = uncompressed.position();
         decompressor.decompress(compressed, uncompressed);
-        return compressed.limit();
+        return uncompressed.position() - startPosition;
       } catch (RuntimeException e) {
         logger.error(UNCOMPRESS_INPUT_ERROR, e);
         throw new IOException(e);
@@ -312,4 +316,77 @@ public interface IUnCompressor {
       return CompressionType.GZIP;
     }
   }
+
+  class ZstdUnCompressor implements IUnCompressor {
+
+    /** ZSTD frames written by {@link ICompressor.ZstdCompressor} always carry the content size. */
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      long uncompressedLength = Zstd.decompressedSize(array, offset, length);
+      if (uncompressedLength <= 0 && length > 0) {
+        throw new IOException("unknown uncompressed length of the zstd frame");
+      }
+      return (int) uncompressedLength;
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      if (buffer.isDirect()) {
+        return (int) Zstd.decompressedSize(buffer);
+      }
+      return getUncompressedLength(
+          buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+
+    @Override
+    public byte[] uncompress(byte[] byteArray) throws IOException {
+      if (null == byteArray) {
+        return new byte[0];
+      }
+      byte[] output = new byte[getUncompressedLength(byteArray, 0, byteArray.length)];
+      uncompress(byteArray, 0, byteArray.length, output, 0);
+      return output;
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      long uncompressedSize =
+          Zstd.decompressByteArray(
+              output, outOffset, output.length - outOffset, byteArray, offset, length);
+      if (Zstd.isError(uncompressedSize)) {
+        throw new IOException(Zstd.getErrorName(uncompressedSize));
+      }
+      return (int) uncompressedSize;
+    }
+
+    /**
+     * Direct buffers are uncompressed in place without any copy, heap buffers fall back to the
+     * backing arrays.
+     */
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      if (compressed.isDirect() && uncompressed.isDirect()) {
+        try {
+          return Zstd.decompress(uncompressed, compressed);
+        } catch (RuntimeException e) {
+          throw new IOException(e);
+        }
+      }
+      int length = compressed.remaining();
+      byte[] dataBefore = new byte[length];
+      compressed.get(dataBefore, 0, length);
+      byte[] res = uncompress(dataBefore);
+      uncompressed.put(res);
+      return res.length;
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.tsfile.encoding.bitpacking;
 
+import java.util.Arrays;
+
 /**
  * This class is used to encode(decode) Integer in Java with specified bit-width. User need to
  * guarantee that the length of every given Integer in binary mode is less than or equal to the
@@ -107,32 +109,7 @@ public class IntPacker {
    * @param values - decoded result , the length of 'values' should be @{link IntPacker#NUM_OF_INTS}
    */
   public void unpack8Values(byte[] buf, int offset, int[] values) {
-    int byteIdx = offset;
-    long buffer = 0;
-    // total bits which have read from 'buf' to 'buffer'. i.e.,
-    // number of available bits to be decoded.
-    int totalBits = 0;
-    int valueIdx = 0;
-
-    while (valueIdx < NUM_OF_INTS) {
-      // If current available bits are not enough to decode one Integer,
-      // then add next byte from buf to 'buffer' until totalBits >= width
-      while (totalBits < width) {
-        buffer = (buffer << 8) | (buf[byteIdx] & 0xFF);
-        byteIdx++;
-        totalBits += 8;
-      }
-
-      // If current available bits are enough to decode one Integer,
-      // then decode one Integer one by one until left bits in 'buffer' is
-      // not enough to decode one Integer.
-      while (totalBits >= width && valueIdx < 8) {
-        values[valueIdx] = (int) (buffer >>> (totalBits - width));
-        valueIdx++;
-        totalBits -= width;
-        buffer = buffer & ((1 << totalBits) - 1);
-      }
-    }
+    unpackValues(buf, offset, width, values, 0, NUM_OF_INTS);
   }
 
   /**
@@ -147,12 +124,48 @@ public class IntPacker {
     int idx = 0;
     int k = 0;
     while (idx < length) {
-      int[] tv = new int[8];
-      // decode 8 values one time, current result will be saved in the array named 'tv'
-      unpack8Values(buf, idx, tv);
-      System.arraycopy(tv, 0, values, k, 8);
+      // decode 8 values one time
+      unpackValues(buf, idx, width, values, k, NUM_OF_INTS);
       idx += width;
-      k += 8;
+      k += NUM_OF_INTS;
+    }
+  }
+
+  /**
+   * decode 'count' values of bit-width 'width' that are stored back to back from byte 'offset' of
+   * 'buf', and save them in 'values' from 'valueOffset'. Byte-aligned widths are assembled directly
+   * from whole bytes, other widths go through a 64-bit accumulator refilled a byte at a time.
+   */
+  public static void unpackValues(
+      byte[] buf, int offset, int width, int[] values, int valueOffset, int count) {
+    int end = valueOffset + count;
+    if (width == 0) {
+      Arrays.fill(values, valueOffset, end, 0);
+    } else if ((width & 7) == 0) {
+      int byteNum = width >>> 3;
+      int byteIdx = offset;
+      for (int i = valueOffset; i < end; i++) {
+        int value = 0;
+        for (int j = 0; j < byteNum; j++) {
+          value = (value << 8) | (buf[byteIdx + j] & 0xFF);
+        }
+        values[i] = value;
+        byteIdx += byteNum;
+      }
+    } else {
+      long mask = (1L << width) - 1;
+      long buffer = 0;
+      // number of bits in 'buffer' that have not been decoded
+      int totalBits = 0;
+      int byteIdx = offset;
+      for (int i = valueOffset; i < end; i++) {
+        while (totalBits < width) {
+          buffer = (buffer << 8) | (buf[byteIdx++] & 0xFFL);
+          totalBits += 8;
+        }
+        totalBits -= width;
+        values[i] = (int) ((buffer >>> totalBits) & mask);
+      }
     }
   }
 
@@ -19,6 +19,10 @@
 
 package org.apache.iotdb.tsfile.encoding.bitpacking;
 
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+
+import java.util.Arrays;
+
 /**
  * This class is used to encode(decode) Long in Java with specified bit-width. User need to
  * guarantee that the length of every given Long in binary mode is less than or equal to the
@@ -108,44 +112,7 @@ public class LongPacker {
    * @param values - decoded result , the size of values should be 8
    */
   public void unpack8Values(byte[] buf, int offset, long[] values) {
-    int byteIdx = offset;
-    int valueIdx = 0;
-    // left bit(s) available for current byte in 'buf'
-    int leftBits = 8;
-    // bits that has been read for current long value which is to be decoded
-    int totalBits = 0;
-
-    // decode long value one by one
-    while (valueIdx < 8) {
-      // set all the 64 bits in current value to '0'
-      values[valueIdx] = 0;
-      // read until 'totalBits' is equal to width
-      while (totalBits < width) {
-        // If 'leftBits' in current byte belongs to current long value
-        if (width - totalBits >= leftBits) {
-          // then put left bits in current byte to current long value
-          values[valueIdx] = values[valueIdx] << leftBits;
-          values[valueIdx] = values[valueIdx] | (((1L << leftBits) - 1) & buf[byteIdx]);
-          totalBits += leftBits;
-          // get next byte
-          byteIdx++;
-          // set 'leftBits' in next byte to 8 because the next byte has not been used
-          leftBits = 8;
-          // Else take part of bits in 'leftBits' to current value.
-        } else {
-          // numbers of bits to be take
-          int t = width - totalBits;
-          values[valueIdx] = values[valueIdx] << t;
-          values[valueIdx] =
-              values[valueIdx] | (((1L << leftBits) - 1) & buf[byteIdx]) >>> (leftBits - t);
-          leftBits -= t;
-          totalBits += t;
-        }
-      }
-      // Start to decode next long value
-      valueIdx++;
-      totalBits = 0;
-    }
+    unpackValues(buf, offset, width, values, 0, NUM_OF_LONGS);
   }
 
   /**
@@ -160,13 +127,57 @@ public class LongPacker {
     int idx = 0;
     int k = 0;
     while (idx < length) {
-      long[] tv = new long[8];
-      // decode 8 values one time, current result will be saved in the array named
-      // 'tv'
-      unpack8Values(buf, idx, tv);
-      System.arraycopy(tv, 0, values, k, 8);
+      // decode 8 values one time
+      unpackValues(buf, idx, width, values, k, NUM_OF_LONGS);
       idx += width;
-      k += 8;
+      k += NUM_OF_LONGS;
+    }
+  }
+
+  /**
+   * decode 'count' values of bit-width 'width' that are stored back to back from byte 'offset' of
+   * 'buf', and save them in 'values' from 'valueOffset'.
+   *
+   * <p>Widths up to 56 bits are decoded through a 64-bit accumulator that is refilled a byte at a
+   * time, byte-aligned widths are assembled directly from whole bytes, and wider values fall back
+   * to {@link BytesUtils#bytesToLong(byte[], int, int)}.
+   */
+  public static void unpackValues(
+      byte[] buf, int offset, int width, long[] values, int valueOffset, int count) {
+    int end = valueOffset + count;
+    if (width == 0) {
+      Arrays.fill(values, valueOffset, end, 0L);
+    } else if ((width & 7) == 0) {
+      int byteNum = width >>> 3;
+      int byteIdx = offset;
+      for (int i = valueOffset; i < end; i++) {
+        long value = 0;
+        for (int j = 0; j < byteNum; j++) {
+          value = (value << 8) | (buf[byteIdx + j] & 0xFFL);
+        }
+        values[i] = value;
+        byteIdx += byteNum;
+      }
+    } else if (width <= 56) {
+      long mask = (1L << width) - 1;
+      long buffer = 0;
+      // number of bits in 'buffer' that have not been decoded
+      int totalBits = 0;
+      int byteIdx = offset;
+      for (int i = valueOffset; i < end; i++) {
+        while (totalBits < width) {
+          buffer = (buffer << 8) | (buf[byteIdx++] & 0xFFL);
+          totalBits += 8;
+        }
+        totalBits -= width;
+        values[i] = (buffer >>> totalBits) & mask;
+      }
+    } else {
+      int bitPos = offset << 3;
+      for (int i = valueOffset; i < end; i++) {
+        values[i] = BytesUtils.bytesToLong(buf, bitPos, width);
+        bitPos += width;
+      }
     }
   }
 
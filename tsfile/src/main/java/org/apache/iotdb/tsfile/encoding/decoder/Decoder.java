@@ -27,6 +27,7 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 public abstract class Decoder {
 
@@ -123,6 +124,20 @@ public abstract class Decoder {
         }
       case FREQ:
         return new FreqDecoder();
+      case CHIMP:
+        switch (dataType) {
+          case FLOAT:
+            return new SinglePrecisionChimpDecoder();
+          case DOUBLE:
+            return new DoublePrecisionChimpDecoder();
+          case INT32:
+            return new IntChimpDecoder();
+          case INT64:
+          case VECTOR:
+            return new LongChimpDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
       default:
         throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
     }
@@ -160,6 +175,56 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supported by Decoder");
   }
 
+  /**
+   * Decode at most {@code max} int values into {@code values} from {@code offset}. Decoders whose
+   * format allows it override this to decode a whole pack or run per call instead of one value.
+   *
+   * @return number of decoded values, less than {@code max} only if the buffer runs out
+   */
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int max) throws IOException {
+    int count = 0;
+    while (count < max && hasNext(buffer)) {
+      values[offset + count] = readInt(buffer);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Decode at most {@code max} long values into {@code values} from {@code offset}. Decoders whose
+   * format allows it override this to decode a whole pack or run per call instead of one value.
+   *
+   * @return number of decoded values, less than {@code max} only if the buffer runs out
+   */
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int max) throws IOException {
+    int count = 0;
+    while (count < max && hasNext(buffer)) {
+      values[offset + count] = readLong(buffer);
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Decode all the remaining long values in the buffer.
+   *
+   * @param expectedCount expected number of values, e.g. the count in the page statistics. The
+   *     returned array is allocated only once if it is right.
+   * @return an array whose length is the number of decoded values
+   */
+  public long[] readAllLongs(ByteBuffer buffer, int expectedCount) throws IOException {
+    long[] values = new long[Math.max(expectedCount, 1)];
+    int count = 0;
+    while (true) {
+      count += readLongs(buffer, values, count, values.length - count);
+      if (count < values.length || !hasNext(buffer)) {
+        break;
+      }
+      values = Arrays.copyOf(values, values.length * 2);
+    }
+    return count == values.length ? values : Arrays.copyOf(values, count);
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
@@ -19,9 +19,10 @@
 
 package org.apache.iotdb.tsfile.encoding.decoder;
 
+import org.apache.iotdb.tsfile.encoding.bitpacking.IntPacker;
+import org.apache.iotdb.tsfile.encoding.bitpacking.LongPacker;
 import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
-import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.IOException;
@@ -59,6 +60,7 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
   protected abstract void allocateDataArray();
 
+  /** turn the i-th unpacked delta of the current pack into a value. */
   protected abstract void readValue(int i);
 
   /**
@@ -119,8 +121,10 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       readHeader(buffer);
 
       encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      if (deltaBuf == null || deltaBuf.length < encodingLength) {
+        deltaBuf = new byte[encodingLength];
+      }
+      buffer.get(deltaBuf, 0, encodingLength);
       allocateDataArray();
 
       previous = firstValue;
@@ -131,12 +135,34 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     }
 
     private void readPack() {
+      // unpack all the deltas of the pack at once, then accumulate them
+      IntPacker.unpackValues(deltaBuf, 0, packWidth, data, 0, packNum);
       for (int i = 0; i < packNum; i++) {
         readValue(i);
         previous = data[i];
       }
     }
 
+    @Override
+    public int readInts(ByteBuffer buffer, int[] values, int offset, int max) {
+      int count = 0;
+      while (count < max) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          values[offset + count] = loadIntBatch(buffer);
+          count++;
+        } else {
+          int num = Math.min(max - count, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + count, num);
+          nextReadIndex += num;
+          count += num;
+        }
+      }
+      return count;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readInt(buffer);
@@ -145,13 +171,14 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new int[packNum];
+      if (data == null || data.length < packNum) {
+        data = new int[packNum];
+      }
     }
 
     @Override
     protected void readValue(int i) {
-      int v = BytesUtils.bytesToInt(deltaBuf, packWidth * i, packWidth);
-      data[i] = previous + minDeltaBase + v;
+      data[i] = previous + minDeltaBase + data[i];
     }
 
     @Override
@@ -198,8 +225,10 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       readHeader(buffer);
 
       encodingLength = ceil(packNum * packWidth);
-      deltaBuf = new byte[encodingLength];
-      buffer.get(deltaBuf);
+      if (deltaBuf == null || deltaBuf.length < encodingLength) {
+        deltaBuf = new byte[encodingLength];
+      }
+      buffer.get(deltaBuf, 0, encodingLength);
       allocateDataArray();
 
       previous = firstValue;
@@ -210,12 +239,34 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     }
 
     private void readPack() {
+      // unpack all the deltas of the pack at once, then accumulate them
+      LongPacker.unpackValues(deltaBuf, 0, packWidth, data, 0, packNum);
       for (int i = 0; i < packNum; i++) {
         readValue(i);
         previous = data[i];
       }
     }
 
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] values, int offset, int max) {
+      int count = 0;
+      while (count < max) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          values[offset + count] = loadIntBatch(buffer);
+          count++;
+        } else {
+          int num = Math.min(max - count, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + count, num);
+          nextReadIndex += num;
+          count += num;
+        }
+      }
+      return count;
+    }
+
     @Override
     public long readLong(ByteBuffer buffer) {
 
@@ -230,13 +281,14 @@ public abstract class DeltaBinaryDecoder extends Decoder {
 
     @Override
     protected void allocateDataArray() {
-      data = new long[packNum];
+      if (data == null || data.length < packNum) {
+        data = new long[packNum];
+      }
     }
 
     @Override
     protected void readValue(int i) {
-      long v = BytesUtils.bytesToLong(deltaBuf, packWidth * i, packWidth);
-      data[i] = previous + minDeltaBase + v;
+      data[i] = previous + minDeltaBase + data[i];
     }
 
     @Override
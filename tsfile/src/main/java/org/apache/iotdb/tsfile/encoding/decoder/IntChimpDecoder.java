@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_INTEGER;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_32BIT;
+
+/**
+ * CHIMP decoder for int values.
+ *
+ * @see org.apache.iotdb.tsfile.encoding.encoder.IntChimpEncoder
+ */
+public class IntChimpDecoder extends ChimpDecoder {
+
+  private static final int CASE_ONE_METADATA_LENGTH = PREVIOUS_VALUES_LOG2 + 3 + 5;
+
+  /** the last PREVIOUS_VALUES values, the latest one is at {@code current} */
+  private final int[] storedValues = new int[PREVIOUS_VALUES];
+
+  protected int storedValue = 0;
+
+  @Override
+  public void reset() {
+    super.reset();
+    storedValue = 0;
+  }
+
+  @Override
+  public final int readInt(ByteBuffer in) {
+    int returnValue = storedValue;
+    if (!firstValueWasRead) {
+      flipByte(in);
+      storedValue = (int) readLong(VALUE_BITS_LENGTH_32BIT, in);
+      storedValues[0] = storedValue;
+      firstValueWasRead = true;
+      returnValue = storedValue;
+    }
+    cacheNext(in);
+    return returnValue;
+  }
+
+  protected int cacheNext(ByteBuffer in) {
+    readNext(in);
+    if (storedValue == GORILLA_ENCODING_ENDING_INTEGER) {
+      hasNext = false;
+    }
+    return storedValue;
+  }
+
+  protected int readNext(ByteBuffer in) {
+    int flag = (int) readLong(2, in);
+    switch (flag) {
+      case 3: // case '11': new class of leading zeros
+        storedLeadingZeros = LEADING_REPRESENTATION[(int) readLong(3, in)];
+        storedValue ^= (int) readLong(VALUE_BITS_LENGTH_32BIT - storedLeadingZeros, in);
+        break;
+      case 2: // case '10': stored class of leading zeros
+        storedValue ^= (int) readLong(VALUE_BITS_LENGTH_32BIT - storedLeadingZeros, in);
+        break;
+      case 1: // case '01': XOR with a former value that has many trailing zeros
+        int metadata = (int) readLong(CASE_ONE_METADATA_LENGTH, in);
+        int previousIndex = metadata >>> (3 + 5);
+        storedLeadingZeros = LEADING_REPRESENTATION[(metadata >>> 5) & 0x7];
+        int significantBits = metadata & ((1 << 5) - 1);
+        if (significantBits == 0) {
+          significantBits = VALUE_BITS_LENGTH_32BIT;
+        }
+        int trailingZeros = VALUE_BITS_LENGTH_32BIT - significantBits - storedLeadingZeros;
+        int xor = (int) readLong(significantBits, in) << trailingZeros;
+        storedValue = storedValues[previousIndex] ^ xor;
+        break;
+      default: // case '00': equal to a former value
+        storedValue = storedValues[(int) readLong(PREVIOUS_VALUES_LOG2, in)];
+        break;
+    }
+    current = (current + 1) % PREVIOUS_VALUES;
+    storedValues[current] = storedValue;
+    return storedValue;
+  }
+}
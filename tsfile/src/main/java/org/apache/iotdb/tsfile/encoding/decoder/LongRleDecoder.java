@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** Decoder for long value using rle or bit-packing. */
 public class LongRleDecoder extends RleDecoder {
@@ -94,6 +95,42 @@ public class LongRleDecoder extends RleDecoder {
     return result;
   }
 
+  /** copy whole rle runs and bit-packed groups instead of decoding value by value. */
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int max) throws IOException {
+    int count = 0;
+    while (count < max) {
+      if (!isLengthAndBitWidthReaded) {
+        if (!buffer.hasRemaining()) {
+          break;
+        }
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        readNext();
+      }
+      int num = Math.min(max - count, currentCount);
+      switch (mode) {
+        case RLE:
+          Arrays.fill(values, offset + count, offset + count + num, currentValue);
+          break;
+        case BIT_PACKED:
+          System.arraycopy(
+              currentBuffer, bitPackingNum - currentCount, values, offset + count, num);
+          break;
+        default:
+          throw new TsFileDecodingException(
+              String.format("tsfile-encoding LongRleDecoder: not a valid mode %s", mode));
+      }
+      currentCount -= num;
+      count += num;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return count;
+  }
+
   @Override
   protected void initPacker() {
     packer = new LongPacker(bitWidth);
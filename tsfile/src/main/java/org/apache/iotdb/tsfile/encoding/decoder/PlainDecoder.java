@@ -53,6 +53,15 @@ public class PlainDecoder extends Decoder {
     return buffer.getLong();
   }
 
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int max) {
+    int count = Math.min(max, buffer.remaining() / Long.BYTES);
+    for (int i = offset; i < offset + count; i++) {
+      values[i] = buffer.getLong();
+    }
+    return count;
+  }
+
   @Override
   public float readFloat(ByteBuffer buffer) {
     return buffer.getFloat();
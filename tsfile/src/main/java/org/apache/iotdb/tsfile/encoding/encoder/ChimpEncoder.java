@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Base class of the CHIMP encoders. Like GORILLA, every value is XORed with an earlier value and
+ * only the meaningful bits of the XOR are stored, but the reference value may be any of the last
+ * 128 values, chosen through a hash of its least significant bits, and the number of leading zeros
+ * is rounded to one of 8 classes so that it costs 3 bits. Noisy decimals, whose XOR with the
+ * previous value rarely has trailing zeros, are stored much more compactly than with GORILLA.
+ *
+ * <p>The algorithm is Chimp128 from "Chimp: Efficient Lossless Floating Point Compression for Time
+ * Series Databases" (Liakos, Papakonstantinopoulou and Kotidis, VLDB 2022), following the layout of
+ * its reference implementation.
+ *
+ * <p>Project page: https://github.com/panagiotisl/chimp
+ *
+ * <p>License: http://www.apache.org/licenses/LICENSE-2.0
+ */
+public abstract class ChimpEncoder extends Encoder {
+
+  /** number of earlier values a value may be XORed with */
+  protected static final int PREVIOUS_VALUES = 128;
+
+  protected static final int PREVIOUS_VALUES_LOG2 = 7;
+
+  protected boolean firstValueWasWritten = false;
+
+  private byte buffer = 0;
+  protected int bitsLeft = Byte.SIZE;
+
+  protected ChimpEncoder() {
+    super(TSEncoding.CHIMP);
+  }
+
+  @Override
+  public final long getMaxByteSize() {
+    return 0;
+  }
+
+  protected void reset() {
+    firstValueWasWritten = false;
+    buffer = 0;
+    bitsLeft = Byte.SIZE;
+  }
+
+  /**
+   * Writes the given long value using the defined amount of least significant bits.
+   *
+   * @param value The long value to be written
+   * @param bits How many bits are stored to the stream
+   */
+  protected void writeBits(long value, int bits, ByteArrayOutputStream out) {
+    while (bits > 0) {
+      int shift = bits - bitsLeft;
+      if (shift >= 0) {
+        buffer |= (byte) ((value >> shift) & ((1 << bitsLeft) - 1));
+        bits -= bitsLeft;
+        bitsLeft = 0;
+      } else {
+        shift = bitsLeft - bits;
+        buffer |= (byte) (value << shift);
+        bitsLeft -= bits;
+        bits = 0;
+      }
+      flipByte(out);
+    }
+  }
+
+  protected void flipByte(ByteArrayOutputStream out) {
+    if (bitsLeft == 0) {
+      out.write(buffer);
+      buffer = 0;
+      bitsLeft = Byte.SIZE;
+    }
+  }
+}
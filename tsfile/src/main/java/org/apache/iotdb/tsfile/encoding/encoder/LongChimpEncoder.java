@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.GORILLA_ENCODING_ENDING_LONG;
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_64BIT;
+
+/**
+ * CHIMP encoder for long values. Every value after the first one starts with a 2-bit flag:
+ *
+ * <ul>
+ *   <li>'00': the value equals one of the last 128 values, whose index follows in 7 bits.
+ *   <li>'01': the XOR with one of the last 128 values has more than 13 trailing zeros. The index (7
+ *       bits), the class of leading zeros (3 bits), the number of meaningful bits (6 bits) and the
+ *       meaningful bits follow.
+ *   <li>'10': the XOR with the previous value has as many leading zeros as the last '11' case, its
+ *       bits after the leading zeros follow.
+ *   <li>'11': the class of leading zeros of the XOR with the previous value (3 bits) and its bits
+ *       after the leading zeros follow.
+ * </ul>
+ *
+ * <p>The algorithm is Chimp128 from "Chimp: Efficient Lossless Floating Point Compression for Time
+ * Series Databases" (Liakos, Papakonstantinopoulou and Kotidis, VLDB 2022), following the layout of
+ * its reference implementation.
+ *
+ * <p>Project page: https://github.com/panagiotisl/chimp
+ *
+ * <p>License: http://www.apache.org/licenses/LICENSE-2.0
+ */
+public class LongChimpEncoder extends ChimpEncoder {
+
+  private static final int THRESHOLD = 6 + PREVIOUS_VALUES_LOG2;
+  private static final int SET_LSB = (1 << (THRESHOLD + 1)) - 1;
+  private static final int CASE_ZERO_METADATA_LENGTH = PREVIOUS_VALUES_LOG2 + 2;
+  private static final int CASE_ONE_METADATA_LENGTH = PREVIOUS_VALUES_LOG2 + 5 + 6;
+  private static final int CASE_ONE_FLAG = 1 << (PREVIOUS_VALUES_LOG2 + 3 + 6);
+  private static final int ONE_ITEM_MAX_SIZE = (5 + VALUE_BITS_LENGTH_64BIT) / Byte.SIZE + 1;
+
+  /** class (0 - 7) of each number of leading zeros */
+  static final short[] LEADING_REPRESENTATION = {
+    0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6, 7, 7, 7, 7, 7, 7, 7, 7,
+    7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7
+  };
+
+  /** number of leading zeros rounded down to the nearest class */
+  static final short[] LEADING_ROUND = {
+    0, 0, 0, 0, 0, 0, 0, 0, 8, 8, 8, 8, 12, 12, 12, 12, 16, 16, 18, 18, 20, 20, 22, 22, 24, 24, 24,
+    24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24,
+    24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24, 24
+  };
+
+  /** the last PREVIOUS_VALUES values, the latest one is at {@code index % PREVIOUS_VALUES} */
+  private final long[] storedValues = new long[PREVIOUS_VALUES];
+  /** the latest index of a value whose THRESHOLD + 1 least significant bits are the key */
+  private final int[] indices = new int[SET_LSB + 1];
+
+  private int index = 0;
+  private int storedLeadingZeros = Integer.MAX_VALUE;
+
+  @Override
+  public final int getOneItemMaxSize() {
+    return ONE_ITEM_MAX_SIZE;
+  }
+
+  @Override
+  public final void encode(long value, ByteArrayOutputStream out) {
+    if (firstValueWasWritten) {
+      compressValue(value, out);
+    } else {
+      writeFirst(value, out);
+      firstValueWasWritten = true;
+    }
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    // ending stream
+    encode(GORILLA_ENCODING_ENDING_LONG, out);
+
+    // flip the byte no matter it is empty or not
+    // the empty ending byte is necessary when decoding
+    bitsLeft = 0;
+    flipByte(out);
+
+    // the encoder may be reused, so let us reset it
+    reset();
+  }
+
+  @Override
+  protected void reset() {
+    super.reset();
+    // entries of indices left from the last page are ignored as they are not in
+    // (index - PREVIOUS_VALUES, index], so they need not be cleared
+    index = 0;
+    storedLeadingZeros = Integer.MAX_VALUE;
+  }
+
+  private void writeFirst(long value, ByteArrayOutputStream out) {
+    storedValues[0] = value;
+    writeBits(value, VALUE_BITS_LENGTH_64BIT, out);
+    indices[(int) value & SET_LSB] = index;
+  }
+
+  private void compressValue(long value, ByteArrayOutputStream out) {
+    int key = (int) value & SET_LSB;
+    int previousIndex = index % PREVIOUS_VALUES;
+    long xor = storedValues[previousIndex] ^ value;
+    int trailingZeros = 0;
+    int distance = index - indices[key];
+    if (distance >= 0 && distance < PREVIOUS_VALUES) {
+      int candidateIndex = indices[key] % PREVIOUS_VALUES;
+      long candidateXor = storedValues[candidateIndex] ^ value;
+      trailingZeros = Long.numberOfTrailingZeros(candidateXor);
+      if (trailingZeros > THRESHOLD) {
+        previousIndex = candidateIndex;
+        xor = candidateXor;
+      }
+    }
+
+    if (xor == 0) {
+      writeBits(previousIndex, CASE_ZERO_METADATA_LENGTH, out);
+      storedLeadingZeros = Integer.MAX_VALUE;
+    } else {
+      int leadingZeros = LEADING_ROUND[Long.numberOfLeadingZeros(xor)];
+      if (trailingZeros > THRESHOLD) {
+        int significantBits = VALUE_BITS_LENGTH_64BIT - leadingZeros - trailingZeros;
+        writeBits(
+            CASE_ONE_FLAG
+                + (previousIndex << (3 + 6))
+                + (LEADING_REPRESENTATION[leadingZeros] << 6)
+                + significantBits,
+            CASE_ONE_METADATA_LENGTH,
+            out);
+        writeBits(xor >>> trailingZeros, significantBits, out);
+        storedLeadingZeros = Integer.MAX_VALUE;
+      } else if (leadingZeros == storedLeadingZeros) {
+        writeBits(2, 2, out);
+        writeBits(xor, VALUE_BITS_LENGTH_64BIT - leadingZeros, out);
+      } else {
+        storedLeadingZeros = leadingZeros;
+        writeBits(24 + LEADING_REPRESENTATION[leadingZeros], 5, out);
+        writeBits(xor, VALUE_BITS_LENGTH_64BIT - leadingZeros, out);
+      }
+    }
+
+    index++;
+    storedValues[index % PREVIOUS_VALUES] = value;
+    indices[key] = index;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.file.metadata;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Value indexes of all the pages of a chunk, in the order of the pages. It is stored in the
+ * metadata part of the TsFile, apart from the chunk, so that the readers which do not know it can
+ * still read the file.
+ */
+public class ChunkValueIndex {
+
+  private final List<PageValueIndex> pageValueIndexList;
+
+  public ChunkValueIndex() {
+    this.pageValueIndexList = new ArrayList<>();
+  }
+
+  private ChunkValueIndex(List<PageValueIndex> pageValueIndexList) {
+    this.pageValueIndexList = pageValueIndexList;
+  }
+
+  public void addPageValueIndex(PageValueIndex pageValueIndex) {
+    pageValueIndexList.add(pageValueIndex);
+  }
+
+  /** @return the value index of the pageIndex-th page, never null */
+  public PageValueIndex getPageValueIndex(int pageIndex) {
+    return pageIndex < pageValueIndexList.size()
+        ? pageValueIndexList.get(pageIndex)
+        : PageValueIndex.NO_INDEX;
+  }
+
+  public int getPageNum() {
+    return pageValueIndexList.size();
+  }
+
+  /** @return whether there is at least one page that is indexed */
+  public boolean isIndexed() {
+    for (PageValueIndex pageValueIndex : pageValueIndexList) {
+      if (pageValueIndex.isIndexed()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    int byteLen =
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(pageValueIndexList.size(), outputStream);
+    for (PageValueIndex pageValueIndex : pageValueIndexList) {
+      byteLen += pageValueIndex.serializeTo(outputStream);
+    }
+    return byteLen;
+  }
+
+  public static ChunkValueIndex deserializeFrom(ByteBuffer buffer) {
+    int pageNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    List<PageValueIndex> pageValueIndexList = new ArrayList<>(pageNum);
+    for (int i = 0; i < pageNum; i++) {
+      pageValueIndexList.add(PageValueIndex.deserializeFrom(buffer));
+    }
+    return new ChunkValueIndex(pageValueIndexList);
+  }
+}
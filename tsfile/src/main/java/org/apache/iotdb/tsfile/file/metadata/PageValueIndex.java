@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.file.metadata;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Value index of a page. A page with few distinct values stores these values exactly, the other
+ * pages store a bloom filter of their values. Values are indexed by their string form, so that one
+ * index works for all the data types.
+ */
+public class PageValueIndex {
+
+  /** index of a page whose values are not indexed, it may contain any value */
+  public static final PageValueIndex NO_INDEX = new PageValueIndex(null, null);
+
+  private static final byte NO_INDEX_TYPE = 0;
+  private static final byte DISTINCT_VALUES_TYPE = 1;
+  private static final byte BLOOM_FILTER_TYPE = 2;
+
+  private final Set<String> distinctValues;
+  private final BloomFilter bloomFilter;
+
+  private PageValueIndex(Set<String> distinctValues, BloomFilter bloomFilter) {
+    this.distinctValues = distinctValues;
+    this.bloomFilter = bloomFilter;
+  }
+
+  /**
+   * build the value index of a page
+   *
+   * @param values all the distinct values of the page in the form of {@link #toIndexedValue}
+   */
+  public static PageValueIndex build(Set<String> values) {
+    TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+    if (values.size() <= config.getValueIndexDistinctValueThreshold()) {
+      return new PageValueIndex(values, null);
+    }
+    BloomFilter filter =
+        BloomFilter.getEmptyBloomFilter(config.getBloomFilterErrorRate(), values.size());
+    for (String value : values) {
+      filter.add(value);
+    }
+    return new PageValueIndex(null, filter);
+  }
+
+  public static String toIndexedValue(Object value) {
+    return String.valueOf(value);
+  }
+
+  /** @return false if the page does not contain the value for sure */
+  public boolean mightContain(Object value) {
+    if (distinctValues != null) {
+      return distinctValues.contains(toIndexedValue(value));
+    }
+    if (bloomFilter != null) {
+      return bloomFilter.contains(toIndexedValue(value));
+    }
+    return true;
+  }
+
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    int byteLen = 0;
+    if (distinctValues != null) {
+      byteLen += ReadWriteIOUtils.write(DISTINCT_VALUES_TYPE, outputStream);
+      byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(distinctValues.size(), outputStream);
+      for (String value : distinctValues) {
+        byteLen += ReadWriteIOUtils.writeVar(value, outputStream);
+      }
+    } else if (bloomFilter != null) {
+      byteLen += ReadWriteIOUtils.write(BLOOM_FILTER_TYPE, outputStream);
+      byte[] bytes = bloomFilter.serialize();
+      byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(bytes.length, outputStream);
+      outputStream.write(bytes);
+      byteLen += bytes.length;
+      byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(bloomFilter.getSize(), outputStream);
+      byteLen +=
+          ReadWriteForEncodingUtils.writeUnsignedVarInt(
+              bloomFilter.getHashFunctionSize(), outputStream);
+    } else {
+      byteLen += ReadWriteIOUtils.write(NO_INDEX_TYPE, outputStream);
+    }
+    return byteLen;
+  }
+
+  public static PageValueIndex deserializeFrom(ByteBuffer buffer) {
+    byte type = ReadWriteIOUtils.readByte(buffer);
+    switch (type) {
+      case DISTINCT_VALUES_TYPE:
+        int size = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+        Set<String> values = new HashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+          values.add(ReadWriteIOUtils.readVarIntString(buffer));
+        }
+        return new PageValueIndex(values, null);
+      case BLOOM_FILTER_TYPE:
+        byte[] bytes = ReadWriteIOUtils.readByteBufferWithSelfDescriptionLength(buffer);
+        int filterSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+        int hashFunctionSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+        return new PageValueIndex(
+            null, BloomFilter.buildBloomFilter(bytes, filterSize, hashFunctionSize));
+      default:
+        return NO_INDEX;
+    }
+  }
+
+  public boolean isIndexed() {
+    return distinctValues != null || bloomFilter != null;
+  }
+}
@@ -42,6 +42,9 @@ public class TsFileMetadata {
   // offset of MetaMarker.SEPARATOR
   private long metaOffset;
 
+  // offset of the directory of chunk value indexes, -1 if the file has no value index
+  private long valueIndexOffset = -1;
+
   /**
    * deserialize data from the buffer.
    *
@@ -66,6 +69,11 @@ public class TsFileMetadata {
       fileMetaData.bloomFilter = BloomFilter.buildBloomFilter(bytes, filterSize, hashFunctionSize);
     }
 
+    // read offset of value indexes
+    if (buffer.remaining() >= Long.BYTES) {
+      fileMetaData.valueIndexOffset = ReadWriteIOUtils.readLong(buffer);
+    }
+
     return fileMetaData;
   }
 
@@ -119,6 +127,20 @@ public class TsFileMetadata {
     return byteLen;
   }
 
+  /**
+   * use the given outputStream to serialize the offset of value indexes, nothing is written if the
+   * file has no value index.
+   *
+   * @param outputStream -output stream to determine byte length
+   * @return -byte length
+   */
+  public int serializeValueIndexOffset(OutputStream outputStream) throws IOException {
+    if (valueIndexOffset < 0) {
+      return 0;
+    }
+    return ReadWriteIOUtils.write(valueIndexOffset, outputStream);
+  }
+
   /**
    * build bloom filter
    *
@@ -142,6 +164,14 @@ public class TsFileMetadata {
     this.metaOffset = metaOffset;
   }
 
+  public long getValueIndexOffset() {
+    return valueIndexOffset;
+  }
+
+  public void setValueIndexOffset(long valueIndexOffset) {
+    this.valueIndexOffset = valueIndexOffset;
+  }
+
   public MetadataIndexNode getMetadataIndex() {
     return metadataIndex;
   }
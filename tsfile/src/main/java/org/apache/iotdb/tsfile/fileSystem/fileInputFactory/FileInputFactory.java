@@ -24,4 +24,12 @@ import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 public interface FileInputFactory {
 
   TsFileInput getTsFileInput(String filePath);
+
+  /**
+   * Get the input of a sealed TsFile, whose content will never change. The factory may take
+   * advantage of it, e.g., by mapping the file into memory.
+   */
+  default TsFileInput getSealedTsFileInput(String filePath) {
+    return getTsFileInput(filePath);
+  }
 }
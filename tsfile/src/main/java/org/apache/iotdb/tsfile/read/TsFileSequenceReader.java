@@ -33,6 +33,7 @@ import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.AlignedTimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.MetadataIndexEntry;
@@ -47,6 +48,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.CoalescedReadStatistics;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.controller.CachedChunkLoaderImpl;
 import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
@@ -70,6 +72,7 @@ import java.io.Serializable;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -96,6 +99,7 @@ public class TsFileSequenceReader implements AutoCloseable {
   private static final String METADATA_INDEX_NODE_DESERIALIZE_ERROR =
       "Something error happened while deserializing MetadataIndexNode of file {}";
   private static final int MAX_READ_BUFFER_SIZE = 4 * 1024 * 1024;
+  private static final long MAX_COALESCED_READ_SIZE = 16 * 1024 * 1024;
   protected String file;
   protected TsFileInput tsFileInput;
   protected long fileMetadataPos;
@@ -108,6 +112,10 @@ public class TsFileSequenceReader implements AutoCloseable {
   private static final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
   private boolean cacheDeviceMetadata;
   private long minPlanIndex = Long.MAX_VALUE;
+  // offsets of the chunk headers of the chunks having a value index, and offsets of their value
+  // indexes, loaded on first use
+  private volatile long[] valueIndexedChunkOffsets;
+  private long[] valueIndexOffsets;
   private long maxPlanIndex = Long.MIN_VALUE;
 
   /**
@@ -464,6 +472,217 @@ public class TsFileSequenceReader implements AutoCloseable {
     return timeseriesMetadataList;
   }
 
+  /**
+   * Read the TimeseriesMetadata of many series at once. Rather than walking the metadata index tree
+   * series by series, the nodes of one level are located for all the devices (and then all the
+   * measurements) together, and the ranges whose gap is no larger than maxGap are merged into one
+   * sequential read. The result of each device is the same as calling {@link
+   * #readTimeseriesMetadata(Path, Set)} for each of its measurements, i.e., all the requested
+   * sensors in the leaf nodes that contain one of them.
+   *
+   * @param deviceMeasurements device -> measurements to read
+   * @param maxGap ranges with a gap no larger than this (in bytes) are read together
+   * @param statistics records the number of requested and actually done reads, may be null
+   * @return device -> TimeseriesMetadata of the requested measurements, devices not in this file
+   *     are absent
+   */
+  public Map<String, List<TimeseriesMetadata>> readTimeseriesMetadata(
+      Map<String, Set<String>> deviceMeasurements, long maxGap, CoalescedReadStatistics statistics)
+      throws IOException {
+    readFileMetadata();
+    MetadataIndexNode rootNode = tsFileMetaData.getMetadataIndex();
+    Map<String, List<TimeseriesMetadata>> result = new HashMap<>();
+    if (!rootNode.getNodeType().equals(MetadataIndexNodeType.INTERNAL_DEVICE)
+        && !rootNode.getNodeType().equals(MetadataIndexNodeType.LEAF_DEVICE)) {
+      // not the usual layout, fall back to reading series by series
+      for (Map.Entry<String, Set<String>> entry : deviceMeasurements.entrySet()) {
+        List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
+        for (String measurement : entry.getValue()) {
+          timeseriesMetadataList.addAll(
+              readTimeseriesMetadata(new Path(entry.getKey(), measurement), entry.getValue()));
+        }
+        result.put(entry.getKey(), timeseriesMetadataList);
+      }
+      return result;
+    }
+
+    // 1. walk down the device index until the measurement root node of each device is found
+    Map<String, MetadataIndexNode> deviceNodes = new HashMap<>();
+    for (String device : deviceMeasurements.keySet()) {
+      deviceNodes.put(device, rootNode);
+    }
+    // device -> range of its measurement root node
+    Map<String, Pair<Long, Long>> measurementRootRanges = new HashMap<>();
+    while (!deviceNodes.isEmpty()) {
+      Map<String, Long> nextLevel = new HashMap<>();
+      TreeMap<Long, Long> ranges = new TreeMap<>();
+      for (Map.Entry<String, MetadataIndexNode> entry : deviceNodes.entrySet()) {
+        boolean isLeaf = entry.getValue().getNodeType().equals(MetadataIndexNodeType.LEAF_DEVICE);
+        Pair<MetadataIndexEntry, Long> childPair =
+            entry.getValue().getChildIndexEntry(entry.getKey(), isLeaf);
+        if (childPair == null) {
+          continue;
+        }
+        if (isLeaf) {
+          measurementRootRanges.put(
+              entry.getKey(), new Pair<>(childPair.left.getOffset(), childPair.right));
+        } else {
+          nextLevel.put(entry.getKey(), childPair.left.getOffset());
+          ranges.put(childPair.left.getOffset(), childPair.right);
+        }
+      }
+      Map<Long, MetadataIndexNode> nodes = readMetadataIndexNodes(ranges, maxGap, statistics);
+      deviceNodes = new HashMap<>();
+      for (Map.Entry<String, Long> entry : nextLevel.entrySet()) {
+        deviceNodes.put(entry.getKey(), nodes.get(entry.getValue()));
+      }
+    }
+
+    // 2. read the measurement root nodes
+    TreeMap<Long, Long> ranges = new TreeMap<>();
+    for (Pair<Long, Long> range : measurementRootRanges.values()) {
+      ranges.put(range.left, range.right);
+    }
+    Map<Long, MetadataIndexNode> rootNodes = readMetadataIndexNodes(ranges, maxGap, statistics);
+
+    // 3. walk down the measurement index until the leaf ranges of TimeseriesMetadata are found
+    Map<String, Set<Long>> deviceLeafOffsets = new HashMap<>();
+    TreeMap<Long, Long> leafRanges = new TreeMap<>();
+    Map<String, List<MetadataIndexNode>> measurementNodes = new HashMap<>();
+    for (Map.Entry<String, Pair<Long, Long>> entry : measurementRootRanges.entrySet()) {
+      measurementNodes.put(
+          entry.getKey(), Collections.singletonList(rootNodes.get(entry.getValue().left)));
+    }
+    while (!measurementNodes.isEmpty()) {
+      Map<String, Set<Long>> nextLevel = new HashMap<>();
+      ranges = new TreeMap<>();
+      for (Map.Entry<String, List<MetadataIndexNode>> entry : measurementNodes.entrySet()) {
+        String device = entry.getKey();
+        for (MetadataIndexNode node : entry.getValue()) {
+          boolean isLeaf = node.getNodeType().equals(MetadataIndexNodeType.LEAF_MEASUREMENT);
+          for (String measurement : deviceMeasurements.get(device)) {
+            Pair<MetadataIndexEntry, Long> childPair = node.getChildIndexEntry(measurement, false);
+            if (childPair == null) {
+              continue;
+            }
+            long offset = childPair.left.getOffset();
+            if (isLeaf) {
+              deviceLeafOffsets.computeIfAbsent(device, k -> new HashSet<>()).add(offset);
+              leafRanges.put(offset, childPair.right);
+            } else {
+              nextLevel.computeIfAbsent(device, k -> new HashSet<>()).add(offset);
+              ranges.put(offset, childPair.right);
+            }
+          }
+        }
+      }
+      Map<Long, MetadataIndexNode> nodes = readMetadataIndexNodes(ranges, maxGap, statistics);
+      measurementNodes = new HashMap<>();
+      for (Map.Entry<String, Set<Long>> entry : nextLevel.entrySet()) {
+        List<MetadataIndexNode> nodeList = new ArrayList<>(entry.getValue().size());
+        for (long offset : entry.getValue()) {
+          nodeList.add(nodes.get(offset));
+        }
+        measurementNodes.put(entry.getKey(), nodeList);
+      }
+    }
+
+    // 4. read the TimeseriesMetadata and keep only the requested ones
+    Map<Long, ByteBuffer> leafBuffers = readCoalesced(leafRanges, maxGap, statistics);
+    for (Map.Entry<String, Set<Long>> entry : deviceLeafOffsets.entrySet()) {
+      Set<String> measurements = deviceMeasurements.get(entry.getKey());
+      List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
+      for (long offset : entry.getValue()) {
+        ByteBuffer buffer = leafBuffers.get(offset).duplicate();
+        while (buffer.hasRemaining()) {
+          TimeseriesMetadata timeseriesMetadata;
+          try {
+            timeseriesMetadata = TimeseriesMetadata.deserializeFrom(buffer, true);
+          } catch (BufferOverflowException e) {
+            logger.error(
+                "Something error happened while deserializing TimeseriesMetadata of file {}", file);
+            throw e;
+          }
+          if (measurements.contains(timeseriesMetadata.getMeasurementId())) {
+            timeseriesMetadataList.add(timeseriesMetadata);
+          }
+        }
+      }
+      result.put(entry.getKey(), timeseriesMetadataList);
+    }
+    return result;
+  }
+
+  /** Read and deserialize the MetadataIndexNodes of the given ranges, keyed by start offset. */
+  private Map<Long, MetadataIndexNode> readMetadataIndexNodes(
+      TreeMap<Long, Long> ranges, long maxGap, CoalescedReadStatistics statistics)
+      throws IOException {
+    Map<Long, MetadataIndexNode> nodes = new HashMap<>();
+    for (Map.Entry<Long, ByteBuffer> entry : readCoalesced(ranges, maxGap, statistics).entrySet()) {
+      try {
+        nodes.put(entry.getKey(), MetadataIndexNode.deserializeFrom(entry.getValue()));
+      } catch (BufferOverflowException e) {
+        logger.error(METADATA_INDEX_NODE_DESERIALIZE_ERROR, file);
+        throw e;
+      }
+    }
+    return nodes;
+  }
+
+  /**
+   * Read the given ranges, merging the ones whose gap is no larger than maxGap into one read.
+   *
+   * @param ranges start offset -> end offset, sorted by start offset
+   * @return start offset -> data of the range
+   */
+  private Map<Long, ByteBuffer> readCoalesced(
+      TreeMap<Long, Long> ranges, long maxGap, CoalescedReadStatistics statistics)
+      throws IOException {
+    Map<Long, ByteBuffer> buffers = new HashMap<>();
+    List<Map.Entry<Long, Long>> group = new ArrayList<>();
+    long groupStart = 0;
+    long groupEnd = 0;
+    for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+      if (!group.isEmpty()
+          && (range.getKey() - groupEnd > maxGap
+              || Math.max(groupEnd, range.getValue()) - groupStart > MAX_COALESCED_READ_SIZE)) {
+        readGroup(group, groupStart, groupEnd, buffers, statistics);
+        group.clear();
+      }
+      if (group.isEmpty()) {
+        groupStart = range.getKey();
+        groupEnd = range.getValue();
+      } else {
+        groupEnd = Math.max(groupEnd, range.getValue());
+      }
+      group.add(range);
+    }
+    if (!group.isEmpty()) {
+      readGroup(group, groupStart, groupEnd, buffers, statistics);
+    }
+    return buffers;
+  }
+
+  private void readGroup(
+      List<Map.Entry<Long, Long>> group,
+      long groupStart,
+      long groupEnd,
+      Map<Long, ByteBuffer> buffers,
+      CoalescedReadStatistics statistics)
+      throws IOException {
+    ByteBuffer data = readData(groupStart, groupEnd);
+    for (Map.Entry<Long, Long> range : group) {
+      ByteBuffer buffer = data.duplicate();
+      buffer.limit((int) (range.getValue() - groupStart));
+      buffer.position((int) (range.getKey() - groupStart));
+      buffers.put(range.getKey(), buffer.slice());
+    }
+    if (statistics != null) {
+      statistics.addLogicalRead(group.size());
+      statistics.addPhysicalRead(groupEnd - groupStart);
+    }
+  }
+
   /* Get leaf MetadataIndexPair which contains path */
   private Pair<MetadataIndexEntry, Long> getLeafMetadataIndexPair(Path path) throws IOException {
     readFileMetadata();
@@ -1047,14 +1266,17 @@ public class TsFileSequenceReader implements AutoCloseable {
   }
 
   /**
-   * notice, this function will modify channel's position.
+   * notice, this function will modify channel's position. If the input is able to expose its
+   * content directly, e.g., a memory-mapped sealed file, the returned buffer is a read-only view of
+   * it rather than a copy.
    *
    * @param dataSize the size of chunkdata
    * @param position the offset of the chunk data
    * @return the pages of this chunk
    */
   private ByteBuffer readChunk(long position, int dataSize) throws IOException {
-    return readData(position, dataSize);
+    ByteBuffer slice = tsFileInput.slice(position, dataSize);
+    return slice != null ? slice : readData(position, dataSize);
   }
 
   /**
@@ -1069,7 +1291,10 @@ public class TsFileSequenceReader implements AutoCloseable {
     ByteBuffer buffer =
         readChunk(
             metaData.getOffsetOfChunkHeader() + header.getSerializedSize(), header.getDataSize());
-    return new Chunk(header, buffer, metaData.getDeleteIntervalList(), metaData.getStatistics());
+    Chunk chunk =
+        new Chunk(header, buffer, metaData.getDeleteIntervalList(), metaData.getStatistics());
+    chunk.setValueIndex(readChunkValueIndex(metaData.getOffsetOfChunkHeader()));
+    return chunk;
   }
 
   /**
@@ -1085,8 +1310,56 @@ public class TsFileSequenceReader implements AutoCloseable {
         readChunk(
             chunkCacheKey.getOffsetOfChunkHeader() + header.getSerializedSize(),
             header.getDataSize());
-    return new Chunk(
-        header, buffer, chunkCacheKey.getDeleteIntervalList(), chunkCacheKey.getStatistics());
+    Chunk chunk =
+        new Chunk(
+            header, buffer, chunkCacheKey.getDeleteIntervalList(), chunkCacheKey.getStatistics());
+    chunk.setValueIndex(readChunkValueIndex(chunkCacheKey.getOffsetOfChunkHeader()));
+    return chunk;
+  }
+
+  /**
+   * read the value index of a chunk. This function does not modify the position of the file reader.
+   *
+   * @param offsetOfChunkHeader offset of the chunk header
+   * @return the value index, or null if the chunk has no value index
+   */
+  public ChunkValueIndex readChunkValueIndex(long offsetOfChunkHeader) throws IOException {
+    loadValueIndexDirectory();
+    int index = Arrays.binarySearch(valueIndexedChunkOffsets, offsetOfChunkHeader);
+    if (index < 0) {
+      return null;
+    }
+    long end =
+        index + 1 < valueIndexOffsets.length
+            ? valueIndexOffsets[index + 1]
+            : tsFileMetaData.getValueIndexOffset();
+    return ChunkValueIndex.deserializeFrom(readData(valueIndexOffsets[index], end));
+  }
+
+  private void loadValueIndexDirectory() throws IOException {
+    if (valueIndexedChunkOffsets != null) {
+      return;
+    }
+    synchronized (this) {
+      if (valueIndexedChunkOffsets != null) {
+        return;
+      }
+      long[] chunkOffsets = new long[0];
+      long[] indexOffsets = new long[0];
+      // an unclosed file has no file metadata
+      if (fileMetadataSize > 0 && readFileMetadata().getValueIndexOffset() >= 0) {
+        ByteBuffer buffer = readData(tsFileMetaData.getValueIndexOffset(), fileMetadataPos);
+        int size = ReadWriteIOUtils.readInt(buffer);
+        chunkOffsets = new long[size];
+        indexOffsets = new long[size];
+        for (int i = 0; i < size; i++) {
+          chunkOffsets[i] = ReadWriteIOUtils.readLong(buffer);
+          indexOffsets[i] = ReadWriteIOUtils.readLong(buffer);
+        }
+      }
+      valueIndexOffsets = indexOffsets;
+      valueIndexedChunkOffsets = chunkOffsets;
+    }
   }
 
   /**
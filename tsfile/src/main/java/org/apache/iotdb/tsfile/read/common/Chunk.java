@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile.read.common;
 
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
@@ -37,6 +38,8 @@ public class Chunk {
   private boolean isFromOldFile = false;
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
+  /** value indexes of the pages, null if the chunk has no value index */
+  private ChunkValueIndex valueIndex;
 
   private long ramSize;
 
@@ -68,6 +71,9 @@ public class Chunk {
   }
 
   public void mergeChunkByAppendPage(Chunk chunk) throws IOException {
+    valueIndex = null;
+    chunkData = toHeapBuffer(chunkData);
+    chunk.chunkData = toHeapBuffer(chunk.chunkData);
     int dataSize = 0;
     // from where the page data of the merged chunk starts, if -1, it means the merged chunk has
     // more than one page
@@ -147,6 +153,28 @@ public class Chunk {
     chunkData = newChunkData;
   }
 
+  /** chunks read through a memory-mapped input are not backed by an accessible array. */
+  private static ByteBuffer toHeapBuffer(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return buffer;
+    }
+    ByteBuffer heapBuffer = ByteBuffer.allocate(buffer.capacity());
+    ByteBuffer duplicate = buffer.duplicate();
+    duplicate.clear();
+    heapBuffer.put(duplicate);
+    heapBuffer.limit(buffer.limit());
+    heapBuffer.position(buffer.position());
+    return heapBuffer;
+  }
+
+  public ChunkValueIndex getValueIndex() {
+    return valueIndex;
+  }
+
+  public void setValueIndex(ChunkValueIndex valueIndex) {
+    this.valueIndex = valueIndex;
+  }
+
   public Statistics getChunkStatistic() {
     return chunkStatistic;
   }
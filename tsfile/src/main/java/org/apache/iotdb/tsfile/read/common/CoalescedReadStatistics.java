@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common;
+
+/**
+ * Counts the reads issued by {@link
+ * org.apache.iotdb.tsfile.read.TsFileSequenceReader#readTimeseriesMetadata(java.util.Map, long,
+ * CoalescedReadStatistics)}: how many ranges were requested and how many reads were actually done
+ * after merging adjacent ranges. Not thread-safe, use one instance per call.
+ */
+public class CoalescedReadStatistics {
+
+  /** number of ranges that would have been read one by one */
+  private long logicalReadCount;
+
+  /** number of reads actually done after merging adjacent ranges */
+  private long physicalReadCount;
+
+  /** bytes actually read, including the gaps between merged ranges */
+  private long readBytes;
+
+  public void addLogicalRead(int count) {
+    logicalReadCount += count;
+  }
+
+  public void addPhysicalRead(long bytes) {
+    physicalReadCount++;
+    readBytes += bytes;
+  }
+
+  public long getLogicalReadCount() {
+    return logicalReadCount;
+  }
+
+  public long getPhysicalReadCount() {
+    return physicalReadCount;
+  }
+
+  /** number of reads saved by merging */
+  public long getCoalescedReadCount() {
+    return logicalReadCount - physicalReadCount;
+  }
+
+  public long getReadBytes() {
+    return readBytes;
+  }
+}
@@ -209,6 +209,10 @@ public class TsBlockBuilder {
 
     declaredPositions = 0;
 
+    timeColumnBuilder =
+        (TimeColumnBuilder)
+            timeColumnBuilder.newColumnBuilderLike(
+                tsBlockBuilderStatus.createColumnBuilderStatus());
     for (int i = 0; i < valueColumnBuilders.length; i++) {
       valueColumnBuilders[i] =
           valueColumnBuilders[i].newColumnBuilderLike(
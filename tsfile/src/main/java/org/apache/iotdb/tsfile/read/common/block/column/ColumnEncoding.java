@@ -31,7 +31,13 @@ public enum ColumnEncoding {
   /** INT64, DOUBLE. */
   INT64_ARRAY((byte) 2),
   /** TEXT. */
-  BINARY_ARRAY((byte) 3);
+  BINARY_ARRAY((byte) 3),
+  /** All types, a single value repeated for every position. */
+  RLE((byte) 4),
+  /** INT32, INT64, zigzag varints of the deltas between successive values. */
+  DELTA_VARINT((byte) 5),
+  /** TEXT, indexes into a dictionary of the distinct values. */
+  DICTIONARY((byte) 6);
 
   private final byte value;
 
@@ -57,6 +63,12 @@ public enum ColumnEncoding {
         return INT64_ARRAY;
       case 3:
         return BINARY_ARRAY;
+      case 4:
+        return RLE;
+      case 5:
+        return DELTA_VARINT;
+      case 6:
+        return DICTIONARY;
       default:
         throw new IllegalArgumentException("Invalid value: " + value);
     }
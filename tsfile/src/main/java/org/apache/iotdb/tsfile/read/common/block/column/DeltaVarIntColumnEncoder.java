@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common.block.column;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class DeltaVarIntColumnEncoder implements ColumnEncoder {
+
+  // Serialized data layout:
+  //    +---------------+-----------------+---------------+
+  //    | may have null | null indicators |    deltas     |
+  //    +---------------+-----------------+---------------+
+  //    | byte          | list[byte]      | list[varint]  |
+  //    +---------------+-----------------+---------------+
+  //
+  // The first non-null value is stored as its delta to 0, every following one as its delta to the
+  // previous non-null value. Deltas are zigzag encoded so that small negative ones stay short, and
+  // wrap around on overflow, which the decoder reverses by adding them up the same way.
+
+  @Override
+  public void readColumn(ColumnBuilder columnBuilder, ByteBuffer input, int positionCount) {
+    boolean[] nullIndicators = ColumnEncoder.deserializeNullIndicators(input, positionCount);
+
+    TSDataType dataType = columnBuilder.getDataType();
+    if (!TSDataType.INT32.equals(dataType) && !TSDataType.INT64.equals(dataType)) {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+    boolean isInt32 = TSDataType.INT32.equals(dataType);
+    long previous = 0;
+    for (int i = 0; i < positionCount; i++) {
+      if (nullIndicators == null || !nullIndicators[i]) {
+        previous += readZigZagVarLong(input);
+        if (isInt32) {
+          columnBuilder.writeInt((int) previous);
+        } else {
+          columnBuilder.writeLong(previous);
+        }
+      } else {
+        columnBuilder.appendNull();
+      }
+    }
+  }
+
+  @Override
+  public void writeColumn(DataOutputStream output, Column column) throws IOException {
+    ColumnEncoder.serializeNullIndicators(output, column);
+
+    TSDataType dataType = column.getDataType();
+    if (!TSDataType.INT32.equals(dataType) && !TSDataType.INT64.equals(dataType)) {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+    long previous = 0;
+    for (int i = 0, positionCount = column.getPositionCount(); i < positionCount; i++) {
+      if (!column.isNull(i)) {
+        long value = getValue(column, i);
+        writeZigZagVarLong(output, value - previous);
+        previous = value;
+      }
+    }
+  }
+
+  /** @return the size of the deltas of the column in bytes, null indicators excluded */
+  static long encodedValueSize(Column column) {
+    long size = 0;
+    long previous = 0;
+    for (int i = 0, positionCount = column.getPositionCount(); i < positionCount; i++) {
+      if (!column.isNull(i)) {
+        long value = getValue(column, i);
+        size += varLongSize(zigZag(value - previous));
+        previous = value;
+      }
+    }
+    return size;
+  }
+
+  private static long getValue(Column column, int position) {
+    return TSDataType.INT32.equals(column.getDataType())
+        ? column.getInt(position)
+        : column.getLong(position);
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static int varLongSize(long unsignedValue) {
+    int size = 1;
+    while ((unsignedValue & ~0x7FL) != 0) {
+      unsignedValue >>>= 7;
+      size++;
+    }
+    return size;
+  }
+
+  private static void writeZigZagVarLong(DataOutputStream output, long value) throws IOException {
+    long unsignedValue = zigZag(value);
+    while ((unsignedValue & ~0x7FL) != 0) {
+      output.writeByte((int) ((unsignedValue & 0x7F) | 0x80));
+      unsignedValue >>>= 7;
+    }
+    output.writeByte((int) unsignedValue);
+  }
+
+  private static long readZigZagVarLong(ByteBuffer input) {
+    long unsignedValue = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = input.get();
+      unsignedValue |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return (unsignedValue >>> 1) ^ -(unsignedValue & 1);
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common.block.column;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DictionaryColumnEncoder implements ColumnEncoder {
+
+  // Serialized data layout:
+  //    +---------------+-----------------+-----------------+--------------+----------------+
+  //    | may have null | null indicators | dictionary size |  dictionary  |    indexes     |
+  //    +---------------+-----------------+-----------------+--------------+----------------+
+  //    | byte          | list[byte]      | int32           | list[entry]  | list[varint]   |
+  //    +---------------+-----------------+-----------------+--------------+----------------+
+  //
+  // Each dictionary entry is represented as:
+  //    +---------------+-------+
+  //    | value length  | value |
+  //    +---------------+-------+
+  //    | int32         | bytes |
+  //    +---------------+-------+
+
+  @Override
+  public void readColumn(ColumnBuilder columnBuilder, ByteBuffer input, int positionCount) {
+    boolean[] nullIndicators = ColumnEncoder.deserializeNullIndicators(input, positionCount);
+
+    TSDataType dataType = columnBuilder.getDataType();
+    if (!TSDataType.TEXT.equals(dataType)) {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+    Binary[] dictionary = new Binary[input.getInt()];
+    for (int i = 0; i < dictionary.length; i++) {
+      byte[] value = new byte[input.getInt()];
+      input.get(value);
+      dictionary[i] = new Binary(value);
+    }
+    for (int i = 0; i < positionCount; i++) {
+      if (nullIndicators == null || !nullIndicators[i]) {
+        // decoded values share the Binary of their dictionary entry
+        columnBuilder.writeBinary(dictionary[ReadWriteForEncodingUtils.readUnsignedVarInt(input)]);
+      } else {
+        columnBuilder.appendNull();
+      }
+    }
+  }
+
+  @Override
+  public void writeColumn(DataOutputStream output, Column column) throws IOException {
+    ColumnEncoder.serializeNullIndicators(output, column);
+
+    TSDataType dataType = column.getDataType();
+    if (!TSDataType.TEXT.equals(dataType)) {
+      throw new IllegalArgumentException("Invalid data type: " + dataType);
+    }
+    int positionCount = column.getPositionCount();
+    Map<Binary, Integer> valueToIndex = new HashMap<>();
+    List<Binary> dictionary = new ArrayList<>();
+    int[] indexes = new int[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      if (!column.isNull(i)) {
+        Binary value = column.getBinary(i);
+        Integer index = valueToIndex.get(value);
+        if (index == null) {
+          index = dictionary.size();
+          valueToIndex.put(value, index);
+          dictionary.add(value);
+        }
+        indexes[i] = index;
+      }
+    }
+
+    output.writeInt(dictionary.size());
+    for (Binary value : dictionary) {
+      output.writeInt(value.getLength());
+      output.write(value.getValues());
+    }
+    for (int i = 0; i < positionCount; i++) {
+      if (!column.isNull(i)) {
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(indexes[i], output);
+      }
+    }
+  }
+
+  /** @return true if at most half of the non-null values of the column are distinct */
+  static boolean isWorthwhile(Column column) {
+    int positionCount = column.getPositionCount();
+    int nonNullCount = 0;
+    for (int i = 0; i < positionCount; i++) {
+      if (!column.isNull(i)) {
+        nonNullCount++;
+      }
+    }
+    int maxDistinctCount = nonNullCount / 2;
+    Set<Binary> distinctValues = new HashSet<>();
+    for (int i = 0; i < positionCount; i++) {
+      if (!column.isNull(i)
+          && distinctValues.add(column.getBinary(i))
+          && distinctValues.size() > maxDistinctCount) {
+        return false;
+      }
+    }
+    return nonNullCount > 0;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common.block.column;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class RunLengthColumnEncoder implements ColumnEncoder {
+
+  // Serialized data layout:
+  //    +----------------+-----------------------------------+
+  //    | value encoding |               value               |
+  //    +----------------+-----------------------------------+
+  //    | byte           | column of one position in encoding |
+  //    +----------------+-----------------------------------+
+
+  @Override
+  public void readColumn(ColumnBuilder columnBuilder, ByteBuffer input, int positionCount) {
+    Column value = readValue(columnBuilder, input);
+    for (int i = 0; i < positionCount; i++) {
+      if (value.isNull(0)) {
+        columnBuilder.appendNull();
+      } else {
+        columnBuilder.writeTsPrimitiveType(value.getTsPrimitiveType(0));
+      }
+    }
+  }
+
+  /** Read the column without expanding it, the value is shared by all the positions. */
+  public Column readRunLengthColumn(
+      ColumnBuilder columnBuilder, ByteBuffer input, int positionCount) {
+    return new RunLengthEncodedColumn(readValue(columnBuilder, input), positionCount);
+  }
+
+  private Column readValue(ColumnBuilder columnBuilder, ByteBuffer input) {
+    ColumnEncoding valueEncoding = ColumnEncoding.deserializeFrom(input);
+    ColumnBuilder valueBuilder = columnBuilder.newColumnBuilderLike(null);
+    ColumnEncoderFactory.get(valueEncoding).readColumn(valueBuilder, input, 1);
+    return valueBuilder.build();
+  }
+
+  @Override
+  public void writeColumn(DataOutputStream output, Column column) throws IOException {
+    Column value =
+        column instanceof RunLengthEncodedColumn
+            ? ((RunLengthEncodedColumn) column).getValue()
+            : column.getRegion(0, 1);
+    value.getEncoding().serializeTo(output);
+    ColumnEncoderFactory.get(value.getEncoding()).writeColumn(output, value);
+  }
+
+  /** @return true if all the positions of the column hold the same value or are all null */
+  static boolean isRunLength(Column column) {
+    if (column instanceof RunLengthEncodedColumn) {
+      return true;
+    }
+    int positionCount = column.getPositionCount();
+    if (positionCount == 0) {
+      return false;
+    }
+    boolean firstIsNull = column.isNull(0);
+    for (int i = 1; i < positionCount; i++) {
+      if (column.isNull(i) != firstIsNull || (!firstIsNull && !isSameValue(column, 0, i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSameValue(Column column, int left, int right) {
+    switch (column.getDataType()) {
+      case BOOLEAN:
+        return column.getBoolean(left) == column.getBoolean(right);
+      case INT32:
+        return column.getInt(left) == column.getInt(right);
+      case INT64:
+        return column.getLong(left) == column.getLong(right);
+      case FLOAT:
+        return Float.floatToIntBits(column.getFloat(left))
+            == Float.floatToIntBits(column.getFloat(right));
+      case DOUBLE:
+        return Double.doubleToLongBits(column.getDouble(left))
+            == Double.doubleToLongBits(column.getDouble(right));
+      case TEXT:
+        return column.getBinary(left).equals(column.getBinary(right));
+      default:
+        throw new IllegalArgumentException("Invalid data type: " + column.getDataType());
+    }
+  }
+}
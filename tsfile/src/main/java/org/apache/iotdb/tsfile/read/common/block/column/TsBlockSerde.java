@@ -19,6 +19,9 @@
 
 package org.apache.iotdb.tsfile.read.common.block.column;
 
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
@@ -32,6 +35,39 @@ import java.util.List;
 
 public class TsBlockSerde {
 
+  // written in place of the value column count, which is never negative, to mark a compressed
+  // tsblock
+  private static final int COMPRESSED_MARKER = -1;
+
+  // smaller tsblocks are hardly worth the time to compress
+  private static final int MIN_BYTES_TO_COMPRESS = 512;
+
+  private static final ICompressor COMPRESSOR = ICompressor.getCompressor(CompressionType.LZ4);
+  private static final IUnCompressor UNCOMPRESSOR =
+      IUnCompressor.getUnCompressor(CompressionType.LZ4);
+
+  private final boolean columnEncodingEnabled;
+  private final boolean compressionEnabled;
+
+  public TsBlockSerde() {
+    this(false, false);
+  }
+
+  /**
+   * Serialized tsblocks describe their own encodings and compression, so that any TsBlockSerde can
+   * deserialize them whatever the options of the serializing side are.
+   *
+   * @param columnEncodingEnabled choose the most compact encoding for each column, e.g. delta for
+   *     time columns, RLE for constant columns and dictionary for low cardinality text columns.
+   *     Otherwise every column is written as a plain array.
+   * @param compressionEnabled compress the whole serialized tsblock with LZ4 if that makes it
+   *     smaller
+   */
+  public TsBlockSerde(boolean columnEncodingEnabled, boolean compressionEnabled) {
+    this.columnEncodingEnabled = columnEncodingEnabled;
+    this.compressionEnabled = compressionEnabled;
+  }
+
   /**
    * Deserialize a tsblock.
    *
@@ -39,6 +75,9 @@ public class TsBlockSerde {
    * @return Deserialized tsblock.
    */
   public TsBlock deserialize(ByteBuffer byteBuffer) {
+    if (byteBuffer.getInt(byteBuffer.position()) == COMPRESSED_MARKER) {
+      return deserialize(uncompress(byteBuffer));
+    }
 
     // Serialized tsblock:
     //    +-------------+---------------+---------+------------+-----------+----------+
@@ -73,14 +112,53 @@ public class TsBlockSerde {
     ColumnEncoderFactory.get(columnEncodings.get(0))
         .readColumn(timeColumnBuilder, byteBuffer, positionCount);
 
+    Column[] valueColumns = null;
     for (int i = 0; i < valueColumnCount; i++) {
       // Value column.
       ColumnBuilder columnBuilder = builder.getColumnBuilder(i);
-      ColumnEncoderFactory.get(columnEncodings.get(1 + i))
-          .readColumn(columnBuilder, byteBuffer, positionCount);
+      ColumnEncoding columnEncoding = columnEncodings.get(1 + i);
+      if (columnEncoding == ColumnEncoding.RLE) {
+        // keep a run-length encoded column compact instead of expanding it into the builder
+        if (valueColumns == null) {
+          valueColumns = new Column[valueColumnCount];
+        }
+        valueColumns[i] =
+            ((RunLengthColumnEncoder) ColumnEncoderFactory.get(columnEncoding))
+                .readRunLengthColumn(columnBuilder, byteBuffer, positionCount);
+      } else {
+        ColumnEncoderFactory.get(columnEncoding)
+            .readColumn(columnBuilder, byteBuffer, positionCount);
+      }
     }
 
-    return builder.build();
+    if (valueColumns == null) {
+      return builder.build();
+    }
+    for (int i = 0; i < valueColumnCount; i++) {
+      if (valueColumns[i] == null) {
+        valueColumns[i] = builder.getColumnBuilder(i).build();
+      }
+    }
+    return new TsBlock(positionCount, (TimeColumn) timeColumnBuilder.build(), valueColumns);
+  }
+
+  private ByteBuffer uncompress(ByteBuffer byteBuffer) {
+    // Compressed tsblock:
+    //    +--------+---------------------+-------------------+-----------------+
+    //    | marker | uncompressed length | compressed length | compressed data |
+    //    +--------+---------------------+-------------------+-----------------+
+    //    | int32  | int32               | int32             | bytes           |
+    //    +--------+---------------------+-------------------+-----------------+
+    byteBuffer.getInt();
+    byte[] uncompressed = new byte[byteBuffer.getInt()];
+    byte[] compressed = new byte[byteBuffer.getInt()];
+    byteBuffer.get(compressed);
+    try {
+      UNCOMPRESSOR.uncompress(compressed, 0, compressed.length, uncompressed, 0);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Corrupted compressed tsblock", e);
+    }
+    return ByteBuffer.wrap(uncompressed);
   }
 
   /**
@@ -105,21 +183,75 @@ public class TsBlockSerde {
     dataOutputStream.writeInt(tsBlock.getPositionCount());
 
     // Column encodings.
-    tsBlock.getTimeColumn().getEncoding().serializeTo(dataOutputStream);
+    ColumnEncoding timeColumnEncoding = chooseTimeColumnEncoding(tsBlock.getTimeColumn());
+    timeColumnEncoding.serializeTo(dataOutputStream);
+    ColumnEncoding[] valueColumnEncodings = new ColumnEncoding[tsBlock.getValueColumnCount()];
     for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
-      tsBlock.getColumn(i).getEncoding().serializeTo(dataOutputStream);
+      valueColumnEncodings[i] = chooseValueColumnEncoding(tsBlock.getColumn(i));
+      valueColumnEncodings[i].serializeTo(dataOutputStream);
     }
 
     // Time column.
-    ColumnEncoder columnEncoder = ColumnEncoderFactory.get(tsBlock.getTimeColumn().getEncoding());
+    ColumnEncoder columnEncoder = ColumnEncoderFactory.get(timeColumnEncoding);
     columnEncoder.writeColumn(dataOutputStream, tsBlock.getTimeColumn());
 
     for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
       // Value column.
-      columnEncoder = ColumnEncoderFactory.get(tsBlock.getColumn(i).getEncoding());
+      columnEncoder = ColumnEncoderFactory.get(valueColumnEncodings[i]);
       columnEncoder.writeColumn(dataOutputStream, tsBlock.getColumn(i));
     }
 
-    return ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+    byte[] serialized = byteArrayOutputStream.toByteArray();
+    if (compressionEnabled && serialized.length >= MIN_BYTES_TO_COMPRESS) {
+      byte[] compressed = COMPRESSOR.compress(serialized);
+      if (compressed.length + 3 * Integer.BYTES < serialized.length) {
+        ByteBuffer byteBuffer = ByteBuffer.allocate(compressed.length + 3 * Integer.BYTES);
+        byteBuffer.putInt(COMPRESSED_MARKER);
+        byteBuffer.putInt(serialized.length);
+        byteBuffer.putInt(compressed.length);
+        byteBuffer.put(compressed);
+        byteBuffer.flip();
+        return byteBuffer;
+      }
+    }
+    return ByteBuffer.wrap(serialized);
+  }
+
+  private ColumnEncoding chooseTimeColumnEncoding(TimeColumn timeColumn) {
+    // time columns are nearly monotonic, so their deltas are far shorter than the timestamps
+    if (columnEncodingEnabled
+        && DeltaVarIntColumnEncoder.encodedValueSize(timeColumn)
+            < (long) timeColumn.getPositionCount() * Long.BYTES) {
+      return ColumnEncoding.DELTA_VARINT;
+    }
+    return timeColumn.getEncoding();
+  }
+
+  private ColumnEncoding chooseValueColumnEncoding(Column column) {
+    if (!columnEncodingEnabled || column.getPositionCount() < 2) {
+      return column.getEncoding();
+    }
+    if (RunLengthColumnEncoder.isRunLength(column)) {
+      return ColumnEncoding.RLE;
+    }
+    switch (column.getDataType()) {
+      case INT32:
+      case INT64:
+        long plainSize =
+            (long) column.getPositionCount()
+                * (column.getDataType() == TSDataType.INT32 ? Integer.BYTES : Long.BYTES);
+        if (DeltaVarIntColumnEncoder.encodedValueSize(column) < plainSize) {
+          return ColumnEncoding.DELTA_VARINT;
+        }
+        break;
+      case TEXT:
+        if (DictionaryColumnEncoder.isWorthwhile(column)) {
+          return ColumnEncoding.DICTIONARY;
+        }
+        break;
+      default:
+        break;
+    }
+    return column.getEncoding();
   }
 }
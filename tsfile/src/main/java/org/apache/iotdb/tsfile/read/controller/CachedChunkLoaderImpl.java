@@ -68,11 +68,14 @@ public class CachedChunkLoaderImpl implements IChunkLoader {
   @Override
   public Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException {
     Chunk chunk = chunkCache.get(new ChunkCacheKey(chunkMetaData));
-    return new Chunk(
-        chunk.getHeader(),
-        chunk.getData().duplicate(),
-        chunkMetaData.getDeleteIntervalList(),
-        chunkMetaData.getStatistics());
+    Chunk result =
+        new Chunk(
+            chunk.getHeader(),
+            chunk.getData().duplicate(),
+            chunkMetaData.getDeleteIntervalList(),
+            chunkMetaData.getStatistics());
+    result.setValueIndex(chunk.getValueIndex());
+    return result;
   }
 
   @Override
@@ -84,13 +87,14 @@ public class CachedChunkLoaderImpl implements IChunkLoader {
   public IChunkReader getChunkReader(IChunkMetadata chunkMetaData, Filter timeFilter)
       throws IOException {
     Chunk chunk = chunkCache.get(new ChunkCacheKey((ChunkMetadata) chunkMetaData));
-    return new ChunkReader(
+    Chunk result =
         new Chunk(
             chunk.getHeader(),
             chunk.getData().duplicate(),
             chunkMetaData.getDeleteIntervalList(),
-            chunkMetaData.getStatistics()),
-        timeFilter);
+            chunkMetaData.getStatistics());
+    result.setValueIndex(chunk.getValueIndex());
+    return new ChunkReader(result, timeFilter);
   }
 
   public static class ChunkCacheKey {
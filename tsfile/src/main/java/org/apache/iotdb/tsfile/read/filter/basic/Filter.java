@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.tsfile.read.filter.basic;
 
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 
@@ -35,6 +36,16 @@ public interface Filter {
    */
   boolean satisfy(Statistics statistics);
 
+  /**
+   * To examine whether a page may contain points satisfying the filter according to its value
+   * index.
+   *
+   * @param valueIndex value index of a page, null if the page has no value index
+   */
+  default boolean satisfy(PageValueIndex valueIndex) {
+    return true;
+  }
+
   /**
    * To examine whether the single point(with time and value) is satisfied with the filter.
    *
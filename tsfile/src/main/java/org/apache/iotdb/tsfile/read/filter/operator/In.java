@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.tsfile.read.filter.operator;
 
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
@@ -61,6 +62,19 @@ public class In<T extends Comparable<T>> implements Filter {
     return true;
   }
 
+  @Override
+  public boolean satisfy(PageValueIndex valueIndex) {
+    if (filterType == FilterType.TIME_FILTER || not || valueIndex == null) {
+      return true;
+    }
+    for (T value : values) {
+      if (valueIndex.mightContain(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public boolean satisfy(long time, Object value) {
     Object v = filterType == FilterType.TIME_FILTER ? time : value;
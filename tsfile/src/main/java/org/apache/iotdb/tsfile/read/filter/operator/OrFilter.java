@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.tsfile.read.filter.operator;
 
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
@@ -51,6 +52,11 @@ public class OrFilter extends BinaryFilter implements Serializable {
     return left.satisfy(statistics) || right.satisfy(statistics);
   }
 
+  @Override
+  public boolean satisfy(PageValueIndex valueIndex) {
+    return left.satisfy(valueIndex) || right.satisfy(valueIndex);
+  }
+
   @Override
   public boolean satisfy(long time, Object value) {
     return left.satisfy(time, value) || right.satisfy(time, value);
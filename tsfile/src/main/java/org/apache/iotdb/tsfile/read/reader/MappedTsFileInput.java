@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A TsFileInput for sealed TsFiles, which maps the whole file into memory. Positional reads are
+ * served from the mapping without any system call, and {@link #slice(long, int)} hands out
+ * read-only views of the mapping to chunk readers without copying.
+ *
+ * <p>The file is mapped in segments of at most {@link #DEFAULT_SEGMENT_SIZE} bytes, so files larger
+ * than 2 GB are supported. A range that spans two segments is copied into a heap buffer.
+ *
+ * <p>The content of the file must not change after it is mapped, so this input must never be used
+ * for unsealed files. Closing this input does not unmap the file forcibly, since views returned by
+ * {@link #slice(long, int)} may still be held by caches; the mapping is released by the garbage
+ * collector once no view refers to it any more.
+ */
+public class MappedTsFileInput implements TsFileInput {
+
+  private static final Logger logger = LoggerFactory.getLogger(MappedTsFileInput.class);
+
+  /** 1 GB, which keeps every segment addressable by an int. */
+  public static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+  private final FileChannel channel;
+  private final String filePath;
+  private final long size;
+  private final int segmentSize;
+  private volatile MappedByteBuffer[] segments;
+
+  public MappedTsFileInput(Path file) throws IOException {
+    this(file, DEFAULT_SEGMENT_SIZE);
+  }
+
+  public MappedTsFileInput(Path file, int segmentSize) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.filePath = file.toString();
+    this.segmentSize = segmentSize;
+    try {
+      this.size = channel.size();
+      int segmentNum = (int) ((size + segmentSize - 1) / segmentSize);
+      this.segments = new MappedByteBuffer[segmentNum];
+      for (int i = 0; i < segmentNum; i++) {
+        long start = (long) i * segmentSize;
+        segments[i] =
+            channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, size - start));
+      }
+    } catch (IOException e) {
+      logger.error("Error happened while mapping {}", filePath);
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public long size() throws IOException {
+    getSegments();
+    return size;
+  }
+
+  @Override
+  public long position() throws IOException {
+    try {
+      return channel.position();
+    } catch (IOException e) {
+      logger.error("Error happened while getting {} current position", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    try {
+      channel.position(newPosition);
+      return this;
+    } catch (IOException e) {
+      logger.error("Error happened while changing {} position to {}", filePath, newPosition);
+      throw e;
+    }
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    long position = position();
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      position(position + readSize);
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position < 0) {
+      throw new IllegalArgumentException("Negative position: " + position);
+    }
+    MappedByteBuffer[] mappedSegments = getSegments();
+    if (position >= size) {
+      return -1;
+    }
+    int readSize = (int) Math.min(dst.remaining(), size - position);
+    int remaining = readSize;
+    while (remaining > 0) {
+      ByteBuffer segment = mappedSegments[(int) (position / segmentSize)].duplicate();
+      int offsetInSegment = (int) (position % segmentSize);
+      int length = Math.min(remaining, segment.limit() - offsetInSegment);
+      segment.position(offsetInSegment);
+      segment.limit(offsetInSegment + length);
+      dst.put(segment);
+      position += length;
+      remaining -= length;
+    }
+    return readSize;
+  }
+
+  @Override
+  public ByteBuffer slice(long position, int length) throws IOException {
+    MappedByteBuffer[] mappedSegments = getSegments();
+    if (position < 0 || position + length > size) {
+      throw new IOException(
+          String.format(
+              "reach the end of the data. Size of data that want to read: %s,"
+                  + "file size: %s, position: %s",
+              length, size, position));
+    }
+    int offsetInSegment = (int) (position % segmentSize);
+    ByteBuffer segment = mappedSegments[(int) (position / segmentSize)];
+    if (offsetInSegment + length <= segment.limit()) {
+      ByteBuffer view = segment.duplicate();
+      view.position(offsetInSegment);
+      view.limit(offsetInSegment + length);
+      return view.slice();
+    }
+    // the range crosses the border of two segments
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    read(buffer, position);
+    buffer.flip();
+    return buffer;
+  }
+
+  @Override
+  public int read() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public FileChannel wrapAsFileChannel() {
+    return channel;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return Channels.newInputStream(channel);
+  }
+
+  @Override
+  public void close() throws IOException {
+    // only drop the references, views handed out by slice() keep their segment mapped
+    segments = null;
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.error("Error happened while closing {}", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public int readInt() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public String readVarIntString(long offset) throws IOException {
+    ByteBuffer byteBuffer = ByteBuffer.allocate(5);
+    read(byteBuffer, offset);
+    byteBuffer.flip();
+    int strLength = ReadWriteForEncodingUtils.readVarInt(byteBuffer);
+    if (strLength < 0) {
+      return null;
+    } else if (strLength == 0) {
+      return "";
+    }
+    ByteBuffer strBuffer = ByteBuffer.allocate(strLength);
+    int varIntLength = ReadWriteForEncodingUtils.varIntSize(strLength);
+    read(strBuffer, offset + varIntLength);
+    return new String(strBuffer.array(), 0, strLength);
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+
+  private MappedByteBuffer[] getSegments() throws ClosedChannelException {
+    MappedByteBuffer[] mappedSegments = segments;
+    if (mappedSegments == null) {
+      throw new ClosedChannelException();
+    }
+    return mappedSegments;
+  }
+}
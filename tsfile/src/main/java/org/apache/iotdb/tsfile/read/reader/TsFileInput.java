@@ -97,6 +97,20 @@ public interface TsFileInput {
    */
   int read(ByteBuffer dst, long position) throws IOException;
 
+  /**
+   * Returns a read-only view of the given range of this input without copying it, if the
+   * implementation is able to. The returned buffer is positioned at 0 and its limit is {@code
+   * length}. The view stays valid after this input is closed.
+   *
+   * @param position The position of the first byte of the range; must be non-negative
+   * @param length The length of the range in bytes
+   * @return the view of the range, or null if this input can not expose its content directly
+   * @throws IOException If some I/O error occurs
+   */
+  default ByteBuffer slice(long position, int length) throws IOException {
+    return null;
+  }
+
   /** read a byte from the Input. */
   int read() throws IOException;
 
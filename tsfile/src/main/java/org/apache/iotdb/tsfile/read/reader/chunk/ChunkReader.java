@@ -25,6 +25,8 @@ import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkValueIndex;
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -61,6 +63,9 @@ public class ChunkReader implements IChunkReader {
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
+  /** value indexes of the pages, null if the chunk has no value index */
+  private ChunkValueIndex valueIndex;
+
   /**
    * constructor of ChunkReader.
    *
@@ -71,6 +76,7 @@ public class ChunkReader implements IChunkReader {
     this.filter = filter;
     this.chunkDataBuffer = chunk.getData();
     this.deleteIntervalList = chunk.getDeleteIntervalList();
+    this.valueIndex = chunk.getValueIndex();
     this.currentTimestamp = Long.MIN_VALUE;
     chunkHeader = chunk.getHeader();
     this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
@@ -89,6 +95,7 @@ public class ChunkReader implements IChunkReader {
     this.filter = filter;
     this.chunkDataBuffer = chunk.getData();
     this.deleteIntervalList = chunk.getDeleteIntervalList();
+    this.valueIndex = chunk.getValueIndex();
     this.currentTimestamp = currentTimestamp;
     chunkHeader = chunk.getHeader();
     this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
@@ -100,6 +107,7 @@ public class ChunkReader implements IChunkReader {
   }
 
   private void initAllPageReaders(Statistics chunkStatistic) throws IOException {
+    int pageIndex = 0;
     // construct next satisfied page header
     while (chunkDataBuffer.remaining() > 0) {
       // deserialize a PageHeader from chunkDataBuffer
@@ -109,9 +117,14 @@ public class ChunkReader implements IChunkReader {
       } else {
         pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
       }
+      PageValueIndex pageValueIndex =
+          valueIndex == null ? null : valueIndex.getPageValueIndex(pageIndex);
+      pageIndex++;
       // if the current page satisfies
-      if (pageSatisfied(pageHeader)) {
-        pageReaderList.add(constructPageReaderForNextPage(pageHeader));
+      if (pageSatisfied(pageHeader) && (filter == null || filter.satisfy(pageValueIndex))) {
+        PageReader pageReader = constructPageReaderForNextPage(pageHeader);
+        pageReader.setValueIndex(pageValueIndex);
+        pageReaderList.add(pageReader);
       } else {
         skipBytesInStreamByLength(pageHeader.getCompressedSize());
       }
@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.read.reader.page;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
@@ -29,6 +30,9 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.LongColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
@@ -40,6 +44,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 public class PageReader implements IPageReader {
 
@@ -61,6 +66,9 @@ public class PageReader implements IPageReader {
 
   protected Filter filter;
 
+  /** value index of this page, null if the page has no value index */
+  private PageValueIndex valueIndex;
+
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
@@ -110,7 +118,7 @@ public class PageReader implements IPageReader {
   @Override
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
-    if (filter == null || filter.satisfy(getStatistics())) {
+    if (filter == null || (filter.satisfy(getStatistics()) && filter.satisfy(valueIndex))) {
       while (timeDecoder.hasNext(timeBuffer)) {
         long timestamp = timeDecoder.readLong(timeBuffer);
         switch (dataType) {
@@ -162,83 +170,105 @@ public class PageReader implements IPageReader {
   public TsBlock getAllSatisfiedData(boolean ascending) throws IOException {
     // TODO we still need to consider data type, ascending and descending here
     TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(dataType));
+    if (filter != null && (!filter.satisfy(getStatistics()) || !filter.satisfy(valueIndex))) {
+      return builder.build();
+    }
+    // decode the whole time column of the page at once
+    int expectedCount =
+        pageHeader == null || pageHeader.getStatistics() == null
+            ? 0
+            : (int) pageHeader.getStatistics().getCount();
+    long[] timeBatch = timeDecoder.readAllLongs(timeBuffer, expectedCount);
     TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
     ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
-    if (filter == null || filter.satisfy(getStatistics())) {
-      switch (dataType) {
-        case BOOLEAN:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBoolean))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeBoolean(aBoolean);
-              builder.declarePosition();
-            }
+    switch (dataType) {
+      case BOOLEAN:
+        for (long timestamp : timeBatch) {
+          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBoolean))) {
+            timeBuilder.writeLong(timestamp);
+            valueBuilder.writeBoolean(aBoolean);
+            builder.declarePosition();
           }
-          break;
-        case INT32:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            int anInt = valueDecoder.readInt(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeInt(anInt);
-              builder.declarePosition();
-            }
-          }
-          break;
-        case INT64:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            long aLong = valueDecoder.readLong(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aLong))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeLong(aLong);
-              builder.declarePosition();
-            }
-          }
-          break;
-        case FLOAT:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            float aFloat = valueDecoder.readFloat(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeFloat(aFloat);
-              builder.declarePosition();
-            }
+        }
+        break;
+      case INT32:
+        return getAllSatisfiedIntData(timeBatch);
+      case INT64:
+        return getAllSatisfiedLongData(timeBatch);
+      case FLOAT:
+        for (long timestamp : timeBatch) {
+          float aFloat = valueDecoder.readFloat(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
+            timeBuilder.writeLong(timestamp);
+            valueBuilder.writeFloat(aFloat);
+            builder.declarePosition();
           }
-          break;
-        case DOUBLE:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            double aDouble = valueDecoder.readDouble(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeDouble(aDouble);
-              builder.declarePosition();
-            }
+        }
+        break;
+      case DOUBLE:
+        for (long timestamp : timeBatch) {
+          double aDouble = valueDecoder.readDouble(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
+            timeBuilder.writeLong(timestamp);
+            valueBuilder.writeDouble(aDouble);
+            builder.declarePosition();
           }
-          break;
-        case TEXT:
-          while (timeDecoder.hasNext(timeBuffer)) {
-            long timestamp = timeDecoder.readLong(timeBuffer);
-            Binary aBinary = valueDecoder.readBinary(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
-              timeBuilder.writeLong(timestamp);
-              valueBuilder.writeBinary(aBinary);
-              builder.declarePosition();
-            }
+        }
+        break;
+      case TEXT:
+        for (long timestamp : timeBatch) {
+          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
+            timeBuilder.writeLong(timestamp);
+            valueBuilder.writeBinary(aBinary);
+            builder.declarePosition();
           }
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
-      }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
     }
     return builder.build();
   }
 
+  /**
+   * decode the value column in bulk, then compact the satisfied rows in place so that both arrays
+   * back the columns of the result without copying.
+   */
+  private TsBlock getAllSatisfiedIntData(long[] timeBatch) throws IOException {
+    int[] valueBatch = new int[timeBatch.length];
+    valueDecoder.readInts(valueBuffer, valueBatch, 0, valueBatch.length);
+    int size = 0;
+    for (int i = 0; i < timeBatch.length; i++) {
+      if (!isDeleted(timeBatch[i])
+          && (filter == null || filter.satisfy(timeBatch[i], valueBatch[i]))) {
+        timeBatch[size] = timeBatch[i];
+        valueBatch[size] = valueBatch[i];
+        size++;
+      }
+    }
+    return new TsBlock(
+        size, new TimeColumn(size, timeBatch), new IntColumn(size, Optional.empty(), valueBatch));
+  }
+
+  /** see {@link #getAllSatisfiedIntData(long[])} */
+  private TsBlock getAllSatisfiedLongData(long[] timeBatch) throws IOException {
+    long[] valueBatch = new long[timeBatch.length];
+    valueDecoder.readLongs(valueBuffer, valueBatch, 0, valueBatch.length);
+    int size = 0;
+    for (int i = 0; i < timeBatch.length; i++) {
+      if (!isDeleted(timeBatch[i])
+          && (filter == null || filter.satisfy(timeBatch[i], valueBatch[i]))) {
+        timeBatch[size] = timeBatch[i];
+        valueBatch[size] = valueBatch[i];
+        size++;
+      }
+    }
+    return new TsBlock(
+        size, new TimeColumn(size, timeBatch), new LongColumn(size, Optional.empty(), valueBatch));
+  }
+
   @Override
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
@@ -253,6 +283,14 @@ public class PageReader implements IPageReader {
     }
   }
 
+  public PageValueIndex getValueIndex() {
+    return valueIndex;
+  }
+
+  public void setValueIndex(PageValueIndex valueIndex) {
+    this.valueIndex = valueIndex;
+  }
+
   public void setDeleteIntervalList(List<TimeRange> list) {
     this.deleteIntervalList = list;
   }
@@ -25,7 +25,6 @@ import org.apache.iotdb.tsfile.read.common.TimeRange;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.List;
 
 public class TimePageReader {
@@ -62,12 +61,7 @@ public class TimePageReader {
   }
 
   public long[] nextTimeBatch() throws IOException {
-    long[] timeBatch = new long[(int) pageHeader.getStatistics().getCount()];
-    int index = 0;
-    while (timeDecoder.hasNext(timeBuffer)) {
-      timeBatch[index++] = timeDecoder.readLong(timeBuffer);
-    }
-    return timeBatch;
+    return timeDecoder.readAllLongs(timeBuffer, (int) pageHeader.getStatistics().getCount());
   }
 
   /**
@@ -78,11 +72,7 @@ public class TimePageReader {
     if (pageHeader.getStatistics() != null) {
       return nextTimeBatch();
     } else {
-      List<Long> timeList = new ArrayList<>();
-      while (timeDecoder.hasNext(timeBuffer)) {
-        timeList.add(timeDecoder.readLong(timeBuffer));
-      }
-      return timeList.stream().mapToLong(t -> t).toArray();
+      return timeDecoder.readAllLongs(timeBuffer, 0);
     }
   }
 
@@ -31,6 +31,7 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.List;
 
@@ -186,11 +187,26 @@ public class ValuePageReader {
    * return the value array of the corresponding time, if this sub sensor don't have a value in a
    * time, just fill it with null
    */
-  public TsPrimitiveType[] nextValueBatch(long[] timeBatch) {
+  public TsPrimitiveType[] nextValueBatch(long[] timeBatch) throws IOException {
     TsPrimitiveType[] valueBatch = new TsPrimitiveType[size];
     if (valueBuffer == null) {
       return valueBatch;
     }
+    if (dataType == TSDataType.INT64) {
+      // only the not-null values are encoded, decode all of them at once
+      long[] longBatch = valueDecoder.readAllLongs(valueBuffer, 0);
+      int cursor = 0;
+      for (int i = 0; i < size; i++) {
+        if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
+          continue;
+        }
+        long aLong = longBatch[cursor++];
+        if (!isDeleted(timeBatch[i])) {
+          valueBatch[i] = new TsPrimitiveType.TsLong(aLong);
+        }
+      }
+      return valueBatch;
+    }
     for (int i = 0; i < size; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         continue;
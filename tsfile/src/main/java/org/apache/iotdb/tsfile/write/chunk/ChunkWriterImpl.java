@@ -24,6 +24,8 @@ import org.apache.iotdb.tsfile.encoding.encoder.SDTEncoder;
 import org.apache.iotdb.tsfile.exception.write.PageException;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkValueIndex;
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -92,6 +94,9 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /** value indexes of the pages of this chunk, null if the value index is disabled */
+  private ChunkValueIndex valueIndex;
+
   /** @param schema schema of this measurement */
   public ChunkWriterImpl(IMeasurementSchema schema) {
     this.measurementSchema = schema;
@@ -112,6 +117,11 @@ public class ChunkWriterImpl implements IChunkWriter {
     this.pageWriter.setTimeEncoder(measurementSchema.getTimeEncoder());
     this.pageWriter.setValueEncoder(measurementSchema.getValueEncoder());
 
+    if (TSFileDescriptor.getInstance().getConfig().isEnableValueIndex()) {
+      this.pageWriter.enableValueIndex();
+      this.valueIndex = new ChunkValueIndex();
+    }
+
     // check if the measurement schema uses SDT
     checkSdtEncoding();
   }
@@ -298,6 +308,9 @@ public class ChunkWriterImpl implements IChunkWriter {
       // update statistics of this chunk
       numOfPages++;
       this.statistics.mergeStatistics(pageWriter.getStatistics());
+      if (valueIndex != null) {
+        valueIndex.addPageValueIndex(pageWriter.getValueIndex());
+      }
     } catch (IOException e) {
       logger.error("meet error in pageWriter.writePageHeaderAndDataIntoBuff,ignore this page:", e);
     } finally {
@@ -316,6 +329,9 @@ public class ChunkWriterImpl implements IChunkWriter {
     numOfPages = 0;
     firstPageStatistics = null;
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
+    if (valueIndex != null) {
+      valueIndex = new ChunkValueIndex();
+    }
   }
 
   @Override
@@ -365,7 +381,7 @@ public class ChunkWriterImpl implements IChunkWriter {
       // serialize pageHeader  see writePageToPageBuffer method
       if (numOfPages == 0) { // record the firstPageStatistics
         this.firstPageStatistics = header.getStatistics();
-        this.sizeWithoutStatistic +=
+        this.sizeWithoutStatistic =
             ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getUncompressedSize(), pageBuffer);
         this.sizeWithoutStatistic +=
             ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getCompressedSize(), pageBuffer);
@@ -396,6 +412,10 @@ public class ChunkWriterImpl implements IChunkWriter {
       throw new PageException("IO Exception in writeDataPageHeader,ignore this page", e);
     }
     numOfPages++;
+    if (valueIndex != null) {
+      // the values of a page copied as a whole are unknown
+      valueIndex.addPageValueIndex(PageValueIndex.NO_INDEX);
+    }
     // write page content to temp PBAOS
     try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
       channel.write(data);
@@ -443,6 +463,9 @@ public class ChunkWriterImpl implements IChunkWriter {
               + pageBuffer.size());
     }
 
+    if (valueIndex != null && valueIndex.isIndexed()) {
+      writer.setCurrentChunkValueIndex(valueIndex);
+    }
     writer.endCurrentChunk();
   }
 
@@ -18,8 +18,10 @@
  */
 package org.apache.iotdb.tsfile.write.page;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.compress.ICompressor;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -36,6 +38,8 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * This writer is used to write time-value into a page. It consists of a time encoder, a value
@@ -60,6 +64,15 @@ public class PageWriter {
    */
   private Statistics<? extends Serializable> statistics;
 
+  private boolean valueIndexEnabled;
+  /**
+   * distinct values of current page for its value index, null if the value index is disabled or the
+   * page has too many distinct values to be indexed
+   */
+  private Set<String> indexedValues;
+
+  private int maxDistinctValueNumInIndex;
+
   public PageWriter() {
     this(null, null);
   }
@@ -82,6 +95,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (indexedValues != null) {
+      updateValueIndex(String.valueOf(value));
+    }
   }
 
   /** write a time value pair into encoder */
@@ -89,6 +105,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (indexedValues != null) {
+      updateValueIndex(String.valueOf(value));
+    }
   }
 
   /** write a time value pair into encoder */
@@ -96,6 +115,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (indexedValues != null) {
+      updateValueIndex(String.valueOf(value));
+    }
   }
 
   /** write a time value pair into encoder */
@@ -103,6 +125,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (indexedValues != null) {
+      updateValueIndex(String.valueOf(value));
+    }
   }
 
   /** write a time value pair into encoder */
@@ -110,6 +135,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (indexedValues != null) {
+      updateValueIndex(String.valueOf(value));
+    }
   }
 
   /** write a time value pair into encoder */
@@ -117,6 +145,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (indexedValues != null) {
+      updateValueIndex(String.valueOf(value));
+    }
   }
 
   /** write a time value pair into encoder */
@@ -124,6 +155,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (indexedValues != null) {
+      updateValueIndex(PageValueIndex.toIndexedValue(value));
+    }
   }
 
   /** write time series into encoder */
@@ -133,6 +167,11 @@ public class PageWriter {
       valueEncoder.encode(values[i], valueOut);
     }
     statistics.update(timestamps, values, batchSize);
+    if (indexedValues != null) {
+      for (int i = 0; i < batchSize && indexedValues != null; i++) {
+        updateValueIndex(String.valueOf(values[i]));
+      }
+    }
   }
 
   /** write time series into encoder */
@@ -142,6 +181,11 @@ public class PageWriter {
       valueEncoder.encode(values[i], valueOut);
     }
     statistics.update(timestamps, values, batchSize);
+    if (indexedValues != null) {
+      for (int i = 0; i < batchSize && indexedValues != null; i++) {
+        updateValueIndex(String.valueOf(values[i]));
+      }
+    }
   }
 
   /** write time series into encoder */
@@ -151,6 +195,11 @@ public class PageWriter {
       valueEncoder.encode(values[i], valueOut);
     }
     statistics.update(timestamps, values, batchSize);
+    if (indexedValues != null) {
+      for (int i = 0; i < batchSize && indexedValues != null; i++) {
+        updateValueIndex(String.valueOf(values[i]));
+      }
+    }
   }
 
   /** write time series into encoder */
@@ -160,6 +209,11 @@ public class PageWriter {
       valueEncoder.encode(values[i], valueOut);
     }
     statistics.update(timestamps, values, batchSize);
+    if (indexedValues != null) {
+      for (int i = 0; i < batchSize && indexedValues != null; i++) {
+        updateValueIndex(String.valueOf(values[i]));
+      }
+    }
   }
 
   /** write time series into encoder */
@@ -169,6 +223,11 @@ public class PageWriter {
       valueEncoder.encode(values[i], valueOut);
     }
     statistics.update(timestamps, values, batchSize);
+    if (indexedValues != null) {
+      for (int i = 0; i < batchSize && indexedValues != null; i++) {
+        updateValueIndex(String.valueOf(values[i]));
+      }
+    }
   }
 
   /** write time series into encoder */
@@ -178,6 +237,19 @@ public class PageWriter {
       valueEncoder.encode(values[i], valueOut);
     }
     statistics.update(timestamps, values, batchSize);
+    if (indexedValues != null) {
+      for (int i = 0; i < batchSize && indexedValues != null; i++) {
+        updateValueIndex(PageValueIndex.toIndexedValue(values[i]));
+      }
+    }
+  }
+
+  private void updateValueIndex(String value) {
+    indexedValues.add(value);
+    if (indexedValues.size() > maxDistinctValueNumInIndex) {
+      // too many distinct values, the index could hardly skip this page
+      indexedValues = null;
+    }
   }
 
   /** flush all data remained in encoders. */
@@ -272,6 +344,25 @@ public class PageWriter {
     timeOut.reset();
     valueOut.reset();
     statistics = Statistics.getStatsByType(measurementSchema.getType());
+    if (valueIndexEnabled) {
+      indexedValues = new HashSet<>();
+    }
+  }
+
+  /** collect the distinct values of each page to build its {@link PageValueIndex} */
+  public void enableValueIndex() {
+    valueIndexEnabled = true;
+    maxDistinctValueNumInIndex =
+        TSFileDescriptor.getInstance().getConfig().getValueIndexMaxDistinctValueNum();
+    indexedValues = new HashSet<>();
+  }
+
+  /** @return value index of current page, null if the value index is disabled */
+  public PageValueIndex getValueIndex() {
+    if (!valueIndexEnabled) {
+      return null;
+    }
+    return indexedValues == null ? PageValueIndex.NO_INDEX : PageValueIndex.build(indexedValues);
   }
 
   public void setTimeEncoder(Encoder encoder) {
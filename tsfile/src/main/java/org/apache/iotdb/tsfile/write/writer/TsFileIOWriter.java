@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.MetadataIndexConstructor;
 import org.apache.iotdb.tsfile.file.metadata.MetadataIndexNode;
@@ -81,6 +82,8 @@ public class TsFileIOWriter implements AutoCloseable {
   protected List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
   // all flushed ChunkGroups
   protected List<ChunkGroupMetadata> chunkGroupMetadataList = new ArrayList<>();
+  // offset of chunk header -> value index of the chunk, for the chunks having a value index
+  private final Map<Long, ChunkValueIndex> chunkValueIndexMap = new TreeMap<>();
 
   private long markedPosition;
   private String currentChunkGroupDeviceId;
@@ -201,6 +204,8 @@ public class TsFileIOWriter implements AutoCloseable {
     currentChunkMetadata =
         new ChunkMetadata(measurementId, tsDataType, out.getPosition(), statistics);
     currentChunkMetadata.setMask((byte) mask);
+    // the position may be reused after a truncation
+    chunkValueIndexMap.remove(out.getPosition());
 
     ChunkHeader header =
         new ChunkHeader(
@@ -223,6 +228,7 @@ public class TsFileIOWriter implements AutoCloseable {
             chunkHeader.getDataType(),
             out.getPosition(),
             chunkMetadata.getStatistics());
+    chunkValueIndexMap.remove(out.getPosition());
     chunkHeader.serializeTo(out.wrapAsStream());
     out.write(chunk.getData());
     endCurrentChunk();
@@ -234,6 +240,11 @@ public class TsFileIOWriter implements AutoCloseable {
     }
   }
 
+  /** attach the value index of the pages to current chunk, it should be called before ending it */
+  public void setCurrentChunkValueIndex(ChunkValueIndex valueIndex) {
+    chunkValueIndexMap.put(currentChunkMetadata.getOffsetOfChunkHeader(), valueIndex);
+  }
+
   /** end chunk and write some log. */
   public void endCurrentChunk() {
     chunkMetadataList.add(currentChunkMetadata);
@@ -267,6 +278,9 @@ public class TsFileIOWriter implements AutoCloseable {
     TsFileMetadata tsFileMetaData = new TsFileMetadata();
     tsFileMetaData.setMetadataIndex(metadataIndex);
     tsFileMetaData.setMetaOffset(metaOffset);
+    if (!chunkValueIndexMap.isEmpty()) {
+      tsFileMetaData.setValueIndexOffset(flushChunkValueIndexes());
+    }
 
     long footerIndex = out.getPosition();
     if (logger.isDebugEnabled()) {
@@ -285,6 +299,9 @@ public class TsFileIOWriter implements AutoCloseable {
       logger.debug("finish flushing the bloom filter file pos:{}", out.getPosition());
     }
 
+    // write the offset of value indexes, which is ignored by the readers not knowing it
+    size += tsFileMetaData.serializeValueIndexOffset(out.wrapAsStream());
+
     // write TsFileMetaData size
     ReadWriteIOUtils.write(size, out.wrapAsStream()); // write the size of the file metadata.
 
@@ -320,6 +337,29 @@ public class TsFileIOWriter implements AutoCloseable {
     return MetadataIndexConstructor.constructMetadataIndex(deviceTimeseriesMetadataMap, out);
   }
 
+  /**
+   * Flush the value indexes of chunks and a directory of them, which consists of the number of
+   * indexed chunks and a list of &lt;offset of chunk header, offset of value index&gt; sorted by
+   * the offset of chunk header. The value index of a chunk ends where the next one starts.
+   *
+   * @return offset of the directory
+   */
+  private long flushChunkValueIndexes() throws IOException {
+    List<Long> valueIndexOffsets = new ArrayList<>(chunkValueIndexMap.size());
+    for (ChunkValueIndex valueIndex : chunkValueIndexMap.values()) {
+      valueIndexOffsets.add(out.getPosition());
+      valueIndex.serializeTo(out.wrapAsStream());
+    }
+    long directoryOffset = out.getPosition();
+    ReadWriteIOUtils.write(chunkValueIndexMap.size(), out.wrapAsStream());
+    int i = 0;
+    for (Long chunkHeaderOffset : chunkValueIndexMap.keySet()) {
+      ReadWriteIOUtils.write(chunkHeaderOffset, out.wrapAsStream());
+      ReadWriteIOUtils.write(valueIndexOffsets.get(i++), out.wrapAsStream());
+    }
+    return directoryOffset;
+  }
+
   /**
    * Flush one chunkMetadata
    *
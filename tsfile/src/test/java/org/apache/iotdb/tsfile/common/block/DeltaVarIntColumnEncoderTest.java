@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.common.block;
+
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoderFactory;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.LongColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.LongColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+public class DeltaVarIntColumnEncoderTest {
+
+  @Test
+  public void testLongColumn() throws IOException {
+    long[] values = {Long.MIN_VALUE, 0, Long.MAX_VALUE, -5, 0, 3, Long.MIN_VALUE, 1L << 40};
+    boolean[] nullIndicators = new boolean[values.length];
+    nullIndicators[4] = true;
+    LongColumn input = new LongColumn(values.length, Optional.of(nullIndicators), values);
+    ColumnEncoder encoder = ColumnEncoderFactory.get(ColumnEncoding.DELTA_VARINT);
+
+    LongColumnBuilder longColumnBuilder = new LongColumnBuilder(null, values.length);
+    encoder.readColumn(longColumnBuilder, serialize(encoder, input), values.length);
+    LongColumn output = (LongColumn) longColumnBuilder.build();
+    Assert.assertEquals(values.length, output.getPositionCount());
+    for (int i = 0; i < values.length; i++) {
+      Assert.assertEquals(nullIndicators[i], output.isNull(i));
+      if (!nullIndicators[i]) {
+        Assert.assertEquals(values[i], output.getLong(i));
+      }
+    }
+  }
+
+  @Test
+  public void testIntColumn() throws IOException {
+    int[] values = {Integer.MAX_VALUE, Integer.MIN_VALUE, 1, 2, 3, -100};
+    IntColumn input = new IntColumn(values.length, Optional.empty(), values);
+    ColumnEncoder encoder = ColumnEncoderFactory.get(ColumnEncoding.DELTA_VARINT);
+
+    IntColumnBuilder intColumnBuilder = new IntColumnBuilder(null, values.length);
+    encoder.readColumn(intColumnBuilder, serialize(encoder, input), values.length);
+    IntColumn output = (IntColumn) intColumnBuilder.build();
+    Assert.assertFalse(output.mayHaveNull());
+    for (int i = 0; i < values.length; i++) {
+      Assert.assertEquals(values[i], output.getInt(i));
+    }
+  }
+
+  @Test
+  public void testTimeColumn() throws IOException {
+    final int positionCount = 1000;
+    long[] times = new long[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      times[i] = 1_650_000_000_000L + i * 1000L;
+    }
+    TimeColumn input = new TimeColumn(positionCount, times);
+    ColumnEncoder encoder = ColumnEncoderFactory.get(ColumnEncoding.DELTA_VARINT);
+
+    ByteBuffer buffer = serialize(encoder, input);
+    // one byte for the null flag, six for the first timestamp and two for every delta
+    Assert.assertEquals(1 + 6 + 2 * (positionCount - 1), buffer.remaining());
+    TimeColumnBuilder timeColumnBuilder = new TimeColumnBuilder(null, positionCount);
+    encoder.readColumn(timeColumnBuilder, buffer, positionCount);
+    TimeColumn output = (TimeColumn) timeColumnBuilder.build();
+    for (int i = 0; i < positionCount; i++) {
+      Assert.assertEquals(times[i], output.getLong(i));
+    }
+  }
+
+  private static ByteBuffer serialize(
+      ColumnEncoder encoder, org.apache.iotdb.tsfile.read.common.block.column.Column column)
+      throws IOException {
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    encoder.writeColumn(new DataOutputStream(byteArrayOutputStream), column);
+    return ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+  }
+}
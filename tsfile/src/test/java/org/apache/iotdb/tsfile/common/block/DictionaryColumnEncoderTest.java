@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.common.block;
+
+import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoderFactory;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+public class DictionaryColumnEncoderTest {
+
+  @Test
+  public void testBinaryColumn() throws IOException {
+    final int positionCount = 100;
+    String[] distinctValues = {"running", "stopped", "maintenance"};
+
+    boolean[] nullIndicators = new boolean[positionCount];
+    Binary[] values = new Binary[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      nullIndicators[i] = i % 7 == 0;
+      if (!nullIndicators[i]) {
+        values[i] = new Binary(distinctValues[i % distinctValues.length]);
+      }
+    }
+    BinaryColumn input = new BinaryColumn(positionCount, Optional.of(nullIndicators), values);
+    ColumnEncoder encoder = ColumnEncoderFactory.get(ColumnEncoding.DICTIONARY);
+
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    encoder.writeColumn(new DataOutputStream(byteArrayOutputStream), input);
+    ByteArrayOutputStream plainOutputStream = new ByteArrayOutputStream();
+    ColumnEncoderFactory.get(ColumnEncoding.BINARY_ARRAY)
+        .writeColumn(new DataOutputStream(plainOutputStream), input);
+    Assert.assertTrue(byteArrayOutputStream.size() < plainOutputStream.size() / 4);
+
+    ByteBuffer buffer = ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+    BinaryColumnBuilder binaryColumnBuilder = new BinaryColumnBuilder(null, positionCount);
+    encoder.readColumn(binaryColumnBuilder, buffer, positionCount);
+    BinaryColumn output = (BinaryColumn) binaryColumnBuilder.build();
+    Assert.assertFalse(buffer.hasRemaining());
+    Assert.assertEquals(positionCount, output.getPositionCount());
+    for (int i = 0; i < positionCount; i++) {
+      Assert.assertEquals(nullIndicators[i], output.isNull(i));
+      if (!nullIndicators[i]) {
+        Assert.assertEquals(values[i], output.getBinary(i));
+      }
+    }
+  }
+}
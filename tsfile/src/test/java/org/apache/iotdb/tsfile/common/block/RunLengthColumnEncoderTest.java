@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.common.block;
+
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoderFactory;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.RunLengthColumnEncoder;
+import org.apache.iotdb.tsfile.read.common.block.column.RunLengthEncodedColumn;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+public class RunLengthColumnEncoderTest {
+
+  @Test
+  public void testRunLengthEncodedColumn() throws IOException {
+    final int positionCount = 1000;
+    Column input =
+        new RunLengthEncodedColumn(
+            new DoubleColumn(1, Optional.empty(), new double[] {3.5}), positionCount);
+    ColumnEncoder encoder = ColumnEncoderFactory.get(ColumnEncoding.RLE);
+
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    encoder.writeColumn(new DataOutputStream(byteArrayOutputStream), input);
+    // encoding of the value, null flag and the value itself
+    Assert.assertEquals(1 + 1 + Double.BYTES, byteArrayOutputStream.size());
+
+    byte[] serialized = byteArrayOutputStream.toByteArray();
+    DoubleColumnBuilder doubleColumnBuilder = new DoubleColumnBuilder(null, positionCount);
+    encoder.readColumn(doubleColumnBuilder, ByteBuffer.wrap(serialized), positionCount);
+    Column expanded = doubleColumnBuilder.build();
+    Column compact =
+        ((RunLengthColumnEncoder) encoder)
+            .readRunLengthColumn(
+                new DoubleColumnBuilder(null, 1), ByteBuffer.wrap(serialized), positionCount);
+    Assert.assertTrue(compact instanceof RunLengthEncodedColumn);
+    Assert.assertEquals(positionCount, expanded.getPositionCount());
+    Assert.assertEquals(positionCount, compact.getPositionCount());
+    for (int i = 0; i < positionCount; i++) {
+      Assert.assertEquals(3.5, expanded.getDouble(i), 0);
+      Assert.assertEquals(3.5, compact.getDouble(i), 0);
+    }
+  }
+
+  @Test
+  public void testNullColumn() throws IOException {
+    final int positionCount = 10;
+    Column input =
+        new DoubleColumn(
+            positionCount, Optional.of(new boolean[positionCount]), new double[positionCount]);
+    ColumnEncoder encoder = ColumnEncoderFactory.get(ColumnEncoding.RLE);
+    Column nullColumn =
+        new RunLengthEncodedColumn(
+            new DoubleColumn(1, Optional.of(new boolean[] {true}), new double[1]), positionCount);
+
+    for (Column column : new Column[] {input, nullColumn}) {
+      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      encoder.writeColumn(new DataOutputStream(byteArrayOutputStream), column);
+      DoubleColumnBuilder doubleColumnBuilder = new DoubleColumnBuilder(null, positionCount);
+      encoder.readColumn(
+          doubleColumnBuilder, ByteBuffer.wrap(byteArrayOutputStream.toByteArray()), positionCount);
+      Column output = doubleColumnBuilder.build();
+      for (int i = 0; i < positionCount; i++) {
+        Assert.assertEquals(column.isNull(i), output.isNull(i));
+      }
+    }
+  }
+}
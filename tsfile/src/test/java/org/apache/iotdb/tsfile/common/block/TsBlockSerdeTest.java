@@ -109,4 +109,63 @@ public class TsBlockSerdeTest {
       Assert.fail();
     }
   }
+
+  @Test
+  public void testColumnEncodingAndCompression() throws IOException {
+    final int positionCount = 1000;
+    String[] states = {"running", "stopped", "maintenance"};
+
+    List<TSDataType> dataTypes = new ArrayList<>();
+    dataTypes.add(TSDataType.INT32);
+    dataTypes.add(TSDataType.INT64);
+    dataTypes.add(TSDataType.DOUBLE);
+    dataTypes.add(TSDataType.TEXT);
+    TsBlockBuilder tsBlockBuilder = new TsBlockBuilder(dataTypes);
+    ColumnBuilder timeColumnBuilder = tsBlockBuilder.getTimeColumnBuilder();
+    for (int i = 0; i < positionCount; i++) {
+      timeColumnBuilder.writeLong(1_650_000_000_000L + i * 1000L);
+      tsBlockBuilder.getColumnBuilder(0).writeInt(42);
+      tsBlockBuilder.getColumnBuilder(1).writeLong(100_000L + i % 17);
+      if (i % 10 == 0) {
+        tsBlockBuilder.getColumnBuilder(2).appendNull();
+      } else {
+        tsBlockBuilder.getColumnBuilder(2).writeDouble(i / 3D);
+      }
+      tsBlockBuilder.getColumnBuilder(3).writeBinary(new Binary(states[i % states.length]));
+      tsBlockBuilder.declarePosition();
+    }
+    TsBlock input = tsBlockBuilder.build();
+
+    int plainSize = new TsBlockSerde().serialize(input).remaining();
+    ByteBuffer encoded = new TsBlockSerde(true, false).serialize(input);
+    ByteBuffer compressed = new TsBlockSerde(true, true).serialize(input);
+    Assert.assertTrue(encoded.remaining() < plainSize / 3);
+    Assert.assertTrue(compressed.remaining() < encoded.remaining());
+
+    // value column count, data types and position count
+    encoded.position(Integer.BYTES + dataTypes.size() + Integer.BYTES);
+    Assert.assertEquals(ColumnEncoding.DELTA_VARINT, ColumnEncoding.deserializeFrom(encoded));
+    Assert.assertEquals(ColumnEncoding.RLE, ColumnEncoding.deserializeFrom(encoded));
+    Assert.assertEquals(ColumnEncoding.DELTA_VARINT, ColumnEncoding.deserializeFrom(encoded));
+    Assert.assertEquals(ColumnEncoding.INT64_ARRAY, ColumnEncoding.deserializeFrom(encoded));
+    Assert.assertEquals(ColumnEncoding.DICTIONARY, ColumnEncoding.deserializeFrom(encoded));
+    encoded.rewind();
+
+    // any serde reads whatever another one wrote
+    for (ByteBuffer serialized : new ByteBuffer[] {encoded, compressed}) {
+      TsBlock output = new TsBlockSerde().deserialize(serialized);
+      Assert.assertEquals(positionCount, output.getPositionCount());
+      Assert.assertEquals(dataTypes.size(), output.getValueColumnCount());
+      for (int i = 0; i < positionCount; i++) {
+        Assert.assertEquals(input.getTimeByIndex(i), output.getTimeByIndex(i));
+        Assert.assertEquals(42, output.getColumn(0).getInt(i));
+        Assert.assertEquals(input.getColumn(1).getLong(i), output.getColumn(1).getLong(i));
+        Assert.assertEquals(input.getColumn(2).isNull(i), output.getColumn(2).isNull(i));
+        if (!input.getColumn(2).isNull(i)) {
+          Assert.assertEquals(input.getColumn(2).getDouble(i), output.getColumn(2).getDouble(i), 0);
+        }
+        Assert.assertEquals(input.getColumn(3).getBinary(i), output.getColumn(3).getBinary(i));
+      }
+    }
+  }
 }
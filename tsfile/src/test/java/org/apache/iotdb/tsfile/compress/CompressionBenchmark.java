@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compression benchmark. Encodes pages shaped like the ones the flush task writes (a TS_2DIFF time
+ * column followed by the encoded value column) and measures ratio, compress and uncompress
+ * throughput of every supported codec.
+ */
+public class CompressionBenchmark {
+
+  private static final int POINT_NUM_PER_PAGE = 8 * 1024;
+  private static final int PAGE_NUM = 64;
+  private static final int WARM_UP_ROUND = 3;
+  private static final int ROUND = 10;
+
+  private static final CompressionType[] COMPRESSION_TYPES = {
+    CompressionType.SNAPPY, CompressionType.GZIP, CompressionType.LZ4, CompressionType.ZSTD
+  };
+
+  public static void main(String[] args) throws IOException {
+    Map<String, byte[][]> pageShapes = new LinkedHashMap<>();
+    pageShapes.put("INT64/TS_2DIFF counter", generatePages(TSDataType.INT64, TSEncoding.TS_2DIFF));
+    pageShapes.put("INT32/RLE status", generatePages(TSDataType.INT32, TSEncoding.RLE));
+    pageShapes.put("DOUBLE/GORILLA sensor", generatePages(TSDataType.DOUBLE, TSEncoding.GORILLA));
+    pageShapes.put("DOUBLE/PLAIN sensor", generatePages(TSDataType.DOUBLE, TSEncoding.PLAIN));
+    pageShapes.put("TEXT/PLAIN log", generatePages(TSDataType.TEXT, TSEncoding.PLAIN));
+
+    for (Map.Entry<String, byte[][]> entry : pageShapes.entrySet()) {
+      for (CompressionType compressionType : COMPRESSION_TYPES) {
+        bench(entry.getKey(), compressionType, entry.getValue());
+      }
+    }
+  }
+
+  private static void bench(String shape, CompressionType type, byte[][] pages) throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(type);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
+
+    long uncompressedBytes = 0;
+    long compressedBytes = 0;
+    int maxPageSize = 0;
+    byte[][] compressedPages = new byte[pages.length][];
+    for (int i = 0; i < pages.length; i++) {
+      compressedPages[i] = compressor.compress(pages[i]);
+      uncompressedBytes += pages[i].length;
+      compressedBytes += compressedPages[i].length;
+      maxPageSize = Math.max(maxPageSize, pages[i].length);
+    }
+    byte[] uncompressed = new byte[maxPageSize];
+
+    long compressCost = 0;
+    long uncompressCost = 0;
+    for (int round = 0; round < WARM_UP_ROUND + ROUND; round++) {
+      long start = System.nanoTime();
+      for (byte[] page : pages) {
+        compressor.compress(page);
+      }
+      long middle = System.nanoTime();
+      for (byte[] compressedPage : compressedPages) {
+        unCompressor.uncompress(compressedPage, 0, compressedPage.length, uncompressed, 0);
+      }
+      long end = System.nanoTime();
+      if (round >= WARM_UP_ROUND) {
+        compressCost += middle - start;
+        uncompressCost += end - middle;
+      }
+    }
+
+    double totalMB = (double) uncompressedBytes * ROUND / 1024 / 1024;
+    System.out.println(
+        String.format(
+            "%-24s %-7s ratio: %.3f, compress: %.1f MB/s, uncompress: %.1f MB/s",
+            shape,
+            type,
+            (double) compressedBytes / uncompressedBytes,
+            totalMB / (compressCost / 1e9),
+            totalMB / (uncompressCost / 1e9)));
+  }
+
+  private static byte[][] generatePages(TSDataType dataType, TSEncoding encoding)
+      throws IOException {
+    Random random = new Random(0);
+    byte[][] pages = new byte[PAGE_NUM][];
+    long time = 1_600_000_000_000L;
+    long counter = 0;
+    double sensor = 20.0;
+    for (int i = 0; i < PAGE_NUM; i++) {
+      Encoder timeEncoder =
+          TSEncodingBuilder.getEncodingBuilder(TSEncoding.TS_2DIFF).getEncoder(TSDataType.INT64);
+      Encoder valueEncoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(dataType);
+      ByteArrayOutputStream timeOut = new ByteArrayOutputStream();
+      ByteArrayOutputStream valueOut = new ByteArrayOutputStream();
+      for (int j = 0; j < POINT_NUM_PER_PAGE; j++) {
+        // mostly regular sampling with a little jitter
+        time += 1000 + (random.nextInt(10) == 0 ? random.nextInt(20) : 0);
+        timeEncoder.encode(time, timeOut);
+        switch (dataType) {
+          case INT32:
+            valueEncoder.encode(random.nextInt(100) == 0 ? random.nextInt(4) : 1, valueOut);
+            break;
+          case INT64:
+            counter += random.nextInt(50);
+            valueEncoder.encode(counter, valueOut);
+            break;
+          case DOUBLE:
+            sensor += (random.nextDouble() - 0.5) / 10;
+            valueEncoder.encode(Math.round(sensor * 100) / 100.0, valueOut);
+            break;
+          case TEXT:
+          default:
+            valueEncoder.encode(
+                Binary.valueOf("device status ok, code=" + random.nextInt(16)), valueOut);
+            break;
+        }
+      }
+      timeEncoder.flush(timeOut);
+      valueEncoder.flush(valueOut);
+      ByteArrayOutputStream page = new ByteArrayOutputStream();
+      page.write(timeOut.toByteArray());
+      page.write(valueOut.toByteArray());
+      pages[i] = page.toByteArray();
+    }
+    return pages;
+  }
+}
@@ -27,6 +27,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -80,4 +81,46 @@ public class LZ4Test {
     byte[] uncompressed = unCompressor.uncompress(compressed);
     Assert.assertArrayEquals(uncom, uncompressed);
   }
+
+  @Test
+  public void testByteBuffer() throws IOException {
+    ICompressor compressor = new IOTDBLZ4Compressor();
+    IUnCompressor unCompressor = new LZ4UnCompressor();
+
+    byte[] uncom = randomString(5000).getBytes(StandardCharsets.UTF_8);
+    ByteBuffer source = ByteBuffer.allocateDirect(uncom.length);
+    source.put(uncom);
+    source.flip();
+
+    ByteBuffer compressed =
+        ByteBuffer.allocateDirect(compressor.getMaxBytesForCompression(uncom.length));
+    int compressedSize = compressor.compress(source, compressed);
+    Assert.assertEquals(compressed.position(), compressedSize);
+    compressed.flip();
+
+    ByteBuffer uncompressed = ByteBuffer.allocateDirect(uncom.length);
+    Assert.assertEquals(uncom.length, unCompressor.uncompress(compressed, uncompressed));
+    uncompressed.flip();
+    byte[] result = new byte[uncompressed.remaining()];
+    uncompressed.get(result);
+    Assert.assertArrayEquals(uncom, result);
+  }
+
+  @Test
+  public void testUncompressWithOffset() throws IOException {
+    ICompressor compressor = new IOTDBLZ4Compressor();
+    IUnCompressor unCompressor = new LZ4UnCompressor();
+
+    byte[] uncom = randomString(5000).getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = compressor.compress(uncom);
+    byte[] prefixed = new byte[compressed.length + 10];
+    System.arraycopy(compressed, 0, prefixed, 10, compressed.length);
+
+    byte[] uncompressed = new byte[uncom.length + 20];
+    Assert.assertEquals(
+        uncom.length, unCompressor.uncompress(prefixed, 10, compressed.length, uncompressed, 20));
+    byte[] result = new byte[uncom.length];
+    System.arraycopy(uncompressed, 20, result, 0, uncom.length);
+    Assert.assertArrayEquals(uncom, result);
+  }
 }
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.compress.ICompressor.ZstdCompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor.ZstdUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ZstdTest {
+
+  private String randomString(int length) {
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append((char) (ThreadLocalRandom.current().nextInt(33, 128)));
+    }
+    return builder.toString();
+  }
+
+  @Test
+  public void testBytes1() throws IOException {
+    ICompressor compressor = new ZstdCompressor();
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+
+    byte[] uncom = randomString(500000).getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = compressor.compress(uncom);
+    Assert.assertEquals(
+        uncom.length, unCompressor.getUncompressedLength(compressed, 0, compressed.length));
+
+    byte[] uncompressed = new byte[uncom.length];
+    Assert.assertEquals(
+        uncom.length, unCompressor.uncompress(compressed, 0, compressed.length, uncompressed, 0));
+    Assert.assertArrayEquals(uncom, uncompressed);
+  }
+
+  @Test
+  public void testBytes2() throws IOException {
+    ICompressor compressor = new ZstdCompressor();
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+
+    byte[] uncom = randomString(500000).getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = compressor.compress(uncom, 0, uncom.length);
+    // length should be same
+    Assert.assertEquals(compressor.compress(uncom).length, compressed.length);
+    Assert.assertArrayEquals(uncom, unCompressor.uncompress(compressed));
+  }
+
+  @Test
+  public void testCompressionLevel() throws IOException {
+    byte[] uncom = new byte[100000];
+    for (int i = 0; i < uncom.length; i++) {
+      uncom[i] = (byte) (i % 97 == 0 ? i : i % 7);
+    }
+    byte[] fast = new ZstdCompressor(1).compress(uncom);
+    byte[] small = new ZstdCompressor(19).compress(uncom);
+    Assert.assertTrue(small.length <= fast.length);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.ZSTD);
+    Assert.assertArrayEquals(uncom, unCompressor.uncompress(fast));
+    Assert.assertArrayEquals(uncom, unCompressor.uncompress(small));
+  }
+
+  @Test
+  public void testDirectByteBuffer() throws IOException {
+    testByteBuffer(true);
+  }
+
+  @Test
+  public void testHeapByteBuffer() throws IOException {
+    testByteBuffer(false);
+  }
+
+  private void testByteBuffer(boolean direct) throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(CompressionType.ZSTD);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.ZSTD);
+
+    byte[] uncom = randomString(5000).getBytes(StandardCharsets.UTF_8);
+    ByteBuffer source = allocate(uncom.length, direct);
+    source.put(uncom);
+    source.flip();
+
+    ByteBuffer compressed = allocate(compressor.getMaxBytesForCompression(uncom.length), direct);
+    int compressedSize = compressor.compress(source, compressed);
+    Assert.assertEquals(compressedSize, compressed.position());
+    compressed.flip();
+    Assert.assertEquals(uncom.length, unCompressor.getUncompressedLength(compressed));
+
+    ByteBuffer uncompressed = allocate(uncom.length, direct);
+    Assert.assertEquals(uncom.length, unCompressor.uncompress(compressed, uncompressed));
+    uncompressed.flip();
+    byte[] result = new byte[uncompressed.remaining()];
+    uncompressed.get(result);
+    Assert.assertArrayEquals(uncom, result);
+  }
+
+  private ByteBuffer allocate(int capacity, boolean direct) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+}
@@ -76,4 +76,28 @@ public class IntPackerTest {
       }
     }
   }
+
+  @Test
+  public void testUnpackValuesOfAllWidths() {
+    Random rand = new Random(11);
+    for (int width = 1; width <= 32; width++) {
+      IntPacker packer = new IntPacker(width);
+      int groupNum = 5;
+      int[] values = new int[groupNum * 8];
+      byte[] bytes = new byte[groupNum * width];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = rand.nextInt() >>> (32 - width);
+      }
+      for (int i = 0; i < groupNum; i++) {
+        byte[] group = new byte[width];
+        packer.pack8Values(values, i * 8, group);
+        System.arraycopy(group, 0, bytes, i * width, width);
+      }
+      int[] result = new int[values.length + 3];
+      IntPacker.unpackValues(bytes, 0, width, result, 3, values.length);
+      for (int i = 0; i < values.length; i++) {
+        assertEquals("width " + width, values[i], result[i + 3]);
+      }
+    }
+  }
 }
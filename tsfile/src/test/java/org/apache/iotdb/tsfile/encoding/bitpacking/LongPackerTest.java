@@ -128,4 +128,28 @@ public class LongPackerTest {
       }
     }
   }
+
+  @Test
+  public void testUnpackValuesOfAllWidths() {
+    Random rand = new Random(11);
+    for (int width = 1; width <= 64; width++) {
+      LongPacker packer = new LongPacker(width);
+      int groupNum = 5;
+      long[] values = new long[groupNum * 8];
+      byte[] bytes = new byte[groupNum * width];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = rand.nextLong() >>> (64 - width);
+      }
+      for (int i = 0; i < groupNum; i++) {
+        byte[] group = new byte[width];
+        packer.pack8Values(values, i * 8, group);
+        System.arraycopy(group, 0, bytes, i * width, width);
+      }
+      long[] result = new long[values.length + 3];
+      LongPacker.unpackValues(bytes, 0, width, result, 3, values.length);
+      for (int i = 0; i < values.length; i++) {
+        assertEquals("width " + width, values[i], result[i + 3]);
+      }
+    }
+  }
 }
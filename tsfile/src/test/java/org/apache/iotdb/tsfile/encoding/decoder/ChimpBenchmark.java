@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Compares CHIMP with GORILLA on floating point pages: the encoded size in bits per value and the
+ * decoding throughput.
+ */
+public class ChimpBenchmark {
+
+  private static final int POINT_NUM_PER_PAGE = 8 * 1024;
+  private static final int WARM_UP_ROUND = 50;
+  private static final int ROUND = 200;
+
+  private static final TSEncoding[] ENCODINGS = {TSEncoding.GORILLA, TSEncoding.CHIMP};
+
+  private static double sink;
+
+  public static void main(String[] args) throws IOException {
+    Random random = new Random(1);
+    double[] temperature = new double[POINT_NUM_PER_PAGE];
+    double[] randomWalk = new double[POINT_NUM_PER_PAGE];
+    double[] status = new double[POINT_NUM_PER_PAGE];
+    double[] noise = new double[POINT_NUM_PER_PAGE];
+    double walk = 0;
+    for (int i = 0; i < POINT_NUM_PER_PAGE; i++) {
+      temperature[i] =
+          Math.round((20 + 5 * Math.sin(i / 500.0) + random.nextGaussian()) * 100) / 100.0;
+      walk += random.nextGaussian();
+      randomWalk[i] = walk;
+      status[i] = (i / 64) % 4 * 0.5;
+      noise[i] = random.nextDouble();
+    }
+
+    System.out.printf("%-28s %12s %14s%n", "type/encoding/data", "bits/value", "decode(Mpts/s)");
+    for (TSEncoding encoding : ENCODINGS) {
+      bench(encoding, TSDataType.DOUBLE, "2-decimal sensor", temperature);
+      bench(encoding, TSDataType.DOUBLE, "random walk", randomWalk);
+      bench(encoding, TSDataType.DOUBLE, "repeated", status);
+      bench(encoding, TSDataType.DOUBLE, "uniform noise", noise);
+      bench(encoding, TSDataType.FLOAT, "2-decimal sensor", temperature);
+      bench(encoding, TSDataType.FLOAT, "random walk", randomWalk);
+    }
+    System.out.println("sink " + sink);
+  }
+
+  private static void bench(TSEncoding encoding, TSDataType dataType, String data, double[] values)
+      throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(dataType);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double v : values) {
+      if (dataType == TSDataType.DOUBLE) {
+        encoder.encode(v, out);
+      } else {
+        encoder.encode((float) v, out);
+      }
+    }
+    encoder.flush(out);
+    ByteBuffer page = ByteBuffer.wrap(out.toByteArray());
+
+    for (int i = 0; i < WARM_UP_ROUND; i++) {
+      decode(encoding, dataType, page.duplicate());
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < ROUND; i++) {
+      decode(encoding, dataType, page.duplicate());
+    }
+    long time = System.nanoTime() - start;
+
+    System.out.printf(
+        "%-28s %12.2f %14.1f%n",
+        dataType + "/" + encoding + "/" + data,
+        page.remaining() * 8.0 / values.length,
+        (double) values.length * ROUND * 1000 / time);
+  }
+
+  private static void decode(TSEncoding encoding, TSDataType dataType, ByteBuffer page)
+      throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(encoding, dataType);
+    if (dataType == TSDataType.DOUBLE) {
+      while (decoder.hasNext(page)) {
+        sink += decoder.readDouble(page);
+      }
+    } else {
+      while (decoder.hasNext(page)) {
+        sink += decoder.readFloat(page);
+      }
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionChimpEncoder;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChimpDecoderTest {
+
+  private static final double DELTA = 0;
+
+  private static final List<Float> floatList = new ArrayList<>();
+  private static final List<Double> doubleList = new ArrayList<>();
+  private static final List<Integer> intList = new ArrayList<>();
+  private static final List<Long> longList = new ArrayList<>();
+
+  @BeforeClass
+  public static void setUp() {
+    Random random = new Random(42);
+    double walk = 20.0;
+    for (int i = 0; i < 3000; i++) {
+      switch (i % 3000 / 1000) {
+        case 0:
+          // sensor readings with two decimal places
+          walk += (random.nextInt(21) - 10) / 100.0;
+          doubleList.add(Math.round(walk * 100) / 100.0);
+          floatList.add((float) (Math.round(walk * 100) / 100.0));
+          break;
+        case 1:
+          // runs of repeated values
+          doubleList.add((double) (i / 17));
+          floatList.add((float) (i / 17));
+          break;
+        default:
+          // full-precision random values
+          doubleList.add(random.nextDouble() * 1e6 - 5e5);
+          floatList.add(random.nextFloat() * 1e3f - 5e2f);
+          break;
+      }
+      intList.add(i % 7 == 0 ? random.nextInt() : 1000 + i % 13);
+      longList.add(i % 7 == 0 ? random.nextLong() : (long) Integer.MAX_VALUE + i / 5);
+    }
+    // special values which must survive the xor transformation
+    doubleList.add(0.0);
+    doubleList.add(-0.0);
+    doubleList.add(Double.MAX_VALUE);
+    doubleList.add(Double.MIN_VALUE);
+    doubleList.add(Double.POSITIVE_INFINITY);
+    floatList.add(0.0f);
+    floatList.add(-0.0f);
+    floatList.add(Float.MAX_VALUE);
+    floatList.add(Float.MIN_VALUE);
+    floatList.add(Float.NEGATIVE_INFINITY);
+    intList.add(Integer.MAX_VALUE);
+    intList.add(Integer.MIN_VALUE + 1);
+    longList.add(Long.MAX_VALUE);
+    longList.add(Long.MIN_VALUE + 1);
+  }
+
+  @Test
+  public void testIntSingleValue() throws IOException {
+    Encoder encoder = new IntChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    encoder.encode(777, baos);
+    encoder.flush(baos);
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+
+    Decoder decoder = new IntChimpDecoder();
+    assertTrue(decoder.hasNext(buffer));
+    assertEquals(777, decoder.readInt(buffer));
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testDoubleSingleValue() throws IOException {
+    Encoder encoder = new DoublePrecisionChimpEncoder();
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    encoder.encode(Double.MAX_VALUE, baos);
+    encoder.flush(baos);
+
+    ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+
+    Decoder decoder = new DoublePrecisionChimpDecoder();
+    assertTrue(decoder.hasNext(buffer));
+    assertEquals(Double.MAX_VALUE, decoder.readDouble(buffer), DELTA);
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    for (int repeatCount = 1; repeatCount <= 3; repeatCount++) {
+      Encoder encoder = new SinglePrecisionChimpEncoder();
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      for (int i = 0; i < repeatCount; i++) {
+        for (float value : floatList) {
+          encoder.encode(value, baos);
+        }
+        encoder.flush(baos);
+      }
+
+      ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+      for (int i = 0; i < repeatCount; i++) {
+        Decoder decoder = new SinglePrecisionChimpDecoder();
+        for (float expected : floatList) {
+          if (!decoder.hasNext(buffer)) {
+            fail();
+          }
+          assertEquals(
+              Float.floatToRawIntBits(expected),
+              Float.floatToRawIntBits(decoder.readFloat(buffer)));
+        }
+        assertFalse(decoder.hasNext(buffer));
+      }
+    }
+  }
+
+  @Test
+  public void testDouble() throws IOException {
+    for (int repeatCount = 1; repeatCount <= 3; repeatCount++) {
+      Encoder encoder = new DoublePrecisionChimpEncoder();
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      for (int i = 0; i < repeatCount; i++) {
+        for (double value : doubleList) {
+          encoder.encode(value, baos);
+        }
+        encoder.flush(baos);
+      }
+
+      ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+      for (int i = 0; i < repeatCount; i++) {
+        Decoder decoder = new DoublePrecisionChimpDecoder();
+        for (double expected : doubleList) {
+          if (!decoder.hasNext(buffer)) {
+            fail();
+          }
+          assertEquals(
+              Double.doubleToRawLongBits(expected),
+              Double.doubleToRawLongBits(decoder.readDouble(buffer)));
+        }
+        assertFalse(decoder.hasNext(buffer));
+      }
+    }
+  }
+
+  @Test
+  public void testInteger() throws IOException {
+    for (int repeatCount = 1; repeatCount <= 3; repeatCount++) {
+      Encoder encoder = new IntChimpEncoder();
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      for (int i = 0; i < repeatCount; i++) {
+        for (int value : intList) {
+          encoder.encode(value, baos);
+        }
+        encoder.flush(baos);
+      }
+
+      ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+      for (int i = 0; i < repeatCount; i++) {
+        Decoder decoder = new IntChimpDecoder();
+        for (int expected : intList) {
+          if (!decoder.hasNext(buffer)) {
+            fail();
+          }
+          assertEquals(expected, decoder.readInt(buffer));
+        }
+        assertFalse(decoder.hasNext(buffer));
+      }
+    }
+  }
+
+  @Test
+  public void testLong() throws IOException {
+    for (int repeatCount = 1; repeatCount <= 3; repeatCount++) {
+      Encoder encoder = new LongChimpEncoder();
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      for (int i = 0; i < repeatCount; i++) {
+        for (long value : longList) {
+          encoder.encode(value, baos);
+        }
+        encoder.flush(baos);
+      }
+
+      ByteBuffer buffer = ByteBuffer.wrap(baos.toByteArray());
+      for (int i = 0; i < repeatCount; i++) {
+        Decoder decoder = new LongChimpDecoder();
+        for (long expected : longList) {
+          if (!decoder.hasNext(buffer)) {
+            fail();
+          }
+          assertEquals(expected, decoder.readLong(buffer));
+        }
+        assertFalse(decoder.hasNext(buffer));
+      }
+    }
+  }
+}
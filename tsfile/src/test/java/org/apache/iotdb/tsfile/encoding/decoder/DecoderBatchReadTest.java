@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/** Checks that the batch read methods of the decoders return what reading one by one returns. */
+public class DecoderBatchReadTest {
+
+  private static final int ROW_NUM = 3000;
+  private static final int[] BATCH_SIZES = {1, 7, 128, 1000, ROW_NUM + 1};
+
+  @Test
+  public void testReadLongs() throws IOException {
+    TSEncoding[] encodings = {
+      TSEncoding.PLAIN,
+      TSEncoding.RLE,
+      TSEncoding.TS_2DIFF,
+      TSEncoding.GORILLA,
+      TSEncoding.ZIGZAG,
+      TSEncoding.CHIMP
+    };
+    for (long[] data : longDataSets()) {
+      for (TSEncoding encoding : encodings) {
+        ByteBuffer encoded = encodeLongs(encoding, data);
+        for (int batchSize : BATCH_SIZES) {
+          long[] result = new long[data.length + 1];
+          Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+          ByteBuffer buffer = encoded.duplicate();
+          int count = 0;
+          int read;
+          while ((read =
+                  decoder.readLongs(
+                      buffer, result, 1 + count, Math.min(batchSize, data.length - count)))
+              > 0) {
+            count += read;
+          }
+          assertEquals(encoding + " " + batchSize, data.length, count);
+          for (int i = 0; i < data.length; i++) {
+            assertEquals(encoding + " " + batchSize, data[i], result[i + 1]);
+          }
+          assertFalse(encoding + " " + batchSize, decoder.hasNext(buffer));
+        }
+        Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+        assertArrayEquals(data, decoder.readAllLongs(encoded.duplicate(), 10));
+      }
+    }
+  }
+
+  @Test
+  public void testReadInts() throws IOException {
+    TSEncoding[] encodings = {TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF};
+    for (int[] data : intDataSets()) {
+      for (TSEncoding encoding : encodings) {
+        Encoder encoder =
+            TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.INT32);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int value : data) {
+          encoder.encode(value, out);
+        }
+        encoder.flush(out);
+        for (int batchSize : BATCH_SIZES) {
+          int[] result = new int[data.length];
+          Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+          ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+          int count = 0;
+          int read;
+          while ((read =
+                  decoder.readInts(buffer, result, count, Math.min(batchSize, data.length - count)))
+              > 0) {
+            count += read;
+          }
+          assertEquals(encoding + " " + batchSize, data.length, count);
+          assertArrayEquals(encoding + " " + batchSize, data, result);
+        }
+      }
+    }
+  }
+
+  private static ByteBuffer encodeLongs(TSEncoding encoding, long[] data) throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.INT64);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (long value : data) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  private static long[][] longDataSets() {
+    Random random = new Random(7);
+    long[] timestamps = new long[ROW_NUM];
+    long[] repeated = new long[ROW_NUM];
+    long[] randoms = new long[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      timestamps[i] = 1_600_000_000_000L + i * 1000L + random.nextInt(10);
+      repeated[i] = (i / 50) % 3;
+      randoms[i] = random.nextLong() >> random.nextInt(64);
+    }
+    return new long[][] {timestamps, repeated, randoms};
+  }
+
+  private static int[][] intDataSets() {
+    Random random = new Random(7);
+    int[] repeated = new int[ROW_NUM];
+    int[] randoms = new int[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      repeated[i] = (i / 50) % 3;
+      randoms[i] = random.nextInt() >> random.nextInt(32);
+    }
+    return new int[][] {repeated, randoms};
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Decoding benchmark. Encodes pages of timestamps and sensor-like values with every integer
+ * encoding, then compares the throughput of reading them one value at a time with {@link
+ * Decoder#readLong(ByteBuffer)} / {@link Decoder#readInt(ByteBuffer)} against the batch methods
+ * {@link Decoder#readLongs} / {@link Decoder#readInts}.
+ */
+public class DecoderBenchmark {
+
+  private static final int POINT_NUM_PER_PAGE = 8 * 1024;
+  private static final int BATCH_SIZE = 1024;
+  private static final int WARM_UP_ROUND = 50;
+  private static final int ROUND = 200;
+
+  private static final TSEncoding[] LONG_ENCODINGS = {
+    TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF, TSEncoding.GORILLA, TSEncoding.ZIGZAG
+  };
+  private static final TSEncoding[] INT_ENCODINGS = {
+    TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF, TSEncoding.GORILLA, TSEncoding.ZIGZAG
+  };
+
+  private static long sink;
+
+  public static void main(String[] args) throws IOException {
+    Random random = new Random(1);
+    long[] timestamps = new long[POINT_NUM_PER_PAGE];
+    long[] longValues = new long[POINT_NUM_PER_PAGE];
+    int[] intValues = new int[POINT_NUM_PER_PAGE];
+    long value = 0;
+    for (int i = 0; i < POINT_NUM_PER_PAGE; i++) {
+      timestamps[i] = 1_600_000_000_000L + i * 1000L + random.nextInt(5);
+      value += random.nextInt(100) - 50;
+      longValues[i] = value;
+      intValues[i] = (i / 64) % 8;
+    }
+
+    System.out.printf(
+        "%-22s %14s %14s %8s%n",
+        "type/encoding/data", "single(Mpts/s)", "batch(Mpts/s)", "speedup");
+    for (TSEncoding encoding : LONG_ENCODINGS) {
+      benchLong(encoding, "timestamp", timestamps);
+      benchLong(encoding, "random walk", longValues);
+    }
+    for (TSEncoding encoding : INT_ENCODINGS) {
+      benchInt(encoding, "status", intValues);
+    }
+    System.out.println("sink " + sink);
+  }
+
+  private static void benchLong(TSEncoding encoding, String data, long[] values)
+      throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.INT64);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (long v : values) {
+      encoder.encode(v, out);
+    }
+    encoder.flush(out);
+    ByteBuffer page = ByteBuffer.wrap(out.toByteArray());
+    long[] result = new long[BATCH_SIZE];
+
+    for (int i = 0; i < WARM_UP_ROUND; i++) {
+      readLongOneByOne(encoding, page.duplicate());
+      readLongInBatch(encoding, page.duplicate(), result);
+    }
+    long singleTime = 0;
+    long batchTime = 0;
+    for (int i = 0; i < ROUND; i++) {
+      long start = System.nanoTime();
+      readLongOneByOne(encoding, page.duplicate());
+      singleTime += System.nanoTime() - start;
+      start = System.nanoTime();
+      readLongInBatch(encoding, page.duplicate(), result);
+      batchTime += System.nanoTime() - start;
+    }
+    report("INT64/" + encoding + "/" + data, values.length, singleTime, batchTime);
+  }
+
+  private static void readLongOneByOne(TSEncoding encoding, ByteBuffer page) throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+    while (decoder.hasNext(page)) {
+      sink += decoder.readLong(page);
+    }
+  }
+
+  private static void readLongInBatch(TSEncoding encoding, ByteBuffer page, long[] result)
+      throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+    int read;
+    while ((read = decoder.readLongs(page, result, 0, result.length)) > 0) {
+      sink += result[read - 1];
+    }
+  }
+
+  private static void benchInt(TSEncoding encoding, String data, int[] values) throws IOException {
+    Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.INT32);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int v : values) {
+      encoder.encode(v, out);
+    }
+    encoder.flush(out);
+    ByteBuffer page = ByteBuffer.wrap(out.toByteArray());
+    int[] result = new int[BATCH_SIZE];
+
+    for (int i = 0; i < WARM_UP_ROUND; i++) {
+      readIntOneByOne(encoding, page.duplicate());
+      readIntInBatch(encoding, page.duplicate(), result);
+    }
+    long singleTime = 0;
+    long batchTime = 0;
+    for (int i = 0; i < ROUND; i++) {
+      long start = System.nanoTime();
+      readIntOneByOne(encoding, page.duplicate());
+      singleTime += System.nanoTime() - start;
+      start = System.nanoTime();
+      readIntInBatch(encoding, page.duplicate(), result);
+      batchTime += System.nanoTime() - start;
+    }
+    report("INT32/" + encoding + "/" + data, values.length, singleTime, batchTime);
+  }
+
+  private static void readIntOneByOne(TSEncoding encoding, ByteBuffer page) throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+    while (decoder.hasNext(page)) {
+      sink += decoder.readInt(page);
+    }
+  }
+
+  private static void readIntInBatch(TSEncoding encoding, ByteBuffer page, int[] result)
+      throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+    int read;
+    while ((read = decoder.readInts(page, result, 0, result.length)) > 0) {
+      sink += result[read - 1];
+    }
+  }
+
+  private static void report(String name, int pointNum, long singleTime, long batchTime) {
+    double points = (double) pointNum * ROUND;
+    System.out.printf(
+        "%-22s %14.1f %14.1f %7.2fx%n",
+        name,
+        points * 1000 / singleTime,
+        points * 1000 / batchTime,
+        (double) singleTime / batchTime);
+  }
+}
@@ -22,6 +22,7 @@ import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.constant.TestConstant;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.read.common.CoalescedReadStatistics;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.FileGenerator;
 
@@ -32,9 +33,14 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 public class TimeSeriesMetadataReadTest {
 
@@ -91,4 +97,42 @@ public class TimeSeriesMetadataReadTest {
       Assert.assertEquals("s" + i, timeseriesMetadataList.get(i - 5).getMeasurementId());
     }
   }
+
+  @Test
+  public void testReadTimeseriesMetadataOfManyDevices() throws IOException {
+    // with max degree 3, both the device index and the measurement index have internal nodes
+    FileGenerator.generateFile(10, 10, 10);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FileGenerator.outputDataFile)) {
+      Map<String, Set<String>> deviceMeasurements = new HashMap<>();
+      for (String device : new String[] {"d00", "d03", "d04", "d09"}) {
+        deviceMeasurements.put(device, new HashSet<>(Arrays.asList("s01", "s02", "s07", "s10")));
+      }
+      // this device doesn't exist, neither does s10 above
+      deviceMeasurements.put("d10", new HashSet<>(Collections.singletonList("s01")));
+
+      CoalescedReadStatistics statistics = new CoalescedReadStatistics();
+      Map<String, List<TimeseriesMetadata>> result =
+          reader.readTimeseriesMetadata(deviceMeasurements, 4096, statistics);
+
+      Assert.assertEquals(4, result.size());
+      for (Map.Entry<String, Set<String>> entry : deviceMeasurements.entrySet()) {
+        Set<String> expected = new TreeSet<>();
+        for (String measurement : entry.getValue()) {
+          for (TimeseriesMetadata timeseriesMetadata :
+              reader.readTimeseriesMetadata(
+                  new Path(entry.getKey(), measurement), entry.getValue())) {
+            expected.add(timeseriesMetadata.getMeasurementId());
+          }
+        }
+        Set<String> actual = new TreeSet<>();
+        for (TimeseriesMetadata timeseriesMetadata :
+            result.getOrDefault(entry.getKey(), Collections.emptyList())) {
+          actual.add(timeseriesMetadata.getMeasurementId());
+        }
+        Assert.assertEquals(expected, actual);
+      }
+      Assert.assertTrue(statistics.getPhysicalReadCount() > 0);
+      Assert.assertTrue(statistics.getPhysicalReadCount() < statistics.getLogicalReadCount());
+    }
+  }
 }
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorForTest;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.Schema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ValueIndexReadTest {
+
+  private static final int PAGE_NUM = 50;
+  private static final int POINT_NUM_IN_PAGE = 100;
+
+  private final String filePath = TsFileGeneratorForTest.getTestTsFilePath("root.sg1", 0, 0, 2);
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private final Path longPath = new Path("d1", "s1");
+  private final Path textPath = new Path("d1", "s2");
+
+  private int oldPointNumInPage;
+  private boolean oldEnableValueIndex;
+
+  @Before
+  public void setUp() {
+    oldPointNumInPage = config.getMaxNumberOfPointsInPage();
+    oldEnableValueIndex = config.isEnableValueIndex();
+    config.setMaxNumberOfPointsInPage(POINT_NUM_IN_PAGE);
+    File file = new File(filePath);
+    if (!file.getParentFile().exists()) {
+      Assert.assertTrue(file.getParentFile().mkdirs());
+    }
+  }
+
+  @After
+  public void tearDown() {
+    config.setMaxNumberOfPointsInPage(oldPointNumInPage);
+    config.setEnableValueIndex(oldEnableValueIndex);
+    new File(filePath).delete();
+  }
+
+  /**
+   * in each page, s1 alternates between 0 and 1000 except one point whose value is the index of the
+   * page plus 1, so the statistics of all the pages cover the values of the other pages. All the
+   * values of s2 are distinct.
+   */
+  private void writeFile(boolean enableValueIndex) throws IOException, WriteProcessException {
+    config.setEnableValueIndex(enableValueIndex);
+    try (TsFileWriter writer = new TsFileWriter(new File(filePath), new Schema(), config)) {
+      writer.registerTimeseries(
+          new Path("d1"),
+          new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE, CompressionType.SNAPPY));
+      writer.registerTimeseries(
+          new Path("d1"),
+          new MeasurementSchema("s2", TSDataType.TEXT, TSEncoding.PLAIN, CompressionType.SNAPPY));
+      for (int page = 0; page < PAGE_NUM; page++) {
+        for (int i = 0; i < POINT_NUM_IN_PAGE; i++) {
+          long time = (long) page * POINT_NUM_IN_PAGE + i;
+          long value = i == POINT_NUM_IN_PAGE / 2 ? page + 1 : (i % 2) * 1000;
+          TSRecord record = new TSRecord(time, "d1");
+          record.addTuple(new LongDataPoint("s1", value));
+          record.addTuple(new StringDataPoint("s2", new Binary("v" + time)));
+          writer.write(record);
+        }
+      }
+    }
+  }
+
+  private int countSatisfiedPages(TsFileSequenceReader reader, Path path, Filter filter)
+      throws IOException {
+    int pageNum = 0;
+    for (ChunkMetadata chunkMetadata : reader.getChunkMetadataList(path)) {
+      ChunkReader chunkReader = new ChunkReader(reader.readMemChunk(chunkMetadata), filter);
+      pageNum += chunkReader.loadPageReaderList().size();
+    }
+    return pageNum;
+  }
+
+  private int countResults(TsFileSequenceReader reader, Path path, Filter filter)
+      throws IOException {
+    TsFileReader tsFileReader = new TsFileReader(reader);
+    QueryDataSet dataSet =
+        tsFileReader.query(
+            QueryExpression.create(
+                Collections.singletonList(path), new SingleSeriesExpression(path, filter)));
+    int count = 0;
+    while (dataSet.hasNext()) {
+      RowRecord record = dataSet.next();
+      Field field = record.getFields().get(0);
+      Assert.assertTrue(
+          filter.satisfy(record.getTimestamp(), field.getObjectValue(field.getDataType())));
+      count++;
+    }
+    return count;
+  }
+
+  @Test
+  public void testSkipPagesByDistinctValues() throws IOException, WriteProcessException {
+    writeFile(true);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+      Assert.assertTrue(reader.readFileMetadata().getValueIndexOffset() > 0);
+
+      Filter filter = ValueFilter.eq(8L);
+      Assert.assertEquals(1, countSatisfiedPages(reader, longPath, filter));
+      Assert.assertEquals(1, countResults(reader, longPath, filter));
+
+      Set<Long> values = new HashSet<>();
+      values.add(3L);
+      values.add(30L);
+      values.add(300L);
+      filter = ValueFilter.in(values, false);
+      Assert.assertEquals(2, countSatisfiedPages(reader, longPath, filter));
+      Assert.assertEquals(2, countResults(reader, longPath, filter));
+
+      // values appearing in all the pages
+      filter = ValueFilter.eq(1000L);
+      Assert.assertEquals(PAGE_NUM, countSatisfiedPages(reader, longPath, filter));
+      // the value index does not help negative predicates
+      filter = ValueFilter.in(values, true);
+      Assert.assertEquals(PAGE_NUM, countSatisfiedPages(reader, longPath, filter));
+    }
+  }
+
+  @Test
+  public void testSkipPagesByBloomFilter() throws IOException, WriteProcessException {
+    writeFile(true);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+      Filter filter = ValueFilter.eq(new Binary("v1234"));
+      int pageNum = countSatisfiedPages(reader, textPath, filter);
+      Assert.assertTrue(pageNum >= 1 && pageNum < PAGE_NUM / 2);
+      Assert.assertEquals(1, countResults(reader, textPath, filter));
+
+      filter = ValueFilter.eq(new Binary("absent"));
+      Assert.assertTrue(countSatisfiedPages(reader, textPath, filter) < PAGE_NUM / 2);
+      Assert.assertEquals(0, countResults(reader, textPath, filter));
+    }
+  }
+
+  @Test
+  public void testFileWithoutValueIndex() throws IOException, WriteProcessException {
+    writeFile(false);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(filePath)) {
+      Assert.assertEquals(-1, reader.readFileMetadata().getValueIndexOffset());
+      Filter filter = ValueFilter.eq(8L);
+      for (ChunkMetadata chunkMetadata : reader.getChunkMetadataList(longPath)) {
+        Assert.assertNull(reader.readChunkValueIndex(chunkMetadata.getOffsetOfChunkHeader()));
+      }
+      Assert.assertEquals(PAGE_NUM, countSatisfiedPages(reader, longPath, filter));
+      Assert.assertEquals(1, countResults(reader, longPath, filter));
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileReader;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.FileGenerator;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MappedTsFileInputTest {
+
+  private static final String FILE_PATH = FileGenerator.outputDataFile;
+  /** small enough to make chunks cross the border of segments */
+  private static final int SEGMENT_SIZE = 1000;
+
+  @Before
+  public void before() throws IOException {
+    FileGenerator.generateFile(1000, 100);
+  }
+
+  @After
+  public void after() {
+    FileGenerator.after();
+  }
+
+  @Test
+  public void testPositionalRead() throws IOException {
+    LocalTsFileInput expected = new LocalTsFileInput(Paths.get(FILE_PATH));
+    MappedTsFileInput actual = new MappedTsFileInput(Paths.get(FILE_PATH), SEGMENT_SIZE);
+    try {
+      Assert.assertEquals(expected.size(), actual.size());
+      for (long position = 0; position < expected.size(); position += 377) {
+        ByteBuffer expectedBuffer = ByteBuffer.allocate(1500);
+        ByteBuffer actualBuffer = ByteBuffer.allocate(1500);
+        Assert.assertEquals(
+            expected.read(expectedBuffer, position), actual.read(actualBuffer, position));
+        expectedBuffer.flip();
+        actualBuffer.flip();
+        Assert.assertEquals(expectedBuffer, actualBuffer);
+
+        int length = (int) Math.min(1500, expected.size() - position);
+        ByteBuffer slice = actual.slice(position, length);
+        Assert.assertEquals(0, slice.position());
+        Assert.assertEquals(length, slice.limit());
+        Assert.assertEquals(expectedBuffer, slice);
+      }
+      Assert.assertEquals(-1, actual.read(ByteBuffer.allocate(1), expected.size()));
+    } finally {
+      expected.close();
+      actual.close();
+    }
+
+    try {
+      actual.slice(0, 1);
+      Assert.fail();
+    } catch (ClosedChannelException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testSequentialRead() throws IOException {
+    LocalTsFileInput expected = new LocalTsFileInput(Paths.get(FILE_PATH));
+    MappedTsFileInput actual = new MappedTsFileInput(Paths.get(FILE_PATH), SEGMENT_SIZE);
+    try {
+      expected.position(10);
+      actual.position(10);
+      while (true) {
+        ByteBuffer expectedBuffer = ByteBuffer.allocate(999);
+        ByteBuffer actualBuffer = ByteBuffer.allocate(999);
+        int readSize = expected.read(expectedBuffer);
+        Assert.assertEquals(readSize, actual.read(actualBuffer));
+        Assert.assertEquals(expected.position(), actual.position());
+        if (readSize <= 0) {
+          break;
+        }
+        expectedBuffer.flip();
+        actualBuffer.flip();
+        Assert.assertEquals(expectedBuffer, actualBuffer);
+      }
+    } finally {
+      expected.close();
+      actual.close();
+    }
+  }
+
+  @Test
+  public void testReadChunkAndQuery() throws IOException {
+    try (TsFileSequenceReader expected = new TsFileSequenceReader(FILE_PATH);
+        TsFileSequenceReader actual =
+            new TsFileSequenceReader(new MappedTsFileInput(Paths.get(FILE_PATH), SEGMENT_SIZE))) {
+      for (String device : expected.getAllDevices()) {
+        for (ChunkMetadata chunkMetadata : expected.getChunkMetadataList(new Path(device, "s1"))) {
+          Chunk expectedChunk = expected.readMemChunk(chunkMetadata);
+          Chunk actualChunk = actual.readMemChunk(chunkMetadata);
+          Assert.assertEquals(
+              expectedChunk.getHeader().getDataSize(), actualChunk.getHeader().getDataSize());
+          Assert.assertEquals(expectedChunk.getData(), actualChunk.getData());
+        }
+      }
+    }
+
+    TsFileReader tsFileReader =
+        new TsFileReader(
+            new TsFileSequenceReader(new MappedTsFileInput(Paths.get(FILE_PATH), SEGMENT_SIZE)));
+    List<Path> pathList = new ArrayList<>();
+    pathList.add(new Path("d1", "s1"));
+    pathList.add(new Path("d2", "s2"));
+    QueryDataSet dataSet = tsFileReader.query(QueryExpression.create(pathList, null));
+    int count = 0;
+    while (dataSet.hasNext()) {
+      dataSet.next();
+      count++;
+    }
+    tsFileReader.close();
+    Assert.assertEquals(750, count);
+  }
+}